@@ -0,0 +1,79 @@
+package com.esse.crm.config.json;
+
+import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.ContactDTO;
+import com.esse.crm.dto.activity.ActivityDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding 500-row account, contact and activity pages as JSON, CBOR and Smile, each with the mapper
+ * {@link JacksonConfig} gives the API. Decoding reads the page envelope back into its DTOs, as a client would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"accounts", "contacts", "activities"})
+    public String records;
+
+    private ObjectMapper mapper;
+    private Page<?> page;
+    private TypeReference<?> type;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "json" -> PageFixtures.configured().build();
+            case "cbor" -> PageFixtures.configured().factory(new CBORFactory()).build();
+            case "smile" -> PageFixtures.configured().factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        switch (records) {
+            case "accounts" -> {
+                page = PageFixtures.page(PageFixtures.accounts(500));
+                type = new TypeReference<PageBody<AccountDTO>>() { };
+            }
+            case "contacts" -> {
+                page = PageFixtures.page(PageFixtures.contacts(500));
+                type = new TypeReference<PageBody<ContactDTO>>() { };
+            }
+            case "activities" -> {
+                page = PageFixtures.page(PageFixtures.activities(500, 0L));
+                type = new TypeReference<PageBody<ActivityDTO>>() { };
+            }
+            default -> throw new IllegalArgumentException(records);
+        }
+        encoded = mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public void encode() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return mapper.readValue(encoded, type);
+    }
+
+    record PageBody<T>(List<T> content, int number, int size, long totalElements, int totalPages) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.esse.crm.config.json;
+
+import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.dto.ContactDTO;
+import com.esse.crm.dto.activity.ActivityDTO;
+import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.dto.opportunity.OpportunityDTO;
+import com.esse.crm.dto.opportunity.OpportunityStage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pages of realistic DTOs for the serialization benchmarks.
+ */
+final class PageFixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 9, 30);
+
+    private PageFixtures() {
+    }
+
+    /** The mapper {@link JacksonConfig} gives Spring MVC. */
+    static Jackson2ObjectMapperBuilder configured() {
+        JacksonConfig config = new JacksonConfig();
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(config.blackbirdModule(), config.compactPageModule());
+    }
+
+    static <T> Page<T> page(List<T> content) {
+        return new PageImpl<>(content, PageRequest.of(0, content.size()), 10_000);
+    }
+
+    static List<AccountDTO> accounts(int count) {
+        List<AccountDTO> accounts = new ArrayList<>();
+        for (long id = 0; id < count; id++) {
+            accounts.add(AccountDTO.builder()
+                    .id(id)
+                    .accountName("Account " + id)
+                    .industry("Manufacturing")
+                    .website("https://account" + id + ".example.com")
+                    .phone("+1 555 0100 " + id)
+                    .billingAddress(id + " Industrial Way, Springfield")
+                    .status(AccountStatus.ACTIVE)
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .createdBy("admin")
+                    .updatedBy("admin")
+                    .build());
+        }
+        return accounts;
+    }
+
+    static List<ContactDTO> contacts(int count) {
+        List<ContactDTO> contacts = new ArrayList<>();
+        for (long id = 0; id < count; id++) {
+            contacts.add(ContactDTO.builder()
+                    .id(id)
+                    .firstName("First" + id)
+                    .lastName("Last" + id)
+                    .email("contact" + id + "@example.com")
+                    .phone("+1 555 0200 " + id)
+                    .jobTitle("Procurement Manager")
+                    .accountIds(List.of(id % 50))
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .build());
+        }
+        return contacts;
+    }
+
+    static List<OpportunityDTO> opportunities(int count) {
+        List<OpportunityDTO> opportunities = new ArrayList<>();
+        for (long id = 0; id < count; id++) {
+            opportunities.add(OpportunityDTO.builder()
+                    .id(id)
+                    .name("Deal " + id)
+                    .stage(OpportunityStage.values()[(int) (id % OpportunityStage.values().length)])
+                    .amount(BigDecimal.valueOf(1000 + id, 2))
+                    .closeDate(LocalDate.of(2024, 6, 30))
+                    .probability(40)
+                    .accountId(id % 50)
+                    .activities(activities(3, id))
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .build());
+        }
+        return opportunities;
+    }
+
+    static List<ActivityDTO> activities(int count, long opportunityId) {
+        List<ActivityDTO> activities = new ArrayList<>();
+        for (long a = 0; a < count; a++) {
+            activities.add(ActivityDTO.builder()
+                    .id(opportunityId * 10 + a)
+                    .type(ActivityType.values()[(int) (a % ActivityType.values().length)])
+                    .subject("Follow-up " + a)
+                    .description("Discussed pricing and next steps with the buying committee")
+                    .dueAt(NOW.plusDays(a))
+                    .opportunityId(opportunityId)
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .build());
+        }
+        return activities;
+    }
+}
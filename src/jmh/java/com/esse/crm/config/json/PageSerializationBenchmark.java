@@ -0,0 +1,48 @@
+package com.esse.crm.config.json;
+
+import com.esse.crm.dto.opportunity.OpportunityDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a 1000-row opportunity page: Spring's default mapper writing {@code PageImpl} against the mapper
+ * {@link JacksonConfig} configures (Blackbird accessors and the compact page envelope).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageSerializationBenchmark {
+
+    private ObjectMapper defaultMapper;
+    private ObjectMapper configuredMapper;
+    private Page<OpportunityDTO> page;
+
+    @Setup
+    public void setUp() {
+        defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+        configuredMapper = PageFixtures.configured().build();
+        page = new PageImpl<>(PageFixtures.opportunities(1000), PageRequest.of(0, 1000, Sort.by("name")), 25_000);
+    }
+
+    @Benchmark
+    public void springDefault() throws IOException {
+        defaultMapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+
+    @Benchmark
+    public void configured() throws IOException {
+        configuredMapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+}
@@ -0,0 +1,102 @@
+package com.esse.crm.config.querylog;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page query on an in-memory H2 database, tagged, bound and read column by column as Hibernate does, straight
+ * from the data source and through {@link QueryLoggingDataSource}. H2 answers in microseconds, so the difference is close
+ * to the logging's full cost per statement; against a networked database it is the same in absolute terms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryLoggingBenchmark {
+
+    private static final String QUERY = "select id, email, first_name, last_name, company, status, source, score, "
+            + "owner_user, created_at from leads where status = ? and score >= ? order by id limit ?";
+
+    @Param({"20", "200"})
+    public int rows;
+
+    private DataSource plain;
+    private DataSource logged;
+    private String query;
+    private Connection keepAlive;
+
+    @Setup
+    public void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:querylog;DB_CLOSE_DELAY=-1");
+        plain = h2;
+        QueryLogProperties properties = new QueryLogProperties();
+        QueryLog queryLog = new QueryLog(properties, Runnable::run);
+        logged = new QueryLoggingDataSource(h2, queryLog);
+        query = queryLog.tag(QUERY);
+        keepAlive = h2.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("create table if not exists leads (id bigint primary key, email varchar(255), "
+                    + "first_name varchar(100), last_name varchar(100), company varchar(255), status varchar(20), "
+                    + "source varchar(50), score int, owner_user varchar(100), created_at timestamp)");
+            statement.execute("delete from leads");
+        }
+        try (PreparedStatement insert = keepAlive.prepareStatement(
+                "insert into leads values (?, ?, 'Ada', 'Lovelace', 'Acme', 'NEW', 'WEB', 50, 'carol', current_timestamp)")) {
+            for (long id = 1; id <= 1000; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "lead" + id + "@example.com");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        keepAlive.close();
+    }
+
+    @Benchmark
+    public long plain() throws SQLException {
+        return page(plain);
+    }
+
+    @Benchmark
+    public long logged() throws SQLException {
+        return page(logged);
+    }
+
+    private long page(DataSource dataSource) throws SQLException {
+        long checksum = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, "NEW");
+            statement.setInt(2, 10);
+            statement.setInt(3, rows);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    checksum += resultSet.getLong(1);
+                    for (int column = 2; column <= 7; column++) {
+                        String value = resultSet.getString(column);
+                        checksum += value != null ? value.length() : 0;
+                    }
+                    checksum += resultSet.getInt(8);
+                    checksum += resultSet.getString(9).length();
+                    checksum += resultSet.getTimestamp(10).getNanos();
+                }
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,83 @@
+package com.esse.crm.security.authz;
+
+import com.esse.crm.security.dto.UserPrincipal;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of an authorization check: the {@code @RequiresPermission} bit test against the {@code @PreAuthorize} SpEL
+ * evaluation it replaces, deciding the same method for the same principal, and the per-request cost of compiling
+ * the principal's authorities, which the JWT filter pays on every request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionCheckBenchmark {
+
+    private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList(
+            "ROLE_USER", "ACCOUNT_READ", "ACCOUNT_WRITE", "CONTACT_READ", "CONTACT_WRITE",
+            "LEAD_READ", "LEAD_WRITE", "DEAL_READ", "DEAL_WRITE");
+
+    private PermissionIndex index;
+    private PermissionAuthorizationManager bitTest;
+    private PreAuthorizeAuthorizationManager spel;
+    private Supplier<Authentication> authentication;
+    private MethodInvocation requiresPermission;
+    private MethodInvocation preAuthorized;
+
+    @Setup
+    public void setUp() throws Exception {
+        index = new PermissionIndex(null, null);
+        bitTest = new PermissionAuthorizationManager(() -> index);
+        spel = new PreAuthorizeAuthorizationManager();
+        UserPrincipal principal = UserPrincipal.builder()
+                .username("user")
+                .authorities(AUTHORITIES)
+                .permissionBits(index.compile(AUTHORITIES))
+                .build();
+        Authentication token = new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES);
+        authentication = () -> token;
+        requiresPermission = new SimpleMethodInvocation(new Secured(), Secured.class.getMethod("readDeals"));
+        preAuthorized = new SimpleMethodInvocation(new Secured(), Secured.class.getMethod("readDealsPreAuthorized"));
+    }
+
+    @Benchmark
+    public boolean requiresPermission() {
+        return bitTest.check(authentication, requiresPermission).isGranted();
+    }
+
+    @Benchmark
+    public boolean preAuthorize() {
+        return spel.check(authentication, preAuthorized).isGranted();
+    }
+
+    @Benchmark
+    public long[] compileAuthorities() {
+        return index.compile(AUTHORITIES);
+    }
+
+    public static class Secured {
+
+        @RequiresPermission("DEAL_READ")
+        public void readDeals() {
+        }
+
+        @PreAuthorize("hasAuthority('DEAL_READ')")
+        public void readDealsPreAuthorized() {
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.esse.crm.security.service;
+
+import com.esse.crm.security.entity.AppUser;
+import com.esse.crm.security.entity.Permission;
+import com.esse.crm.security.entity.Role;
+import com.esse.crm.security.repository.JwtSigningKeyRepository;
+import com.esse.crm.security.repository.PermissionRepository;
+import com.esse.crm.security.repository.RoleRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parsing an admin's HS256 access token and reading its authorities: the compact {@code az} claim against the
+ * plain authority list it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorityClaimBenchmark {
+
+    private JwtService jwtService;
+    private String compact;
+    private String list;
+
+    @Setup
+    public void setUp() {
+        List<Permission> permissions = new ArrayList<>();
+        for (String name : List.of("ACCOUNT_READ", "ACCOUNT_WRITE", "CONTACT_READ", "CONTACT_WRITE", "DEAL_READ",
+                "DEAL_WRITE", "ACTIVITY_READ", "ACTIVITY_WRITE", "LEAD_READ", "LEAD_WRITE", "USER_MANAGE",
+                "CHANGE_FEED_READ")) {
+            permissions.add(Permission.builder().id((long) permissions.size() + 1).name(name).build());
+        }
+        Role admin = Role.builder().id(1L).name("ADMIN").permissions(new HashSet<>(permissions)).build();
+        PermissionRepository permissionRepository = mock(PermissionRepository.class);
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(permissionRepository.findAll()).thenReturn(permissions);
+        when(roleRepository.findAll()).thenReturn(List.of(admin));
+
+        jwtService = new JwtService(new AuthorityClaimCodec(permissionRepository, roleRepository, Duration.ZERO),
+                new JwtKeyRing(mock(JwtSigningKeyRepository.class), mock(TransactionTemplate.class), "HS256", "",
+                        Duration.ofDays(7), Duration.ofDays(1), Duration.ZERO));
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 900000L);
+        ReflectionTestUtils.setField(jwtService, "algorithm", "HS256");
+        ReflectionTestUtils.setField(jwtService, "acceptedAlgorithms", Set.of("HS256"));
+
+        compact = jwtService.generateToken(AppUser.builder().id(1L).username("admin").password("x")
+                .email("admin@example.com").roles(Set.of(admin)).build());
+        List<String> names = new ArrayList<>(List.of("ROLE_ADMIN"));
+        permissions.forEach(permission -> names.add(permission.getName()));
+        list = jwtService.generateToken(User.withUsername("admin").password("x")
+                .authorities(names.toArray(String[]::new)).build());
+    }
+
+    @Benchmark
+    public List<String> compactClaim() {
+        return jwtService.extractAuthorities(compact);
+    }
+
+    @Benchmark
+    public List<String> authorityList() {
+        return jwtService.extractAuthorities(list);
+    }
+}
@@ -0,0 +1,121 @@
+package com.esse.crm.security.service;
+
+import com.esse.crm.security.entity.JwtSigningKey;
+import com.esse.crm.security.repository.JwtSigningKeyRepository;
+import com.esse.crm.security.repository.PermissionRepository;
+import com.esse.crm.security.repository.RoleRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Access-token verification per signature algorithm: the full parse through {@link JwtService} for HS256 and ES256,
+ * and the bare signature check for ES256 and Ed25519 (EdDSA, which jjwt 0.11 cannot issue).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignatureVerificationBenchmark {
+
+    private JwtService hmac;
+    private JwtService ecdsa;
+    private String hs256;
+    private String es256;
+    private SignedPayload ecdsaSignature;
+    private SignedPayload eddsaSignature;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        String keyEncryptionKey = Base64.getEncoder().encodeToString(new byte[32]);
+        JwtSigningKey signingKey = JwtKeyRing.generate(LocalDateTime.now(), SigningKeyCipher.of(keyEncryptionKey));
+        JwtSigningKeyRepository repository = mock(JwtSigningKeyRepository.class);
+        when(repository.findAllByOrderByCreatedAtDesc()).thenReturn(List.of(signingKey));
+        JwtKeyRing keyRing = new JwtKeyRing(repository, mock(TransactionTemplate.class), "ES256", keyEncryptionKey,
+                Duration.ofDays(7), Duration.ofDays(1), Duration.ZERO);
+        hmac = jwtService("HS256", keyRing);
+        ecdsa = jwtService("ES256", keyRing);
+
+        UserDetails user = User.withUsername("admin").password("x").authorities("LEAD_READ").build();
+        hs256 = hmac.generateToken(user);
+        es256 = ecdsa.generateToken(user);
+        byte[] payload = es256.substring(0, es256.lastIndexOf('.')).getBytes(StandardCharsets.US_ASCII);
+        ecdsaSignature = SignedPayload.of("EC", new ECGenParameterSpec("secp256r1"), "SHA256withECDSA", payload);
+        eddsaSignature = SignedPayload.of("Ed25519", null, "Ed25519", payload);
+    }
+
+    @Benchmark
+    public String tokenHs256() {
+        return hmac.extractUsername(hs256);
+    }
+
+    @Benchmark
+    public String tokenEs256() {
+        return ecdsa.extractUsername(es256);
+    }
+
+    @Benchmark
+    public boolean signatureEs256() throws GeneralSecurityException {
+        return ecdsaSignature.verify();
+    }
+
+    @Benchmark
+    public boolean signatureEd25519() throws GeneralSecurityException {
+        return eddsaSignature.verify();
+    }
+
+    private static JwtService jwtService(String algorithm, JwtKeyRing keyRing) {
+        JwtService service = new JwtService(new AuthorityClaimCodec(mock(PermissionRepository.class),
+                mock(RoleRepository.class), Duration.ZERO), keyRing);
+        ReflectionTestUtils.setField(service, "secretKey",
+                "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(service, "jwtExpiration", 900000L);
+        ReflectionTestUtils.setField(service, "algorithm", algorithm);
+        ReflectionTestUtils.setField(service, "acceptedAlgorithms", Set.of(algorithm));
+        return service;
+    }
+
+    private record SignedPayload(Signature verifier, byte[] payload, byte[] signature) {
+
+        static SignedPayload of(String keyAlgorithm, AlgorithmParameterSpec spec, String algorithm, byte[] payload)
+                throws GeneralSecurityException {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+            if (spec != null) {
+                generator.initialize(spec);
+            }
+            KeyPair pair = generator.generateKeyPair();
+            Signature signer = Signature.getInstance(algorithm);
+            signer.initSign(pair.getPrivate());
+            signer.update(payload);
+            Signature verifier = Signature.getInstance(algorithm);
+            verifier.initVerify(pair.getPublic());
+            return new SignedPayload(verifier, payload, signer.sign());
+        }
+
+        boolean verify() throws GeneralSecurityException {
+            verifier.update(payload);
+            return verifier.verify(signature);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.esse.crm.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Duplicate scans are best effort: when the queue is full new scans are dropped rather than
+     * pushed back onto request threads.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dedupExecutor(TaskDecorator tenantTaskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setTaskDecorator(tenantTaskDecorator);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("lead-dedup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        return executor;
+    }
+
+    /**
+     * Walks live stage events to the SSE subscribers they match and hands them to {@link #stageFeedSenderExecutor}.
+     * Each subscriber has at most one task queued, so the queue never needs to exceed the subscriber limit.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor stageFeedExecutor(
+            @Value("${application.opportunities.stage-feed.dispatcher-threads:4}") int threads,
+            @Value("${application.opportunities.stage-feed.max-subscribers:10000}") int maxSubscribers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxSubscribers);
+        executor.setThreadNamePrefix("stage-feed-");
+        return executor;
+    }
+
+    /**
+     * Writes live stage events to SSE connections. A write to a client that stopped reading blocks its thread, so
+     * this pool is kept apart from the dispatchers and sized for a few stalled clients at once; the feed drops
+     * those after the send timeout. At most one batch and one resync per subscriber are queued.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor stageFeedSenderExecutor(
+            @Value("${application.opportunities.stage-feed.sender-threads:16}") int threads,
+            @Value("${application.opportunities.stage-feed.max-subscribers:10000}") int maxSubscribers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxSubscribers * 2);
+        executor.setThreadNamePrefix("stage-feed-send-");
+        return executor;
+    }
+
+    /**
+     * Password hashing and verification. One thread per core (unless configured) bounds the CPU a login storm can
+     * take; the short queue is shed rather than left to grow, see {@code BoundedPasswordEncoder}.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${application.security.password-hashing.threads:0}") int threads,
+            @Value("${application.security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+}
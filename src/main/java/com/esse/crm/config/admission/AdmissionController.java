@@ -0,0 +1,62 @@
+package com.esse.crm.config.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds one adaptive limiter per endpoint class so slow searches cannot take the connections cheap CRUD calls need.
+ */
+@Component
+public class AdmissionController {
+
+    private final Map<EndpointClass, AimdLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Timer> latencies = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionController(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdmissionProperties.Limit limit = properties.getLimits().get(endpointClass);
+            AimdLimiter limiter = new AimdLimiter(limit.getInitial(), limit.getMin(), limit.getMax(),
+                    limit.getTargetLatency(), properties.getBackoffRatio());
+            limiters.put(endpointClass, limiter);
+
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("crm.admission.limit", limiter, AimdLimiter::getLimit)
+                    .tag("endpoint.class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("crm.admission.in-flight", limiter, AimdLimiter::getInFlight)
+                    .tag("endpoint.class", tag)
+                    .register(meterRegistry);
+            rejections.put(endpointClass, Counter.builder("crm.admission.rejected")
+                    .tag("endpoint.class", tag)
+                    .register(meterRegistry));
+            latencies.put(endpointClass, Timer.builder("crm.admission.latency")
+                    .tag("endpoint.class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean tryAcquire(EndpointClass endpointClass) {
+        if (limiters.get(endpointClass).tryAcquire()) {
+            return true;
+        }
+        rejections.get(endpointClass).increment();
+        return false;
+    }
+
+    public void release(EndpointClass endpointClass, long latencyNanos, boolean failed) {
+        limiters.get(endpointClass).release(latencyNanos, failed);
+        latencies.get(endpointClass).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public AimdLimiter getLimiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
@@ -0,0 +1,45 @@
+package com.esse.crm.config.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "application.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * GET requests asking for at least this many rows are treated as exports.
+     */
+    private int exportPageSize = 500;
+
+    private double backoffRatio = 0.9;
+
+    private Map<EndpointClass, Limit> limits = defaultLimits();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int initial;
+        private int min;
+        private int max;
+        private Duration targetLatency;
+    }
+
+    private static Map<EndpointClass, Limit> defaultLimits() {
+        Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+        limits.put(EndpointClass.CRUD, new Limit(40, 5, 100, Duration.ofMillis(100)));
+        limits.put(EndpointClass.SEARCH, new Limit(10, 2, 40, Duration.ofMillis(500)));
+        limits.put(EndpointClass.AUTH, new Limit(8, 2, 32, Duration.ofMillis(300)));
+        limits.put(EndpointClass.EXPORT, new Limit(2, 1, 4, Duration.ofSeconds(5)));
+        return limits;
+    }
+}
@@ -0,0 +1,76 @@
+package com.esse.crm.config.admission;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that adapts to observed latency (additive increase, multiplicative decrease).
+ * <p>
+ * Each completion within the target latency grows the limit by {@code 1/limit}, so roughly one slot per limit's
+ * worth of fast requests, but only while the limiter is actually busy. A slow or failed completion shrinks the
+ * limit by the backoff ratio, at most once per round trip and never twice within the target latency: requests
+ * that were already running when the limit was last cut were admitted under the old limit, so their slowness says
+ * nothing about the new one. A burst of slow completions therefore costs one backoff step, not one per request.
+ * Requests beyond the limit are refused instead of queued.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseAt;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration targetLatency, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, targetLatency, backoffRatio, System::nanoTime);
+    }
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration targetLatency, double backoffRatio,
+                LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.nanoClock = nanoClock;
+        // As if the last decrease was long ago; kept finite so the differences above cannot overflow
+        this.lastDecreaseAt = nanoClock.getAsLong() - Long.MAX_VALUE / 2;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos, boolean failed) {
+        boolean saturated = inFlight * 2 >= (int) limit;
+        inFlight--;
+        if (failed || latencyNanos > targetLatencyNanos) {
+            long now = nanoClock.getAsLong();
+            if (now - latencyNanos - lastDecreaseAt >= 0 && now - lastDecreaseAt >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseAt = now;
+            }
+        } else if (saturated) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
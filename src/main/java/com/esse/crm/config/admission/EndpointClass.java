@@ -0,0 +1,5 @@
+package com.esse.crm.config.admission;
+
+public enum EndpointClass {
+    SEARCH, CRUD, AUTH, EXPORT
+}
@@ -0,0 +1,50 @@
+package com.esse.crm.config.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
+
+/**
+ * Buckets API requests by the kind of database work they cause.
+ */
+public final class EndpointClassifier {
+
+    private static final Pattern ENDS_WITH_ID = Pattern.compile(".*/\\d+$");
+
+    private EndpointClassifier() {
+    }
+
+    public static EndpointClass classify(HttpServletRequest request, int exportPageSize) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/")) {
+            return EndpointClass.AUTH;
+        }
+        // Bulk updates run for as long as an export, so they share its small limit rather than crowd out CRUD
+        if (path.endsWith("/bulk")) {
+            return EndpointClass.EXPORT;
+        }
+        // A multi-get is a read of many rows however it is sent
+        if (path.endsWith("/multi-get")) {
+            return EndpointClass.SEARCH;
+        }
+        if (!"GET".equals(request.getMethod())) {
+            return EndpointClass.CRUD;
+        }
+        if (path.contains("/export") || requestedPageSize(request) >= exportPageSize) {
+            return EndpointClass.EXPORT;
+        }
+        return ENDS_WITH_ID.matcher(path).matches() ? EndpointClass.CRUD : EndpointClass.SEARCH;
+    }
+
+    private static int requestedPageSize(HttpServletRequest request) {
+        String size = request.getParameter("size");
+        if (size == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.esse.crm.config.admission;
+
+/**
+ * Exposes the endpoint class of the request being served on the current thread, so lower layers such as
+ * connection instrumentation can tag what they measure.
+ */
+public final class EndpointContext {
+
+    private static final ThreadLocal<EndpointClass> CURRENT = new ThreadLocal<>();
+
+    private EndpointContext() {
+    }
+
+    public static EndpointClass current() {
+        return CURRENT.get();
+    }
+
+    public static String currentTag() {
+        EndpointClass endpointClass = CURRENT.get();
+        return endpointClass != null ? endpointClass.name().toLowerCase() : "none";
+    }
+
+    static void set(EndpointClass endpointClass) {
+        CURRENT.set(endpointClass);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,64 @@
+package com.esse.crm.config.datasource;
+
+import com.esse.crm.config.querylog.QueryLog;
+import com.esse.crm.config.querylog.QueryLoggingDataSource;
+import com.esse.crm.config.tenant.TenancyMode;
+import com.esse.crm.config.tenant.TenantLimitingDataSource;
+import com.esse.crm.config.tenant.TenantProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class ConnectionMetricsConfig {
+
+    /**
+     * Wraps the data source the application talks to, whether auto-configured or a routing proxy, so acquire,
+     * hold and query times cover every pool behind it. In the shared-schema tenancy mode the per-tenant connection
+     * cap goes in between, so waiting for it counts as acquire time. The query log, when enabled, sits inside the
+     * metrics so its statement timings leave out the proxies around it.
+     */
+    @Bean
+    public static BeanPostProcessor connectionMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                   ObjectProvider<TenantProperties> tenantProperties,
+                                                                   ObjectProvider<QueryLog> queryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return instrument(dataSource, meterRegistry.getObject(), tenantProperties.getObject(),
+                            queryLog.getIfAvailable());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * A lazy connection proxy hands out placeholders and only fetches a connection on the first statement, once the
+     * routing key is known; the wrappers go behind it so they see the physical connection rather than the placeholder.
+     */
+    static DataSource instrument(DataSource dataSource, MeterRegistry meterRegistry, TenantProperties tenancy,
+                                 QueryLog queryLog) {
+        if (dataSource instanceof LazyConnectionDataSourceProxy lazy && lazy.getTargetDataSource() != null) {
+            lazy.setTargetDataSource(instrument(lazy.getTargetDataSource(), meterRegistry, tenancy, queryLog));
+            return lazy;
+        }
+        if (dataSource instanceof InstrumentedDataSource) {
+            return dataSource;
+        }
+        if (tenancy.getMode() == TenancyMode.SHARED && tenancy.getMaxConnectionsPerTenant() > 0) {
+            dataSource = new TenantLimitingDataSource(dataSource, tenancy.getMaxConnectionsPerTenant(),
+                    tenancy.getConnectionWaitTimeout());
+        }
+        if (queryLog != null) {
+            dataSource = new QueryLoggingDataSource(dataSource, queryLog);
+        }
+        return new InstrumentedDataSource(dataSource, meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.esse.crm.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "application.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled;
+
+    /**
+     * How long a user keeps reading from the primary after one of their write transactions.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Replicas further behind the primary than this are taken out of rotation until they catch up.
+     */
+    private Duration maxReplicaLag = Duration.ofSeconds(2);
+
+    private Duration healthCheckInterval = Duration.ofSeconds(1);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
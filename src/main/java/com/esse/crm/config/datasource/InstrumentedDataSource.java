@@ -0,0 +1,111 @@
+package com.esse.crm.config.datasource;
+
+import com.esse.crm.config.admission.EndpointContext;
+import com.esse.crm.config.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records how long callers wait for a connection, how long they hold it and how long their statements run, tagged
+ * with the endpoint class and tenant of the current request. Hikari already reports pool-wide gauges; this
+ * attributes pool pressure to the kind of request and the tenant that causes it.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    static final String ACQUIRE_TIMER = "crm.db.connection.acquire";
+    static final String HOLD_TIMER = "crm.db.connection.hold";
+    static final String QUERY_TIMER = "crm.db.query";
+
+    private final MeterRegistry meterRegistry;
+
+    public InstrumentedDataSource(DataSource target, MeterRegistry meterRegistry) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        return instrument(super.getConnection(), start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        return instrument(super.getConnection(username, password), start);
+    }
+
+    private Connection instrument(Connection connection, long requestedAt) {
+        String endpointClass = EndpointContext.currentTag();
+        String tenant = TenantContext.currentOrDefault();
+        long acquiredAt = System.nanoTime();
+        timer(ACQUIRE_TIMER, endpointClass, tenant).record(acquiredAt - requestedAt, TimeUnit.NANOSECONDS);
+
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        timer(HOLD_TIMER, endpointClass, tenant).record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+                    }
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    Object result = invoke(method, connection, args);
+                    if (result instanceof Statement statement) {
+                        return instrument(statement, method, timer(QUERY_TIMER, endpointClass, tenant));
+                    }
+                    return result;
+                });
+    }
+
+    private Statement instrument(Statement statement, Method factoryMethod, Timer queryTimer) {
+        Class<?> type = switch (factoryMethod.getName()) {
+            case "prepareCall" -> CallableStatement.class;
+            case "prepareStatement" -> PreparedStatement.class;
+            default -> Statement.class;
+        };
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(method, statement, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(method, statement, args);
+                    } finally {
+                        queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private Timer timer(String name, String endpointClass, String tenant) {
+        return Timer.builder(name)
+                .tag("endpoint.class", endpointClass)
+                .tag("tenant", tenant)
+                .register(meterRegistry);
+    }
+}
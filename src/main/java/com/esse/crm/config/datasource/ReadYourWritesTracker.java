@@ -0,0 +1,47 @@
+package com.esse.crm.config.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which users wrote recently so their reads stay on the primary until replicas have caught up.
+ * State is per node; a load balancer with sticky sessions keeps the guarantee across a cluster.
+ */
+public class ReadYourWritesTracker {
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    public ReadYourWritesTracker(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(Duration window, LongSupplier clock) {
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+    }
+
+    public void recordWrite(String user) {
+        if (user == null || windowNanos <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        pinnedUntil.put(user, now + windowNanos);
+        if (pinnedUntil.size() > SWEEP_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until - now < 0);
+        }
+    }
+
+    public boolean isPinned(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        return until != null && until - clock.getAsLong() > 0;
+    }
+}
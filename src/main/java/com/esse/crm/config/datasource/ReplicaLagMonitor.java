@@ -0,0 +1,68 @@
+package com.esse.crm.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary stamps {@code replication_heartbeat} and each replica is
+ * asked how old its copy of the stamp is. This works the same on MySQL replication and on plain local databases,
+ * unlike {@code SHOW REPLICA STATUS}. Replicas that lag too far or cannot be reached are taken out of rotation.
+ * The measured lag includes up to one check interval, so the threshold should be set above the interval.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String HEARTBEAT_UPDATE = "UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1";
+    static final String HEARTBEAT_QUERY = "SELECT beat_at FROM replication_heartbeat WHERE id = 1";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long maxLagMillis;
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, Duration maxLag) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.routing.health-check-interval:1000}")
+    public void check() {
+        Instant now = Instant.now();
+        try {
+            new JdbcTemplate(routingDataSource.getPrimary()).update(HEARTBEAT_UPDATE, Timestamp.from(now));
+        } catch (RuntimeException e) {
+            log.warn("Could not write replication heartbeat on primary: {}", e.getMessage());
+            return;
+        }
+        routingDataSource.getReplicas().forEach((name, dataSource) -> checkReplica(name, dataSource, now));
+    }
+
+    public Map<String, Long> getLagMillis() {
+        return Map.copyOf(lagMillis);
+    }
+
+    private void checkReplica(String name, DataSource dataSource, Instant now) {
+        try {
+            Timestamp beat = new JdbcTemplate(dataSource).queryForObject(HEARTBEAT_QUERY, Timestamp.class);
+            long lag = beat == null ? Long.MAX_VALUE : Math.max(0, now.toEpochMilli() - beat.getTime());
+            lagMillis.put(name, lag);
+            if (lag <= maxLagMillis) {
+                routingDataSource.markHealthy(name);
+            } else {
+                log.warn("Replica {} is {} ms behind the primary; routing its reads to the primary", name, lag);
+                routingDataSource.markUnhealthy(name);
+            }
+        } catch (RuntimeException e) {
+            lagMillis.remove(name);
+            log.warn("Replica {} failed its health check: {}", name, e.getMessage());
+            routingDataSource.markUnhealthy(name);
+        }
+    }
+}
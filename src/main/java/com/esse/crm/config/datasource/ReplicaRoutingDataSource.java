@@ -0,0 +1,134 @@
+package com.esse.crm.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and everything else to the primary.
+ * <p>
+ * Reads fall back to the primary when the current user wrote within the read-your-writes window or when no
+ * replica is healthy. The routing key is taken from the transaction's read-only flag, so this data source must
+ * be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} for the flag to be
+ * set before the connection is fetched.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Object WRITE_RECORDED = new Object();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final Set<String> unhealthyReplicas = ConcurrentHashMap.newKeySet();
+    private final ReadYourWritesTracker writesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWritesTracker writesTracker) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.writesTracker = writesTracker;
+        // Replicas stay out of rotation until the first health check has seen them in sync
+        this.unhealthyReplicas.addAll(replicaNames);
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite(user);
+            return PRIMARY;
+        }
+        if (writesTracker.isPinned(user)) {
+            return PRIMARY;
+        }
+        return selectReplica();
+    }
+
+    public void markHealthy(String replica) {
+        unhealthyReplicas.remove(replica);
+    }
+
+    public void markUnhealthy(String replica) {
+        unhealthyReplicas.add(replica);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    // The primary is a bean of its own and is closed by the container
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private String selectReplica() {
+        int size = replicaNames.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get((start + i) % size);
+            if (!unhealthyReplicas.contains(name)) {
+                return name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    // The pin starts when the write begins and is refreshed at commit so long transactions are covered too.
+    private void recordWrite(String user) {
+        if (user == null) {
+            return;
+        }
+        writesTracker.recordWrite(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(WRITE_RECORDED)) {
+            TransactionSynchronizationManager.bindResource(WRITE_RECORDED, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_RECORDED);
+                    if (status == STATUS_COMMITTED) {
+                        writesTracker.recordWrite(user);
+                    }
+                }
+            });
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.esse.crm.config.json;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Modules Spring Boot registers on the shared {@code ObjectMapper}, used for every JSON body, and the binary formats
+ * ({@code application/cbor}, {@code application/x-jackson-smile}) offered next to JSON with the same configuration.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Generates property accessors with {@code LambdaMetafactory} in place of reflective calls on the DTO getters
+     * and setters.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Module compactPageModule() {
+        return new SimpleModule("CompactPage").addSerializer(Page.class, new PageSerializer());
+    }
+
+    /**
+     * Replaces the CBOR and Smile converters Spring MVC adds by default, which build their own mappers and so would
+     * miss the modules and {@code spring.jackson.*} settings above.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,33 @@
+package com.esse.crm.config.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Page} as {@code {content, number, size, totalElements, totalPages}}. Those fields keep the names
+ * {@code PageImpl} gives them. The derived and echoed ones ({@code pageable}, {@code sort}, {@code first},
+ * {@code last}, {@code numberOfElements}, {@code empty}) are left out.
+ */
+@SuppressWarnings("rawtypes")
+public class PageSerializer extends StdSerializer<Page> {
+
+    public PageSerializer() {
+        super(Page.class);
+    }
+
+    @Override
+    public void serialize(Page page, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(page);
+        generator.writeFieldName("content");
+        provider.defaultSerializeValue(page.getContent(), generator);
+        generator.writeNumberField("number", page.getNumber());
+        generator.writeNumberField("size", page.getSize());
+        generator.writeNumberField("totalElements", page.getTotalElements());
+        generator.writeNumberField("totalPages", page.getTotalPages());
+        generator.writeEndObject();
+    }
+}
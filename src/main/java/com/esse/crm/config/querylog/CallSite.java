@@ -0,0 +1,41 @@
+package com.esse.crm.config.querylog;
+
+/**
+ * Names the application method a statement is issued from: the innermost frame of the application's own code
+ * outside configuration and repository interfaces, which is normally the service method. Statements flushed at
+ * commit are attributed to the transactional proxy of the service method that committed.
+ */
+final class CallSite {
+
+    private static final String APPLICATION_PACKAGE = "com.esse.crm.";
+    private static final String CONFIG_PACKAGE = APPLICATION_PACKAGE + "config.";
+    private static final String REPOSITORY_PACKAGE = APPLICATION_PACKAGE + "repository.";
+    private static final String GENERATED_SUFFIX = "$$";
+
+    static final String UNKNOWN = "unknown";
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private CallSite() {
+    }
+
+    static String current() {
+        return WALKER.walk(frames -> frames
+                .filter(frame -> isApplicationCode(frame.getClassName()))
+                .findFirst()
+                .map(frame -> describe(frame.getClassName(), frame.getMethodName()))
+                .orElse(UNKNOWN));
+    }
+
+    static boolean isApplicationCode(String className) {
+        return className.startsWith(APPLICATION_PACKAGE)
+                && !className.startsWith(CONFIG_PACKAGE)
+                && !className.startsWith(REPOSITORY_PACKAGE);
+    }
+
+    static String describe(String className, String methodName) {
+        int generated = className.indexOf(GENERATED_SUFFIX);
+        String type = generated > 0 ? className.substring(0, generated) : className;
+        return type.substring(type.lastIndexOf('.') + 1) + "." + methodName;
+    }
+}
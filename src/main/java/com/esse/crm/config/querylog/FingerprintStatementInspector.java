@@ -0,0 +1,21 @@
+package com.esse.crm.config.querylog;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Puts a comment naming the fingerprint in front of every statement Hibernate prepares, so entries in the
+ * database's process list and slow log can be matched with {@code /actuator/slowqueries}.
+ */
+public class FingerprintStatementInspector implements StatementInspector {
+
+    private final QueryLog queryLog;
+
+    public FingerprintStatementInspector(QueryLog queryLog) {
+        this.queryLog = queryLog;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        return queryLog.tag(sql);
+    }
+}
@@ -0,0 +1,85 @@
+package com.esse.crm.config.querylog;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two buckets from 250 µs to about 8 s. Percentiles are reported as the
+ * upper bound of the bucket they fall in, so they are accurate to within a factor of two, which is enough to tell a
+ * 5 ms query from a 500 ms one without keeping every sample.
+ */
+class LatencyHistogram {
+
+    private static final long FIRST_BOUND_NANOS = TimeUnit.MICROSECONDS.toNanos(250);
+
+    /**
+     * Bounded buckets; one more counts everything slower than the last bound.
+     */
+    static final int BUCKETS = 16;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS + 1);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        counts.incrementAndGet(bucket(nanos));
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    long count() {
+        long count = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile, capped at the slowest execution seen.
+     */
+    long percentileNanos(double quantile) {
+        long[] snapshot = new long[BUCKETS + 1];
+        long count = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    static int bucket(long nanos) {
+        int bucket = 0;
+        long bound = FIRST_BOUND_NANOS;
+        while (bucket < BUCKETS && nanos > bound) {
+            bucket++;
+            bound <<= 1;
+        }
+        return bucket;
+    }
+
+    static long upperBound(int bucket) {
+        return FIRST_BOUND_NANOS << bucket;
+    }
+}
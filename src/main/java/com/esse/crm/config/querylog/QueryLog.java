@@ -0,0 +1,145 @@
+package com.esse.crm.config.querylog;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-fingerprint latency histograms, row counts and callers of every statement the application runs, fed by
+ * {@link QueryLoggingDataSource}. Slow executions get the statement's plan captured on a background thread.
+ */
+public class QueryLog {
+
+    /**
+     * Comment {@link FingerprintStatementInspector} puts in front of Hibernate's statements. It names the shape in
+     * the database's own process list and slow log, and spares the data source normalizing the text again.
+     */
+    static final String TAG_PREFIX = "/* fp:";
+    private static final String TAG_SUFFIX = " */ ";
+    private static final int ID_LENGTH = 16;
+
+    /**
+     * Verbs whose plan {@code EXPLAIN} shows without running the statement on MySQL and H2.
+     */
+    private static final List<String> EXPLAINABLE = List.of("select ", "with ", "update ", "delete ");
+
+    public enum Order {
+        TOTAL(Comparator.comparingDouble(QuerySummary::totalMs)),
+        MEAN(Comparator.comparingDouble(QuerySummary::meanMs)),
+        P99(Comparator.comparingDouble(QuerySummary::p99Ms)),
+        MAX(Comparator.comparingDouble(QuerySummary::maxMs)),
+        CALLS(Comparator.comparingLong(QuerySummary::calls)),
+        SLOW(Comparator.comparingLong(QuerySummary::slowCalls)),
+        ROWS(Comparator.comparingLong(QuerySummary::rows));
+
+        private final Comparator<QuerySummary> descending;
+
+        Order(Comparator<QuerySummary> ascending) {
+            this.descending = ascending.reversed();
+        }
+    }
+
+    private final Map<String, QueryStats> statsById = new ConcurrentHashMap<>();
+    private final Map<String, String> taggedSql = new ConcurrentHashMap<>();
+    private final LongAdder untrackedCalls = new LongAdder();
+    private final QueryLogProperties properties;
+    private final Executor explainExecutor;
+    private final long slowThresholdNanos;
+
+    public QueryLog(QueryLogProperties properties, Executor explainExecutor) {
+        this.properties = properties;
+        this.explainExecutor = explainExecutor;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    }
+
+    /**
+     * Hibernate's statement with its fingerprint tag in front. Hibernate hands over the same string instance for a
+     * given query each time, so after the first call this is one map lookup.
+     */
+    String tag(String sql) {
+        String tagged = taggedSql.get(sql);
+        if (tagged != null) {
+            return tagged;
+        }
+        QueryStats stats = register(SqlFingerprint.of(sql));
+        if (stats == null) {
+            return sql;
+        }
+        tagged = TAG_PREFIX + stats.fingerprint().id() + TAG_SUFFIX + sql;
+        if (taggedSql.size() < properties.getMaxFingerprints() * 4) {
+            taggedSql.put(sql, tagged);
+        }
+        return tagged;
+    }
+
+    /**
+     * Statistics the given statement counts against, or {@code null} when the fingerprint limit is reached.
+     */
+    QueryStats statsFor(String sql) {
+        if (sql.startsWith(TAG_PREFIX) && sql.length() > TAG_PREFIX.length() + ID_LENGTH) {
+            QueryStats stats = statsById.get(sql.substring(TAG_PREFIX.length(), TAG_PREFIX.length() + ID_LENGTH));
+            if (stats != null) {
+                return stats;
+            }
+        }
+        return register(SqlFingerprint.of(sql));
+    }
+
+    private QueryStats register(SqlFingerprint fingerprint) {
+        QueryStats stats = statsById.get(fingerprint.id());
+        if (stats != null || statsById.size() >= properties.getMaxFingerprints()) {
+            return stats;
+        }
+        return statsById.computeIfAbsent(fingerprint.id(), id -> new QueryStats(fingerprint));
+    }
+
+    void countUntracked() {
+        untrackedCalls.increment();
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= slowThresholdNanos;
+    }
+
+    /**
+     * Captures the plan of a slow execution in the background unless one was captured recently; the caller
+     * supplies how to run {@code EXPLAIN} with the execution's bind values.
+     */
+    void explainIfDue(QueryStats stats, Supplier<QueryPlan> explain) {
+        if (!isExplainable(stats.fingerprint()) || !stats.claimExplain(properties.getExplainInterval().toMillis())) {
+            return;
+        }
+        try {
+            explainExecutor.execute(() -> stats.plan(explain.get()));
+        } catch (RejectedExecutionException e) {
+            stats.releaseExplain();
+        }
+    }
+
+    static boolean isExplainable(SqlFingerprint fingerprint) {
+        return EXPLAINABLE.stream().anyMatch(fingerprint.sql()::startsWith);
+    }
+
+    public List<QuerySummary> top(Order order, int limit) {
+        return statsById.values().stream()
+                .map(QueryStats::summary)
+                .sorted(order.descending)
+                .limit(limit)
+                .toList();
+    }
+
+    public long untrackedCalls() {
+        return untrackedCalls.sum();
+    }
+
+    public void reset() {
+        statsById.clear();
+        taggedSql.clear();
+        untrackedCalls.reset();
+    }
+}
@@ -0,0 +1,56 @@
+package com.esse.crm.config.querylog;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * The data source side is wired in {@code ConnectionMetricsConfig}, which wraps the application's data source.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.query-log", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(QueryLogProperties.class)
+public class QueryLogConfig {
+
+    @Bean
+    public QueryLog queryLog(QueryLogProperties properties,
+                             @Qualifier("queryExplainExecutor") ThreadPoolTaskExecutor queryExplainExecutor) {
+        return new QueryLog(properties, queryExplainExecutor);
+    }
+
+    /**
+     * One thread, so plan captures never compete with requests for more than one connection; captures that find
+     * the queue full are skipped and retried on the next slow execution.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor queryExplainExecutor(TaskDecorator tenantTaskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setTaskDecorator(tenantTaskDecorator);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("query-explain-");
+        return executor;
+    }
+
+    /**
+     * Leaves an inspector configured through {@code spring.jpa.properties} in place; statements then go untagged
+     * and the data source fingerprints them itself.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer fingerprintStatementInspectorCustomizer(QueryLog queryLog) {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR,
+                new FingerprintStatementInspector(queryLog));
+    }
+
+    @Bean
+    public SlowQueriesEndpoint slowQueriesEndpoint(QueryLog queryLog, QueryLogProperties properties) {
+        return new SlowQueriesEndpoint(queryLog, properties);
+    }
+}
@@ -0,0 +1,33 @@
+package com.esse.crm.config.querylog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "application.query-log")
+public class QueryLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Executions at least this slow record their calling method and get the statement's plan captured.
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    /**
+     * Distinct statement shapes tracked; executions of shapes beyond this are only counted.
+     */
+    private int maxFingerprints = 1000;
+
+    /**
+     * A captured plan is kept this long before the next slow execution captures it again.
+     */
+    private Duration explainInterval = Duration.ofHours(1);
+
+    /**
+     * Offenders {@code /actuator/slowqueries} lists unless asked for another number.
+     */
+    private int top = 20;
+}
@@ -0,0 +1,279 @@
+package com.esse.crm.config.querylog;
+
+import com.esse.crm.config.tenant.TenantContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Times every statement, counts the rows it returned or changed and reports both to the {@link QueryLog}. Slow
+ * executions also record the calling method and hand the log an {@code EXPLAIN} of the statement with the same
+ * bind values, run later on a separate connection of the same tenant. Statements bound from a stream or reader are
+ * not explained, as the execution has already consumed it.
+ * <p>
+ * Connections and statements are proxies, which cost a few calls per statement. Result sets are read once per row
+ * and column, so they are wrapped in a {@link CountingResultSet} that only watches {@code next} and {@code close}.
+ * {@code QueryLoggingBenchmark} measures the overhead.
+ */
+public class QueryLoggingDataSource extends DelegatingDataSource {
+
+    private final QueryLog queryLog;
+
+    public QueryLoggingDataSource(DataSource target, QueryLog queryLog) {
+        super(target);
+        this.queryLog = queryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    Object result = invoke(method, connection, args);
+                    if (result instanceof Statement statement) {
+                        return wrap(statement, method, args);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement, Method factoryMethod, Object[] args) {
+        Class<?> type = switch (factoryMethod.getName()) {
+            case "prepareCall" -> CallableStatement.class;
+            case "prepareStatement" -> PreparedStatement.class;
+            default -> Statement.class;
+        };
+        String sql = type != Statement.class ? (String) args[0] : null;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                new StatementRecorder(statement, sql));
+    }
+
+    /**
+     * Runs {@code EXPLAIN} for the statement as the tenant that executed it, replaying the setter calls that bound
+     * its parameters.
+     */
+    private QueryPlan explain(String tenant, String sql, List<Binding> bindings, double triggeredByMs) {
+        return tenant == null
+                ? explain(sql, bindings, triggeredByMs)
+                : TenantContext.callAs(tenant, () -> explain(sql, bindings, triggeredByMs));
+    }
+
+    private QueryPlan explain(String sql, List<Binding> bindings, double triggeredByMs) {
+        try (Connection connection = getTargetDataSource().getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (Binding binding : bindings) {
+                binding.setter().invoke(explain, binding.args());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                ResultSetMetaData columns = plan.getMetaData();
+                List<Map<String, Object>> rows = new ArrayList<>();
+                while (plan.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 1; i <= columns.getColumnCount(); i++) {
+                        Object value = plan.getObject(i);
+                        row.put(columns.getColumnLabel(i).toLowerCase(),
+                                value == null || value instanceof Number ? value : value.toString());
+                    }
+                    rows.add(row);
+                }
+                return QueryPlan.captured(triggeredByMs, rows);
+            }
+        } catch (SQLException | ReflectiveOperationException e) {
+            Throwable cause = e instanceof InvocationTargetException setterFailure ? setterFailure.getTargetException() : e;
+            return QueryPlan.failed(triggeredByMs, cause.getClass().getSimpleName() + ": " + cause.getMessage());
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record Binding(Method setter, Object[] args) {
+
+        /**
+         * False for values a second execution cannot read again: {@code setBinaryStream}, {@code setCharacterStream}
+         * and the stream and reader forms of {@code setBlob}, {@code setClob} and {@code setObject}.
+         */
+        boolean replayable() {
+            for (Object arg : args) {
+                if (arg instanceof InputStream || arg instanceof Reader) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * State of one statement. A query's execution is reported once its rows have been read, when the result set
+     * or the statement is closed or the statement runs again; other executions are reported right away.
+     */
+    private class StatementRecorder implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private final Map<Integer, Binding> bindings = new TreeMap<>();
+        private QueryStats preparedStats;
+        private String batchSql;
+
+        private QueryStats current;
+        private long execution;
+        private long nanos;
+        private long rows;
+        private boolean slow;
+
+        StatementRecorder(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                bindings.put(index, new Binding(method, args));
+            } else if ("clearParameters".equals(name)) {
+                bindings.clear();
+            } else if ("addBatch".equals(name) && args != null && args.length == 1) {
+                batchSql = (String) args[0];
+            } else if ("close".equals(name)) {
+                finish();
+            }
+            Object result = QueryLoggingDataSource.invoke(method, statement, args);
+            if ("getResultSet".equals(name) && result instanceof ResultSet resultSet && current != null) {
+                return counting(resultSet);
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finish();
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : preparedSql != null ? preparedSql : batchSql;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = QueryLoggingDataSource.invoke(method, statement, args);
+            } catch (Throwable e) {
+                start(sql, System.nanoTime() - start);
+                finish();
+                throw e;
+            }
+            start(sql, System.nanoTime() - start);
+            if (result instanceof ResultSet resultSet) {
+                return current != null ? counting(resultSet) : resultSet;
+            }
+            rows = updateCount(result);
+            if (!Boolean.TRUE.equals(result)) {
+                finish();
+            }
+            return result;
+        }
+
+        private void start(String sql, long elapsed) {
+            current = sql == null ? null
+                    : sql.equals(preparedSql) ? preparedStats() : queryLog.statsFor(sql);
+            if (current == null) {
+                queryLog.countUntracked();
+                return;
+            }
+            execution++;
+            nanos = elapsed;
+            rows = 0;
+            slow = queryLog.isSlow(elapsed);
+            if (current.sampleCaller(slow)) {
+                current.recordCaller(CallSite.current());
+            }
+            if (slow && bindings.values().stream().allMatch(Binding::replayable)) {
+                List<Binding> bound = List.copyOf(bindings.values());
+                double triggeredByMs = QueryStats.millis(elapsed);
+                String tenant = TenantContext.current();
+                queryLog.explainIfDue(current, () -> explain(tenant, sql, bound, triggeredByMs));
+            }
+        }
+
+        private QueryStats preparedStats() {
+            if (preparedStats == null) {
+                preparedStats = queryLog.statsFor(preparedSql);
+            }
+            return preparedStats;
+        }
+
+        private void finish() {
+            if (current != null) {
+                current.record(nanos, rows, slow);
+                current = null;
+            }
+        }
+
+        private ResultSet counting(ResultSet resultSet) {
+            long owner = execution;
+            return new CountingResultSet(resultSet, () -> {
+                if (owner == execution) {
+                    rows++;
+                }
+            }, () -> {
+                if (owner == execution) {
+                    finish();
+                }
+            });
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Number count) {
+                return Math.max(0, count.longValue());
+            }
+            long total = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    total += Math.max(0, count);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    total += Math.max(0, count);
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.esse.crm.config.querylog;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code EXPLAIN} output of a slow execution, one map per plan row keyed by column label. Bind values are not kept:
+ * they are customer data.
+ */
+public record QueryPlan(Instant capturedAt, double triggeredByMs, List<Map<String, Object>> rows, String error) {
+
+    static QueryPlan captured(double triggeredByMs, List<Map<String, Object>> rows) {
+        return new QueryPlan(Instant.now(), triggeredByMs, rows, null);
+    }
+
+    static QueryPlan failed(double triggeredByMs, String error) {
+        return new QueryPlan(Instant.now(), triggeredByMs, List.of(), error);
+    }
+}
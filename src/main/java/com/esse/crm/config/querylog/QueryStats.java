@@ -0,0 +1,116 @@
+package com.esse.crm.config.querylog;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running statistics of one statement shape; updated concurrently by every connection that executes it.
+ */
+class QueryStats {
+
+    /**
+     * Executions that are not slow record their caller once in this many.
+     */
+    static final int CALLER_SAMPLE_RATE = 64;
+
+    /**
+     * Distinct callers kept per shape; later ones are counted under {@link #OTHER_CALLERS}.
+     */
+    static final int MAX_CALLERS = 10;
+
+    static final String OTHER_CALLERS = "other";
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final SqlFingerprint fingerprint;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAccumulator maxRows = new LongAccumulator(Math::max, 0);
+    private final AtomicLong callerTicks = new AtomicLong();
+    private final Map<String, LongAdder> callers = new ConcurrentHashMap<>();
+    private final AtomicLong explainClaimedAt = new AtomicLong();
+    private volatile QueryPlan plan;
+
+    QueryStats(SqlFingerprint fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    SqlFingerprint fingerprint() {
+        return fingerprint;
+    }
+
+    void record(long nanos, long rowCount, boolean slow) {
+        latency.record(nanos);
+        rows.add(rowCount);
+        maxRows.accumulate(rowCount);
+        if (slow) {
+            slowCalls.increment();
+        }
+    }
+
+    /**
+     * Whether the execution in progress should record its caller: always when slow, otherwise the first and then
+     * every {@link #CALLER_SAMPLE_RATE}th, so hot but fast statements are attributed too without walking the stack
+     * on every execution.
+     */
+    boolean sampleCaller(boolean slow) {
+        return callerTicks.getAndIncrement() % CALLER_SAMPLE_RATE == 0 || slow;
+    }
+
+    void recordCaller(String caller) {
+        LongAdder samples = callers.get(caller);
+        if (samples == null) {
+            samples = callers.computeIfAbsent(callers.size() < MAX_CALLERS ? caller : OTHER_CALLERS, key -> new LongAdder());
+        }
+        samples.increment();
+    }
+
+    /**
+     * Claims the next plan capture unless one was taken within the interval, so concurrent slow executions of one
+     * shape run a single {@code EXPLAIN}.
+     */
+    boolean claimExplain(long intervalMillis) {
+        long now = System.currentTimeMillis();
+        long claimedAt = explainClaimedAt.get();
+        if (claimedAt != 0 && now - claimedAt < intervalMillis) {
+            return false;
+        }
+        return explainClaimedAt.compareAndSet(claimedAt, now);
+    }
+
+    void releaseExplain() {
+        explainClaimedAt.set(0);
+    }
+
+    void plan(QueryPlan plan) {
+        this.plan = plan;
+    }
+
+    long totalNanos() {
+        return latency.totalNanos();
+    }
+
+    QuerySummary summary() {
+        long calls = latency.count();
+        long totalRows = rows.sum();
+        List<QuerySummary.CallerSamples> callerSamples = callers.entrySet().stream()
+                .map(entry -> new QuerySummary.CallerSamples(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparingLong(QuerySummary.CallerSamples::samples).reversed())
+                .toList();
+        return new QuerySummary(fingerprint.id(), fingerprint.sql(), calls, slowCalls.sum(),
+                millis(latency.totalNanos()), calls > 0 ? millis(latency.totalNanos() / calls) : 0,
+                millis(latency.percentileNanos(0.5)), millis(latency.percentileNanos(0.95)),
+                millis(latency.percentileNanos(0.99)), millis(latency.maxNanos()),
+                totalRows, calls > 0 ? (double) totalRows / calls : 0, maxRows.get(), callerSamples, plan);
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / NANOS_PER_MILLI * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.esse.crm.config.querylog;
+
+import java.util.List;
+
+/**
+ * Statistics of one statement shape as listed by {@code /actuator/slowqueries}. Times are in milliseconds;
+ * percentiles are bucket bounds, see {@link LatencyHistogram}.
+ */
+public record QuerySummary(String id, String sql, long calls, long slowCalls, double totalMs, double meanMs,
+                           double p50Ms, double p95Ms, double p99Ms, double maxMs, long rows, double meanRows,
+                           long maxRows, List<CallerSamples> callers, QueryPlan plan) {
+
+    /**
+     * Application method the statement was issued from, with how often it was seen there. Every slow execution is
+     * sampled, other executions only now and then.
+     */
+    public record CallerSamples(String method, long samples) {
+    }
+}
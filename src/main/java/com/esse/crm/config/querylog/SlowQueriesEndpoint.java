@@ -0,0 +1,56 @@
+package com.esse.crm.config.querylog;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code GET /actuator/slowqueries?sort=total&limit=20} lists the statement shapes costing the database the most,
+ * with their latency percentiles, row counts, callers and captured plans. {@code DELETE} starts over.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final QueryLog queryLog;
+    private final QueryLogProperties properties;
+
+    public SlowQueriesEndpoint(QueryLog queryLog, QueryLogProperties properties) {
+        this.queryLog = queryLog;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public SlowQueriesReport slowQueries(@Nullable String sort, @Nullable Integer limit) {
+        QueryLog.Order order = order(sort);
+        int top = limit != null ? Math.max(1, limit) : properties.getTop();
+        return new SlowQueriesReport(properties.getSlowThreshold().toMillis(), order.name().toLowerCase(Locale.ROOT),
+                queryLog.untrackedCalls(), queryLog.top(order, top));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryLog.reset();
+    }
+
+    private static QueryLog.Order order(String sort) {
+        if (sort == null) {
+            return QueryLog.Order.TOTAL;
+        }
+        try {
+            return QueryLog.Order.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            String message = "Cannot sort by '" + sort + "', use one of "
+                    + Arrays.stream(QueryLog.Order.values()).map(o -> o.name().toLowerCase(Locale.ROOT)).toList();
+            throw new InvalidEndpointRequestException(message, message);
+        }
+    }
+
+    public record SlowQueriesReport(long slowThresholdMs, String sort, long untrackedCalls, List<QuerySummary> queries) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.esse.crm.config.querylog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Shape of a statement with its literals, comments and list lengths taken out, so every execution of the same query
+ * counts against one entry whatever values it ran with. The id is stable across restarts and instances.
+ */
+public record SqlFingerprint(String id, String sql) {
+
+    private static final Pattern IN_LIST = Pattern.compile("\\bin ?\\(\\?(?: ?, ?\\?)*\\)");
+    private static final Pattern VALUES_ROWS = Pattern.compile("(\\((?:\\? ?, ?)*\\?\\))(?: ?, ?\\((?:\\? ?, ?)*\\?\\))+");
+
+    public static SqlFingerprint of(String sql) {
+        String normalized = normalize(sql);
+        return new SqlFingerprint(hash(normalized), normalized);
+    }
+
+    /**
+     * Lowercases the statement, drops comments, turns string and number literals into {@code ?}, collapses
+     * whitespace, and folds {@code IN} lists and multi-row {@code VALUES} of any length into one form.
+     */
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                space(out);
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-' || c == '#') {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+                space(out);
+            } else if (c == '\'') {
+                i = skipQuoted(sql, i, '\'');
+                out.append('?');
+            } else if (c == '"' || c == '`') {
+                int end = skipQuoted(sql, i, c);
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isWhitespace(c)) {
+                space(out);
+                i++;
+            } else if (Character.isDigit(c) && !inWord(out)) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        String collapsed = out.toString().strip();
+        collapsed = IN_LIST.matcher(collapsed).replaceAll("in (?+)");
+        return VALUES_ROWS.matcher(collapsed).replaceAll("$1, ...");
+    }
+
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\' && quote == '\'') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    private static void space(StringBuilder out) {
+        if (!out.isEmpty() && out.charAt(out.length() - 1) != ' ') {
+            out.append(' ');
+        }
+    }
+
+    private static boolean inWord(StringBuilder out) {
+        if (out.isEmpty()) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+    }
+
+    /**
+     * 64-bit FNV-1a of the normalized text.
+     */
+    private static String hash(String normalized) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : normalized.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%016x", hash);
+    }
+}
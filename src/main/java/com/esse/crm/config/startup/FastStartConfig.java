@@ -0,0 +1,50 @@
+package com.esse.crm.config.startup;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The {@code fast-start} profile creates beans on first use ({@code spring.main.lazy-initialization}). Beans that have
+ * to exist from startup stay eager: the entity manager factory, so migrations and schema validation run before the
+ * instance reports ready rather than on its first request, and beans with {@code @Scheduled} jobs or a
+ * {@code @PostConstruct} hook, which start threads or register Hibernate listeners that nothing else would trigger.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter startupCriticalBeans() {
+        return (beanName, definition, beanType) -> isStartupCritical(beanType);
+    }
+
+    static boolean isStartupCritical(Class<?> beanType) {
+        if (beanType == null) {
+            return false;
+        }
+        return EntityManagerFactory.class.isAssignableFrom(beanType)
+                || declaresMethodAnnotatedWith(beanType, Scheduled.class)
+                || declaresMethodAnnotatedWith(beanType, PostConstruct.class);
+    }
+
+    private static boolean declaresMethodAnnotatedWith(Class<?> type, Class<? extends Annotation> annotation) {
+        if (!AnnotationUtils.isCandidateClass(type, annotation)) {
+            return false;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(type,
+                method -> found.set(true),
+                method -> !found.get() && AnnotationUtils.findAnnotation(method, annotation) != null);
+        return found.get();
+    }
+}
@@ -0,0 +1,83 @@
+package com.esse.crm.config.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs where startup time went once the application is ready: JVM start to {@code main}, the Spring Boot phases and
+ * the slowest bean creations (which include the beans they pulled in). The full step timeline is served by
+ * {@code /actuator/startup}.
+ */
+@Component
+@Slf4j
+public class StartupTimingsReporter {
+
+    static final int SLOWEST_BEANS = 8;
+
+    private static final Map<String, String> PHASES = new LinkedHashMap<>();
+
+    static {
+        PHASES.put("spring.boot.application.environment-prepared", "environment");
+        PHASES.put("spring.boot.application.context-prepared", "context-prepared");
+        PHASES.put("spring.boot.application.context-loaded", "context-loaded");
+        PHASES.put("spring.context.beans.post-process", "bean-definitions");
+        PHASES.put("spring.context.refresh", "refresh");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            log.info(summary(startup.getBufferedTimeline(),
+                    Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()), event.getTimeTaken()));
+        } else {
+            log.info("Startup: ready in {} ms", event.getTimeTaken().toMillis());
+        }
+    }
+
+    static String summary(StartupTimeline timeline, Instant jvmStart, Duration readyAfter) {
+        StringBuilder summary = new StringBuilder("Startup: ready in ")
+                .append(readyAfter.toMillis()).append(" ms");
+        Duration beforeMain = Duration.between(jvmStart, timeline.getStartTime());
+        if (!beforeMain.isNegative()) {
+            summary.append(", ").append(beforeMain.plus(readyAfter).toMillis()).append(" ms after JVM start (jvm ")
+                    .append(beforeMain.toMillis()).append(" ms)");
+        }
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+        summary.append("; phases:");
+        PHASES.forEach((step, label) -> events.stream()
+                .filter(event -> step.equals(event.getStartupStep().getName()))
+                .findFirst()
+                .ifPresent(event -> summary.append(' ').append(label).append('=')
+                        .append(event.getDuration().toMillis()).append("ms")));
+        summary.append("; slowest beans:");
+        events.stream()
+                .filter(event -> "spring.beans.instantiate".equals(event.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .forEach(event -> summary.append(' ').append(beanName(event.getStartupStep())).append('=')
+                        .append(event.getDuration().toMillis()).append("ms"));
+        return summary.toString();
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
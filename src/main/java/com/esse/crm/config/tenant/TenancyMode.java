@@ -0,0 +1,12 @@
+package com.esse.crm.config.tenant;
+
+public enum TenancyMode {
+    /**
+     * All tenants in one schema, separated by the {@code tenant_id} discriminator column.
+     */
+    SHARED,
+    /**
+     * One database per tenant; connections are routed by the tenant in the access token.
+     */
+    DATABASE
+}
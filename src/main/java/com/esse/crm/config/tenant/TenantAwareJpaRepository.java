@@ -0,0 +1,35 @@
+package com.esse.crm.config.tenant;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository base class closing the gap in Hibernate's tenant discriminator for lookups by primary key: an id from
+ * another tenant comes back empty from {@link #findById} and fails {@link #getReferenceById} rather than resolving.
+ * Associations are covered by {@link TenantGuard}.
+ */
+public class TenantAwareJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    public TenantAwareJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return TenantGuard.lenient(() -> super.findById(id)).filter(TenantGuard::visible);
+    }
+
+    /**
+     * Loads the row instead of handing out an unchecked proxy, so the tenant is verified before the reference can
+     * end up in a foreign key.
+     */
+    @Override
+    public T getReferenceById(ID id) {
+        return findById(id).orElseThrow(() ->
+                new EntityNotFoundException("Unable to find " + getDomainClass().getName() + " with id " + id));
+    }
+}
@@ -0,0 +1,31 @@
+package com.esse.crm.config.tenant;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+@EnableJpaRepositories(basePackages = "com.esse.crm", repositoryBaseClass = TenantAwareJpaRepository.class)
+public class TenantConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantIdentifierResolverCustomizer() {
+        return properties -> properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantIdentifierResolver());
+    }
+
+    /**
+     * Carries the submitting thread's tenant over to async tasks.
+     */
+    @Bean
+    public TaskDecorator tenantTaskDecorator() {
+        return task -> {
+            String tenant = TenantContext.current();
+            return tenant == null ? task : () -> TenantContext.runAs(tenant, task);
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.esse.crm.config.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Tenant the current thread works for, taken from the access token. Code running outside a request, such as
+ * scheduled jobs, has to pick a tenant explicitly through {@link #runAs}.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * Pseudo tenant that sees every tenant's rows in the shared schema; only for background maintenance.
+     */
+    public static final String ROOT = "*";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static String currentOrDefault() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void runAs(String tenant, Runnable task) {
+        callAs(tenant, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.esse.crm.config.tenant;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Knows which tenants exist and runs background work once per place their data lives.
+ */
+@Component
+public class TenantDirectory {
+
+    private final TenantProperties properties;
+
+    public TenantDirectory(TenantProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isKnown(String tenant) {
+        if (tenant == null || TenantContext.ROOT.equals(tenant)) {
+            return false;
+        }
+        return properties.getMode() == TenancyMode.SHARED || databaseTenants().contains(tenant);
+    }
+
+    /**
+     * Runs the task across all tenant data: once as {@link TenantContext#ROOT} over the shared schema, or once per
+     * tenant database.
+     */
+    public void forEachTenant(Runnable task) {
+        if (properties.getMode() == TenancyMode.SHARED) {
+            TenantContext.runAs(TenantContext.ROOT, task);
+            return;
+        }
+        for (String tenant : databaseTenants()) {
+            TenantContext.runAs(tenant, task);
+        }
+    }
+
+    private List<String> databaseTenants() {
+        List<String> tenants = new ArrayList<>();
+        tenants.add(TenantContext.DEFAULT_TENANT);
+        properties.getTenants().forEach(tenant -> tenants.add(tenant.getId()));
+        return tenants;
+    }
+}
@@ -0,0 +1,45 @@
+package com.esse.crm.config.tenant;
+
+import jakarta.persistence.PostLoad;
+
+import java.util.function.Supplier;
+
+/**
+ * Entity listener checking every tenant-scoped row Hibernate loads against the current tenant. Queries are already
+ * restricted by the tenant discriminator, but primary key lookups and lazy associations are resolved by id alone; a
+ * row of another tenant reached that way fails the load instead of being handed to the caller.
+ */
+public class TenantGuard {
+
+    private static final ThreadLocal<Boolean> LENIENT = new ThreadLocal<>();
+
+    @PostLoad
+    void check(Object entity) {
+        if (LENIENT.get() == null && !visible(entity)) {
+            throw new IllegalStateException(entity.getClass().getSimpleName() + " belongs to another tenant");
+        }
+    }
+
+    static boolean visible(Object entity) {
+        if (!(entity instanceof TenantScoped scoped)) {
+            return true;
+        }
+        String tenant = TenantContext.currentOrDefault();
+        return TenantContext.ROOT.equals(tenant) || tenant.equals(scoped.getTenantId());
+    }
+
+    /**
+     * Runs a lookup that filters what it loads itself, so a foreign row makes it come back empty rather than fail.
+     */
+    static <T> T lenient(Supplier<T> lookup) {
+        if (LENIENT.get() != null) {
+            return lookup.get();
+        }
+        LENIENT.set(Boolean.TRUE);
+        try {
+            return lookup.get();
+        } finally {
+            LENIENT.remove();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.esse.crm.config.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Feeds the current tenant to Hibernate, which stamps it on inserted entities and filters every query on the
+ * {@code @TenantId} column. The root pseudo tenant disables that filter.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.currentOrDefault();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.ROOT.equals(tenantId);
+    }
+}
@@ -0,0 +1,95 @@
+package com.esse.crm.config.tenant;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the connections each tenant can hold from a shared pool. A tenant at its cap waits briefly and then fails,
+ * while other tenants keep getting connections.
+ */
+public class TenantLimitingDataSource extends DelegatingDataSource {
+
+    private final int maxConnectionsPerTenant;
+    private final long waitNanos;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public TenantLimitingDataSource(DataSource target, int maxConnectionsPerTenant, Duration waitTimeout) {
+        super(target);
+        this.maxConnectionsPerTenant = maxConnectionsPerTenant;
+        this.waitNanos = waitTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Semaphore semaphore = acquire();
+        try {
+            return release(super.getConnection(), semaphore);
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Semaphore semaphore = acquire();
+        try {
+            return release(super.getConnection(username, password), semaphore);
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    int availablePermits(String tenant) {
+        Semaphore semaphore = permits.get(tenant);
+        return semaphore != null ? semaphore.availablePermits() : maxConnectionsPerTenant;
+    }
+
+    private Semaphore acquire() throws SQLException {
+        String tenant = TenantContext.currentOrDefault();
+        if (TenantContext.ROOT.equals(tenant)) {
+            return new Semaphore(1);
+        }
+        Semaphore semaphore = permits.computeIfAbsent(tenant, t -> new Semaphore(maxConnectionsPerTenant));
+        try {
+            if (!semaphore.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Tenant '" + tenant + "' is using all of its " + maxConnectionsPerTenant + " connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+        return semaphore;
+    }
+
+    private Connection release(Connection connection, Semaphore semaphore) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                        semaphore.release();
+                    }
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
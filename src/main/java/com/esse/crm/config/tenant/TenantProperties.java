@@ -0,0 +1,40 @@
+package com.esse.crm.config.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "application.tenancy")
+public class TenantProperties {
+
+    private TenancyMode mode = TenancyMode.SHARED;
+
+    /**
+     * Shared mode only: connections one tenant may hold at once, so a noisy tenant cannot drain the pool.
+     * Zero, the default, disables the limit; set it below the pool size once several tenants share the pool.
+     */
+    private int maxConnectionsPerTenant = 0;
+
+    /**
+     * How long a request waits for its tenant's connection share before failing.
+     */
+    private Duration connectionWaitTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Database mode only: tenant databases besides the default one configured through {@code spring.datasource}.
+     */
+    private List<Tenant> tenants = new ArrayList<>();
+
+    @Data
+    public static class Tenant {
+        private String id;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 5;
+    }
+}
@@ -0,0 +1,83 @@
+package com.esse.crm.config.tenant;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Database-per-tenant mode: the default tenant uses {@code spring.datasource.*}, which also holds the shared user
+ * and role tables, and every other tenant gets its own pool whose size is that tenant's connection limit.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.tenancy", name = "mode", havingValue = "database")
+public class TenantRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              @Value("${application.datasource.routing.enabled:false}") boolean replicaRouting) {
+        if (replicaRouting) {
+            throw new IllegalStateException("Replica routing cannot be combined with application.tenancy.mode=database");
+        }
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("tenant-" + TenantContext.DEFAULT_TENANT);
+        return dataSource;
+    }
+
+    @Bean
+    public TenantRoutingDataSource tenantRoutingDataSource(HikariDataSource primaryDataSource,
+                                                           DataSourceProperties primaryProperties,
+                                                           TenantProperties tenancy,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, DataSource> tenants = new LinkedHashMap<>();
+        for (TenantProperties.Tenant tenant : tenancy.getTenants()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("tenant-" + tenant.getId());
+            dataSource.setJdbcUrl(tenant.getUrl());
+            dataSource.setUsername(tenant.getUsername() != null ? tenant.getUsername() : primaryProperties.getUsername());
+            dataSource.setPassword(tenant.getPassword() != null ? tenant.getPassword() : primaryProperties.getPassword());
+            dataSource.setDriverClassName(primaryProperties.getDriverClassName());
+            dataSource.setMaximumPoolSize(tenant.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(tenancy.getConnectionWaitTimeout().toMillis());
+            meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+            tenants.put(tenant.getId(), dataSource);
+        }
+        return new TenantRoutingDataSource(primaryDataSource, tenants);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(TenantRoutingDataSource tenantRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(tenantRoutingDataSource);
+    }
+
+    /**
+     * Applies the same migrations to every tenant database after the default one.
+     */
+    @Bean
+    public FlywayMigrationStrategy tenantFlywayMigrationStrategy(TenantRoutingDataSource tenantRoutingDataSource) {
+        return flyway -> {
+            flyway.migrate();
+            tenantRoutingDataSource.getTenantDataSources().values().forEach(dataSource ->
+                    Flyway.configure()
+                            .configuration(flyway.getConfiguration())
+                            .dataSource(dataSource)
+                            .load()
+                            .migrate());
+        };
+    }
+}
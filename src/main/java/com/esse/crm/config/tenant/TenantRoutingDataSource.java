@@ -0,0 +1,51 @@
+package com.esse.crm.config.tenant;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Picks the tenant's own database for every new connection. Must sit behind a lazy connection proxy so the
+ * tenant is known before the physical connection is taken.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<String, DataSource> tenantDataSources;
+
+    public TenantRoutingDataSource(DataSource defaultDataSource, Map<String, DataSource> tenantDataSources) {
+        this.tenantDataSources = tenantDataSources;
+        Map<Object, Object> targets = new HashMap<>(tenantDataSources);
+        targets.put(TenantContext.DEFAULT_TENANT, defaultDataSource);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(defaultDataSource);
+        // An unknown tenant must never fall back to the default database
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String tenant = TenantContext.currentOrDefault();
+        return TenantContext.ROOT.equals(tenant) ? TenantContext.DEFAULT_TENANT : tenant;
+    }
+
+    public Map<String, DataSource> getTenantDataSources() {
+        return tenantDataSources;
+    }
+
+    /**
+     * Closes the tenant pools; the default pool is a bean of its own and closed by the container.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : tenantDataSources.values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
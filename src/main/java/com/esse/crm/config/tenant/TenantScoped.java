@@ -0,0 +1,9 @@
+package com.esse.crm.config.tenant;
+
+/**
+ * Entity whose rows belong to a single tenant.
+ */
+public interface TenantScoped {
+
+    String getTenantId();
+}
@@ -2,20 +2,28 @@ package com.esse.crm.controller;
 
 import com.esse.crm.dto.AccountDTO;
 import com.esse.crm.dto.ContactDTO;
+import com.esse.crm.dto.MultiGetRequestDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
 import com.esse.crm.dto.activity.ActivityDTO;
 import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.dto.activity.TimelinePageDTO;
+import com.esse.crm.security.authz.RequiresPermission;
 import com.esse.crm.service.AccountService;
 import com.esse.crm.service.ActivityService;
 import com.esse.crm.service.ContactService;
+import com.esse.crm.service.timeline.AccountTimelineService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/accounts")
 @RequiredArgsConstructor
@@ -24,9 +32,10 @@ public class AccountController {
     private final AccountService accountService;
     private final ContactService contactService;
     private final ActivityService activityService;
+    private final AccountTimelineService accountTimelineService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('ACCOUNT_READ')")
+    @RequiresPermission("ACCOUNT_READ")
     public Page<AccountDTO> getAllAccounts(
             @RequestParam(required = false) String search,
             Pageable pageable) {
@@ -34,25 +43,37 @@ public class AccountController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('ACCOUNT_READ')")
+    @RequiresPermission("ACCOUNT_READ")
     public ResponseEntity<AccountDTO> getAccountById(@PathVariable Long id) {
         return ResponseEntity.ok(accountService.getAccountById(id));
     }
 
+    @GetMapping(params = "ids")
+    @RequiresPermission("ACCOUNT_READ")
+    public ResponseEntity<MultiGetResultDTO<AccountDTO>> getAccountsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(accountService.getAccountsByIds(ids));
+    }
+
+    @PostMapping("/multi-get")
+    @RequiresPermission("ACCOUNT_READ")
+    public ResponseEntity<MultiGetResultDTO<AccountDTO>> getAccountsByIds(@Valid @RequestBody MultiGetRequestDTO request) {
+        return ResponseEntity.ok(accountService.getAccountsByIds(request.getIds()));
+    }
+
     @PostMapping
-    @PreAuthorize("hasAuthority('ACCOUNT_WRITE')")
+    @RequiresPermission("ACCOUNT_WRITE")
     public ResponseEntity<AccountDTO> createAccount(@Valid @RequestBody AccountDTO accountDTO) {
         return new ResponseEntity<>(accountService.createAccount(accountDTO), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('ACCOUNT_WRITE')")
+    @RequiresPermission("ACCOUNT_WRITE")
     public ResponseEntity<AccountDTO> updateAccount(@PathVariable Long id, @Valid @RequestBody AccountDTO accountDTO) {
         return ResponseEntity.ok(accountService.updateAccount(id, accountDTO));
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @RequiresPermission("ROLE_ADMIN")
     public ResponseEntity<Void> deleteAccount(@PathVariable Long id) {
         accountService.deleteAccount(id);
         return ResponseEntity.noContent().build();
@@ -70,7 +91,22 @@ public class AccountController {
             @PathVariable Long id,
             @RequestParam(required = false) ActivityType type,
             @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             Pageable pageable) {
-        return activityService.searchActivities(completed, type, null, null, null, null, id, null, pageable);
+        return activityService.searchActivities(completed, type, startDate, endDate, null, null, id, null, pageable);
+    }
+
+    /**
+     * Activities on the account, its contacts and its opportunities, archived ones included, newest first. Pass
+     * {@code nextCursor} as {@code before} to read on while {@code hasMore} is true.
+     */
+    @GetMapping("/{id}/timeline")
+    @RequiresPermission("ACCOUNT_READ")
+    public TimelinePageDTO getAccountTimeline(
+            @PathVariable Long id,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        return accountTimelineService.getTimeline(id, before, size);
     }
 }
@@ -1,5 +1,7 @@
 package com.esse.crm.controller;
 
+import com.esse.crm.dto.MultiGetRequestDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
 import com.esse.crm.dto.activity.ActivityDTO;
 import com.esse.crm.dto.activity.ActivityType;
 import com.esse.crm.service.ActivityService;
@@ -13,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/activities")
@@ -32,6 +35,16 @@ public class ActivityController {
         return activityService.getActivity(id);
     }
 
+    @GetMapping(params = "ids")
+    public MultiGetResultDTO<ActivityDTO> getActivitiesByIds(@RequestParam List<Long> ids) {
+        return activityService.getActivitiesByIds(ids);
+    }
+
+    @PostMapping("/multi-get")
+    public MultiGetResultDTO<ActivityDTO> getActivitiesByIds(@Valid @RequestBody MultiGetRequestDTO request) {
+        return activityService.getActivitiesByIds(request.getIds());
+    }
+
     @GetMapping
     public Page<ActivityDTO> searchActivities(
             @RequestParam(required = false) Boolean completed,
@@ -0,0 +1,37 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.changefeed.ChangeFeedOffsetDTO;
+import com.esse.crm.dto.changefeed.ChangeFeedPageDTO;
+import com.esse.crm.security.authz.RequiresPermission;
+import com.esse.crm.service.changefeed.ChangeFeedService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping
+    @RequiresPermission("CHANGE_FEED_READ")
+    public ChangeFeedPageDTO getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit) {
+        return changeFeedService.getChanges(after, limit);
+    }
+
+    @GetMapping("/offsets/{consumer}")
+    @RequiresPermission("CHANGE_FEED_READ")
+    public ChangeFeedOffsetDTO getOffset(@PathVariable String consumer) {
+        return changeFeedService.getOffset(consumer);
+    }
+
+    @PutMapping("/offsets/{consumer}")
+    @RequiresPermission("CHANGE_FEED_READ")
+    public ChangeFeedOffsetDTO commitOffset(@PathVariable String consumer, @Valid @RequestBody ChangeFeedOffsetDTO offset) {
+        return changeFeedService.commitOffset(consumer, offset.getLastEventId());
+    }
+}
@@ -0,0 +1,73 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.history.ChangeHistoryEntryDTO;
+import com.esse.crm.security.authz.RequiresPermission;
+import com.esse.crm.service.history.ChangeHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Field-level changes of one record, oldest first; {@code from} and {@code to} default to the whole retention
+ * period. Each entity type needs its read permission.
+ */
+@RestController
+@RequestMapping("/api/history")
+@RequiredArgsConstructor
+public class ChangeHistoryController {
+
+    private final ChangeHistoryService changeHistoryService;
+
+    @GetMapping("/Account/{id}")
+    @RequiresPermission("ACCOUNT_READ")
+    public List<ChangeHistoryEntryDTO> getAccountHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return changeHistoryService.getHistory("Account", id, from, to);
+    }
+
+    @GetMapping("/Contact/{id}")
+    @RequiresPermission("CONTACT_READ")
+    public List<ChangeHistoryEntryDTO> getContactHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return changeHistoryService.getHistory("Contact", id, from, to);
+    }
+
+    @GetMapping("/Lead/{id}")
+    @RequiresPermission("LEAD_READ")
+    public List<ChangeHistoryEntryDTO> getLeadHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return changeHistoryService.getHistory("Lead", id, from, to);
+    }
+
+    @GetMapping("/Opportunity/{id}")
+    @RequiresPermission("DEAL_READ")
+    public List<ChangeHistoryEntryDTO> getOpportunityHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return changeHistoryService.getHistory("Opportunity", id, from, to);
+    }
+
+    @GetMapping("/Activity/{id}")
+    @RequiresPermission("ACTIVITY_READ")
+    public List<ChangeHistoryEntryDTO> getActivityHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return changeHistoryService.getHistory("Activity", id, from, to);
+    }
+
+    @GetMapping("/{entityType}/{id}")
+    public List<ChangeHistoryEntryDTO> getUnknownHistory(@PathVariable String entityType, @PathVariable Long id) {
+        throw new IllegalArgumentException("Unknown entity type: " + entityType);
+    }
+}
@@ -1,19 +1,25 @@
 package com.esse.crm.controller;
 
 import com.esse.crm.dto.ContactDTO;
+import com.esse.crm.dto.MultiGetRequestDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
 import com.esse.crm.dto.activity.ActivityDTO;
 import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.security.authz.RequiresPermission;
 import com.esse.crm.service.ActivityService;
 import com.esse.crm.service.ContactService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/contacts")
 @RequiredArgsConstructor
@@ -23,7 +29,7 @@ public class ContactController {
     private final ActivityService activityService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('CONTACT_READ')")
+    @RequiresPermission("CONTACT_READ")
     public Page<ContactDTO> getAllContacts(
             @RequestParam(required = false) String search,
             Pageable pageable) {
@@ -31,25 +37,37 @@ public class ContactController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('CONTACT_READ')")
+    @RequiresPermission("CONTACT_READ")
     public ResponseEntity<ContactDTO> getContactById(@PathVariable Long id) {
         return ResponseEntity.ok(contactService.getContactById(id));
     }
 
+    @GetMapping(params = "ids")
+    @RequiresPermission("CONTACT_READ")
+    public ResponseEntity<MultiGetResultDTO<ContactDTO>> getContactsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(contactService.getContactsByIds(ids));
+    }
+
+    @PostMapping("/multi-get")
+    @RequiresPermission("CONTACT_READ")
+    public ResponseEntity<MultiGetResultDTO<ContactDTO>> getContactsByIds(@Valid @RequestBody MultiGetRequestDTO request) {
+        return ResponseEntity.ok(contactService.getContactsByIds(request.getIds()));
+    }
+
     @PostMapping
-    @PreAuthorize("hasAuthority('CONTACT_WRITE')")
+    @RequiresPermission("CONTACT_WRITE")
     public ResponseEntity<ContactDTO> createContact(@Valid @RequestBody ContactDTO contactDTO) {
         return new ResponseEntity<>(contactService.createContact(contactDTO), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('CONTACT_WRITE')")
+    @RequiresPermission("CONTACT_WRITE")
     public ResponseEntity<ContactDTO> updateContact(@PathVariable Long id, @Valid @RequestBody ContactDTO contactDTO) {
         return ResponseEntity.ok(contactService.updateContact(id, contactDTO));
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @RequiresPermission("ROLE_ADMIN")
     public ResponseEntity<Void> deleteContact(@PathVariable Long id) {
         contactService.deleteContact(id);
         return ResponseEntity.noContent().build();
@@ -60,7 +78,9 @@ public class ContactController {
             @PathVariable Long id,
             @RequestParam(required = false) ActivityType type,
             @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             Pageable pageable) {
-        return activityService.searchActivities(completed, type, null, null, null, null, null, id, pageable);
+        return activityService.searchActivities(completed, type, startDate, endDate, null, null, null, id, pageable);
     }
 }
@@ -1,9 +1,14 @@
 package com.esse.crm.controller;
 
+import com.esse.crm.dto.BulkUpdateResultDTO;
+import com.esse.crm.dto.MultiGetRequestDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
+import com.esse.crm.dto.lead.LeadBulkUpdateDTO;
 import com.esse.crm.dto.lead.LeadConversionResponseDTO;
 import com.esse.crm.dto.lead.LeadDTO;
 import com.esse.crm.dto.lead.LeadSource;
 import com.esse.crm.dto.lead.LeadStatus;
+import com.esse.crm.security.authz.RequiresPermission;
 import com.esse.crm.service.LeadService;
 import com.esse.crm.service.ActivityService;
 import jakarta.validation.Valid;
@@ -11,10 +16,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/leads")
 @RequiredArgsConstructor
@@ -25,19 +33,31 @@ public class LeadController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @PreAuthorize("hasAuthority('LEAD_WRITE')")
+    @RequiresPermission("LEAD_WRITE")
     public LeadDTO createLead(@Valid @RequestBody LeadDTO leadDTO) {
         return leadService.createLead(leadDTO);
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('LEAD_READ')")
+    @RequiresPermission("LEAD_READ")
     public LeadDTO getLead(@PathVariable Long id) {
         return leadService.getLead(id);
     }
 
+    @GetMapping(params = "ids")
+    @RequiresPermission("LEAD_READ")
+    public MultiGetResultDTO<LeadDTO> getLeadsByIds(@RequestParam List<Long> ids) {
+        return leadService.getLeadsByIds(ids);
+    }
+
+    @PostMapping("/multi-get")
+    @RequiresPermission("LEAD_READ")
+    public MultiGetResultDTO<LeadDTO> getLeadsByIds(@Valid @RequestBody MultiGetRequestDTO request) {
+        return leadService.getLeadsByIds(request.getIds());
+    }
+
     @GetMapping
-    @PreAuthorize("hasAuthority('LEAD_READ')")
+    @RequiresPermission("LEAD_READ")
     public Page<LeadDTO> searchLeads(
             @RequestParam(required = false) LeadStatus status,
             @RequestParam(required = false) String ownerUser,
@@ -48,30 +68,44 @@ public class LeadController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('LEAD_WRITE')")
+    @RequiresPermission("LEAD_WRITE")
     public LeadDTO updateLead(@PathVariable Long id, @Valid @RequestBody LeadDTO leadDTO) {
         return leadService.updateLead(id, leadDTO);
     }
 
+    @PatchMapping("/bulk")
+    @RequiresPermission("LEAD_WRITE")
+    public BulkUpdateResultDTO bulkUpdateLeads(@RequestBody LeadBulkUpdateDTO request) {
+        return leadService.bulkUpdate(request);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @RequiresPermission("ROLE_ADMIN")
     public void deleteLead(@PathVariable Long id) {
         leadService.deleteLead(id);
     }
 
     @PostMapping("/{id}/convert")
-    @PreAuthorize("hasAuthority('LEAD_WRITE')")
+    @RequiresPermission("LEAD_WRITE")
     public LeadConversionResponseDTO convertLead(@PathVariable Long id) {
         return leadService.convertLead(id);
     }
 
+    @GetMapping("/{id}/duplicates")
+    @RequiresPermission("LEAD_READ")
+    public List<LeadDTO> getDuplicateCandidates(@PathVariable Long id) {
+        return leadService.getDuplicateCandidates(id);
+    }
+
     @GetMapping("/{id}/activities")
     public Page<com.esse.crm.dto.activity.ActivityDTO> getLeadActivities(
             @PathVariable Long id,
             @RequestParam(required = false) com.esse.crm.dto.activity.ActivityType type,
             @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @PageableDefault(size = 20) Pageable pageable) {
-        return activityService.searchActivities(completed, type, null, null, id, null, null, null, pageable);
+        return activityService.searchActivities(completed, type, startDate, endDate, id, null, null, null, pageable);
     }
 }
@@ -1,9 +1,15 @@
 package com.esse.crm.controller;
 
+import com.esse.crm.dto.BulkUpdateResultDTO;
+import com.esse.crm.dto.MultiGetRequestDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
+import com.esse.crm.dto.opportunity.OpportunityBulkUpdateDTO;
 import com.esse.crm.dto.opportunity.OpportunityDTO;
 import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.esse.crm.security.authz.RequiresPermission;
 import com.esse.crm.service.OpportunityService;
 import com.esse.crm.service.ActivityService;
+import com.esse.crm.service.stagefeed.OpportunityStageFeed;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -11,11 +17,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/opportunities")
@@ -24,22 +33,35 @@ public class OpportunityController {
 
     private final OpportunityService opportunityService;
     private final ActivityService activityService;
+    private final OpportunityStageFeed opportunityStageFeed;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @PreAuthorize("hasAuthority('DEAL_WRITE')")
+    @RequiresPermission("DEAL_WRITE")
     public OpportunityDTO createOpportunity(@Valid @RequestBody OpportunityDTO dto) {
         return opportunityService.createOpportunity(dto);
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('DEAL_READ')")
+    @RequiresPermission("DEAL_READ")
     public OpportunityDTO getOpportunity(@PathVariable Long id) {
         return opportunityService.getOpportunity(id);
     }
 
+    @GetMapping(params = "ids")
+    @RequiresPermission("DEAL_READ")
+    public MultiGetResultDTO<OpportunityDTO> getOpportunitiesByIds(@RequestParam List<Long> ids) {
+        return opportunityService.getOpportunitiesByIds(ids);
+    }
+
+    @PostMapping("/multi-get")
+    @RequiresPermission("DEAL_READ")
+    public MultiGetResultDTO<OpportunityDTO> getOpportunitiesByIds(@Valid @RequestBody MultiGetRequestDTO request) {
+        return opportunityService.getOpportunitiesByIds(request.getIds());
+    }
+
     @GetMapping
-    @PreAuthorize("hasAuthority('DEAL_READ')")
+    @RequiresPermission("DEAL_READ")
     public Page<OpportunityDTO> searchOpportunities(
             @RequestParam(required = false) OpportunityStage stage,
             @RequestParam(required = false) Long accountId,
@@ -52,20 +74,39 @@ public class OpportunityController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('DEAL_WRITE')")
+    @RequiresPermission("DEAL_WRITE")
     public OpportunityDTO updateOpportunity(@PathVariable Long id, @Valid @RequestBody OpportunityDTO dto) {
         return opportunityService.updateOpportunity(id, dto);
     }
 
     @PatchMapping("/{id}/stage")
-    @PreAuthorize("hasAuthority('DEAL_WRITE')")
+    @RequiresPermission("DEAL_WRITE")
     public OpportunityDTO advanceStage(@PathVariable Long id, @RequestParam OpportunityStage stage) {
         return opportunityService.advanceStage(id, stage);
     }
 
+    @PatchMapping("/bulk")
+    @RequiresPermission("DEAL_WRITE")
+    public BulkUpdateResultDTO bulkUpdateOpportunities(@Valid @RequestBody OpportunityBulkUpdateDTO request) {
+        return opportunityService.bulkUpdate(request);
+    }
+
+    /**
+     * Live stage changes as Server-Sent Events ({@code stage_changed}, {@code won}, {@code lost}), optionally for one
+     * account or owner. A {@code resync} event means the connection fell too far behind and was closed.
+     */
+    @GetMapping(value = "/stage-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiresPermission("DEAL_READ")
+    public SseEmitter streamStageEvents(
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) String owner,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return opportunityStageFeed.subscribe(accountId, owner, lastEventId);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @RequiresPermission("ROLE_ADMIN")
     public void deleteOpportunity(@PathVariable Long id) {
         opportunityService.deleteOpportunity(id);
     }
@@ -75,7 +116,9 @@ public class OpportunityController {
             @PathVariable Long id,
             @RequestParam(required = false) com.esse.crm.dto.activity.ActivityType type,
             @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @PageableDefault(size = 20) Pageable pageable) {
-        return activityService.searchActivities(completed, type, null, null, null, id, null, null, pageable);
+        return activityService.searchActivities(completed, type, startDate, endDate, null, id, null, null, pageable);
     }
 }
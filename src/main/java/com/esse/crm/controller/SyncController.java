@@ -0,0 +1,34 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.sync.SyncResponseDTO;
+import com.esse.crm.service.sync.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * Changed and deleted records since {@code since}, oldest first. Records the caller may not read are skipped.
+     * Keep calling with {@code nextToken} while {@code hasMore} is true; 410 means the token has expired and the
+     * client must download everything again.
+     */
+    @GetMapping
+    public SyncResponseDTO sync(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Set<String> types,
+            @RequestParam(defaultValue = "200") int limit) {
+        return syncService.sync(since, types, limit);
+    }
+
+    @GetMapping("/token")
+    public SyncResponseDTO currentToken() {
+        return syncService.currentToken();
+    }
+}
@@ -0,0 +1,22 @@
+package com.esse.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResultDTO {
+    /**
+     * Records selected by the ids or filter; ids of missing records are not counted.
+     */
+    private long matched;
+    private long updated;
+    /**
+     * Matched records left unchanged because a business rule forbids the change (e.g. a closed opportunity's stage).
+     */
+    private long skipped;
+}
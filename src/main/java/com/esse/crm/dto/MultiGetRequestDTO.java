@@ -0,0 +1,19 @@
+package com.esse.crm.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetRequestDTO {
+    @NotEmpty(message = "ids are required")
+    private List<@NotNull Long> ids;
+}
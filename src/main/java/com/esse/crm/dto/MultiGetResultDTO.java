@@ -0,0 +1,34 @@
+package com.esse.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResultDTO<T> {
+    /**
+     * One entry per requested id, in request order (repeated ids are repeated).
+     */
+    private List<Item<T>> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item<T> {
+        private Long id;
+        private boolean found;
+        /**
+         * The record; absent when {@link #found} is false.
+         */
+        private T data;
+    }
+}
@@ -37,4 +37,9 @@ public class ActivityDTO {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    /**
+     * Set on activities served from the archive; those are read-only.
+     */
+    private boolean archived;
 }
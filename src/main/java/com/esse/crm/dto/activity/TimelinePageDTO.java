@@ -0,0 +1,18 @@
+package com.esse.crm.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelinePageDTO {
+    private List<ActivityDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
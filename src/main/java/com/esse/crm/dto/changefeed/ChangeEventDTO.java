@@ -0,0 +1,26 @@
+package com.esse.crm.dto.changefeed;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDTO {
+    /**
+     * Position in the change feed; also serves as the entity version since it grows with every change.
+     */
+    private Long sequence;
+    private String tenantId;
+    private String entityType;
+    private Long entityId;
+    private ChangeOperation operation;
+    private List<String> changedFields;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,24 @@
+package com.esse.crm.dto.changefeed;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedOffsetDTO {
+    private String consumer;
+
+    @NotNull
+    @PositiveOrZero
+    private Long lastEventId;
+
+    private LocalDateTime updatedAt;
+}
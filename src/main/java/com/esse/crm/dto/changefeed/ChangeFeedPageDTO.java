@@ -0,0 +1,20 @@
+package com.esse.crm.dto.changefeed;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedPageDTO {
+    private List<ChangeEventDTO> events;
+    /**
+     * Offset to pass as {@code after} on the next call; unchanged when no new events were available.
+     */
+    private Long nextAfter;
+}
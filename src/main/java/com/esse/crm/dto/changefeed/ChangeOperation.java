@@ -0,0 +1,5 @@
+package com.esse.crm.dto.changefeed;
+
+public enum ChangeOperation {
+    CREATE, UPDATE, DELETE
+}
@@ -0,0 +1,25 @@
+package com.esse.crm.dto.history;
+
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeHistoryEntryDTO {
+    /**
+     * Number of this change within the record's history, starting at 1.
+     */
+    private Integer version;
+    private ChangeOperation operation;
+    private LocalDateTime changedAt;
+    private String changedBy;
+    private List<FieldChangeDTO> changes;
+}
@@ -0,0 +1,16 @@
+package com.esse.crm.dto.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldChangeDTO {
+    private String field;
+    private Object oldValue;
+    private Object newValue;
+}
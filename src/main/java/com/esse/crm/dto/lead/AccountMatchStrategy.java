@@ -0,0 +1,5 @@
+package com.esse.crm.dto.lead;
+
+public enum AccountMatchStrategy {
+    EXACT_NAME, NORMALIZED_NAME, CREATED
+}
@@ -0,0 +1,33 @@
+package com.esse.crm.dto.lead;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Sets the owner and/or status of the leads given by {@code ids}, or of all leads matching {@code filter}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadBulkUpdateDTO {
+    private List<Long> ids;
+    private Filter filter;
+
+    private String ownerUser;
+    private LeadStatus status;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filter {
+        private LeadStatus status;
+        private String ownerUser;
+        private LeadSource source;
+    }
+}
@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 public class LeadConversionResponseDTO {
     private Long leadId;
     private Long accountId;
+    private AccountMatchStrategy accountMatchStrategy;
     private Long contactId;
     private Long opportunityId;
 }
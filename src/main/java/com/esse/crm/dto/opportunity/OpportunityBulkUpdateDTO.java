@@ -0,0 +1,42 @@
+package com.esse.crm.dto.opportunity;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sets the stage, close date and/or probability of the opportunities given by {@code ids}, or of all opportunities
+ * matching {@code filter}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpportunityBulkUpdateDTO {
+    private List<Long> ids;
+    private Filter filter;
+
+    private OpportunityStage stage;
+    private LocalDate closeDate;
+
+    @Min(0)
+    @Max(100)
+    private Integer probability;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filter {
+        private OpportunityStage stage;
+        private Long accountId;
+        private LocalDate closeDateFrom;
+        private LocalDate closeDateTo;
+    }
+}
@@ -0,0 +1,32 @@
+package com.esse.crm.dto.opportunity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageChangeEventDTO {
+    /**
+     * Position in the node-local live feed; clients send it back as {@code Last-Event-ID} when reconnecting.
+     */
+    private long sequence;
+    private StageChangeType type;
+    @JsonIgnore
+    private String tenantId;
+    private Long opportunityId;
+    private String opportunityName;
+    private Long accountId;
+    private String owner;
+    private OpportunityStage fromStage;
+    private OpportunityStage toStage;
+    private BigDecimal amount;
+    private LocalDateTime occurredAt;
+}
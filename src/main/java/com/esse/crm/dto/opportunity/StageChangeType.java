@@ -0,0 +1,5 @@
+package com.esse.crm.dto.opportunity;
+
+public enum StageChangeType {
+    STAGE_CHANGED, WON, LOST
+}
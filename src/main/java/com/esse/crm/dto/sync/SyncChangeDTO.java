@@ -0,0 +1,23 @@
+package com.esse.crm.dto.sync;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncChangeDTO {
+    private Long sequence;
+    private String entityType;
+    private Long entityId;
+    private SyncOperation operation;
+    /**
+     * Current state of the record for {@code UPSERT}; absent for {@code DELETE} tombstones.
+     */
+    private Object record;
+}
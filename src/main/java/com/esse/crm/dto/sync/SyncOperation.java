@@ -0,0 +1,5 @@
+package com.esse.crm.dto.sync;
+
+public enum SyncOperation {
+    UPSERT, DELETE
+}
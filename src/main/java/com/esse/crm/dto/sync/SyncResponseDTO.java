@@ -0,0 +1,18 @@
+package com.esse.crm.dto.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponseDTO {
+    private List<SyncChangeDTO> changes;
+    private String nextToken;
+    private boolean hasMore;
+}
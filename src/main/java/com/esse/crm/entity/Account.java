@@ -1,18 +1,24 @@
 package com.esse.crm.entity;
 
 import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.service.changefeed.ChangeTracked;
+import com.esse.crm.util.KeyNormalizer;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@ChangeTracked
 @Table(name = "accounts")
 @EqualsAndHashCode(callSuper = true)
 @Data
@@ -28,6 +34,9 @@ public class Account extends AuditedEntity {
     @Column(name = "account_name", nullable = false)
     private String accountName;
 
+    @Column(name = "account_key")
+    private String accountKey;
+
     private String industry;
     private String website;
     private String phone;
@@ -39,9 +48,11 @@ public class Account extends AuditedEntity {
     private String shippingAddress;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private AccountStatus status;
 
+    @BatchSize(size = 100)
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "account_contacts",
@@ -57,8 +68,15 @@ public class Account extends AuditedEntity {
     @ToString.Exclude
     private List<Opportunity> opportunities = new ArrayList<>();
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     @ToString.Exclude
     private List<Activity> activities = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    private void normalizeKey() {
+        this.accountKey = KeyNormalizer.accountKey(accountName);
+    }
 }
@@ -1,16 +1,31 @@
 package com.esse.crm.entity;
 
 import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.service.changefeed.ChangeTracked;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activities")
+@ChangeTracked
+@Table(name = "activities", indexes = {
+        @Index(name = "idx_activities_due_at", columnList = "tenant_id, due_at"),
+        @Index(name = "idx_activities_completed", columnList = "tenant_id, completed, due_at"),
+        @Index(name = "idx_activities_type", columnList = "tenant_id, type, due_at"),
+        @Index(name = "idx_activities_lead_due_at", columnList = "tenant_id, lead_id, due_at"),
+        @Index(name = "idx_activities_opportunity_due_at", columnList = "tenant_id, opportunity_id, due_at"),
+        @Index(name = "idx_activities_account_due_at", columnList = "tenant_id, account_id, due_at"),
+        @Index(name = "idx_activities_contact_due_at", columnList = "tenant_id, contact_id, due_at"),
+        @Index(name = "idx_activities_account_timeline", columnList = "tenant_id, account_id, created_at"),
+        @Index(name = "idx_activities_contact_timeline", columnList = "tenant_id, contact_id, created_at"),
+        @Index(name = "idx_activities_opportunity_timeline", columnList = "tenant_id, opportunity_id, created_at")
+})
 @EqualsAndHashCode(callSuper = true)
 @Data
 @SuperBuilder
@@ -23,6 +38,7 @@ public class Activity extends AuditedEntity {
     private Long id;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private ActivityType type;
 
@@ -0,0 +1,84 @@
+package com.esse.crm.entity;
+
+import com.esse.crm.config.tenant.TenantScoped;
+import com.esse.crm.dto.activity.ActivityType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed activity moved out of the live table by {@link com.esse.crm.service.archive.ActivityArchiver}.
+ * Property names mirror {@link Activity} so the same search and sort parameters apply to both tables.
+ */
+@Entity
+@Immutable
+@Table(name = "activities_archive", indexes = {
+        @Index(name = "idx_activities_archive_due_at", columnList = "tenant_id, due_at"),
+        @Index(name = "idx_activities_archive_lead_id", columnList = "tenant_id, lead_id"),
+        @Index(name = "idx_activities_archive_opportunity_id", columnList = "tenant_id, opportunity_id, created_at"),
+        @Index(name = "idx_activities_archive_account_id", columnList = "tenant_id, account_id, created_at"),
+        @Index(name = "idx_activities_archive_contact_id", columnList = "tenant_id, contact_id, created_at")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedActivity implements TenantScoped {
+
+    @Id
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false)
+    private ActivityType type;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "due_at")
+    private LocalDateTime dueAt;
+
+    private boolean completed;
+
+    private String outcome;
+
+    @Column(name = "lead_id")
+    private Long leadId;
+
+    @Column(name = "opportunity_id")
+    private Long opportunityId;
+
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "contact_id")
+    private Long contactId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "created_by", length = 200)
+    private String createdBy;
+
+    @Column(name = "updated_by", length = 200)
+    private String updatedBy;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
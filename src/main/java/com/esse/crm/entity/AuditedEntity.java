@@ -1,10 +1,14 @@
 package com.esse.crm.entity;
 
+import com.esse.crm.config.tenant.TenantGuard;
+import com.esse.crm.config.tenant.TenantScoped;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -19,10 +23,17 @@ import lombok.NoArgsConstructor;
 @Getter
 @Setter
 @MappedSuperclass
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TenantGuard.class})
 @SuperBuilder
 @NoArgsConstructor
-public abstract class AuditedEntity {
+public abstract class AuditedEntity implements TenantScoped {
+
+    /**
+     * Owning tenant, filled in from the current tenant on insert and added to every query by Hibernate.
+     */
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
 
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -39,4 +50,11 @@ public abstract class AuditedEntity {
     @LastModifiedBy
     @Column(name = "updated_by", length = 200)
     private String updatedBy;
+
+    /**
+     * Number of change history entries recorded for this row, maintained by the history writer in SQL only.
+     */
+    @ColumnDefault("0")
+    @Column(name = "history_version", nullable = false, insertable = false, updatable = false)
+    private int historyVersion;
 }
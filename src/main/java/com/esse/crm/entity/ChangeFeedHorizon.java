@@ -0,0 +1,30 @@
+package com.esse.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single row recording how far retention has purged the change feed. Sync tokens below it can no longer be served.
+ */
+@Entity
+@Table(name = "change_feed_horizon")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeFeedHorizon {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "purged_through", nullable = false)
+    private Long purgedThrough;
+
+    @Column(name = "purged_at")
+    private LocalDateTime purgedAt;
+}
@@ -0,0 +1,36 @@
+package com.esse.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "change_feed_offsets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeFeedOffset {
+
+    @Id
+    @Column(length = 100)
+    private String consumer;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Relay instance delivering the batch after {@link #lastEventId}, if any; the claim lapses at
+     * {@link #claimedUntil} so a crashed instance cannot hold it forever.
+     */
+    @Column(name = "claimed_by", length = 36)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+}
@@ -0,0 +1,64 @@
+package com.esse.crm.entity;
+
+import com.esse.crm.config.tenant.TenantScoped;
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Field-level changes of one record in one transaction. Rows are only ever appended, by
+ * {@link com.esse.crm.service.history.ChangeHistoryListener}; {@code version} counts the record's changes from 1.
+ */
+@Entity
+@Immutable
+@Table(name = "change_history",
+        uniqueConstraints = @UniqueConstraint(name = "uk_change_history_version", columnNames = {"entity_type", "entity_id", "version"}),
+        indexes = @Index(name = "idx_change_history_changed_at", columnList = "changed_at"))
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeHistoryEntry implements TenantScoped {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 10)
+    private ChangeOperation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "changed_by", length = 200)
+    private String changedBy;
+
+    /**
+     * {@link com.esse.crm.service.history.HistoryCodec} encoded field changes. The length matches the {@code BLOB}
+     * column of the migration; without it Hibernate expects a {@code TINYBLOB}.
+     */
+    @Lob
+    @Column(nullable = false, length = 65535)
+    private byte[] payload;
+}
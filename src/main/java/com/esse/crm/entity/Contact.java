@@ -1,9 +1,11 @@
 package com.esse.crm.entity;
 
+import com.esse.crm.service.changefeed.ChangeTracked;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,6 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@ChangeTracked
 @Table(name = "contacts")
 @EqualsAndHashCode(callSuper = true)
 @Data
@@ -41,11 +44,13 @@ public class Contact extends AuditedEntity {
     @Column(name = "is_primary_contact", nullable = false)
     private boolean isPrimaryContact;
 
+    @BatchSize(size = 100)
     @ManyToMany(mappedBy = "contacts")
     @Builder.Default
     @ToString.Exclude
     private List<Account> accounts = new ArrayList<>();
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "contact", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     @ToString.Exclude
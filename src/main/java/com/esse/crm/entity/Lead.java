@@ -2,18 +2,31 @@ package com.esse.crm.entity;
 
 import com.esse.crm.dto.lead.LeadSource;
 import com.esse.crm.dto.lead.LeadStatus;
+import com.esse.crm.service.changefeed.ChangeTracked;
+import com.esse.crm.util.KeyNormalizer;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "leads")
+@ChangeTracked
+@Table(name = "leads",
+        uniqueConstraints = @UniqueConstraint(name = Lead.EMAIL_KEY_CONSTRAINT, columnNames = {"tenant_id", "email_key"}),
+        indexes = {
+                @Index(name = "idx_leads_status", columnList = "tenant_id, status, created_at"),
+                @Index(name = "idx_leads_owner_user", columnList = "tenant_id, owner_user, created_at"),
+                @Index(name = "idx_leads_source", columnList = "tenant_id, source, created_at"),
+                @Index(name = "idx_leads_created_at", columnList = "tenant_id, created_at")
+        })
 @EqualsAndHashCode(callSuper = true)
 @Data
 @SuperBuilder
@@ -21,11 +34,14 @@ import java.util.List;
 @AllArgsConstructor
 public class Lead extends AuditedEntity {
 
+    public static final String EMAIL_KEY_CONSTRAINT = "uk_leads_email_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private LeadSource source;
 
@@ -38,16 +54,31 @@ public class Lead extends AuditedEntity {
     @Column(nullable = false)
     private String email;
 
+    @Column(name = "email_key", nullable = false)
+    private String emailKey;
+
+    @Column(name = "blocking_key", length = 512)
+    private String blockingKey;
+
     private String phone;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private LeadStatus status;
 
     @Column(name = "owner_user")
     private String ownerUser;
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "lead", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Activity> activities = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    private void normalizeKeys() {
+        this.emailKey = KeyNormalizer.email(email);
+        this.blockingKey = KeyNormalizer.blockingKey(company, contactName);
+    }
 }
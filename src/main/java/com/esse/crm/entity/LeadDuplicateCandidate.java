@@ -0,0 +1,33 @@
+package com.esse.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "lead_duplicate_candidates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_lead_duplicate_pair", columnNames = {"lead_id", "duplicate_lead_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadDuplicateCandidate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lead_id", nullable = false)
+    private Long leadId;
+
+    @Column(name = "duplicate_lead_id", nullable = false)
+    private Long duplicateLeadId;
+
+    @Column(name = "blocking_key", nullable = false, length = 512)
+    private String blockingKey;
+
+    @Column(name = "detected_at", nullable = false)
+    private LocalDateTime detectedAt;
+}
@@ -1,11 +1,15 @@
 package com.esse.crm.entity;
 
 import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.esse.crm.service.changefeed.ChangeTracked;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -14,7 +18,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "opportunities")
+@ChangeTracked
+@Table(name = "opportunities", indexes = {
+        @Index(name = "idx_opportunities_stage", columnList = "tenant_id, stage, close_date"),
+        @Index(name = "idx_opportunities_close_date", columnList = "tenant_id, close_date"),
+        @Index(name = "idx_opportunities_account_close_date", columnList = "tenant_id, account_id, close_date")
+})
 @EqualsAndHashCode(callSuper = true)
 @Data
 @SuperBuilder
@@ -30,6 +39,7 @@ public class Opportunity extends AuditedEntity {
     private String name;
 
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false)
     private OpportunityStage stage;
 
@@ -49,6 +59,7 @@ public class Opportunity extends AuditedEntity {
     @JoinColumn(name = "primary_lead_id")
     private Lead primaryLead;
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "opportunity", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Activity> activities = new ArrayList<>();
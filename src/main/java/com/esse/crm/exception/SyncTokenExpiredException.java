@@ -0,0 +1,7 @@
+package com.esse.crm.exception;
+
+public class SyncTokenExpiredException extends RuntimeException {
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -1,19 +1,46 @@
 package com.esse.crm.repository;
 
 import com.esse.crm.entity.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountName(String accountName);
 
+    /**
+     * Locking read of the accounts carrying a key. On InnoDB it also locks the key's range in
+     * {@code idx_accounts_account_key}, so a concurrent transaction on any instance that looks up the same key waits
+     * until this one commits, and then sees the account it created. On a miss the gap locks of two such transactions
+     * do not conflict, so their inserts deadlock and one of them is rolled back to be retried by its caller.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountKey = :accountKey ORDER BY a.id")
+    List<Account> lockByAccountKey(@Param("accountKey") String accountKey, Pageable pageable);
+
+    @Query("SELECT a.id AS id, a.tenantId AS tenantId, a.accountKey AS accountKey FROM Account a ORDER BY a.id")
+    Slice<AccountKeyView> findAccountKeys(Pageable pageable);
+
+    List<Account> findTop500ByAccountKeyIsNullAndIdGreaterThanOrderByIdAsc(Long id);
+
+    interface AccountKeyView {
+        Long getId();
+
+        String getTenantId();
+
+        String getAccountKey();
+    }
+
     @Query("SELECT a FROM Account a WHERE " +
            "(:searchTerm IS NULL OR LOWER(a.accountName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(a.industry) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
@@ -2,34 +2,77 @@ package com.esse.crm.repository;
 
 import com.esse.crm.dto.activity.ActivityType;
 import com.esse.crm.entity.Activity;
+import com.esse.crm.repository.search.IndexedSort;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static com.esse.crm.repository.search.SearchPredicates.atLeast;
+import static com.esse.crm.repository.search.SearchPredicates.atMost;
+import static com.esse.crm.repository.search.SearchPredicates.before;
+import static com.esse.crm.repository.search.SearchPredicates.equal;
+import static com.esse.crm.repository.search.SearchPredicates.in;
 
 @Repository
-public interface ActivityRepository extends JpaRepository<Activity, Long> {
-
-    @Query("SELECT a FROM Activity a WHERE " +
-            "(:completed IS NULL OR a.completed = :completed) AND " +
-            "(:type IS NULL OR a.type = :type) AND " +
-            "(:startDate IS NULL OR a.dueAt >= :startDate) AND " +
-            "(:endDate IS NULL OR a.dueAt <= :endDate) AND " +
-            "(:leadId IS NULL OR a.leadId = :leadId) AND " +
-            "(:opportunityId IS NULL OR a.opportunityId = :opportunityId) AND " +
-            "(:accountId IS NULL OR a.accountId = :accountId) AND " +
-            "(:contactId IS NULL OR a.contactId = :contactId)")
-    Page<Activity> search(@Param("completed") Boolean completed,
-                          @Param("type") ActivityType type,
-                          @Param("startDate") LocalDateTime startDate,
-                          @Param("endDate") LocalDateTime endDate,
-                          @Param("leadId") Long leadId,
-                          @Param("opportunityId") Long opportunityId,
-                          @Param("accountId") Long accountId,
-                          @Param("contactId") Long contactId,
-                          Pageable pageable);
+public interface ActivityRepository extends JpaRepository<Activity, Long>, JpaSpecificationExecutor<Activity> {
+
+    /**
+     * Sort keys the search indexes can deliver in order.
+     */
+    Set<String> SORTABLE = Set.of("id", "dueAt");
+
+    default Page<Activity> search(Boolean completed, ActivityType type, LocalDateTime startDate, LocalDateTime endDate,
+                                  Long leadId, Long opportunityId, Long accountId, Long contactId, Pageable pageable) {
+        return findAll(searchSpecification(completed, type, startDate, endDate, leadId, opportunityId, accountId, contactId),
+                IndexedSort.check(pageable, SORTABLE));
+    }
+
+    /**
+     * Search filters shared by live and archived activities, which have the same attributes.
+     */
+    static <T> Specification<T> searchSpecification(Boolean completed, ActivityType type, LocalDateTime startDate, LocalDateTime endDate,
+                                                    Long leadId, Long opportunityId, Long accountId, Long contactId) {
+        return Specification.allOf(
+                equal("completed", completed),
+                equal("type", type),
+                atLeast("dueAt", startDate),
+                atMost("dueAt", endDate),
+                equal("leadId", leadId),
+                equal("opportunityId", opportunityId),
+                equal("accountId", accountId),
+                equal("contactId", contactId));
+    }
+
+    /**
+     * Newest first, the order of the account timeline; {@code idx_activities_*_timeline} deliver it per parent.
+     */
+    Sort TIMELINE_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    /**
+     * Activities of the parents named by {@code parent} ({@code accountId}, {@code contactId} or
+     * {@code opportunityId}) strictly older than {@code (beforeAt, beforeId)}, or from the newest when
+     * {@code beforeAt} is null. The first page and later ones get their own SQL, so neither carries a
+     * {@code :beforeAt IS NULL} branch that keeps the keyset from bounding the index range.
+     */
+    static <T> Specification<T> timelineSpecification(String parent, Collection<Long> parentIds,
+                                                      LocalDateTime beforeAt, Long beforeId) {
+        return Specification.allOf(
+                in(parent, parentIds),
+                before("createdAt", beforeAt, "id", beforeId));
+    }
+
+    default List<Activity> findTimeline(String parent, Collection<Long> parentIds, LocalDateTime beforeAt, Long beforeId,
+                                        int limit) {
+        return findBy(timelineSpecification(parent, parentIds, beforeAt, beforeId),
+                query -> query.sortBy(TIMELINE_ORDER).limit(limit).all());
+    }
 }
@@ -0,0 +1,34 @@
+package com.esse.crm.repository;
+
+import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.entity.ArchivedActivity;
+import com.esse.crm.repository.search.IndexedSort;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedActivityRepository extends JpaRepository<ArchivedActivity, Long>, JpaSpecificationExecutor<ArchivedActivity> {
+
+    default Page<ArchivedActivity> search(Boolean completed, ActivityType type, LocalDateTime startDate, LocalDateTime endDate,
+                                          Long leadId, Long opportunityId, Long accountId, Long contactId, Pageable pageable) {
+        return findAll(ActivityRepository.searchSpecification(completed, type, startDate, endDate, leadId, opportunityId, accountId, contactId),
+                IndexedSort.check(pageable, ActivityRepository.SORTABLE));
+    }
+
+    @Query("SELECT MAX(a.dueAt) FROM ArchivedActivity a")
+    LocalDateTime findNewestDueAt();
+
+    default List<ArchivedActivity> findTimeline(String parent, Collection<Long> parentIds, LocalDateTime beforeAt,
+                                                Long beforeId, int limit) {
+        return findBy(ActivityRepository.timelineSpecification(parent, parentIds, beforeAt, beforeId),
+                query -> query.sortBy(ActivityRepository.TIMELINE_ORDER).limit(limit).all());
+    }
+}
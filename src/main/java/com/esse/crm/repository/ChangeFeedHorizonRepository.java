@@ -0,0 +1,9 @@
+package com.esse.crm.repository;
+
+import com.esse.crm.entity.ChangeFeedHorizon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeFeedHorizonRepository extends JpaRepository<ChangeFeedHorizon, Integer> {
+}
@@ -0,0 +1,19 @@
+package com.esse.crm.repository;
+
+import com.esse.crm.entity.ChangeFeedOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChangeFeedOffsetRepository extends JpaRepository<ChangeFeedOffset, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM ChangeFeedOffset o WHERE o.consumer = :consumer")
+    Optional<ChangeFeedOffset> findForUpdate(@Param("consumer") String consumer);
+}
@@ -0,0 +1,21 @@
+package com.esse.crm.repository;
+
+import com.esse.crm.entity.ChangeHistoryEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeHistoryRepository extends JpaRepository<ChangeHistoryEntry, Long> {
+
+    List<ChangeHistoryEntry> findByEntityTypeAndEntityIdAndChangedAtBetweenOrderByVersionAsc(
+            String entityType, Long entityId, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT e.id FROM ChangeHistoryEntry e WHERE e.changedAt < :cutoff ORDER BY e.changedAt")
+    List<Long> findIdsOlderThan(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -3,17 +3,23 @@ package com.esse.crm.repository;
 import com.esse.crm.entity.Contact;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ContactRepository extends JpaRepository<Contact, Long> {
     Optional<Contact> findByEmail(String email);
 
+    @EntityGraph(attributePaths = "accounts")
+    List<Contact> findWithAccountsByIdIn(Collection<Long> ids);
+
     @Query("SELECT c FROM Contact c WHERE " +
            "(:searchTerm IS NULL OR LOWER(c.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -22,4 +28,7 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
 
     @Query("SELECT c FROM Contact c JOIN c.accounts a WHERE a.id = :accountId")
     Page<Contact> findByAccountId(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query("SELECT c.id FROM Contact c JOIN c.accounts a WHERE a.id = :accountId")
+    List<Long> findIdsByAccountId(@Param("accountId") Long accountId);
 }
@@ -0,0 +1,14 @@
+package com.esse.crm.repository;
+
+import com.esse.crm.entity.LeadDuplicateCandidate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeadDuplicateCandidateRepository extends JpaRepository<LeadDuplicateCandidate, Long> {
+    List<LeadDuplicateCandidate> findByLeadId(Long leadId);
+
+    boolean existsByLeadIdAndDuplicateLeadId(Long leadId, Long duplicateLeadId);
+}
@@ -3,31 +3,112 @@ package com.esse.crm.repository;
 import com.esse.crm.dto.lead.LeadSource;
 import com.esse.crm.dto.lead.LeadStatus;
 import com.esse.crm.entity.Lead;
+import com.esse.crm.repository.search.IndexedSort;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import static com.esse.crm.repository.search.SearchPredicates.above;
+import static com.esse.crm.repository.search.SearchPredicates.containsIgnoreCase;
+import static com.esse.crm.repository.search.SearchPredicates.equal;
 
 @Repository
-public interface LeadRepository extends JpaRepository<Lead, Long> {
-
-    @Query("SELECT l FROM Lead l WHERE " +
-            "(:status IS NULL OR l.status = :status) AND " +
-            "(:ownerUser IS NULL OR l.ownerUser = :ownerUser) AND " +
-            "(:source IS NULL OR l.source = :source) AND " +
-            "(:searchTerm IS NULL OR LOWER(l.company) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(l.contactName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(l.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(l.phone) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<Lead> search(@Param("status") LeadStatus status,
-                      @Param("ownerUser") String ownerUser,
-                      @Param("source") LeadSource source,
-                      @Param("searchTerm") String searchTerm,
-                      Pageable pageable);
+public interface LeadRepository extends JpaRepository<Lead, Long>, JpaSpecificationExecutor<Lead> {
+
+    /**
+     * Sort keys the search indexes can deliver in order.
+     */
+    Set<String> SORTABLE = Set.of("id", "createdAt");
+
+    default Page<Lead> search(LeadStatus status, String ownerUser, LeadSource source, String searchTerm, Pageable pageable) {
+        return findAll(Specification.allOf(
+                equal("status", status),
+                equal("ownerUser", ownerUser),
+                equal("source", source),
+                containsIgnoreCase(searchTerm, "company", "contactName", "email", "phone")), IndexedSort.check(pageable, SORTABLE));
+    }
 
     Optional<Lead> findByEmail(String email);
+
+    boolean existsByEmailKey(String emailKey);
+
+    boolean existsByEmailKeyAndIdNot(String emailKey, Long id);
+
+    @Query("SELECT l.id AS id, l.tenantId AS tenantId, l.emailKey AS emailKey FROM Lead l WHERE l.id > :afterId ORDER BY l.id")
+    List<EmailKeyView> findEmailKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface EmailKeyView {
+        Long getId();
+
+        String getTenantId();
+
+        String getEmailKey();
+    }
+
+    /**
+     * Locks the rows read, so the values recorded as old stay current until the chunk's update is written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l.id AS id, l.ownerUser AS ownerUser, l.status AS status, l.source AS source FROM Lead l WHERE l.id IN :ids")
+    List<BulkView> findBulkViews(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of the next leads matching the filter, in id order, read without locks: a locking scan would lock every
+     * row it passes on the way, matching or not. Callers lock the ids through {@link #findBulkViews}.
+     */
+    default List<Long> findBulkIdsAfter(long afterId, LeadStatus status, String ownerUser, LeadSource source, int limit) {
+        return findBy(Specification.allOf(
+                        above("id", afterId),
+                        equal("status", status),
+                        equal("ownerUser", ownerUser),
+                        equal("source", source)),
+                query -> query.sortBy(Sort.by("id")).limit(limit).all())
+                .stream()
+                .map(Lead::getId)
+                .toList();
+    }
+
+    /**
+     * Set-based update for bulk operations; a null value leaves the column as it is.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Lead l SET " +
+            "l.ownerUser = COALESCE(:ownerUser, l.ownerUser), " +
+            "l.status = COALESCE(:status, l.status), " +
+            "l.updatedAt = :updatedAt, l.updatedBy = :updatedBy " +
+            "WHERE l.id IN :ids")
+    int bulkUpdate(@Param("ids") Collection<Long> ids,
+                   @Param("ownerUser") String ownerUser,
+                   @Param("status") LeadStatus status,
+                   @Param("updatedAt") LocalDateTime updatedAt,
+                   @Param("updatedBy") String updatedBy);
+
+    interface BulkView {
+        Long getId();
+
+        String getOwnerUser();
+
+        LeadStatus getStatus();
+
+        LeadSource getSource();
+    }
+
+    List<Lead> findByBlockingKeyAndIdNot(String blockingKey, Long id);
+
+    List<Lead> findTop500ByBlockingKeyIsNullAndIdGreaterThanOrderByIdAsc(Long id);
 }
@@ -2,31 +2,119 @@ package com.esse.crm.repository;
 
 import com.esse.crm.dto.opportunity.OpportunityStage;
 import com.esse.crm.entity.Opportunity;
+import com.esse.crm.repository.search.IndexedSort;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static com.esse.crm.repository.search.SearchPredicates.above;
+import static com.esse.crm.repository.search.SearchPredicates.atLeast;
+import static com.esse.crm.repository.search.SearchPredicates.atMost;
+import static com.esse.crm.repository.search.SearchPredicates.equal;
 
 @Repository
-public interface OpportunityRepository extends JpaRepository<Opportunity, Long> {
-
-    @Query("SELECT o FROM Opportunity o WHERE " +
-            "(:stage IS NULL OR o.stage = :stage) AND " +
-            "(:accountId IS NULL OR o.account.id = :accountId) AND " +
-            "(:startDate IS NULL OR o.closeDate >= :startDate) AND " +
-            "(:endDate IS NULL OR o.closeDate <= :endDate) AND " +
-            "(:minAmount IS NULL OR o.amount >= :minAmount) AND " +
-            "(:maxAmount IS NULL OR o.amount <= :maxAmount)")
-    Page<Opportunity> search(@Param("stage") OpportunityStage stage,
-                             @Param("accountId") Long accountId,
-                             @Param("startDate") LocalDate startDate,
-                             @Param("endDate") LocalDate endDate,
-                             @Param("minAmount") BigDecimal minAmount,
-                             @Param("maxAmount") BigDecimal maxAmount,
-                             Pageable pageable);
+public interface OpportunityRepository extends JpaRepository<Opportunity, Long>, JpaSpecificationExecutor<Opportunity> {
+
+    /**
+     * Sort keys the search indexes can deliver in order.
+     */
+    Set<String> SORTABLE = Set.of("id", "closeDate");
+
+    default Page<Opportunity> search(OpportunityStage stage, Long accountId, LocalDate startDate, LocalDate endDate,
+                                     BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable) {
+        return findAll(Specification.allOf(
+                equal("stage", stage),
+                equal("account.id", accountId),
+                atLeast("closeDate", startDate),
+                atMost("closeDate", endDate),
+                atLeast("amount", minAmount),
+                atMost("amount", maxAmount)), IndexedSort.check(pageable, SORTABLE));
+    }
+
+    @Query("SELECT o.id FROM Opportunity o WHERE o.account.id = :accountId")
+    List<Long> findIdsByAccountId(@Param("accountId") Long accountId);
+
+    String BULK_VIEW = "SELECT o.id AS id, o.tenantId AS tenantId, o.name AS name, o.stage AS stage, o.amount AS amount, " +
+            "o.closeDate AS closeDate, o.probability AS probability, o.account.id AS accountId, o.createdBy AS createdBy " +
+            "FROM Opportunity o ";
+
+    /**
+     * Locks the rows read, so the values recorded as old stay current until the chunk's update is written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(BULK_VIEW + "WHERE o.id IN :ids")
+    List<BulkView> findBulkViews(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of the next opportunities matching the filter, in id order, read without locks: a locking scan would lock
+     * every row it passes on the way, matching or not. Callers lock the ids through {@link #findBulkViews}.
+     */
+    default List<Long> findBulkIdsAfter(long afterId, OpportunityStage stage, Long accountId,
+                                        LocalDate startDate, LocalDate endDate, int limit) {
+        return findBy(Specification.allOf(
+                        above("id", afterId),
+                        equal("stage", stage),
+                        equal("account.id", accountId),
+                        atLeast("closeDate", startDate),
+                        atMost("closeDate", endDate)),
+                query -> query.sortBy(Sort.by("id")).limit(limit).all())
+                .stream()
+                .map(Opportunity::getId)
+                .toList();
+    }
+
+    /**
+     * Set-based update for bulk operations; a null value leaves the column as it is. Rows in one of
+     * {@code finalStages} keep their stage, so a concurrent close is never reopened.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Opportunity o SET " +
+            "o.stage = COALESCE(:stage, o.stage), " +
+            "o.closeDate = COALESCE(:closeDate, o.closeDate), " +
+            "o.probability = COALESCE(:probability, o.probability), " +
+            "o.updatedAt = :updatedAt, o.updatedBy = :updatedBy " +
+            "WHERE o.id IN :ids AND (:stage IS NULL OR o.stage = :stage OR o.stage NOT IN :finalStages)")
+    int bulkUpdate(@Param("ids") Collection<Long> ids,
+                   @Param("stage") OpportunityStage stage,
+                   @Param("closeDate") LocalDate closeDate,
+                   @Param("probability") Integer probability,
+                   @Param("finalStages") Collection<OpportunityStage> finalStages,
+                   @Param("updatedAt") LocalDateTime updatedAt,
+                   @Param("updatedBy") String updatedBy);
+
+    interface BulkView {
+        Long getId();
+
+        String getTenantId();
+
+        String getName();
+
+        OpportunityStage getStage();
+
+        BigDecimal getAmount();
+
+        LocalDate getCloseDate();
+
+        Integer getProbability();
+
+        Long getAccountId();
+
+        String getCreatedBy();
+    }
 }
@@ -0,0 +1,26 @@
+package com.esse.crm.repository;
+
+import com.esse.crm.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByIdGreaterThanAndOccurredAtLessThanEqualOrderByIdAsc(Long afterId, LocalDateTime visibleBefore, Pageable pageable);
+
+    @Query("SELECT MAX(e.id) FROM OutboxEvent e WHERE e.occurredAt < :cutoff")
+    Long findLastIdBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT MAX(e.id) FROM OutboxEvent e WHERE e.occurredAt <= :visibleBefore")
+    Long findLastVisibleId(@Param("visibleBefore") LocalDateTime visibleBefore);
+
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.id <= :lastId ORDER BY e.id")
+    List<Long> findIdsThrough(@Param("lastId") Long lastId, Pageable pageable);
+}
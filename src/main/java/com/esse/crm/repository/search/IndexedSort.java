@@ -0,0 +1,32 @@
+package com.esse.crm.repository.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps search sorting to columns an index can deliver in order. Sorting a large filtered set by any other column
+ * means reading and sorting all of it before the first page can be returned.
+ */
+public final class IndexedSort {
+
+    private IndexedSort() {
+    }
+
+    /**
+     * Returns {@code pageable} unchanged when every sort property is in {@code sortable}.
+     *
+     * @throws IllegalArgumentException naming the first property that is not
+     */
+    public static Pageable check(Pageable pageable, Set<String> sortable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!sortable.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by '" + order.getProperty() + "', sortable fields are "
+                        + new TreeSet<>(sortable));
+            }
+        }
+        return pageable;
+    }
+}
@@ -0,0 +1,100 @@
+package com.esse.crm.repository.search;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Building blocks for search specifications. Each factory returns null when its filter value is absent, and
+ * {@link Specification#allOf} skips nulls, so a search emits only the predicates actually supplied and the database
+ * can pick an index for them. The {@code (:p IS NULL OR col = :p)} form it replaces makes MySQL plan for every
+ * parameter being set or not at once, which usually ends in a full scan.
+ */
+public final class SearchPredicates {
+
+    private SearchPredicates() {
+    }
+
+    /**
+     * {@code attribute = value}; the attribute may be a dotted path such as {@code account.id}.
+     */
+    public static <T> Specification<T> equal(String attribute, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(path(root, attribute), value);
+    }
+
+    public static <T> Specification<T> in(String attribute, Collection<?> values) {
+        if (values == null) {
+            return null;
+        }
+        return (root, query, cb) -> path(root, attribute).in(values);
+    }
+
+    /**
+     * Keyset condition of a scan in descending {@code (attribute, idAttribute)} order: rows strictly after
+     * {@code (value, id)} in that order. Null before the first page, which then reads from the start of the index.
+     */
+    public static <T, Y extends Comparable<? super Y>> Specification<T> before(String attribute, Y value,
+                                                                               String idAttribute, Long id) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(path(root, attribute), value),
+                cb.and(cb.equal(path(root, attribute), value), cb.lessThan(path(root, idAttribute), id)));
+    }
+
+    /**
+     * {@code attribute > value}, the keyset condition of a scan in {@code attribute} order.
+     */
+    public static <T, Y extends Comparable<? super Y>> Specification<T> above(String attribute, Y value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThan(path(root, attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> atLeast(String attribute, Y value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(path(root, attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> atMost(String attribute, Y value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(path(root, attribute), value);
+    }
+
+    /**
+     * Case-insensitive substring match on any of the attributes. A leading wildcard cannot use an index; it only
+     * narrows rows already selected by the other predicates, or scans when it is the only filter.
+     */
+    public static <T> Specification<T> containsIgnoreCase(String term, String... attributes) {
+        if (term == null) {
+            return null;
+        }
+        String pattern = "%" + term.toLowerCase() + "%";
+        return (root, query, cb) -> cb.or(Arrays.stream(attributes)
+                .map(attribute -> cb.like(cb.lower(path(root, attribute)), pattern))
+                .toArray(Predicate[]::new));
+    }
+
+    private static <Y> Path<Y> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> typed = (Path<Y>) path;
+        return typed;
+    }
+}
@@ -0,0 +1,33 @@
+package com.esse.crm.security.authz;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.util.function.SingletonSupplier;
+
+@Configuration(proxyBeanMethods = false)
+public class PermissionAuthorizationConfig {
+
+    /**
+     * Runs where {@code @PreAuthorize} would. The index is looked up lazily: advisors are created while other beans,
+     * the repositories it depends on among them, are still being built.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requiresPermissionAuthorization(ObjectProvider<PermissionIndex> permissionIndex) {
+        ComposablePointcut pointcut = new ComposablePointcut(
+                AnnotationMatchingPointcut.forMethodAnnotation(RequiresPermission.class))
+                .union(new AnnotationMatchingPointcut(RequiresPermission.class, true));
+        AuthorizationManagerBeforeMethodInterceptor interceptor = new AuthorizationManagerBeforeMethodInterceptor(
+                pointcut, new PermissionAuthorizationManager(SingletonSupplier.of(permissionIndex::getObject)));
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
+}
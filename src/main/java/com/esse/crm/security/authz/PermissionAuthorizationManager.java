@@ -0,0 +1,52 @@
+package com.esse.crm.security.authz;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Decides {@link RequiresPermission} methods. The required bit is resolved once per method; principals loaded by
+ * {@code CustomUserDetailsService} carry their compiled authorities, so the check itself is one bit test. Other
+ * principals (tests, future authentication schemes) fall back to comparing authority names.
+ */
+public class PermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Supplier<PermissionIndex> index;
+    private final Map<Method, Required> required = new ConcurrentHashMap<>();
+
+    public PermissionAuthorizationManager(Supplier<PermissionIndex> index) {
+        this.index = index;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Required permission = required.computeIfAbsent(invocation.getMethod(), this::resolve);
+        Authentication current = authentication.get();
+        return current != null && current.isAuthenticated()
+                && PermissionIndex.isGranted(current, permission.name(), permission.bit()) ? GRANTED : DENIED;
+    }
+
+    private Required resolve(Method method) {
+        RequiresPermission annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequiresPermission.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), RequiresPermission.class);
+        }
+        if (annotation == null) {
+            throw new IllegalStateException("No @RequiresPermission on " + method);
+        }
+        return new Required(annotation.value(), index.get().bitOf(annotation.value()));
+    }
+
+    private record Required(String name, int bit) {
+    }
+}
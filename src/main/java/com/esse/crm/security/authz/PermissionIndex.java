@@ -0,0 +1,117 @@
+package com.esse.crm.security.authz;
+
+import com.esse.crm.security.dto.UserPrincipal;
+import com.esse.crm.security.entity.Role;
+import com.esse.crm.security.repository.PermissionRepository;
+import com.esse.crm.security.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns every authority (permission or {@code ROLE_} name) a fixed bit, so a user's authorities compile into a
+ * {@code long[]} and an authorization check is a single bit test. The {@code permissions} and {@code roles} tables
+ * are indexed at startup; names first seen later are appended. Bits only hold for the life of this process and are
+ * never sent to clients. Users share a handful of role combinations, so compiled sets are kept per set of authority
+ * names and the principal loaded for each request reuses them.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PermissionIndex {
+
+    private static final int MAX_COMPILED_SETS = 1024;
+
+    private final PermissionRepository permissionRepository;
+    private final RoleRepository roleRepository;
+    private final Map<String, Integer> bits = new ConcurrentHashMap<>();
+    private final Map<Set<String>, long[]> compiled = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        permissionRepository.findAll(Sort.by("id")).forEach(permission -> bitOf(permission.getName()));
+        roleRepository.findAll(Sort.by("id")).forEach(role -> bitOf(roleAuthority(role)));
+        log.info("Indexed {} authorities", bits.size());
+    }
+
+    public int bitOf(String authority) {
+        Integer bit = bits.get(authority);
+        return bit != null ? bit : assign(authority);
+    }
+
+    /**
+     * The authorities' bitset, shared by every caller with the same authorities; it must not be modified.
+     */
+    public long[] compile(Collection<? extends GrantedAuthority> authorities) {
+        Set<String> names = new HashSet<>(authorities.size() * 2);
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+        long[] set = compiled.get(names);
+        if (set == null) {
+            set = compileNames(names);
+            if (compiled.size() < MAX_COMPILED_SETS) {
+                compiled.putIfAbsent(names, set);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Whether the caller holds the authority; the check behind {@link RequiresPermission}, for code that decides
+     * which permission applies at runtime.
+     */
+    public boolean isGranted(Authentication authentication, String authority) {
+        return authentication != null && authentication.isAuthenticated()
+                && isGranted(authentication, authority, bitOf(authority));
+    }
+
+    static boolean isGranted(Authentication authentication, String authority, int bit) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.getPermissionBits() != null) {
+            return test(principal.getPermissionBits(), bit);
+        }
+        for (GrantedAuthority granted : authentication.getAuthorities()) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean test(long[] set, int bit) {
+        int word = bit >>> 6;
+        return word < set.length && (set[word] & (1L << bit)) != 0;
+    }
+
+    private long[] compileNames(Set<String> names) {
+        long[] set = new long[(bits.size() + names.size() + 63) >>> 6];
+        for (String name : names) {
+            int bit = bitOf(name);
+            if (bit >>> 6 >= set.length) {
+                set = Arrays.copyOf(set, (bit >>> 6) + 1);
+            }
+            set[bit >>> 6] |= 1L << bit;
+        }
+        return set;
+    }
+
+    private synchronized int assign(String authority) {
+        return bits.computeIfAbsent(authority, name -> bits.size());
+    }
+
+    private static String roleAuthority(Role role) {
+        return role.getName().startsWith("ROLE_") ? role.getName() : "ROLE_" + role.getName();
+    }
+}
@@ -0,0 +1,19 @@
+package com.esse.crm.security.authz;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires the caller to hold the named authority; the method-security equivalent of
+ * {@code @PreAuthorize("hasAuthority('...')")} decided by a bit test instead of a SpEL evaluation.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresPermission {
+
+    String value();
+}
@@ -3,24 +3,32 @@ package com.esse.crm.security.controller;
 import com.esse.crm.security.dto.AuthResponse;
 import com.esse.crm.security.dto.LoginRequest;
 import com.esse.crm.security.dto.RegisterRequest;
+import com.esse.crm.security.ratelimit.AuthRateLimiter;
 import com.esse.crm.security.service.AuthenticationService;
+import com.esse.crm.security.service.JwtKeyRing;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthenticationService service;
+    private final AuthRateLimiter rateLimiter;
+    private final JwtKeyRing keyRing;
 
     @Value("${application.security.jwt.refresh-token.cookie-name}")
     private String cookieName;
@@ -28,12 +36,24 @@ public class AuthController {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshTokenExpiration;
 
+    /**
+     * Public keys for verifying access tokens (JWK Set). Verifiers should cache it and fetch again only when a token
+     * names a {@code kid} they do not have.
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(keyRing.jwks());
+    }
+
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(
             @Valid @RequestBody RegisterRequest request,
             HttpServletRequest servletRequest,
             HttpServletResponse servletResponse
     ) {
+        rateLimiter.check(servletRequest, request.getUsername());
         AuthResponse response = service.register(request, getDeviceInfo(servletRequest), getIpAddress(servletRequest));
         setRefreshTokenCookie(servletResponse, response.getRefreshToken());
         return ResponseEntity.ok(response);
@@ -45,6 +65,7 @@ public class AuthController {
             HttpServletRequest servletRequest,
             HttpServletResponse servletResponse
     ) {
+        rateLimiter.check(servletRequest, request.getUsername());
         AuthResponse response = service.login(request, getDeviceInfo(servletRequest), getIpAddress(servletRequest));
         setRefreshTokenCookie(servletResponse, response.getRefreshToken());
         return ResponseEntity.ok(response);
@@ -53,11 +74,15 @@ public class AuthController {
     @PostMapping("/logout")
     public ResponseEntity<Void> logout(
             @CookieValue(name = "refresh_token", required = false) String refreshTokenCookie,
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
             HttpServletResponse servletResponse
     ) {
         if (refreshTokenCookie != null) {
             service.logout(refreshTokenCookie);
         }
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            service.revokeAccessToken(authorization.substring(7));
+        }
         
         ResponseCookie cookie = ResponseCookie.from(cookieName, "")
                 .httpOnly(true)
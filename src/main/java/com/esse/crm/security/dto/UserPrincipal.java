@@ -15,7 +15,10 @@ public class UserPrincipal implements UserDetails {
     private final Long id;
     private final String username;
     private final String password;
+    private final String tenantId;
     private final Collection<? extends GrantedAuthority> authorities;
+    /** {@link #authorities} compiled against {@code PermissionIndex}; null when not compiled. */
+    private final long[] permissionBits;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,40 @@
+package com.esse.crm.security.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An access-token signing key pair, named by the {@code kid} put in token headers. The newest key signs; older ones
+ * keep verifying until every token they signed has expired.
+ */
+@Entity
+@Table(name = "jwt_signing_keys", indexes = {
+        @Index(name = "idx_jwt_signing_keys_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JwtSigningKey {
+
+    @Id
+    @Column(length = 36)
+    private String kid;
+
+    @Column(nullable = false, length = 10)
+    private String algorithm;
+
+    /** X.509 encoding, Base64. */
+    @Column(nullable = false, length = 1024)
+    private String publicKey;
+
+    /** PKCS#8 encoding, encrypted under the key-encryption key from configuration; never stored in plain text. */
+    @Column(nullable = false, length = 1024)
+    private String privateKey;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
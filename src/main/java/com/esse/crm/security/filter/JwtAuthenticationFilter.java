@@ -1,6 +1,13 @@
 package com.esse.crm.security.filter;
 
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.security.authz.PermissionIndex;
+import com.esse.crm.security.dto.UserPrincipal;
+import com.esse.crm.security.service.AccessTokenRevocationList;
 import com.esse.crm.security.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +15,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,13 +25,22 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authenticates requests carrying an access token. Tokens issued with the user's id, tenant and compact authority
+ * claim are trusted as they are, so a request costs no user lookup and role changes apply from the user's next
+ * token; older tokens load the user as before.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TenantDirectory tenantDirectory;
+    private final AccessTokenRevocationList revocationList;
+    private final PermissionIndex permissionIndex;
 
     @Override
     protected void doFilterInternal(
@@ -36,10 +54,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         final String jwt = authHeader.substring(7);
-        final String username = jwtService.extractUsername(jwt);
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        final Claims claims;
+        try {
+            claims = jwtService.parse(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired, forged or signed with an algorithm no longer accepted: the request stays unauthenticated
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String username = claims.getSubject();
+        String tenant = null;
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !revocationList.isRevoked(claims.getId())) {
+            UserDetails userDetails = jwtService.isSelfContained(claims)
+                    ? principal(claims)
+                    : this.userDetailsService.loadUserByUsername(username);
+            String tokenTenant = resolveTenant(claims, userDetails);
+            if (tokenTenant != null && jwtService.isTokenValid(claims, userDetails)) {
+                tenant = tokenTenant;
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -51,6 +83,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
-        filterChain.doFilter(request, response);
+        if (tenant == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        TenantContext.set(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private UserPrincipal principal(Claims claims) {
+        List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(jwtService.extractAuthorities(claims));
+        return UserPrincipal.builder()
+                .id(jwtService.extractUserId(claims))
+                .username(claims.getSubject())
+                .tenantId(jwtService.extractTenant(claims))
+                .authorities(authorities)
+                .permissionBits(permissionIndex.compile(authorities))
+                .build();
+    }
+
+    /**
+     * Tenant named in the token, provided it is still the user's tenant and is served by this instance; tokens from
+     * before tenancy carry no claim and belong to the default tenant.
+     */
+    private String resolveTenant(Claims claims, UserDetails userDetails) {
+        String tenant = jwtService.extractTenant(claims);
+        if (tenant == null) {
+            tenant = TenantContext.DEFAULT_TENANT;
+        }
+        if (userDetails instanceof UserPrincipal principal && !tenant.equals(principal.getTenantId())) {
+            return null;
+        }
+        return tenantDirectory.isKnown(tenant) ? tenant : null;
     }
 }
@@ -0,0 +1,95 @@
+package com.esse.crm.security.hashing;
+
+import com.esse.crm.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the delegate's hashing and verification on a dedicated pool sized to the cores, so a login storm can keep at
+ * most that many cores busy with BCrypt and the rest of the API keeps its CPU. Work that waited in the queue longer
+ * than {@code maxQueueTime} is dropped before it starts, since its caller has most likely given up, and a full queue
+ * fails at once; both surface as 503. Queue and compute time are reported as {@code crm.auth.hashing.queue} and
+ * {@code crm.auth.hashing.compute}, shed work as {@code crm.auth.hashing.shed}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final long maxQueueNanos;
+    private final MeterRegistry meterRegistry;
+    private final Counter shedQueueFull;
+    private final Counter shedDeadline;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolTaskExecutor executor, Duration maxQueueTime,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxQueueNanos = maxQueueTime.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.shedQueueFull = Counter.builder("crm.auth.hashing.shed").tag("reason", "queue-full").register(meterRegistry);
+        this.shedDeadline = Counter.builder("crm.auth.hashing.shed").tag("reason", "deadline").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(String operation, Supplier<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                long queued = started - submitted;
+                timer("crm.auth.hashing.queue", operation).record(queued, TimeUnit.NANOSECONDS);
+                if (queued > maxQueueNanos) {
+                    shedDeadline.increment();
+                    throw new ServiceUnavailableException("Authentication is overloaded, retry shortly");
+                }
+                T result = work.get();
+                timer("crm.auth.hashing.compute", operation).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return result;
+            });
+        } catch (TaskRejectedException e) {
+            shedQueueFull.increment();
+            throw new ServiceUnavailableException("Authentication is overloaded, retry shortly");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Timer timer(String name, String operation) {
+        return Timer.builder(name).tag("operation", operation).register(meterRegistry);
+    }
+}
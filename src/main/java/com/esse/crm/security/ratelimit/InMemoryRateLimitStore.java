@@ -0,0 +1,53 @@
+package com.esse.crm.security.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets using the generic cell rate algorithm: each key holds only the theoretical arrival time
+ * of its next request, advanced by one emission interval per token with a compare-and-set. A bucket is full once
+ * that time has passed, which is also when it may be evicted.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    public InMemoryRateLimitStore(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long interval = limit.getPeriod().toNanos() / limit.getCapacity();
+        long burstTolerance = interval * (limit.getCapacity() - 1);
+        AtomicLong arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(nanoClock.getAsLong()));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = arrival.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - burstTolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        // A request racing the removal may update the evicted counter and lose one token's worth of history,
+        // which at worst lets a just-refilled bucket grant one extra request
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    @Override
+    public int size() {
+        return buckets.size();
+    }
+}
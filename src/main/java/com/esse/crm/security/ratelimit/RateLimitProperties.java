@@ -0,0 +1,37 @@
+package com.esse.crm.security.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "application.security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Key clients by the first {@code X-Forwarded-For} address instead of the connection's. Only safe behind a
+     * proxy that overwrites the header, otherwise a client can pick a new key per request.
+     */
+    private boolean trustForwardedFor = false;
+
+    private Limit ip = new Limit(30, Duration.ofMinutes(1));
+
+    private Limit username = new Limit(10, Duration.ofMinutes(1));
+
+    /**
+     * Up to {@code capacity} requests at once, refilled evenly so that {@code capacity} more are allowed per
+     * {@code period}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int capacity;
+        private Duration period;
+    }
+}
@@ -0,0 +1,23 @@
+package com.esse.crm.security.ratelimit;
+
+/**
+ * Token buckets by key. The in-memory store limits each node on its own; a store backed by a shared cache can be
+ * declared as a bean to enforce the limits across nodes. Buckets are kept as one timestamp per key (GCRA), so a
+ * shared implementation needs nothing more than an atomic compare-and-set of a number.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes a token from the bucket of {@code key}.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(String key, RateLimitProperties.Limit limit);
+
+    /**
+     * Drops buckets that have refilled completely; they are indistinguishable from new ones.
+     */
+    void evictIdle();
+
+    int size();
+}
@@ -0,0 +1,21 @@
+package com.esse.crm.security.repository;
+
+import com.esse.crm.security.entity.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    List<JwtSigningKey> findAllByOrderByCreatedAtDesc();
+
+    @Modifying
+    @Query("DELETE FROM JwtSigningKey k WHERE k.createdAt < :cutoff AND k.kid <> :newest")
+    int deleteRetired(@Param("cutoff") LocalDateTime cutoff, @Param("newest") String newest);
+}
@@ -1,9 +1,14 @@
 package com.esse.crm.security.repository;
 
 import com.esse.crm.security.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +17,18 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     Optional<RefreshToken> findByTokenId(String tokenId);
     List<RefreshToken> findByTokenFamily(String tokenFamily);
     void deleteByUserId(Long userId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :revokedAt WHERE t.tokenFamily = :family AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("family") String family, @Param("revokedAt") LocalDateTime revokedAt);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :revokedAt WHERE t.tokenId = :tokenId AND t.revokedAt IS NULL")
+    int revokeByTokenId(@Param("tokenId") String tokenId, @Param("revokedAt") LocalDateTime revokedAt);
+
+    @Query("SELECT t.id FROM RefreshToken t WHERE t.expiresAt < :cutoff ORDER BY t.expiresAt")
+    List<Long> findIdsExpiredBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("SELECT t.id FROM RefreshToken t WHERE t.revokedAt < :cutoff ORDER BY t.revokedAt")
+    List<Long> findIdsRevokedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 }
@@ -0,0 +1,146 @@
+package com.esse.crm.security.service;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.security.entity.RevokedAccessToken;
+import com.esse.crm.security.repository.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids ({@code jti}) of access tokens revoked before their expiry. Every node answers {@link #isRevoked} from an
+ * in-memory set, so the check costs one hash lookup per request; the {@code revoked_access_tokens} table is the
+ * shared log the nodes poll for each other's revocations. A poll re-reads the last {@code sync-overlap} of the
+ * log, which covers revocations that committed late or were stamped by a node whose clock runs behind. Entries are
+ * dropped, in memory and in the table, once the token has expired anyway.
+ * <p>
+ * Polls run on a thread of their own rather than the shared scheduler, so a long purge or archive run cannot leave
+ * another node's revocations unseen. {@code crm.auth.revocation.sync-age} is the time since the last successful poll.
+ */
+@Component
+@Slf4j
+public class AccessTokenRevocationList {
+
+    private final RevokedAccessTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration syncOverlap;
+    private final long pollInterval;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService syncExecutor = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "revocation-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile LocalDateTime lastSync;
+    private volatile long lastSyncNanos;
+
+    public AccessTokenRevocationList(RevokedAccessTokenRepository repository,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${application.security.jwt.revocation.sync-overlap:30s}") Duration syncOverlap,
+                                     @Value("${application.security.jwt.revocation.poll-interval:2000}") long pollInterval) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.syncOverlap = syncOverlap;
+        this.pollInterval = pollInterval;
+        Gauge.builder("crm.auth.revoked-access-tokens", revoked, Map::size).register(meterRegistry);
+        Gauge.builder("crm.auth.revocation.sync-age", this, AccessTokenRevocationList::syncAgeSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revokes the token for all nodes; this node stops accepting it at once, the others within a poll interval.
+     */
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        // Security tables live in the default database whichever tenant the request belongs to
+        TenantContext.runAs(TenantContext.DEFAULT_TENANT, () -> transactionTemplate.executeWithoutResult(status ->
+                repository.save(RevokedAccessToken.builder()
+                        .jti(jti)
+                        .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                        .revokedAt(LocalDateTime.now())
+                        .build())));
+        revoked.put(jti, expiresAt.getTime());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        lastSync = LocalDateTime.now();
+        add(repository.findByExpiresAtAfter(lastSync));
+        lastSyncNanos = started;
+        log.info("Loaded {} revoked access tokens", revoked.size());
+        syncExecutor.scheduleWithFixedDelay(this::syncQuietly, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void sync() {
+        if (lastSync == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        add(repository.findByRevokedAtGreaterThanEqual(lastSync.minus(syncOverlap)));
+        lastSync = now;
+        lastSyncNanos = started;
+        long nowMillis = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+    }
+
+    @PreDestroy
+    void stop() {
+        syncExecutor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${application.security.jwt.revocation.purge-cron:0 5 * * * *}")
+    public void purge() {
+        Integer purged = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired access token revocations", purged);
+        }
+    }
+
+    // An exception escaping a scheduleWithFixedDelay task would cancel every later poll
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Revoked access token sync failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private double syncAgeSeconds() {
+        return lastSync == null ? Double.NaN : (System.nanoTime() - lastSyncNanos) / 1e9;
+    }
+
+    private void add(List<RevokedAccessToken> tokens) {
+        for (RevokedAccessToken token : tokens) {
+            revoked.put(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.esse.crm.security.dto.RegisterRequest;
 import com.esse.crm.security.entity.AppUser;
 import com.esse.crm.security.repository.AppUserRepository;
 import com.esse.crm.security.repository.RoleRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -28,6 +30,7 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final RefreshTokenService refreshTokenService;
+    private final AccessTokenRevocationList accessTokenRevocationList;
 
     @Transactional
     public AuthResponse register(RegisterRequest request, String deviceInfo, String ipAddress) {
@@ -83,6 +86,18 @@ public class AuthenticationService {
         refreshTokenService.revokeToken(refreshToken);
     }
 
+    /**
+     * Stops the access token from being accepted before it expires. Invalid or expired tokens need no revocation.
+     */
+    public void revokeAccessToken(String accessToken) {
+        try {
+            Claims claims = jwtService.parse(accessToken);
+            accessTokenRevocationList.revoke(claims.getId(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Nothing to revoke
+        }
+    }
+
     private AuthResponse createAuthResponse(AppUser user, String deviceInfo, String ipAddress) {
         var jwtToken = jwtService.generateToken(user);
         var refreshTokenResult = refreshTokenService.generateRefreshToken(user, deviceInfo, ipAddress, null);
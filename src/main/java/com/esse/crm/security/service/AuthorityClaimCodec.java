@@ -0,0 +1,139 @@
+package com.esse.crm.security.service;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.security.entity.AppUser;
+import com.esse.crm.security.entity.Permission;
+import com.esse.crm.security.entity.Role;
+import com.esse.crm.security.repository.PermissionRepository;
+import com.esse.crm.security.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact form of a user's authorities for the access token: {@code <version>.<permissions>.<roles>}, where both
+ * parts are Base64url bitsets indexed by the row id in {@code permissions} and {@code roles}. Ids are shared by
+ * every node, unlike the process-local bits of {@code PermissionIndex}. Decoding resolves ids through a dictionary
+ * of both tables that is cached and reloaded when a token names an id it does not know, at most once per
+ * {@code reload-min-interval}: a token naming a deleted permission or role would otherwise reload it on every request.
+ * Ids still unknown after that are dropped.
+ */
+@Component
+public class AuthorityClaimCodec {
+
+    static final String CLAIM = "az";
+    static final String VERSION = "1";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final PermissionRepository permissionRepository;
+    private final RoleRepository roleRepository;
+    private final long reloadMinIntervalNanos;
+
+    private volatile Dictionary dictionary = new Dictionary(Map.of(), Map.of());
+    private volatile long lastReload;
+
+    public AuthorityClaimCodec(PermissionRepository permissionRepository,
+                               RoleRepository roleRepository,
+                               @Value("${application.security.jwt.authority-claim.reload-min-interval:10s}") Duration reloadMinInterval) {
+        this.permissionRepository = permissionRepository;
+        this.roleRepository = roleRepository;
+        this.reloadMinIntervalNanos = reloadMinInterval.toNanos();
+        this.lastReload = System.nanoTime() - reloadMinIntervalNanos;
+    }
+
+    public String encode(AppUser user) {
+        BitSet permissions = new BitSet();
+        BitSet roles = new BitSet();
+        if (user.getRoles() != null) {
+            for (Role role : user.getRoles()) {
+                roles.set(Math.toIntExact(role.getId()));
+                if (role.getPermissions() != null) {
+                    role.getPermissions().forEach(permission -> permissions.set(Math.toIntExact(permission.getId())));
+                }
+            }
+        }
+        return VERSION + "." + ENCODER.encodeToString(permissions.toByteArray())
+                + "." + ENCODER.encodeToString(roles.toByteArray());
+    }
+
+    /**
+     * Authority names in the claim, roles first; ids no longer in either table are dropped.
+     */
+    public List<String> decode(String claim) {
+        String[] parts = claim.split("\\.", -1);
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Unsupported authority claim: " + claim);
+        }
+        BitSet permissions = BitSet.valueOf(DECODER.decode(parts[1]));
+        BitSet roles = BitSet.valueOf(DECODER.decode(parts[2]));
+        Dictionary current = dictionary;
+        if (!current.covers(permissions, roles) && reloadDue()) {
+            current = reload();
+        }
+        List<String> authorities = new ArrayList<>(roles.cardinality() + permissions.cardinality());
+        current.resolve(roles, current.roles(), authorities);
+        current.resolve(permissions, current.permissions(), authorities);
+        return authorities;
+    }
+
+    private boolean reloadDue() {
+        return System.nanoTime() - lastReload >= reloadMinIntervalNanos;
+    }
+
+    private synchronized Dictionary reload() {
+        if (!reloadDue()) {
+            // Reloaded by another thread while this one waited
+            return dictionary;
+        }
+        // Security tables live in the default database whichever tenant the request belongs to
+        Dictionary loaded = TenantContext.callAs(TenantContext.DEFAULT_TENANT, () -> {
+            Map<Integer, String> permissions = new HashMap<>();
+            for (Permission permission : permissionRepository.findAll()) {
+                permissions.put(Math.toIntExact(permission.getId()), permission.getName());
+            }
+            Map<Integer, String> roles = new HashMap<>();
+            for (Role role : roleRepository.findAll()) {
+                String name = role.getName();
+                roles.put(Math.toIntExact(role.getId()), name.startsWith("ROLE_") ? name : "ROLE_" + name);
+            }
+            return new Dictionary(Map.copyOf(permissions), Map.copyOf(roles));
+        });
+        dictionary = loaded;
+        lastReload = System.nanoTime();
+        return loaded;
+    }
+
+    private record Dictionary(Map<Integer, String> permissions, Map<Integer, String> roles) {
+
+        boolean covers(BitSet permissionIds, BitSet roleIds) {
+            return covers(permissionIds, permissions) && covers(roleIds, roles);
+        }
+
+        void resolve(BitSet ids, Map<Integer, String> names, List<String> into) {
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                String name = names.get(id);
+                if (name != null) {
+                    into.add(name);
+                }
+            }
+        }
+
+        private static boolean covers(BitSet ids, Map<Integer, String> names) {
+            for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+                if (!names.containsKey(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,30 +1,38 @@
 package com.esse.crm.security.service;
 
+import com.esse.crm.security.authz.PermissionIndex;
 import com.esse.crm.security.dto.UserPrincipal;
 import com.esse.crm.security.entity.AppUser;
 import com.esse.crm.security.repository.AppUserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final AppUserRepository userRepository;
+    private final PermissionIndex permissionIndex;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         AppUser user = userRepository.findByUsernameWithAuthorities(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
+        Collection<? extends GrantedAuthority> authorities = user.getAuthorities();
         return UserPrincipal.builder()
                 .id(user.getId())
                 .username(user.getUsername())
                 .password(user.getPassword())
-                .authorities(user.getAuthorities())
+                .tenantId(user.getTenantId())
+                .authorities(authorities)
+                .permissionBits(permissionIndex.compile(authorities))
                 .build();
     }
 }
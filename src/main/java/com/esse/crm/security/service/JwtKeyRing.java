@@ -0,0 +1,251 @@
+package com.esse.crm.security.service;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.security.entity.JwtSigningKey;
+import com.esse.crm.security.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ES256 key pairs for access tokens, shared by all nodes through {@code jwt_signing_keys}. Tokens name their key in
+ * the {@code kid} header and every node verifies them against the key set it holds in memory; the set is re-read on
+ * a schedule and, rate limited, when a token names a key this node has not seen yet (one created by another node).
+ * A new key is created once the newest is older than {@code rotation-interval}, and a superseded key is deleted
+ * after {@code retention}, which must outlast the access tokens it signed.
+ * <p>
+ * Private keys are stored encrypted under {@code key-encryption-key}, which is required for ES256. When another
+ * algorithm signs, the ring only reads public keys, so tokens it signed earlier keep verifying until they expire.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing {
+
+    static final String ALGORITHM = "ES256";
+
+    private static final Base64.Encoder JWK_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtSigningKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final SigningKeyCipher cipher;
+    private final Duration rotationInterval;
+    private final Duration retention;
+    private final Duration reloadMinInterval;
+
+    private volatile KeySet keySet;
+    private volatile long lastReload;
+
+    public JwtKeyRing(JwtSigningKeyRepository repository,
+                      TransactionTemplate transactionTemplate,
+                      @Value("${application.security.jwt.signing.algorithm:HS256}") String algorithm,
+                      @Value("${application.security.jwt.signing.key-encryption-key:}") String keyEncryptionKey,
+                      @Value("${application.security.jwt.signing.rotation-interval:7d}") Duration rotationInterval,
+                      @Value("${application.security.jwt.signing.retention:1d}") Duration retention,
+                      @Value("${application.security.jwt.signing.reload-min-interval:10s}") Duration reloadMinInterval) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = ALGORITHM.equals(algorithm);
+        if (enabled && keyEncryptionKey.isBlank()) {
+            throw new IllegalStateException(
+                    "application.security.jwt.signing.key-encryption-key is required to sign with " + ALGORITHM);
+        }
+        this.cipher = keyEncryptionKey.isBlank() ? null : SigningKeyCipher.of(keyEncryptionKey);
+        this.rotationInterval = rotationInterval;
+        this.retention = retention;
+        this.reloadMinInterval = reloadMinInterval;
+    }
+
+    public record SigningKey(String kid, PrivateKey privateKey) {
+    }
+
+    public SigningKey signingKey() {
+        if (!enabled) {
+            throw new IllegalStateException("JWT signing keys are only used for " + ALGORITHM);
+        }
+        return keySet().signing();
+    }
+
+    public PublicKey verificationKey(String kid) {
+        PublicKey key = keySet().verification().get(kid);
+        if (key == null && System.nanoTime() - lastReload >= reloadMinInterval.toNanos()) {
+            key = reload().verification().get(kid);
+        }
+        if (key == null) {
+            throw new SignatureException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Public keys as a JWK Set (RFC 7517), for services that verify our tokens themselves.
+     */
+    public Map<String, Object> jwks() {
+        return Map.of("keys", enabled ? keySet().jwks() : List.of());
+    }
+
+    /**
+     * Re-reads the key set, creating a key when there is none or the newest is due for rotation, and deletes keys
+     * past their retention.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.signing.refresh-interval:60000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    public synchronized void refresh() {
+        List<JwtSigningKey> keys = encryptStoredKeys(load());
+        LocalDateTime now = LocalDateTime.now();
+        if (keys.isEmpty() || keys.get(0).getCreatedAt().isBefore(now.minus(rotationInterval))) {
+            JwtSigningKey created = generate(now, cipher);
+            TenantContext.runAs(TenantContext.DEFAULT_TENANT, () -> repository.save(created));
+            log.info("Created JWT signing key {}", created.getKid());
+            keys = load();
+        }
+        String newest = keys.get(0).getKid();
+        Integer deleted = TenantContext.callAs(TenantContext.DEFAULT_TENANT, () -> transactionTemplate.execute(status ->
+                repository.deleteRetired(now.minus(rotationInterval).minus(retention), newest)));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} retired JWT signing keys", deleted);
+            keys = load();
+        }
+        keySet = KeySet.of(keys, cipher);
+        lastReload = System.nanoTime();
+    }
+
+    private KeySet keySet() {
+        KeySet current = keySet;
+        if (current == null) {
+            if (enabled) {
+                refresh();
+                current = keySet;
+            } else {
+                current = reload();
+            }
+        }
+        return current;
+    }
+
+    private synchronized KeySet reload() {
+        List<JwtSigningKey> keys = load();
+        if (!keys.isEmpty() || keySet == null) {
+            keySet = KeySet.of(keys, enabled ? cipher : null);
+        }
+        lastReload = System.nanoTime();
+        return keySet;
+    }
+
+    /**
+     * Encrypts private keys stored in plain text by earlier versions.
+     */
+    private List<JwtSigningKey> encryptStoredKeys(List<JwtSigningKey> keys) {
+        List<JwtSigningKey> plain = keys.stream()
+                .filter(key -> !SigningKeyCipher.isEncrypted(key.getPrivateKey()))
+                .toList();
+        if (plain.isEmpty()) {
+            return keys;
+        }
+        for (JwtSigningKey key : plain) {
+            key.setPrivateKey(cipher.encrypt(Base64.getDecoder().decode(key.getPrivateKey())));
+        }
+        TenantContext.runAs(TenantContext.DEFAULT_TENANT, () -> repository.saveAll(plain));
+        log.info("Encrypted {} stored JWT signing keys", plain.size());
+        return load();
+    }
+
+    private List<JwtSigningKey> load() {
+        // Security tables live in the default database whichever tenant the request belongs to
+        return TenantContext.callAs(TenantContext.DEFAULT_TENANT, repository::findAllByOrderByCreatedAtDesc);
+    }
+
+    static JwtSigningKey generate(LocalDateTime createdAt, SigningKeyCipher cipher) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            return JwtSigningKey.builder()
+                    .kid(UUID.randomUUID().toString())
+                    .algorithm(ALGORITHM)
+                    .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                    .privateKey(cipher.encrypt(pair.getPrivate().getEncoded()))
+                    .createdAt(createdAt)
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate JWT signing key", e);
+        }
+    }
+
+    private record KeySet(SigningKey signing, Map<String, PublicKey> verification, List<Map<String, Object>> jwks) {
+
+        /** Keys newest first; without a cipher only the public keys are read and nothing can be signed. */
+        static KeySet of(List<JwtSigningKey> keys, SigningKeyCipher cipher) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance("EC");
+                Map<String, PublicKey> verification = new LinkedHashMap<>();
+                List<Map<String, Object>> jwks = new ArrayList<>();
+                for (JwtSigningKey key : keys) {
+                    PublicKey publicKey = factory.generatePublic(
+                            new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+                    verification.put(key.getKid(), publicKey);
+                    jwks.add(jwk(key.getKid(), (ECPublicKey) publicKey));
+                }
+                SigningKey signing = null;
+                if (cipher != null && !keys.isEmpty()) {
+                    JwtSigningKey newest = keys.get(0);
+                    PrivateKey privateKey = factory.generatePrivate(
+                            new PKCS8EncodedKeySpec(cipher.decrypt(newest.getPrivateKey())));
+                    signing = new SigningKey(newest.getKid(), privateKey);
+                }
+                return new KeySet(signing, Map.copyOf(verification), List.copyOf(jwks));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot read JWT signing keys", e);
+            }
+        }
+
+        private static Map<String, Object> jwk(String kid, ECPublicKey key) {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", ALGORITHM);
+            jwk.put("x", coordinate(key.getW().getAffineX()));
+            jwk.put("y", coordinate(key.getW().getAffineY()));
+            return jwk;
+        }
+
+        /** Unsigned, left-padded to the 32 bytes of a P-256 coordinate. */
+        private static String coordinate(BigInteger value) {
+            byte[] bytes = value.toByteArray();
+            byte[] padded = new byte[32];
+            int length = Math.min(bytes.length, 32);
+            System.arraycopy(bytes, bytes.length - length, padded, 32 - length, length);
+            return JWK_ENCODER.encodeToString(padded);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.esse.crm.security.service;
 
+import com.esse.crm.security.entity.AppUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,23 +20,103 @@ import org.springframework.stereotype.Service;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    private final AuthorityClaimCodec authorityClaimCodec;
+    private final JwtKeyRing keyRing;
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
 
+    /** ES256 signs with the rotating {@link JwtKeyRing}; HS256 with the shared {@code secret-key}. */
+    @Value("${application.security.jwt.signing.algorithm:HS256}")
+    private String algorithm;
+
+    /**
+     * Algorithms whose tokens are verified besides the signing one, so tokens issued before the algorithm changed
+     * keep working until they expire.
+     */
+    @Value("${application.security.jwt.signing.accepted-algorithms:HS256,ES256}")
+    private Set<String> acceptedAlgorithms;
+
+    static final String TENANT_CLAIM = "tenant";
+    static final String USER_ID_CLAIM = "uid";
+    static final String LEGACY_AUTHORITIES_CLAIM = "authorities";
+
+    private volatile Key signInKey;
+    private volatile JwtParser parser;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public String extractId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
+    public Date extractExpiration(String token) {
+        return extractClaim(token, Claims::getExpiration);
+    }
+
+    public String extractTenant(String token) {
+        return extractClaim(token, this::extractTenant);
+    }
+
+    /**
+     * Authority names carried by the token, from the compact claim or, for tokens issued before it, the plain list.
+     */
+    public List<String> extractAuthorities(String token) {
+        return extractAuthorities(extractAllClaims(token));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> extractAuthorities(Claims claims) {
+        String compact = claims.get(AuthorityClaimCodec.CLAIM, String.class);
+        if (compact != null) {
+            return authorityClaimCodec.decode(compact);
+        }
+        List<String> authorities = claims.get(LEGACY_AUTHORITIES_CLAIM, List.class);
+        return authorities != null ? authorities : List.of();
+    }
+
+    /**
+     * Whether the token describes its user completely (id, tenant and compact authorities), so a request can be
+     * authenticated without loading the user.
+     */
+    public boolean isSelfContained(Claims claims) {
+        return claims.get(USER_ID_CLAIM) != null && claims.get(TENANT_CLAIM) != null
+                && claims.get(AuthorityClaimCodec.CLAIM) != null;
+    }
+
+    public Long extractUserId(Claims claims) {
+        Number id = claims.get(USER_ID_CLAIM, Number.class);
+        return id != null ? id.longValue() : null;
+    }
+
+    /**
+     * Verifies the token once; callers reading several claims of the same token should start here rather than call
+     * the {@code extract} methods, which verify again each time.
+     */
+    public Claims parse(String token) {
+        return extractAllClaims(token);
+    }
+
+    public String extractTenant(Claims claims) {
+        return claims.get(TENANT_CLAIM, String.class);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -37,47 +124,82 @@ public class JwtService {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("authorities", userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList()));
+        if (userDetails instanceof AppUser user) {
+            extraClaims.put(AuthorityClaimCodec.CLAIM, authorityClaimCodec.encode(user));
+            extraClaims.put(TENANT_CLAIM, user.getTenantId());
+            extraClaims.put(USER_ID_CLAIM, user.getId());
+        } else {
+            extraClaims.put(LEGACY_AUTHORITIES_CLAIM, userDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList()));
+        }
         return generateToken(extraClaims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts
+        JwtBuilder builder = Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration));
+        if (isHmac()) {
+            builder.signWith(getSignInKey(), SignatureAlgorithm.HS256);
+        } else {
+            JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
+                    .signWith(signingKey.privateKey(), SignatureAlgorithm.ES256);
+        }
+        return builder.compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Claims extractAllClaims(String token) {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return verificationKey(header);
+                }
+            }).build();
+            parser = current;
+        }
+        return current.parseClaimsJws(token).getBody();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private Key verificationKey(JwsHeader<?> header) {
+        String headerAlgorithm = header.getAlgorithm();
+        if (!algorithm.equals(headerAlgorithm) && !acceptedAlgorithms.contains(headerAlgorithm)) {
+            throw new UnsupportedJwtException("Unexpected signature algorithm: " + headerAlgorithm);
+        }
+        if (SignatureAlgorithm.HS256.getValue().equals(headerAlgorithm)) {
+            return getSignInKey();
+        }
+        if (SignatureAlgorithm.ES256.getValue().equals(headerAlgorithm)) {
+            return keyRing.verificationKey(header.getKeyId());
+        }
+        throw new UnsupportedJwtException("Unexpected signature algorithm: " + headerAlgorithm);
+    }
+
+    private boolean isHmac() {
+        return SignatureAlgorithm.HS256.getValue().equals(algorithm);
     }
 
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key current = signInKey;
+        if (current == null) {
+            current = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+            signInKey = current;
+        }
+        return current;
     }
 }
@@ -0,0 +1,94 @@
+package com.esse.crm.security.service;
+
+import com.esse.crm.security.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Deletes refresh tokens that can no longer be used: expired ones, and revoked ones once {@code revokedRetention}
+ * has passed (until then a revoked token presented again still triggers reuse detection for its family). Rows go
+ * in small chunks, each its own transaction, and a run stops when its time budget is spent so a large backlog is
+ * worked off over several runs without long locks. The table size and purged rows are exported as
+ * {@code crm.auth.refresh-tokens} and {@code crm.auth.refresh-tokens.purged}.
+ */
+@Component
+@Slf4j
+public class RefreshTokenPurger {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration timeBudget;
+    private final Duration revokedRetention;
+    private final Counter purgedCounter;
+    private final AtomicLong tableSize = new AtomicLong();
+
+    public RefreshTokenPurger(RefreshTokenRepository refreshTokenRepository,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${application.security.jwt.refresh-token.purge.batch-size:500}") int batchSize,
+                              @Value("${application.security.jwt.refresh-token.purge.time-budget:5s}") Duration timeBudget,
+                              @Value("${application.security.jwt.refresh-token.purge.revoked-retention:7d}") Duration revokedRetention) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.timeBudget = timeBudget;
+        this.revokedRetention = revokedRetention;
+        this.purgedCounter = Counter.builder("crm.auth.refresh-tokens.purged").register(meterRegistry);
+        Gauge.builder("crm.auth.refresh-tokens", tableSize, AtomicLong::get).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void countTokens() {
+        tableSize.set(refreshTokenRepository.count());
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.jwt.refresh-token.purge.interval:600000}",
+            initialDelayString = "${application.security.jwt.refresh-token.purge.interval:600000}")
+    public void purge() {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        LocalDateTime now = LocalDateTime.now();
+        long purged = purge(refreshTokenRepository::findIdsExpiredBefore, now, deadline)
+                + purge(refreshTokenRepository::findIdsRevokedBefore, now.minus(revokedRetention), deadline);
+        countTokens();
+        if (purged > 0) {
+            log.info("Purged {} expired or revoked refresh tokens, {} left", purged, tableSize.get());
+        }
+    }
+
+    private long purge(BiFunction<LocalDateTime, Pageable, List<Long>> findIds, LocalDateTime cutoff, long deadline) {
+        Pageable chunk = PageRequest.of(0, batchSize);
+        long purged = 0;
+        int deleted;
+        do {
+            if (System.nanoTime() - deadline > 0) {
+                break;
+            }
+            Integer result = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(cutoff, chunk);
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            deleted = result != null ? result : 0;
+            purgedCounter.increment(deleted);
+            purged += deleted;
+        } while (deleted == batchSize);
+        return purged;
+    }
+}
@@ -10,11 +10,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Base64;
-import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -27,6 +29,7 @@ public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PlatformTransactionManager transactionManager;
 
     @Getter
     @Builder
@@ -98,14 +101,11 @@ public class RefreshTokenService {
         return generateRefreshToken(token.getUser(), token.getDeviceInfo(), token.getIpAddress(), token.getTokenFamily());
     }
 
+    // In a transaction of its own: the caller rolls back when it rejects the token, but the revocation must stick
     private void revokeTokenFamily(String family) {
-        List<RefreshToken> familyTokens = refreshTokenRepository.findByTokenFamily(family);
-        familyTokens.forEach(t -> {
-            if (t.getRevokedAt() == null) {
-                t.setRevokedAt(LocalDateTime.now());
-            }
-        });
-        refreshTokenRepository.saveAll(familyTokens);
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        requiresNew.executeWithoutResult(status -> refreshTokenRepository.revokeFamily(family, LocalDateTime.now()));
     }
     
     @Transactional
@@ -121,10 +121,7 @@ public class RefreshTokenService {
         if (parts.length != 2) return;
         
         String tokenId = parts[0];
-        refreshTokenRepository.findByTokenId(tokenId).ifPresent(token -> {
-            token.setRevokedAt(LocalDateTime.now());
-            refreshTokenRepository.save(token);
-        });
+        refreshTokenRepository.revokeByTokenId(tokenId, LocalDateTime.now());
     }
 
     @Transactional
@@ -0,0 +1,74 @@
+package com.esse.crm.security.service;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts signing private keys before they are stored, with AES-GCM under a key-encryption key that never reaches
+ * the database. Stored values are {@code v1:} followed by Base64 of the IV and ciphertext; values without the prefix
+ * are plain PKCS#8 written before keys were encrypted, and are re-encrypted by {@link JwtKeyRing}.
+ */
+final class SigningKeyCipher {
+
+    static final String PREFIX = "v1:";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    private SigningKeyCipher(SecretKeySpec key) {
+        this.key = key;
+    }
+
+    /**
+     * @param encodedKey a 256-bit AES key, Base64
+     */
+    static SigningKeyCipher of(String encodedKey) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(encodedKey.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("The JWT key-encryption key must be Base64", e);
+        }
+        if (bytes.length != 32) {
+            throw new IllegalStateException("The JWT key-encryption key must be 256 bits, got " + bytes.length * 8);
+        }
+        return new SigningKeyCipher(new SecretKeySpec(bytes, "AES"));
+    }
+
+    static boolean isEncrypted(String stored) {
+        return stored.startsWith(PREFIX);
+    }
+
+    String encrypt(byte[] privateKey) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] ciphertext = cipher.doFinal(privateKey);
+            return PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt JWT signing key", e);
+        }
+    }
+
+    byte[] decrypt(String stored) throws GeneralSecurityException {
+        if (!isEncrypted(stored)) {
+            return Base64.getDecoder().decode(stored);
+        }
+        byte[] sealed = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_LENGTH));
+        return cipher.doFinal(sealed, IV_LENGTH, sealed.length - IV_LENGTH);
+    }
+}
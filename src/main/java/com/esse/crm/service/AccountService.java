@@ -3,18 +3,21 @@ package com.esse.crm.service;
 import com.esse.crm.dto.AccountDTO;
 import com.esse.crm.dto.AccountStatus;
 import com.esse.crm.dto.ContactDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
 import com.esse.crm.dto.activity.ActivityDTO;
 import com.esse.crm.entity.Account;
 import com.esse.crm.entity.Activity;
 import com.esse.crm.entity.Contact;
 import com.esse.crm.exception.ResourceNotFoundException;
 import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.service.multiget.MultiGetTemplate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +25,7 @@ import java.util.stream.Collectors;
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final MultiGetTemplate multiGetTemplate;
 
     @Transactional(readOnly = true)
     public Page<AccountDTO> getAllAccounts(String searchTerm, Pageable pageable) {
@@ -36,6 +40,12 @@ public class AccountService {
         return convertToDTO(account);
     }
 
+    @Transactional(readOnly = true)
+    public MultiGetResultDTO<AccountDTO> getAccountsByIds(List<Long> ids) {
+        return multiGetTemplate.fetch(ids, distinct -> accountRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Account::getId, this::convertToDTO)));
+    }
+
     @Transactional
     public AccountDTO createAccount(AccountDTO accountDTO) {
         Account account = convertToEntity(accountDTO);
@@ -1,23 +1,66 @@
 package com.esse.crm.service;
 
+import com.esse.crm.dto.MultiGetResultDTO;
 import com.esse.crm.dto.activity.ActivityDTO;
 import com.esse.crm.dto.activity.ActivityType;
 import com.esse.crm.entity.Activity;
+import com.esse.crm.entity.ArchivedActivity;
 import com.esse.crm.exception.ResourceNotFoundException;
 import com.esse.crm.repository.ActivityRepository;
+import com.esse.crm.repository.ArchivedActivityRepository;
+import com.esse.crm.service.archive.ActivityArchiver;
+import com.esse.crm.service.multiget.MultiGetTemplate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ActivityService {
 
+    /**
+     * Deepest row a search spanning live and archived activities may page to; each table is read up to it.
+     */
+    static final int MAX_MERGED_WINDOW = 10_000;
+
+    private static final Sort MERGED_DEFAULT_SORT = Sort.by(Sort.Order.desc("dueAt"), Sort.Order.desc("id"));
+
+    /**
+     * Properties merged live and archived results can be ordered by.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final Map<String, Function<ActivityDTO, Comparable>> MERGED_SORT_KEYS = Map.ofEntries(
+            Map.entry("id", ActivityDTO::getId),
+            Map.entry("type", ActivityDTO::getType),
+            Map.entry("subject", ActivityDTO::getSubject),
+            Map.entry("description", ActivityDTO::getDescription),
+            Map.entry("dueAt", ActivityDTO::getDueAt),
+            Map.entry("completed", ActivityDTO::isCompleted),
+            Map.entry("outcome", ActivityDTO::getOutcome),
+            Map.entry("leadId", ActivityDTO::getLeadId),
+            Map.entry("opportunityId", ActivityDTO::getOpportunityId),
+            Map.entry("accountId", ActivityDTO::getAccountId),
+            Map.entry("contactId", ActivityDTO::getContactId),
+            Map.entry("createdAt", ActivityDTO::getCreatedAt),
+            Map.entry("updatedAt", ActivityDTO::getUpdatedAt));
+
     private final ActivityRepository activityRepository;
+    private final ArchivedActivityRepository archivedActivityRepository;
+    private final ActivityArchiver activityArchiver;
+    private final MultiGetTemplate multiGetTemplate;
 
     @Transactional
     public ActivityDTO createActivity(ActivityDTO dto) {
@@ -28,14 +71,53 @@ public class ActivityService {
 
     @Transactional(readOnly = true)
     public ActivityDTO getActivity(Long id) {
-        return convertToDTO(activityRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Activity not found with id: " + id)));
+        return activityRepository.findById(id)
+                .map(this::convertToDTO)
+                .or(() -> archivedActivityRepository.findById(id).map(this::convertToDTO))
+                .orElseThrow(() -> new ResourceNotFoundException("Activity not found with id: " + id));
     }
 
+    /**
+     * Looks ids up among live activities first and only the ones not found there in the archive.
+     */
+    @Transactional(readOnly = true)
+    public MultiGetResultDTO<ActivityDTO> getActivitiesByIds(List<Long> ids) {
+        return multiGetTemplate.fetch(ids, distinct -> {
+            Map<Long, ActivityDTO> found = new HashMap<>();
+            activityRepository.findAllById(distinct).forEach(activity -> found.put(activity.getId(), convertToDTO(activity)));
+            List<Long> missing = distinct.stream().filter(id -> !found.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                archivedActivityRepository.findAllById(missing).forEach(activity -> found.put(activity.getId(), convertToDTO(activity)));
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Searches live activities, and the archive as well when the filters can match archived rows. Merged results
+     * are ordered by the requested sort, or newest due date first.
+     */
     @Transactional(readOnly = true)
     public Page<ActivityDTO> searchActivities(Boolean completed, ActivityType type, LocalDateTime startDate, LocalDateTime endDate, Long leadId, Long opportunityId, Long accountId, Long contactId, Pageable pageable) {
-        return activityRepository.search(completed, type, startDate, endDate, leadId, opportunityId, accountId, contactId, pageable)
-                .map(this::convertToDTO);
+        if (!activityArchiver.reaches(completed, startDate)) {
+            return activityRepository.search(completed, type, startDate, endDate, leadId, opportunityId, accountId, contactId, pageable)
+                    .map(this::convertToDTO);
+        }
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > MAX_MERGED_WINDOW) {
+            throw new IllegalArgumentException("Page too deep for a search including archived activities; narrow the date range");
+        }
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : MERGED_DEFAULT_SORT;
+        Comparator<ActivityDTO> comparator = comparator(sort);
+        Pageable head = PageRequest.of(0, (int) window, sort);
+        Page<Activity> live = activityRepository.search(completed, type, startDate, endDate, leadId, opportunityId, accountId, contactId, head);
+        Page<ArchivedActivity> archived = archivedActivityRepository.search(completed, type, startDate, endDate, leadId, opportunityId, accountId, contactId, head);
+        List<ActivityDTO> page = Stream.concat(live.stream().map(this::convertToDTO), archived.stream().map(this::convertToDTO))
+                .sorted(comparator)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(page, pageable, live.getTotalElements() + archived.getTotalElements());
     }
 
     @Transactional
@@ -106,6 +188,39 @@ public class ActivityService {
                 .build();
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<ActivityDTO> comparator(Sort sort) {
+        Comparator<ActivityDTO> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Function<ActivityDTO, Comparable> key = MERGED_SORT_KEYS.get(order.getProperty());
+            if (key == null) {
+                throw new IllegalArgumentException("Cannot sort activities by '" + order.getProperty() + "'");
+            }
+            Comparator<ActivityDTO> byProperty = Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    private ActivityDTO convertToDTO(ArchivedActivity entity) {
+        return ActivityDTO.builder()
+                .id(entity.getId())
+                .type(entity.getType())
+                .subject(entity.getSubject())
+                .description(entity.getDescription())
+                .dueAt(entity.getDueAt())
+                .completed(entity.isCompleted())
+                .outcome(entity.getOutcome())
+                .leadId(entity.getLeadId())
+                .opportunityId(entity.getOpportunityId())
+                .accountId(entity.getAccountId())
+                .contactId(entity.getContactId())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .archived(true)
+                .build();
+    }
+
     private ActivityDTO convertToDTO(Activity entity) {
         return ActivityDTO.builder()
                 .id(entity.getId())
@@ -1,6 +1,7 @@
 package com.esse.crm.service;
 
 import com.esse.crm.dto.ContactDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
 import com.esse.crm.dto.activity.ActivityDTO;
 import com.esse.crm.entity.Account;
 import com.esse.crm.entity.Activity;
@@ -8,6 +9,7 @@ import com.esse.crm.entity.Contact;
 import com.esse.crm.exception.ResourceNotFoundException;
 import com.esse.crm.repository.AccountRepository;
 import com.esse.crm.repository.ContactRepository;
+import com.esse.crm.service.multiget.MultiGetTemplate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
 public class ContactService {
 
     private final ContactRepository contactRepository;
+    private final MultiGetTemplate multiGetTemplate;
     private final AccountRepository accountRepository;
 
     @Transactional(readOnly = true)
@@ -43,6 +46,12 @@ public class ContactService {
         return convertToDTO(contact);
     }
 
+    @Transactional(readOnly = true)
+    public MultiGetResultDTO<ContactDTO> getContactsByIds(List<Long> ids) {
+        return multiGetTemplate.fetch(ids, distinct -> contactRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Contact::getId, this::convertToDTO)));
+    }
+
     @Transactional
     public ContactDTO createContact(ContactDTO contactDTO) {
         List<Account> accounts = List.of();
@@ -1,50 +1,79 @@
 package com.esse.crm.service;
 
 import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.BulkUpdateResultDTO;
 import com.esse.crm.dto.AccountStatus;
 import com.esse.crm.dto.ContactDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
 import com.esse.crm.dto.lead.*;
 import com.esse.crm.dto.opportunity.OpportunityDTO;
 import com.esse.crm.dto.opportunity.OpportunityStage;
 import com.esse.crm.entity.Account;
 import com.esse.crm.entity.Contact;
 import com.esse.crm.entity.Lead;
+import com.esse.crm.entity.LeadDuplicateCandidate;
 import com.esse.crm.entity.Activity;
 import com.esse.crm.exception.ConflictException;
 import com.esse.crm.exception.ResourceNotFoundException;
 import com.esse.crm.repository.AccountRepository;
 import com.esse.crm.repository.ContactRepository;
+import com.esse.crm.repository.LeadDuplicateCandidateRepository;
 import com.esse.crm.repository.LeadRepository;
+import com.esse.crm.service.bulk.BulkUpdateTemplate;
+import com.esse.crm.service.dedup.AccountMatcher;
+import com.esse.crm.service.dedup.LeadDuplicateDetector;
+import com.esse.crm.service.history.FieldChange;
+import com.esse.crm.service.multiget.MultiGetTemplate;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class LeadService {
 
+    private static final int CONVERT_ATTEMPTS = 3;
+
     private final LeadRepository leadRepository;
     private final AccountRepository accountRepository;
     private final ContactRepository contactRepository;
     private final OpportunityService opportunityService;
+    private final LeadDuplicateDetector duplicateDetector;
+    private final AccountMatcher accountMatcher;
+    private final LeadDuplicateCandidateRepository duplicateCandidateRepository;
     private final ModelMapper modelMapper;
+    private final BulkUpdateTemplate bulkUpdateTemplate;
+    private final MultiGetTemplate multiGetTemplate;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public LeadDTO createLead(LeadDTO leadDTO) {
-        if (leadRepository.findByEmail(leadDTO.getEmail()).isPresent()) {
+        if (duplicateDetector.emailExists(leadDTO.getEmail())) {
             throw new ConflictException("Lead with this email already exists");
         }
         Lead lead = convertToEntity(leadDTO);
         if (lead.getStatus() == null) {
             lead.setStatus(LeadStatus.NEW);
         }
-        Lead savedLead = leadRepository.save(lead);
+        Lead savedLead = saveUnique(lead);
+        duplicateDetector.onLeadSaved(savedLead, null);
 
         return convertToDTO(savedLead);
     }
@@ -55,6 +84,12 @@ public class LeadService {
                 .orElseThrow(() -> new ResourceNotFoundException("Lead not found with id: " + id)));
     }
 
+    @Transactional(readOnly = true)
+    public MultiGetResultDTO<LeadDTO> getLeadsByIds(List<Long> ids) {
+        return multiGetTemplate.fetch(ids, distinct -> leadRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Lead::getId, this::convertToDTO)));
+    }
+
     @Transactional(readOnly = true)
     public Page<LeadDTO> searchLeads(LeadStatus status, String ownerUser, LeadSource source, String searchTerm, Pageable pageable) {
         return leadRepository.search(status, ownerUser, source, searchTerm, pageable)
@@ -65,7 +100,12 @@ public class LeadService {
     public LeadDTO updateLead(Long id, LeadDTO leadDTO) {
         Lead lead = leadRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lead not found with id: " + id));
-        
+
+        String previousEmail = lead.getEmail();
+        if (duplicateDetector.emailExists(leadDTO.getEmail(), id)) {
+            throw new ConflictException("Lead with this email already exists");
+        }
+
         lead.setSource(leadDTO.getSource());
         lead.setCompany(leadDTO.getCompany());
         lead.setContactName(leadDTO.getContactName());
@@ -74,21 +114,119 @@ public class LeadService {
         lead.setStatus(leadDTO.getStatus());
         lead.setOwnerUser(leadDTO.getOwnerUser());
         
-        Lead updatedLead = leadRepository.save(lead);
+        Lead updatedLead = saveUnique(lead);
+        duplicateDetector.onLeadSaved(updatedLead, previousEmail);
 
         return convertToDTO(updatedLead);
     }
 
+    /**
+     * Reassigns and/or re-statuses many leads with chunked set-based updates rather than a load and save per lead.
+     * Each chunk commits on its own, so a failure part-way leaves the earlier chunks applied.
+     */
+    public BulkUpdateResultDTO bulkUpdate(LeadBulkUpdateDTO request) {
+        if (request.getOwnerUser() == null && request.getStatus() == null) {
+            throw new IllegalArgumentException("Nothing to update: set ownerUser and/or status");
+        }
+        LeadBulkUpdateDTO.Filter filter = request.getFilter();
+        if ((request.getIds() == null) == (filter == null)) {
+            throw new IllegalArgumentException("Specify either ids or filter");
+        }
+        if (filter != null && filter.getStatus() == null && filter.getOwnerUser() == null && filter.getSource() == null) {
+            throw new IllegalArgumentException("Filter must set at least one of status, ownerUser, source");
+        }
+        String ownerUser = request.getOwnerUser();
+        LeadStatus status = request.getStatus();
+
+        return bulkUpdateTemplate.execute(request.getIds(), new BulkUpdateTemplate.BulkOperation<LeadRepository.BulkView>() {
+            @Override
+            public Class<?> entityClass() {
+                return Lead.class;
+            }
+
+            @Override
+            public long id(LeadRepository.BulkView row) {
+                return row.getId();
+            }
+
+            @Override
+            public List<LeadRepository.BulkView> findByIds(List<Long> ids) {
+                return leadRepository.findBulkViews(ids);
+            }
+
+            @Override
+            public List<Long> findIdsAfter(long afterId, int limit) {
+                return leadRepository.findBulkIdsAfter(afterId, filter.getStatus(), filter.getOwnerUser(), filter.getSource(), limit);
+            }
+
+            @Override
+            public boolean matches(LeadRepository.BulkView row) {
+                return (filter.getStatus() == null || filter.getStatus() == row.getStatus())
+                        && (filter.getOwnerUser() == null || filter.getOwnerUser().equals(row.getOwnerUser()))
+                        && (filter.getSource() == null || filter.getSource() == row.getSource());
+            }
+
+            @Override
+            public List<FieldChange> changes(LeadRepository.BulkView row) {
+                List<FieldChange> changes = new ArrayList<>(2);
+                if (ownerUser != null && !ownerUser.equals(row.getOwnerUser())) {
+                    changes.add(new FieldChange("ownerUser", row.getOwnerUser(), ownerUser));
+                }
+                if (status != null && status != row.getStatus()) {
+                    changes.add(new FieldChange("status", row.getStatus(), status));
+                }
+                return changes;
+            }
+
+            @Override
+            public int write(List<LeadRepository.BulkView> rows, LocalDateTime updatedAt, String updatedBy) {
+                return leadRepository.bulkUpdate(rows.stream().map(LeadRepository.BulkView::getId).toList(),
+                        ownerUser, status, updatedAt, updatedBy);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeadDTO> getDuplicateCandidates(Long id) {
+        if (!leadRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Lead not found with id: " + id);
+        }
+        List<Long> candidateIds = duplicateCandidateRepository.findByLeadId(id).stream()
+                .map(LeadDuplicateCandidate::getDuplicateLeadId)
+                .collect(Collectors.toList());
+        return leadRepository.findAllById(candidateIds).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public void deleteLead(Long id) {
         Lead lead = leadRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lead not found with id: " + id));
         
         leadRepository.delete(lead);
+        duplicateDetector.onLeadDeleted(lead);
     }
 
-    @Transactional
+    /**
+     * Converts in a transaction of its own, retried when InnoDB picks it as a deadlock victim: two conversions of the
+     * same new company both miss in {@link AccountMatcher#match} and take gap locks on the key, so the second insert
+     * deadlocks. The retry then finds the account the other one created.
+     */
     public LeadConversionResponseDTO convertLead(Long id) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> convert(id));
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= CONVERT_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Conversion of lead {} lost a lock conflict, retrying (attempt {})", id, attempt);
+            }
+        }
+    }
+
+    private LeadConversionResponseDTO convert(Long id) {
         Lead lead = leadRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lead not found with id: " + id));
 
@@ -96,16 +234,20 @@ public class LeadService {
             throw new IllegalStateException("Only QUALIFIED leads can be converted");
         }
 
-        // 1. Find or create Account
-        Account account = accountRepository.findByAccountName(lead.getCompany())
+        // 1. Find or create Account, matching on the normalized company name
+        AccountMatcher.MatchResult accountMatch = accountMatcher.match(lead.getCompany())
                 .orElseGet(() -> {
                     Account newAccount = Account.builder()
                             .accountName(lead.getCompany())
                             .phone(lead.getPhone())
                             .status(AccountStatus.ACTIVE)
                             .build();
-                    return accountRepository.save(newAccount);
+                    return AccountMatcher.MatchResult.builder()
+                            .account(accountRepository.save(newAccount))
+                            .strategy(AccountMatchStrategy.CREATED)
+                            .build();
                 });
+        Account account = accountMatch.getAccount();
 
         // 2. Find or create Contact
         Contact contact = contactRepository.findByEmail(lead.getEmail())
@@ -142,11 +284,41 @@ public class LeadService {
         return LeadConversionResponseDTO.builder()
                 .leadId(lead.getId())
                 .accountId(account.getId())
+                .accountMatchStrategy(accountMatch.getStrategy())
                 .contactId(contact.getId())
                 .opportunityId(savedOpportunity.getId())
                 .build();
     }
 
+    // The unique email_key index settles races between concurrent creates that both passed the pre-check.
+    // Other integrity violations are not duplicates and propagate unchanged.
+    private Lead saveUnique(Lead lead) {
+        try {
+            return leadRepository.saveAndFlush(lead);
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, Lead.EMAIL_KEY_CONSTRAINT)) {
+                throw e;
+            }
+            throw new ConflictException("Lead with this email already exists");
+        }
+    }
+
+    /**
+     * Whether the named constraint is the one violated. Hibernate extracts the name on MySQL and H2; the driver's
+     * message, which also names it, covers the cases where it does not.
+     */
+    static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            String text = cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+            if (text != null && text.toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Lead convertToEntity(LeadDTO dto) {
         return modelMapper.map(dto, Lead.class);
     }
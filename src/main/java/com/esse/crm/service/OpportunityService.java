@@ -1,7 +1,12 @@
 package com.esse.crm.service;
 
+import com.esse.crm.dto.BulkUpdateResultDTO;
+import com.esse.crm.dto.MultiGetResultDTO;
+import com.esse.crm.dto.opportunity.OpportunityBulkUpdateDTO;
 import com.esse.crm.dto.opportunity.OpportunityDTO;
 import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.esse.crm.dto.opportunity.StageChangeEventDTO;
+import com.esse.crm.dto.opportunity.StageChangeType;
 import com.esse.crm.entity.Account;
 import com.esse.crm.entity.Lead;
 import com.esse.crm.entity.Opportunity;
@@ -10,7 +15,12 @@ import com.esse.crm.exception.ResourceNotFoundException;
 import com.esse.crm.repository.AccountRepository;
 import com.esse.crm.repository.LeadRepository;
 import com.esse.crm.repository.OpportunityRepository;
+import com.esse.crm.service.bulk.BulkUpdateTemplate;
+import com.esse.crm.service.history.FieldChange;
+import com.esse.crm.service.multiget.MultiGetTemplate;
+import com.esse.crm.service.stagefeed.OpportunityStageChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -18,8 +28,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +42,9 @@ public class OpportunityService {
     private final OpportunityRepository opportunityRepository;
     private final AccountRepository accountRepository;
     private final LeadRepository leadRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkUpdateTemplate bulkUpdateTemplate;
+    private final MultiGetTemplate multiGetTemplate;
 
     private static final Set<OpportunityStage> FINAL_STAGES = EnumSet.of(OpportunityStage.WON, OpportunityStage.LOST);
 
@@ -45,6 +62,12 @@ public class OpportunityService {
                 .orElseThrow(() -> new ResourceNotFoundException("Opportunity not found with id: " + id)));
     }
 
+    @Transactional(readOnly = true)
+    public MultiGetResultDTO<OpportunityDTO> getOpportunitiesByIds(List<Long> ids) {
+        return multiGetTemplate.fetch(ids, distinct -> opportunityRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Opportunity::getId, this::convertToDTO)));
+    }
+
     @Transactional(readOnly = true)
     public Page<OpportunityDTO> searchOpportunities(OpportunityStage stage, Long accountId, LocalDate startDate, LocalDate endDate, BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable) {
         return opportunityRepository.search(stage, accountId, startDate, endDate, minAmount, maxAmount, pageable)
@@ -56,6 +79,7 @@ public class OpportunityService {
         Opportunity opportunity = opportunityRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Opportunity not found with id: " + id));
 
+        OpportunityStage previousStage = opportunity.getStage();
         opportunity.setName(dto.getName());
         opportunity.setStage(dto.getStage());
         opportunity.setAmount(dto.getAmount());
@@ -63,6 +87,7 @@ public class OpportunityService {
         opportunity.setProbability(dto.getProbability());
 
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
+        publishStageChange(updatedOpportunity, previousStage);
 
         return convertToDTO(updatedOpportunity);
     }
@@ -80,10 +105,101 @@ public class OpportunityService {
 
         opportunity.setStage(newStage);
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
+        publishStageChange(updatedOpportunity, currentStage);
 
         return convertToDTO(updatedOpportunity);
     }
 
+    /**
+     * Moves many opportunities to a stage, close date and/or probability with chunked set-based updates. As with
+     * {@link #advanceStage}, an opportunity that is WON or LOST keeps its stage; such rows are reported as skipped
+     * and left untouched.
+     */
+    public BulkUpdateResultDTO bulkUpdate(OpportunityBulkUpdateDTO request) {
+        if (request.getStage() == null && request.getCloseDate() == null && request.getProbability() == null) {
+            throw new IllegalArgumentException("Nothing to update: set stage, closeDate and/or probability");
+        }
+        OpportunityBulkUpdateDTO.Filter filter = request.getFilter();
+        if ((request.getIds() == null) == (filter == null)) {
+            throw new IllegalArgumentException("Specify either ids or filter");
+        }
+        if (filter != null && filter.getStage() == null && filter.getAccountId() == null
+                && filter.getCloseDateFrom() == null && filter.getCloseDateTo() == null) {
+            throw new IllegalArgumentException("Filter must set at least one of stage, accountId, closeDateFrom, closeDateTo");
+        }
+        OpportunityStage stage = request.getStage();
+        LocalDate closeDate = request.getCloseDate();
+        Integer probability = request.getProbability();
+
+        return bulkUpdateTemplate.execute(request.getIds(), new BulkUpdateTemplate.BulkOperation<OpportunityRepository.BulkView>() {
+            @Override
+            public Class<?> entityClass() {
+                return Opportunity.class;
+            }
+
+            @Override
+            public long id(OpportunityRepository.BulkView row) {
+                return row.getId();
+            }
+
+            @Override
+            public List<OpportunityRepository.BulkView> findByIds(List<Long> ids) {
+                return opportunityRepository.findBulkViews(ids);
+            }
+
+            @Override
+            public List<Long> findIdsAfter(long afterId, int limit) {
+                return opportunityRepository.findBulkIdsAfter(afterId, filter.getStage(), filter.getAccountId(),
+                        filter.getCloseDateFrom(), filter.getCloseDateTo(), limit);
+            }
+
+            @Override
+            public boolean matches(OpportunityRepository.BulkView row) {
+                LocalDate rowCloseDate = row.getCloseDate();
+                return (filter.getStage() == null || filter.getStage() == row.getStage())
+                        && (filter.getAccountId() == null || filter.getAccountId().equals(row.getAccountId()))
+                        && (filter.getCloseDateFrom() == null || rowCloseDate != null && !rowCloseDate.isBefore(filter.getCloseDateFrom()))
+                        && (filter.getCloseDateTo() == null || rowCloseDate != null && !rowCloseDate.isAfter(filter.getCloseDateTo()));
+            }
+
+            @Override
+            public List<FieldChange> changes(OpportunityRepository.BulkView row) {
+                if (stage != null && FINAL_STAGES.contains(row.getStage()) && row.getStage() != stage) {
+                    return null;
+                }
+                List<FieldChange> changes = new ArrayList<>(3);
+                if (stage != null && stage != row.getStage()) {
+                    changes.add(new FieldChange("stage", row.getStage(), stage));
+                }
+                if (closeDate != null && !closeDate.equals(row.getCloseDate())) {
+                    changes.add(new FieldChange("closeDate", row.getCloseDate(), closeDate));
+                }
+                if (probability != null && !probability.equals(row.getProbability())) {
+                    changes.add(new FieldChange("probability", row.getProbability(), probability));
+                }
+                return changes;
+            }
+
+            @Override
+            public int write(List<OpportunityRepository.BulkView> rows, LocalDateTime updatedAt, String updatedBy) {
+                int written = opportunityRepository.bulkUpdate(rows.stream().map(OpportunityRepository.BulkView::getId).toList(),
+                        stage, closeDate, probability, FINAL_STAGES, updatedAt, updatedBy);
+                if (stage != null) {
+                    for (OpportunityRepository.BulkView row : rows) {
+                        publishStageChange(StageChangeEventDTO.builder()
+                                .tenantId(row.getTenantId())
+                                .opportunityId(row.getId())
+                                .opportunityName(row.getName())
+                                .accountId(row.getAccountId())
+                                .owner(row.getCreatedBy())
+                                .amount(row.getAmount()), row.getStage(), stage);
+                    }
+                }
+                return written;
+            }
+        });
+    }
+
     @Transactional
     public void deleteOpportunity(Long id) {
         Opportunity opportunity = opportunityRepository.findById(id)
@@ -92,6 +208,32 @@ public class OpportunityService {
         opportunityRepository.delete(opportunity);
     }
 
+    private void publishStageChange(Opportunity opportunity, OpportunityStage previousStage) {
+        publishStageChange(StageChangeEventDTO.builder()
+                .tenantId(opportunity.getTenantId())
+                .opportunityId(opportunity.getId())
+                .opportunityName(opportunity.getName())
+                .accountId(opportunity.getAccount().getId())
+                .owner(opportunity.getCreatedBy())
+                .amount(opportunity.getAmount()), previousStage, opportunity.getStage());
+    }
+
+    private void publishStageChange(StageChangeEventDTO.StageChangeEventDTOBuilder event, OpportunityStage previousStage,
+                                    OpportunityStage stage) {
+        if (stage == previousStage) {
+            return;
+        }
+        StageChangeType type = stage == OpportunityStage.WON ? StageChangeType.WON
+                : stage == OpportunityStage.LOST ? StageChangeType.LOST
+                : StageChangeType.STAGE_CHANGED;
+        eventPublisher.publishEvent(new OpportunityStageChangedEvent(event
+                .type(type)
+                .fromStage(previousStage)
+                .toStage(stage)
+                .occurredAt(LocalDateTime.now())
+                .build()));
+    }
+
     private Opportunity convertToEntity(OpportunityDTO dto) {
         Account account = accountRepository.findById(dto.getAccountId())
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + dto.getAccountId()));
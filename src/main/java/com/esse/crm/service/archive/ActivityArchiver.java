@@ -0,0 +1,149 @@
+package com.esse.crm.service.archive;
+
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.repository.ArchivedActivityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Moves completed activities whose due date (or, without one, last update) is older than the configured age from
+ * {@code activities} to {@code activities_archive}. Each chunk is copied and deleted in its own transaction, so the
+ * live table shrinks steadily without long locks, and a run stops once its time budget is spent, leaving the rest of
+ * a large backlog to the following runs. The rows are moved with plain SQL: archiving is not a change to
+ * the activity, so nothing is written to the change feed.
+ * <p>
+ * Also tells readers whether a date range can reach archived rows at all, so recent-range queries stay on the
+ * live table.
+ */
+@Component
+@Slf4j
+public class ActivityArchiver {
+
+    private static final String COLUMNS = "id, tenant_id, type, subject, description, due_at, completed, outcome, "
+            + "lead_id, opportunity_id, account_id, contact_id, created_at, updated_at, created_by, updated_by";
+
+    private static final String SELECT_CHUNK_SQL = "SELECT id FROM activities "
+            + "WHERE id > :afterId AND completed = TRUE AND COALESCE(due_at, updated_at) < :cutoff "
+            + "ORDER BY id LIMIT :limit";
+    private static final String COPY_SQL = "INSERT INTO activities_archive (" + COLUMNS + ", archived_at) "
+            + "SELECT " + COLUMNS + ", :archivedAt FROM activities WHERE id IN (:ids)";
+    private static final String DELETE_SQL = "DELETE FROM activities WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivedActivityRepository archivedActivityRepository;
+    private final TenantDirectory tenantDirectory;
+    private final boolean enabled;
+    private final Duration age;
+    private final int batchSize;
+    private final Duration timeBudget;
+
+    private volatile LocalDateTime newestArchivedDueAt;
+
+    public ActivityArchiver(DataSource dataSource,
+                            TransactionTemplate transactionTemplate,
+                            ArchivedActivityRepository archivedActivityRepository,
+                            TenantDirectory tenantDirectory,
+                            @Value("${application.activities.archive.enabled:true}") boolean enabled,
+                            @Value("${application.activities.archive.age:365d}") Duration age,
+                            @Value("${application.activities.archive.batch-size:1000}") int batchSize,
+                            @Value("${application.activities.archive.time-budget:10m}") Duration timeBudget) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.archivedActivityRepository = archivedActivityRepository;
+        this.tenantDirectory = tenantDirectory;
+        this.enabled = enabled;
+        this.age = age;
+        this.batchSize = batchSize;
+        this.timeBudget = timeBudget;
+    }
+
+    @Scheduled(cron = "${application.activities.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        AtomicLong moved = new AtomicLong();
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        tenantDirectory.forEachTenant(() -> moved.addAndGet(archiveBefore(cutoff, deadline)));
+        refreshHorizon();
+        if (moved.get() > 0) {
+            log.info("Archived {} activities completed before {}", moved.get(), cutoff);
+        }
+    }
+
+    /**
+     * Whether a search may match archived rows: only completed activities are archived, and only those due before
+     * the archive horizon. Nothing reaches an empty archive; otherwise, without a start date every row is in range.
+     */
+    public boolean reaches(Boolean completed, LocalDateTime startDate) {
+        LocalDateTime newest = newestArchivedDueAt;
+        if (newest == null || Boolean.FALSE.equals(completed)) {
+            return false;
+        }
+        return startDate == null || startDate.isBefore(LocalDateTime.now().minus(age)) || !startDate.isAfter(newest);
+    }
+
+    /**
+     * Picks up archive runs of other instances and rows archived under a longer age setting.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.activities.archive.horizon-refresh-interval:60000}")
+    public void refreshHorizon() {
+        AtomicReference<LocalDateTime> newest = new AtomicReference<>();
+        tenantDirectory.forEachTenant(() -> {
+            LocalDateTime dueAt = archivedActivityRepository.findNewestDueAt();
+            if (dueAt != null) {
+                newest.accumulateAndGet(dueAt, (current, found) -> current == null || found.isAfter(current) ? found : current);
+            }
+        });
+        newestArchivedDueAt = newest.get();
+    }
+
+    private long archiveBefore(LocalDateTime cutoff, long deadline) {
+        long moved = 0;
+        long afterId = 0;
+        while (true) {
+            if (System.nanoTime() - deadline > 0) {
+                log.info("Archive time budget spent after {} activities, the rest is left to the next run", moved);
+                return moved;
+            }
+            long from = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, new MapSqlParameterSource()
+                        .addValue("afterId", from)
+                        .addValue("cutoff", Timestamp.valueOf(cutoff))
+                        .addValue("limit", batchSize), Long.class);
+                if (!chunk.isEmpty()) {
+                    MapSqlParameterSource params = new MapSqlParameterSource()
+                            .addValue("ids", chunk)
+                            .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+                    jdbcTemplate.update(COPY_SQL, params);
+                    jdbcTemplate.update(DELETE_SQL, params);
+                }
+                return chunk;
+            });
+            if (ids == null || ids.isEmpty()) {
+                return moved;
+            }
+            moved += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.esse.crm.service.bulk;
+
+import com.esse.crm.dto.BulkUpdateResultDTO;
+import com.esse.crm.service.changefeed.OutboxEventListener;
+import com.esse.crm.service.history.ChangeHistoryListener;
+import com.esse.crm.service.history.FieldChange;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a bulk update chunk by chunk, each chunk in its own transaction: the chunk's current values are read and
+ * locked in one query by id (a filtered update first reads the next ids matching the filter without locks), compared with the requested ones, and only rows that actually change are written by one set-based
+ * {@code UPDATE}. The statement bypasses Hibernate's events, so the change feed and field history are recorded here
+ * from the values read, in the same transaction.
+ */
+@Slf4j
+@Component
+public class BulkUpdateTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final OutboxEventListener outboxEventListener;
+    private final ChangeHistoryListener changeHistoryListener;
+    private final AuditorAware<String> auditorAware;
+    private final int chunkSize;
+    private final int maxIds;
+
+    public BulkUpdateTemplate(TransactionTemplate transactionTemplate,
+                              EntityManager entityManager,
+                              OutboxEventListener outboxEventListener,
+                              ChangeHistoryListener changeHistoryListener,
+                              AuditorAware<String> auditorAware,
+                              @Value("${application.bulk.chunk-size:500}") int chunkSize,
+                              @Value("${application.bulk.max-ids:10000}") int maxIds) {
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.outboxEventListener = outboxEventListener;
+        this.changeHistoryListener = changeHistoryListener;
+        this.auditorAware = auditorAware;
+        this.chunkSize = chunkSize;
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Updates the records with the given ids, or, when {@code ids} is null, every record the operation's filter
+     * selects.
+     */
+    public <T> BulkUpdateResultDTO execute(List<Long> ids, BulkOperation<T> operation) {
+        BulkUpdateResultDTO result = new BulkUpdateResultDTO();
+        if (ids != null) {
+            if (ids.size() > maxIds) {
+                throw new IllegalArgumentException("At most " + maxIds + " ids can be updated at once; use a filter instead");
+            }
+            List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+            for (int from = 0; from < distinct.size(); from += chunkSize) {
+                List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+                apply(result, transactionTemplate.execute(status -> update(operation, operation.findByIds(chunk))));
+            }
+        } else {
+            long afterId = 0;
+            while (true) {
+                long after = afterId;
+                ScannedChunk<T> scanned = transactionTemplate.execute(status -> {
+                    List<Long> chunk = operation.findIdsAfter(after, chunkSize);
+                    List<T> rows = chunk.isEmpty() ? List.of() : operation.findByIds(chunk).stream()
+                            .filter(operation::matches)
+                            .toList();
+                    return new ScannedChunk<>(chunk, update(operation, rows));
+                });
+                if (scanned.ids().isEmpty()) {
+                    break;
+                }
+                apply(result, scanned.result());
+                afterId = scanned.ids().get(scanned.ids().size() - 1);
+                if (scanned.ids().size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+        log.info("Bulk update of {}: {} matched, {} updated, {} skipped", operation.entityClass().getSimpleName(),
+                result.getMatched(), result.getUpdated(), result.getSkipped());
+        return result;
+    }
+
+    private <T> ChunkResult<T> update(BulkOperation<T> operation, List<T> rows) {
+        Map<Long, List<FieldChange>> changes = new LinkedHashMap<>();
+        List<T> changed = new ArrayList<>();
+        long skipped = 0;
+        for (T row : rows) {
+            List<FieldChange> rowChanges = operation.changes(row);
+            if (rowChanges == null) {
+                skipped++;
+            } else if (!rowChanges.isEmpty()) {
+                changes.put(operation.id(row), rowChanges);
+                changed.add(row);
+            }
+        }
+        if (!changed.isEmpty()) {
+            int written = operation.write(changed, LocalDateTime.now(), auditorAware.getCurrentAuditor().orElse(null));
+            if (written != changed.size()) {
+                throw new IllegalStateException("Bulk update of " + operation.entityClass().getSimpleName() + " wrote "
+                        + written + " of " + changed.size() + " rows; the chunk changed concurrently");
+            }
+            Map<Long, List<String>> changedFields = new LinkedHashMap<>();
+            changes.forEach((id, fieldChanges) -> changedFields.put(id, fieldChanges.stream().map(FieldChange::field).toList()));
+            outboxEventListener.recordBulkUpdate(entityManager, operation.entityClass(), changedFields);
+            changeHistoryListener.recordBulkUpdate(entityManager, operation.entityClass(), changes);
+        }
+        return new ChunkResult<>(rows, changed, skipped);
+    }
+
+    private static void apply(BulkUpdateResultDTO result, ChunkResult<?> chunk) {
+        result.setMatched(result.getMatched() + chunk.rows().size());
+        result.setUpdated(result.getUpdated() + chunk.changed().size());
+        result.setSkipped(result.getSkipped() + chunk.skipped());
+    }
+
+    private record ChunkResult<T>(List<T> rows, List<T> changed, long skipped) {
+    }
+
+    private record ScannedChunk<T>(List<Long> ids, ChunkResult<T> result) {
+    }
+
+    /**
+     * One kind of bulk update. Rows are lightweight projections holding the id and the columns being updated.
+     */
+    public interface BulkOperation<T> {
+
+        Class<?> entityClass();
+
+        long id(T row);
+
+        /**
+         * The rows with the given ids, locked until the chunk's transaction ends.
+         */
+        List<T> findByIds(List<Long> ids);
+
+        /**
+         * Ids of the next records matching the filter with an id above {@code afterId}, in id order, read without
+         * locks; the chunk is then locked through {@link #findByIds}.
+         */
+        List<Long> findIdsAfter(long afterId, int limit);
+
+        /**
+         * Whether a row locked by {@link #findByIds} still matches the filter, which it may have stopped doing
+         * since its id was read.
+         */
+        default boolean matches(T row) {
+            return true;
+        }
+
+        /**
+         * The fields the update changes on this row: empty if it already has the requested values, null if the
+         * change is not allowed.
+         */
+        List<FieldChange> changes(T row);
+
+        /**
+         * Writes the requested values to the changed rows, within the chunk's transaction, and returns the number
+         * of rows written.
+         */
+        int write(List<T> rows, LocalDateTime updatedAt, String updatedBy);
+    }
+}
@@ -0,0 +1,11 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+
+import java.util.List;
+
+/**
+ * Application event carrying a relayed batch to in-process subscribers ({@code @EventListener}).
+ */
+public record ChangeEventBatch(List<ChangeEventDTO> events) {
+}
@@ -0,0 +1,19 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+
+import java.util.List;
+
+/**
+ * Destination the change-feed relay delivers to. Delivery is at-least-once: a batch that throws is retried from the
+ * same offset, so implementations must tolerate seeing an event more than once.
+ */
+public interface ChangeEventSink {
+
+    /**
+     * Stable consumer name the relay stores this sink's offset under.
+     */
+    String name();
+
+    void deliver(List<ChangeEventDTO> batch) throws Exception;
+}
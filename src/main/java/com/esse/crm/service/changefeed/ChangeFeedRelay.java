@@ -0,0 +1,192 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+import com.esse.crm.entity.ChangeFeedHorizon;
+import com.esse.crm.entity.ChangeFeedOffset;
+import com.esse.crm.repository.ChangeFeedHorizonRepository;
+import com.esse.crm.repository.ChangeFeedOffsetRepository;
+import com.esse.crm.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves outbox events to every registered {@link ChangeEventSink}, each at its own pace. A batch is claimed on the
+ * sink's offset row, delivered outside any transaction and the offset only advanced once delivery succeeds, so a
+ * failed or interrupted batch is delivered again and several application instances never relay the same sink
+ * concurrently. A claim outlives a crashed instance by at most the claim timeout.
+ */
+@Component
+@Slf4j
+public class ChangeFeedRelay {
+
+    private final List<ChangeEventSink> sinks;
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedOffsetRepository offsetRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ChangeFeedHorizonRepository horizonRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantDirectory tenantDirectory;
+    private final int batchSize;
+    private final int purgeBatchSize;
+    private final Duration retention;
+    private final Duration claimTimeout;
+
+    public ChangeFeedRelay(List<ChangeEventSink> sinks,
+                           ChangeFeedService changeFeedService,
+                           ChangeFeedOffsetRepository offsetRepository,
+                           OutboxEventRepository outboxEventRepository,
+                           ChangeFeedHorizonRepository horizonRepository,
+                           TransactionTemplate transactionTemplate,
+                           TenantDirectory tenantDirectory,
+                           @Value("${application.change-feed.batch-size:500}") int batchSize,
+                           @Value("${application.change-feed.purge-batch-size:1000}") int purgeBatchSize,
+                           @Value("${application.change-feed.retention:30d}") Duration retention,
+                           @Value("${application.change-feed.claim-timeout:5m}") Duration claimTimeout) {
+        this.sinks = sinks;
+        this.changeFeedService = changeFeedService;
+        this.offsetRepository = offsetRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.horizonRepository = horizonRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tenantDirectory = tenantDirectory;
+        this.batchSize = Math.min(batchSize, ChangeFeedService.MAX_BATCH_SIZE);
+        this.purgeBatchSize = purgeBatchSize;
+        this.retention = retention;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${application.change-feed.relay-interval:1000}")
+    public void relay() {
+        tenantDirectory.forEachTenant(this::relayAll);
+    }
+
+    /**
+     * Drops events, including delete tombstones, past the retention period and records the purge horizon.
+     * Consumers that fall further behind than that have to resynchronise. The horizon moves first, then rows go in
+     * chunks of {@code purge-batch-size}, each its own transaction, so a large backlog never holds locks over the
+     * whole range.
+     */
+    @Scheduled(cron = "${application.change-feed.purge-cron:0 15 * * * *}")
+    public void purge() {
+        tenantDirectory.forEachTenant(this::purgeExpired);
+    }
+
+    private void relayAll() {
+        for (ChangeEventSink sink : sinks) {
+            try {
+                int delivered;
+                do {
+                    delivered = relayBatch(sink);
+                } while (delivered == batchSize);
+            } catch (RuntimeException e) {
+                log.warn("Change feed delivery to sink '{}' failed, will retry: {}", sink.name(), e.getMessage());
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        Long lastId = transactionTemplate.execute(status -> {
+            Long expired = outboxEventRepository.findLastIdBefore(LocalDateTime.now().minus(retention));
+            if (expired == null) {
+                return null;
+            }
+            ChangeFeedHorizon horizon = horizonRepository.findById(ChangeFeedHorizon.ID)
+                    .orElseGet(() -> ChangeFeedHorizon.builder().id(ChangeFeedHorizon.ID).build());
+            horizon.setPurgedThrough(expired);
+            horizon.setPurgedAt(LocalDateTime.now());
+            horizonRepository.save(horizon);
+            return expired;
+        });
+        if (lastId == null) {
+            return;
+        }
+        Pageable chunk = PageRequest.of(0, purgeBatchSize);
+        long purged = 0;
+        int deleted;
+        do {
+            Integer result = transactionTemplate.execute(status -> {
+                List<Long> ids = outboxEventRepository.findIdsThrough(lastId, chunk);
+                outboxEventRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            deleted = result != null ? result : 0;
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+        if (purged > 0) {
+            log.info("Purged {} change feed events older than {}", purged, retention);
+        }
+    }
+
+    int relayBatch(ChangeEventSink sink) {
+        Claim claim = transactionTemplate.execute(status -> claim(sink));
+        if (claim == null) {
+            return 0;
+        }
+        try {
+            sink.deliver(claim.batch());
+        } catch (Exception e) {
+            transactionTemplate.execute(status -> release(sink, claim, null));
+            throw new IllegalStateException("Sink '" + sink.name() + "' rejected batch after event " + claim.after(), e);
+        }
+        long lastSequence = claim.batch().get(claim.batch().size() - 1).getSequence();
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> release(sink, claim, lastSequence)))) {
+            log.warn("Claim on sink '{}' lapsed while delivering events {} to {}, they will be delivered again",
+                    sink.name(), claim.after() + 1, lastSequence);
+            return 0;
+        }
+        return claim.batch().size();
+    }
+
+    private Claim claim(ChangeEventSink sink) {
+        ChangeFeedOffset offset = offsetRepository.findForUpdate(sink.name())
+                .orElseGet(() -> offsetRepository.saveAndFlush(ChangeFeedOffset.builder()
+                        .consumer(sink.name())
+                        .lastEventId(0L)
+                        .updatedAt(LocalDateTime.now())
+                        .build()));
+        LocalDateTime now = LocalDateTime.now();
+        if (offset.getClaimedUntil() != null && offset.getClaimedUntil().isAfter(now)) {
+            return null;
+        }
+        List<ChangeEventDTO> batch = changeFeedService.nextBatch(offset.getLastEventId(), batchSize);
+        if (batch.isEmpty()) {
+            return null;
+        }
+        Claim claim = new Claim(UUID.randomUUID().toString(), offset.getLastEventId(), batch);
+        offset.setClaimedBy(claim.id());
+        offset.setClaimedUntil(now.plus(claimTimeout));
+        return claim;
+    }
+
+    /**
+     * Gives the claim up, advancing the offset when a delivered sequence is passed; false when the claim had
+     * lapsed and been taken over, in which case the offset is left to the new holder.
+     */
+    private boolean release(ChangeEventSink sink, Claim claim, Long deliveredThrough) {
+        ChangeFeedOffset offset = offsetRepository.findForUpdate(sink.name()).orElse(null);
+        if (offset == null || !claim.id().equals(offset.getClaimedBy())) {
+            return false;
+        }
+        if (deliveredThrough != null) {
+            offset.setLastEventId(deliveredThrough);
+            offset.setUpdatedAt(LocalDateTime.now());
+        }
+        offset.setClaimedBy(null);
+        offset.setClaimedUntil(null);
+        return true;
+    }
+
+    private record Claim(String id, long after, List<ChangeEventDTO> batch) {
+    }
+}
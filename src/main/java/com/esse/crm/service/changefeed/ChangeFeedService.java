@@ -0,0 +1,150 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+import com.esse.crm.dto.changefeed.ChangeFeedOffsetDTO;
+import com.esse.crm.dto.changefeed.ChangeFeedPageDTO;
+import com.esse.crm.entity.ChangeFeedHorizon;
+import com.esse.crm.entity.ChangeFeedOffset;
+import com.esse.crm.entity.OutboxEvent;
+import com.esse.crm.exception.ResourceNotFoundException;
+import com.esse.crm.repository.ChangeFeedHorizonRepository;
+import com.esse.crm.repository.ChangeFeedOffsetRepository;
+import com.esse.crm.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class ChangeFeedService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private static final Set<String> BUILT_IN_SINKS = Set.of(
+            LoggingChangeEventSink.NAME, InProcessChangeEventSink.NAME, HttpChangeEventSink.NAME);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ChangeFeedOffsetRepository offsetRepository;
+    private final ChangeFeedHorizonRepository horizonRepository;
+    private final Duration visibilityDelay;
+    private final Set<String> sinkNames = new HashSet<>(BUILT_IN_SINKS);
+
+    public ChangeFeedService(OutboxEventRepository outboxEventRepository,
+                             ChangeFeedOffsetRepository offsetRepository,
+                             ChangeFeedHorizonRepository horizonRepository,
+                             List<ChangeEventSink> sinks,
+                             @Value("${application.change-feed.visibility-delay:1s}") Duration visibilityDelay) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.offsetRepository = offsetRepository;
+        this.horizonRepository = horizonRepository;
+        this.visibilityDelay = visibilityDelay;
+        sinks.forEach(sink -> sinkNames.add(sink.name()));
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedPageDTO getChanges(long after, int limit) {
+        List<ChangeEventDTO> events = nextBatch(after, limit);
+        long nextAfter = events.isEmpty() ? after : events.get(events.size() - 1).getSequence();
+        return ChangeFeedPageDTO.builder()
+                .events(events)
+                .nextAfter(nextAfter)
+                .build();
+    }
+
+    /**
+     * Events after the given offset, in sequence order. Events younger than the visibility delay are held back:
+     * sequence numbers are assigned before commit, so a transaction committing late could otherwise surface below
+     * an offset a consumer has already moved past.
+     */
+    @Transactional(readOnly = true)
+    public List<ChangeEventDTO> nextBatch(long after, int limit) {
+        LocalDateTime visibleBefore = LocalDateTime.now().minus(visibilityDelay);
+        int size = Math.max(1, Math.min(limit, MAX_BATCH_SIZE));
+        return outboxEventRepository.findByIdGreaterThanAndOccurredAtLessThanEqualOrderByIdAsc(after, visibleBefore, PageRequest.of(0, size))
+                .stream()
+                .map(ChangeFeedService::convertToDTO)
+                .toList();
+    }
+
+    /**
+     * Sequence of the newest event currently visible to consumers, or 0 when the feed is empty.
+     */
+    @Transactional(readOnly = true)
+    public long headSequence() {
+        Long head = outboxEventRepository.findLastVisibleId(LocalDateTime.now().minus(visibilityDelay));
+        return head != null ? head : purgedThrough();
+    }
+
+    /**
+     * Highest sequence removed by retention; offsets below it have lost events.
+     */
+    @Transactional(readOnly = true)
+    public long purgedThrough() {
+        return horizonRepository.findById(ChangeFeedHorizon.ID)
+                .map(ChangeFeedHorizon::getPurgedThrough)
+                .orElse(0L);
+    }
+
+    @Transactional(readOnly = true)
+    public ChangeFeedOffsetDTO getOffset(String consumer) {
+        return convertToDTO(consumer, offsetRepository.findById(offsetKey(consumer))
+                .orElseThrow(() -> new ResourceNotFoundException("No offset stored for consumer: " + consumer)));
+    }
+
+    /**
+     * Sink names, including those of built-in sinks that are switched off, are reserved for the relay; only it may
+     * move their offsets.
+     */
+    @Transactional
+    public ChangeFeedOffsetDTO commitOffset(String consumer, long lastEventId) {
+        if (sinkNames.contains(consumer)) {
+            throw new IllegalArgumentException("Consumer name '" + consumer + "' is reserved for the change feed relay");
+        }
+        String key = offsetKey(consumer);
+        ChangeFeedOffset offset = offsetRepository.findById(key)
+                .orElseGet(() -> ChangeFeedOffset.builder().consumer(key).build());
+        offset.setLastEventId(lastEventId);
+        offset.setUpdatedAt(LocalDateTime.now());
+        return convertToDTO(consumer, offsetRepository.save(offset));
+    }
+
+    /**
+     * Offsets share one table across tenants; other tenants' consumers are stored under a tenant prefix so the
+     * default tenant keeps its existing rows.
+     */
+    private static String offsetKey(String consumer) {
+        if (consumer.indexOf(':') >= 0) {
+            throw new IllegalArgumentException("Consumer name must not contain ':'");
+        }
+        String tenant = TenantContext.currentOrDefault();
+        return TenantContext.DEFAULT_TENANT.equals(tenant) ? consumer : tenant + ":" + consumer;
+    }
+
+    static ChangeEventDTO convertToDTO(OutboxEvent event) {
+        return ChangeEventDTO.builder()
+                .sequence(event.getId())
+                .tenantId(event.getTenantId())
+                .entityType(event.getEntityType())
+                .entityId(event.getEntityId())
+                .operation(event.getOperation())
+                .changedFields(event.getChangedFields() != null ? Arrays.asList(event.getChangedFields().split(",")) : List.of())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+
+    private ChangeFeedOffsetDTO convertToDTO(String consumer, ChangeFeedOffset offset) {
+        return ChangeFeedOffsetDTO.builder()
+                .consumer(consumer)
+                .lastEventId(offset.getLastEventId())
+                .updatedAt(offset.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each batch as a JSON array to a webhook. Any non-2xx answer fails the batch so it is retried, and so does a
+ * webhook that does not answer within the timeouts, which would otherwise hold the relay's scheduler thread.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.change-feed.sinks.http", name = "url")
+public class HttpChangeEventSink implements ChangeEventSink {
+
+    public static final String NAME = "http";
+
+    private final RestClient restClient;
+
+    public HttpChangeEventSink(RestClient.Builder restClientBuilder,
+                               @Value("${application.change-feed.sinks.http.url}") String url,
+                               @Value("${application.change-feed.sinks.http.connect-timeout:5s}") Duration connectTimeout,
+                               @Value("${application.change-feed.sinks.http.read-timeout:30s}") Duration readTimeout) {
+        this.restClient = restClientBuilder
+                .baseUrl(url)
+                .requestFactory(ClientHttpRequestFactories.get(ClientHttpRequestFactorySettings.DEFAULTS
+                        .withConnectTimeout(connectTimeout)
+                        .withReadTimeout(readTimeout)))
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void deliver(List<ChangeEventDTO> batch) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(batch)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
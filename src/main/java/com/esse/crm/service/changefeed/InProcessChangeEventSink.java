@@ -0,0 +1,33 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes batches as {@link ChangeEventBatch} application events. Listeners run on the relay thread, so one that
+ * throws causes the batch to be redelivered to every listener.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.change-feed.sinks.in-process", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InProcessChangeEventSink implements ChangeEventSink {
+
+    public static final String NAME = "in-process";
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void deliver(List<ChangeEventDTO> batch) {
+        eventPublisher.publishEvent(new ChangeEventBatch(batch));
+    }
+}
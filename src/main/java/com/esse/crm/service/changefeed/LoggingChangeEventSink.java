@@ -0,0 +1,38 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes one JSON line per event to the {@code crm.changefeed} logger, which can be routed to its own file.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.change-feed.sinks.log", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LoggingChangeEventSink implements ChangeEventSink {
+
+    public static final String NAME = "log";
+
+    private static final Logger CHANGE_LOG = LoggerFactory.getLogger("crm.changefeed");
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void deliver(List<ChangeEventDTO> batch) throws Exception {
+        for (ChangeEventDTO event : batch) {
+            CHANGE_LOG.info(objectMapper.writeValueAsString(event));
+        }
+    }
+}
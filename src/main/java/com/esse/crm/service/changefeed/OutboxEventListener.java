@@ -0,0 +1,137 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import com.esse.crm.entity.AuditedEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns Hibernate insert, update and delete events on {@link ChangeTracked} entities into outbox rows. Hooking the
+ * persistence layer rather than each service method means a new write path cannot forget to publish; JPQL bulk
+ * statements bypass it and report their changes through {@link #recordBulkUpdate}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Set<String> AUDIT_FIELDS = Set.of(
+            "createdAt", "updatedAt", "createdBy", "updatedBy", "tenantId", "historyVersion");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<SharedSessionContractImplementor, PendingChanges> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!tracked(event.getPersister())) {
+            return;
+        }
+        Object[] state = event.getState();
+        List<Integer> populated = new ArrayList<>();
+        for (int i = 0; i < state.length; i++) {
+            if (state[i] != null) {
+                populated.add(i);
+            }
+        }
+        record(event.getSession(), event.getPersister(), event.getEntity(), event.getId(), ChangeOperation.CREATE,
+                fieldNames(event.getPersister(), populated));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!tracked(event.getPersister())) {
+            return;
+        }
+        List<Integer> dirty = new ArrayList<>();
+        if (event.getDirtyProperties() != null) {
+            for (int index : event.getDirtyProperties()) {
+                dirty.add(index);
+            }
+        }
+        List<String> changedFields = fieldNames(event.getPersister(), dirty);
+        // Updates that only touched audit columns carry no information for consumers
+        if (!changedFields.isEmpty() || event.getDirtyProperties() == null) {
+            record(event.getSession(), event.getPersister(), event.getEntity(), event.getId(), ChangeOperation.UPDATE, changedFields);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (tracked(event.getPersister())) {
+            record(event.getSession(), event.getPersister(), event.getEntity(), event.getId(), ChangeOperation.DELETE, List.of());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Records updates made by a bulk statement, which raises no entity events, with the current transaction's
+     * changes. {@code changedFields} maps each updated id to the fields that actually changed.
+     */
+    public void recordBulkUpdate(EntityManager entityManager, Class<?> entityClass, Map<Long, List<String>> changedFields) {
+        PendingChanges changes = pending(entityManager.unwrap(EventSource.class));
+        String tenant = TenantContext.currentOrDefault();
+        changedFields.forEach((id, fields) ->
+                changes.add(tenant, entityClass.getSimpleName(), id, ChangeOperation.UPDATE, fields));
+    }
+
+    private void record(EventSource session, EntityPersister persister, Object entity, Object id, ChangeOperation operation,
+                        List<String> changedFields) {
+        String tenant = entity instanceof AuditedEntity audited && audited.getTenantId() != null
+                ? audited.getTenantId() : TenantContext.currentOrDefault();
+        pending(session).add(tenant, persister.getMappedClass().getSimpleName(), ((Number) id).longValue(), operation, changedFields);
+    }
+
+    private PendingChanges pending(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            PendingChanges created = new PendingChanges(pending, s);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) created);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) created);
+            return created;
+        });
+    }
+
+    private static boolean tracked(EntityPersister persister) {
+        return persister.getMappedClass().isAnnotationPresent(ChangeTracked.class);
+    }
+
+    private static List<String> fieldNames(EntityPersister persister, List<Integer> indexes) {
+        String[] names = persister.getPropertyNames();
+        List<String> fields = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            if (!AUDIT_FIELDS.contains(names[index]) && !persister.getPropertyTypes()[index].isCollectionType()) {
+                fields.add(names[index]);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,70 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import org.hibernate.HibernateException;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes collected during one transaction. They are written to the outbox after Hibernate's final flush and
+ * before the commit, on the transaction's own connection, so the events commit or roll back with the data.
+ */
+class PendingChanges implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (tenant_id, entity_type, entity_id, operation, changed_fields, occurred_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final Map<SharedSessionContractImplementor, PendingChanges> registry;
+    private final SharedSessionContractImplementor session;
+    private final List<Change> changes = new ArrayList<>();
+
+    PendingChanges(Map<SharedSessionContractImplementor, PendingChanges> registry, SharedSessionContractImplementor session) {
+        this.registry = registry;
+        this.session = session;
+    }
+
+    void add(String tenantId, String entityType, Long entityId, ChangeOperation operation, List<String> changedFields) {
+        changes.add(new Change(tenantId, entityType, entityId, operation, changedFields.isEmpty() ? null : String.join(",", changedFields)));
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp occurredAt = Timestamp.valueOf(LocalDateTime.now());
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (Change change : changes) {
+                    statement.setString(1, change.tenantId());
+                    statement.setString(2, change.entityType());
+                    statement.setLong(3, change.entityId());
+                    statement.setString(4, change.operation().name());
+                    statement.setString(5, change.changedFields());
+                    statement.setTimestamp(6, occurredAt);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        changes.clear();
+    }
+
+    @Override
+    public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) throws HibernateException {
+        registry.remove(this.session);
+    }
+
+    private record Change(String tenantId, String entityType, Long entityId, ChangeOperation operation, String changedFields) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.esse.crm.service.dedup;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.dto.lead.AccountMatchStrategy;
+import com.esse.crm.entity.Account;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.util.KeyNormalizer;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches company names to accounts through the normalized {@code account_key}.
+ * <p>
+ * Keys are held in memory mapped to the oldest account carrying them, loaded for every tenant at startup, so a hit is
+ * one hash probe plus a primary-key fetch. A miss, or a mapped id that turns out to be stale, falls back to a locking
+ * read of the indexed column, which finds accounts created by other instances since. When that read finds nothing,
+ * concurrent conversions of the same company both go on to create the account and deadlock on the insert; the
+ * caller retries the loser, whose second read then sees the winner's account. Entries are keyed by tenant as well,
+ * so a company name only ever matches an account of the caller's tenant.
+ */
+@Component
+@Slf4j
+public class AccountMatcher {
+
+    private static final int WARMUP_PAGE_SIZE = 10_000;
+    private static final PageRequest FIRST = PageRequest.of(0, 1);
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantDirectory tenantDirectory;
+    private final Map<String, Long> accountIdsByKey = new ConcurrentHashMap<>();
+
+    public AccountMatcher(AccountRepository accountRepository, TransactionTemplate transactionTemplate,
+                          TenantDirectory tenantDirectory) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tenantDirectory = tenantDirectory;
+    }
+
+    @Getter
+    @Builder
+    public static class MatchResult {
+        private Account account;
+        private AccountMatchStrategy strategy;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        tenantDirectory.forEachTenant(() -> {
+            backfillKeys();
+            Slice<AccountRepository.AccountKeyView> slice = accountRepository.findAccountKeys(PageRequest.of(0, WARMUP_PAGE_SIZE));
+            while (true) {
+                slice.forEach(view -> register(view.getTenantId(), view.getAccountKey(), view.getId()));
+                if (!slice.hasNext()) {
+                    break;
+                }
+                slice = accountRepository.findAccountKeys(slice.nextPageable());
+            }
+        });
+        log.info("Account key index warmed with {} keys", accountIdsByKey.size());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<MatchResult> match(String companyName) {
+        String key = KeyNormalizer.accountKey(companyName);
+        if (key == null) {
+            return Optional.empty();
+        }
+        String tenant = TenantContext.currentOrDefault();
+        Optional<Account> account = Optional.empty();
+        Long accountId = accountIdsByKey.get(mapKey(tenant, key));
+        if (accountId != null) {
+            account = accountRepository.findById(accountId)
+                    .filter(found -> key.equals(found.getAccountKey()));
+            if (account.isEmpty()) {
+                accountIdsByKey.remove(mapKey(tenant, key), accountId);
+            }
+        }
+        if (account.isEmpty()) {
+            account = accountRepository.lockByAccountKey(key, FIRST).stream().findFirst();
+            account.ifPresent(found -> register(tenant, key, found.getId()));
+        }
+        return account.map(found -> MatchResult.builder()
+                .account(found)
+                .strategy(companyName.equals(found.getAccountName())
+                        ? AccountMatchStrategy.EXACT_NAME
+                        : AccountMatchStrategy.NORMALIZED_NAME)
+                .build());
+    }
+
+    private void register(String tenant, String key, Long accountId) {
+        if (tenant != null && key != null && accountId != null) {
+            accountIdsByKey.merge(mapKey(tenant, key), accountId, Math::min);
+        }
+    }
+
+    private static String mapKey(String tenant, String key) {
+        return tenant + '\u0000' + key;
+    }
+
+    // Accounts created before account_key existed are keyed here, as the normalization cannot be expressed in SQL.
+    private void backfillKeys() {
+        Long lastId = 0L;
+        while (lastId != null) {
+            Long afterId = lastId;
+            lastId = transactionTemplate.execute(status -> {
+                List<Account> batch = accountRepository.findTop500ByAccountKeyIsNullAndIdGreaterThanOrderByIdAsc(afterId);
+                if (batch.isEmpty()) {
+                    return null;
+                }
+                batch.forEach(account -> account.setAccountKey(KeyNormalizer.accountKey(account.getAccountName())));
+                return batch.get(batch.size() - 1).getId();
+            });
+        }
+    }
+}
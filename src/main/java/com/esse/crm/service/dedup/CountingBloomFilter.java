@@ -0,0 +1,127 @@
+package com.esse.crm.service.dedup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counting Bloom filter with 4-bit saturating counters packed sixteen to a {@code long}.
+ * <p>
+ * {@link #mightContain(String)} never returns a false negative for a key that was added and not removed,
+ * so a {@code false} answer can be trusted without touching the database. Saturated counters are never
+ * decremented, which keeps removals from introducing false negatives.
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xFL;
+
+    private final AtomicLongArray words;
+    private final int counterCount;
+    private final int hashCount;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        long optimalCounters = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.counterCount = (int) Math.min(Integer.MAX_VALUE - COUNTERS_PER_WORD, Math.max(COUNTERS_PER_WORD, optimalCounters));
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / expectedInsertions * ln2));
+        this.words = new AtomicLongArray((counterCount + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+    }
+
+    public void add(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            increment(index(hash, i));
+        }
+    }
+
+    public void remove(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            decrement(index(hash, i));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            if (counter(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getCounterCount() {
+        return counterCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private int counter(int index) {
+        return (int) ((words.get(index / COUNTERS_PER_WORD) >>> shift(index)) & COUNTER_MASK);
+    }
+
+    private void increment(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long value = (current >>> shift) & COUNTER_MASK;
+            if (value == COUNTER_MASK) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long value = (current >>> shift) & COUNTER_MASK;
+            if (value == 0 || value == COUNTER_MASK) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int combined = h1 + i * h2;
+        return (combined & Integer.MAX_VALUE) % counterCount;
+    }
+
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * 4;
+    }
+
+    // 64-bit FNV-1a followed by a murmur3 finalizer for better bit dispersion.
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
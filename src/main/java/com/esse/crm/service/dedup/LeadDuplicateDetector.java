@@ -0,0 +1,141 @@
+package com.esse.crm.service.dedup;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.entity.Lead;
+import com.esse.crm.repository.LeadRepository;
+import com.esse.crm.util.KeyNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.esse.crm.service.dedup.TransactionCallbacks.afterCommit;
+
+/**
+ * Fast duplicate check for lead emails.
+ * <p>
+ * A counting Bloom filter of normalized emails answers the common "never seen" case in memory. Only a
+ * possible hit falls through to the database, and the unique {@code email_key} column remains the source of
+ * truth for concurrent inserts. Until the filter has been warmed from the table every check goes to the database.
+ * Filter entries combine tenant and email, since the same address may exist once per tenant.
+ */
+@Component
+@Slf4j
+public class LeadDuplicateDetector {
+
+    private final LeadRepository leadRepository;
+    private final LeadDuplicateScanner duplicateScanner;
+    private final TenantDirectory tenantDirectory;
+    private final CountingBloomFilter emailFilter;
+    private final int warmupPageSize;
+
+    private volatile boolean ready;
+
+    public LeadDuplicateDetector(LeadRepository leadRepository,
+                                 LeadDuplicateScanner duplicateScanner,
+                                 TenantDirectory tenantDirectory,
+                                 @Value("${application.leads.dedup.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${application.leads.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${application.leads.dedup.warmup-page-size:10000}") int warmupPageSize) {
+        this.leadRepository = leadRepository;
+        this.duplicateScanner = duplicateScanner;
+        this.tenantDirectory = tenantDirectory;
+        this.emailFilter = new CountingBloomFilter(expectedInsertions, falsePositiveRate);
+        this.warmupPageSize = warmupPageSize;
+    }
+
+    /**
+     * Loads the filter in the background, in pages keyed by id; checks go to the database until it is done.
+     */
+    @Async("dedupExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        AtomicLong loaded = new AtomicLong();
+        PageRequest page = PageRequest.of(0, warmupPageSize);
+        tenantDirectory.forEachTenant(() -> {
+            List<LeadRepository.EmailKeyView> keys = leadRepository.findEmailKeysAfter(0L, page);
+            while (!keys.isEmpty()) {
+                keys.forEach(view -> addKey(view.getTenantId(), view.getEmailKey()));
+                loaded.addAndGet(keys.size());
+                if (keys.size() < warmupPageSize) {
+                    break;
+                }
+                keys = leadRepository.findEmailKeysAfter(keys.get(keys.size() - 1).getId(), page);
+            }
+        });
+        ready = true;
+        tenantDirectory.forEachTenant(() -> {
+            for (Long lastId = 0L; lastId != null; ) {
+                lastId = duplicateScanner.backfillBlockingKeys(lastId);
+            }
+        });
+        log.info("Lead email filter warmed with {} keys ({} counters, {} hashes)",
+                loaded, emailFilter.getCounterCount(), emailFilter.getHashCount());
+    }
+
+    public boolean emailExists(String email) {
+        return emailExists(email, null);
+    }
+
+    /**
+     * @param excludeLeadId lead to ignore when checking, so an update does not collide with itself
+     */
+    public boolean emailExists(String email, Long excludeLeadId) {
+        String key = KeyNormalizer.email(email);
+        if (key == null) {
+            return false;
+        }
+        if (ready && !emailFilter.mightContain(filterKey(TenantContext.currentOrDefault(), key))) {
+            return false;
+        }
+        return excludeLeadId == null
+                ? leadRepository.existsByEmailKey(key)
+                : leadRepository.existsByEmailKeyAndIdNot(key, excludeLeadId);
+    }
+
+    /**
+     * Records a saved lead. A stale entry left by a rolled-back insert only costs one extra query later,
+     * so keys are added immediately while removals wait for the commit. Removals are skipped while the filter is
+     * still loading, since the key being removed may not have been loaded yet.
+     */
+    public void onLeadSaved(Lead lead, String previousEmail) {
+        String key = KeyNormalizer.email(lead.getEmail());
+        addKey(lead.getTenantId(), key);
+        String previousKey = KeyNormalizer.email(previousEmail);
+        if (previousKey != null && !previousKey.equals(key)) {
+            afterCommit(() -> removeKey(lead.getTenantId(), previousKey));
+        }
+        Long leadId = lead.getId();
+        afterCommit(() -> duplicateScanner.scan(leadId));
+    }
+
+    public void onLeadDeleted(Lead lead) {
+        String key = KeyNormalizer.email(lead.getEmail());
+        if (key != null) {
+            afterCommit(() -> removeKey(lead.getTenantId(), key));
+        }
+    }
+
+    private void addKey(String tenant, String key) {
+        if (tenant != null && key != null) {
+            emailFilter.add(filterKey(tenant, key));
+        }
+    }
+
+    private void removeKey(String tenant, String key) {
+        if (ready) {
+            emailFilter.remove(filterKey(tenant, key));
+        }
+    }
+
+    private static String filterKey(String tenant, String key) {
+        return tenant + '\u0000' + key;
+    }
+}
@@ -0,0 +1,72 @@
+package com.esse.crm.service.dedup;
+
+import com.esse.crm.entity.Lead;
+import com.esse.crm.entity.LeadDuplicateCandidate;
+import com.esse.crm.repository.LeadDuplicateCandidateRepository;
+import com.esse.crm.repository.LeadRepository;
+import com.esse.crm.util.KeyNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fuzzy blocking pass that flags leads sharing a normalized company and contact name.
+ * Runs off the request thread after the lead has been committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeadDuplicateScanner {
+
+    private final LeadRepository leadRepository;
+    private final LeadDuplicateCandidateRepository candidateRepository;
+
+    @Async("dedupExecutor")
+    @Transactional
+    public void scan(Long leadId) {
+        Lead lead = leadRepository.findById(leadId).orElse(null);
+        if (lead == null || lead.getBlockingKey() == null) {
+            return;
+        }
+        List<Lead> matches = leadRepository.findByBlockingKeyAndIdNot(lead.getBlockingKey(), leadId);
+        for (Lead match : matches) {
+            flag(lead.getId(), match.getId(), lead.getBlockingKey());
+            flag(match.getId(), lead.getId(), lead.getBlockingKey());
+        }
+        if (!matches.isEmpty()) {
+            log.info("Lead {} flagged as possible duplicate of {} lead(s)", leadId, matches.size());
+        }
+    }
+
+    /**
+     * Fills blocking keys for leads created before the column existed, one keyset batch per call.
+     *
+     * @return the highest lead id visited, or {@code null} when nothing is left
+     */
+    @Transactional
+    public Long backfillBlockingKeys(Long afterId) {
+        List<Lead> batch = leadRepository.findTop500ByBlockingKeyIsNullAndIdGreaterThanOrderByIdAsc(afterId);
+        if (batch.isEmpty()) {
+            return null;
+        }
+        batch.forEach(lead -> lead.setBlockingKey(KeyNormalizer.blockingKey(lead.getCompany(), lead.getContactName())));
+        return batch.get(batch.size() - 1).getId();
+    }
+
+    private void flag(Long leadId, Long duplicateLeadId, String blockingKey) {
+        if (candidateRepository.existsByLeadIdAndDuplicateLeadId(leadId, duplicateLeadId)) {
+            return;
+        }
+        candidateRepository.save(LeadDuplicateCandidate.builder()
+                .leadId(leadId)
+                .duplicateLeadId(duplicateLeadId)
+                .blockingKey(blockingKey)
+                .detectedAt(LocalDateTime.now())
+                .build());
+    }
+}
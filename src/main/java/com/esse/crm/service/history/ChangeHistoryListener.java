@@ -0,0 +1,203 @@
+package com.esse.crm.service.history;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.config.tenant.TenantScoped;
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import com.esse.crm.service.changefeed.ChangeTracked;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records old and new values of the properties Hibernate's dirty check found changed on {@link ChangeTracked}
+ * entities. The values are already in hand from the flush, so the only cost on the write path is encoding them
+ * and, per transaction, one batched bump of the records' version counters and one batched insert, reported as
+ * {@code crm.history.write}.
+ */
+@Component
+public class ChangeHistoryListener implements PostInsertEventListener, PostUpdateEventListener, PreDeleteEventListener,
+        PostDeleteEventListener {
+
+    private static final Set<String> IGNORED_FIELDS = Set.of(
+            "createdAt", "updatedAt", "createdBy", "updatedBy", "tenantId", "historyVersion");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditorAware<String> auditorAware;
+    private final Timer writeTimer;
+    private final boolean enabled;
+    private final Map<SharedSessionContractImplementor, PendingHistory> pending = new ConcurrentHashMap<>();
+
+    public ChangeHistoryListener(EntityManagerFactory entityManagerFactory,
+                                 AuditorAware<String> auditorAware,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${application.history.enabled:true}") boolean enabled) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditorAware = auditorAware;
+        this.writeTimer = Timer.builder("crm.history.write").register(meterRegistry);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void register() {
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.PRE_DELETE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!tracked(event.getPersister())) {
+            return;
+        }
+        List<FieldChange> changes = new ArrayList<>();
+        Object[] state = event.getState();
+        for (int i = 0; i < state.length; i++) {
+            if (state[i] != null && recorded(event.getPersister(), i)) {
+                changes.add(change(event.getPersister(), i, null, state[i]));
+            }
+        }
+        record(event.getSession(), event.getPersister(), event.getEntity(), event.getId(), ChangeOperation.CREATE, changes);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!tracked(event.getPersister()) || event.getDirtyProperties() == null) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        List<FieldChange> changes = new ArrayList<>();
+        for (int index : event.getDirtyProperties()) {
+            if (recorded(event.getPersister(), index)) {
+                changes.add(change(event.getPersister(), index, oldState != null ? oldState[index] : null, state[index]));
+            }
+        }
+        if (!changes.isEmpty()) {
+            record(event.getSession(), event.getPersister(), event.getEntity(), event.getId(), ChangeOperation.UPDATE, changes);
+        }
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        if (tracked(event.getPersister())) {
+            pending(event.getSession()).lockForDelete(event.getSession(), table(event.getPersister()),
+                    event.getPersister().getMappedClass().getSimpleName(), ((Number) event.getId()).longValue());
+        }
+        return false;
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!tracked(event.getPersister())) {
+            return;
+        }
+        List<FieldChange> changes = new ArrayList<>();
+        Object[] deletedState = event.getDeletedState();
+        for (int i = 0; i < deletedState.length; i++) {
+            if (deletedState[i] != null && recorded(event.getPersister(), i)) {
+                changes.add(change(event.getPersister(), i, deletedState[i], null));
+            }
+        }
+        record(event.getSession(), event.getPersister(), event.getEntity(), event.getId(), ChangeOperation.DELETE, changes);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Records the changes a bulk update statement made, which Hibernate raises no events for, with the rest of
+     * the current transaction's history.
+     */
+    public void recordBulkUpdate(EntityManager entityManager, Class<?> entityClass, Map<Long, List<FieldChange>> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        PendingHistory history = pending(entityManager.unwrap(EventSource.class));
+        String table = table(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .getEntityDescriptor(entityClass));
+        String tenant = TenantContext.currentOrDefault();
+        String changedBy = auditorAware.getCurrentAuditor().orElse(null);
+        changes.forEach((id, fieldChanges) ->
+                history.add(tenant, table, entityClass.getSimpleName(), id, ChangeOperation.UPDATE, changedBy, fieldChanges));
+    }
+
+    private void record(EventSource session, EntityPersister persister, Object entity, Object id,
+                        ChangeOperation operation, List<FieldChange> changes) {
+        String tenant = entity instanceof TenantScoped scoped && scoped.getTenantId() != null
+                ? scoped.getTenantId() : TenantContext.currentOrDefault();
+        pending(session).add(tenant, table(persister), persister.getMappedClass().getSimpleName(),
+                ((Number) id).longValue(), operation, auditorAware.getCurrentAuditor().orElse(null), changes);
+    }
+
+    private PendingHistory pending(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            PendingHistory created = new PendingHistory(pending, s, writeTimer);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) created);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) created);
+            return created;
+        });
+    }
+
+    private static boolean tracked(EntityPersister persister) {
+        return persister.getMappedClass().isAnnotationPresent(ChangeTracked.class);
+    }
+
+    private static String table(EntityPersister persister) {
+        return ((AbstractEntityPersister) persister).getIdentifierTableName();
+    }
+
+    private static boolean recorded(EntityPersister persister, int index) {
+        return !IGNORED_FIELDS.contains(persister.getPropertyNames()[index])
+                && !persister.getPropertyTypes()[index].isCollectionType();
+    }
+
+    private static FieldChange change(EntityPersister persister, int index, Object oldValue, Object newValue) {
+        Type type = persister.getPropertyTypes()[index];
+        return new FieldChange(persister.getPropertyNames()[index],
+                type.isEntityType() ? reference(persister, oldValue) : oldValue,
+                type.isEntityType() ? reference(persister, newValue) : newValue);
+    }
+
+    // Associations are recorded by the referenced record's id
+    private static Object reference(EntityPersister persister, Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof HibernateProxy proxy) {
+            return proxy.getHibernateLazyInitializer().getInternalIdentifier();
+        }
+        return persister.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(value.getClass())
+                .getIdentifier(value, (SharedSessionContractImplementor) null);
+    }
+}
@@ -0,0 +1,100 @@
+package com.esse.crm.service.history;
+
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.dto.history.ChangeHistoryEntryDTO;
+import com.esse.crm.dto.history.FieldChangeDTO;
+import com.esse.crm.entity.ChangeHistoryEntry;
+import com.esse.crm.repository.ChangeHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class ChangeHistoryService {
+
+    private final ChangeHistoryRepository historyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantDirectory tenantDirectory;
+    private final Duration retention;
+    private final int purgeBatchSize;
+
+    public ChangeHistoryService(ChangeHistoryRepository historyRepository,
+                                TransactionTemplate transactionTemplate,
+                                TenantDirectory tenantDirectory,
+                                @Value("${application.history.retention:730d}") Duration retention,
+                                @Value("${application.history.purge-batch-size:1000}") int purgeBatchSize) {
+        this.historyRepository = historyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tenantDirectory = tenantDirectory;
+        this.retention = retention;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Changes of one record within the time range, oldest first. Read access to the entity type is checked by the
+     * controller.
+     */
+    @Transactional(readOnly = true)
+    public List<ChangeHistoryEntryDTO> getHistory(String entityType, Long entityId, LocalDateTime from, LocalDateTime to) {
+        return historyRepository.findByEntityTypeAndEntityIdAndChangedAtBetweenOrderByVersionAsc(
+                        entityType, entityId,
+                        from != null ? from : LocalDateTime.now().minus(retention),
+                        to != null ? to : LocalDateTime.now())
+                .stream()
+                .map(ChangeHistoryService::convertToDTO)
+                .toList();
+    }
+
+    /**
+     * Deletes entries past the retention in chunks of {@code purgeBatchSize} ids, each its own transaction, so the
+     * purge never holds locks on more than one chunk.
+     */
+    @Scheduled(cron = "${application.history.purge-cron:0 45 3 * * *}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Pageable chunk = PageRequest.of(0, purgeBatchSize);
+        AtomicLong purged = new AtomicLong();
+        tenantDirectory.forEachTenant(() -> {
+            int deleted;
+            do {
+                Integer result = transactionTemplate.execute(status -> {
+                    List<Long> ids = historyRepository.findIdsOlderThan(cutoff, chunk);
+                    historyRepository.deleteAllByIdInBatch(ids);
+                    return ids.size();
+                });
+                deleted = result != null ? result : 0;
+                purged.addAndGet(deleted);
+            } while (deleted == purgeBatchSize);
+        });
+        if (purged.get() > 0) {
+            log.info("Purged {} change history entries older than {}", purged.get(), retention);
+        }
+    }
+
+    private static ChangeHistoryEntryDTO convertToDTO(ChangeHistoryEntry entry) {
+        return ChangeHistoryEntryDTO.builder()
+                .version(entry.getVersion())
+                .operation(entry.getOperation())
+                .changedAt(entry.getChangedAt())
+                .changedBy(entry.getChangedBy())
+                .changes(HistoryCodec.decode(entry.getPayload()).stream()
+                        .map(change -> FieldChangeDTO.builder()
+                                .field(change.field())
+                                .oldValue(change.oldValue())
+                                .newValue(change.newValue())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.esse.crm.service.history;
+
+/**
+ * One property's value before and after a change. On creation the old value is null; on deletion only the old
+ * value is set.
+ */
+public record FieldChange(String field, Object oldValue, Object newValue) {
+}
@@ -0,0 +1,145 @@
+package com.esse.crm.service.history;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding of the field changes in one history entry: a varint count, then per field its name and a
+ * tagged old and new value. Integers, dates and decimal scales are zigzag varints, so the typical update of one or
+ * two fields takes a few dozen bytes rather than a JSON document.
+ */
+public final class HistoryCodec {
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte DECIMAL = 3;
+    private static final byte TRUE = 4;
+    private static final byte FALSE = 5;
+    private static final byte DATE_TIME = 6;
+    private static final byte DATE = 7;
+    private static final byte DOUBLE = 8;
+
+    private HistoryCodec() {
+    }
+
+    public static byte[] encode(List<FieldChange> changes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + changes.size() * 24);
+        writeVarint(out, changes.size());
+        for (FieldChange change : changes) {
+            writeString(out, change.field());
+            writeValue(out, change.oldValue());
+            writeValue(out, change.newValue());
+        }
+        return out.toByteArray();
+    }
+
+    public static List<FieldChange> decode(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        int count = (int) readVarint(in);
+        List<FieldChange> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            changes.add(new FieldChange(readString(in), readValue(in), readValue(in)));
+        }
+        return changes;
+    }
+
+    private static void writeValue(ByteArrayOutputStream out, Object value) {
+        if (value == null) {
+            out.write(NULL);
+        } else if (value instanceof Boolean b) {
+            out.write(b ? TRUE : FALSE);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.write(LONG);
+            writeVarint(out, zigzag(((Number) value).longValue()));
+        } else if (value instanceof BigDecimal decimal) {
+            out.write(DECIMAL);
+            writeVarint(out, zigzag(decimal.scale()));
+            byte[] unscaled = decimal.unscaledValue().toByteArray();
+            writeVarint(out, unscaled.length);
+            out.writeBytes(unscaled);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.write(DOUBLE);
+            out.writeBytes(ByteBuffer.allocate(Double.BYTES).putDouble(((Number) value).doubleValue()).array());
+        } else if (value instanceof LocalDateTime dateTime) {
+            out.write(DATE_TIME);
+            writeVarint(out, zigzag(dateTime.toEpochSecond(ZoneOffset.UTC)));
+            writeVarint(out, dateTime.getNano());
+        } else if (value instanceof LocalDate date) {
+            out.write(DATE);
+            writeVarint(out, zigzag(date.toEpochDay()));
+        } else {
+            out.write(STRING);
+            writeString(out, value instanceof Enum<?> e ? e.name() : value.toString());
+        }
+    }
+
+    private static Object readValue(ByteBuffer in) {
+        byte tag = in.get();
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> readString(in);
+            case LONG -> unzigzag(readVarint(in));
+            case DECIMAL -> {
+                int scale = (int) unzigzag(readVarint(in));
+                byte[] unscaled = new byte[(int) readVarint(in)];
+                in.get(unscaled);
+                yield new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case DATE_TIME -> LocalDateTime.ofEpochSecond(unzigzag(readVarint(in)), (int) readVarint(in), ZoneOffset.UTC);
+            case DATE -> LocalDate.ofEpochDay(unzigzag(readVarint(in)));
+            case DOUBLE -> in.getDouble();
+            default -> throw new IllegalStateException("Unknown history value tag " + tag);
+        };
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in history payload");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
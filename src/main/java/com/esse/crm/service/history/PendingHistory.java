@@ -0,0 +1,184 @@
+package com.esse.crm.service.history;
+
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.HibernateException;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * History entries collected during one transaction, written as one JDBC batch after the final flush. Versions come
+ * from the {@code history_version} counter on each record's own row, which the transaction already holds locked
+ * from the change being recorded, so concurrent writers never take locks on {@code change_history} beyond their
+ * own inserts. A deleted row is gone by then; its counter is read under the delete's lock just before.
+ */
+class PendingHistory implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_history (tenant_id, entity_type, entity_id, version, operation, changed_at, changed_by, payload) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Only reached for rows deleted without a loaded instance, which nothing else can still be writing to
+    private static final String LATEST_VERSION_SQL =
+            "SELECT COALESCE(MAX(version), 0) FROM change_history WHERE entity_type = ? AND entity_id = ?";
+
+    private static final int IN_LIST_SIZE = 500;
+
+    private final Map<SharedSessionContractImplementor, PendingHistory> registry;
+    private final SharedSessionContractImplementor session;
+    private final Timer writeTimer;
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Record, Integer> deletedVersions = new HashMap<>();
+
+    PendingHistory(Map<SharedSessionContractImplementor, PendingHistory> registry, SharedSessionContractImplementor session,
+                   Timer writeTimer) {
+        this.registry = registry;
+        this.session = session;
+        this.writeTimer = writeTimer;
+    }
+
+    void add(String tenantId, String table, String entityType, Long entityId, ChangeOperation operation, String changedBy,
+             List<FieldChange> changes) {
+        entries.add(new Entry(tenantId, new Record(table, entityType, entityId), operation, changedBy,
+                HistoryCodec.encode(changes)));
+    }
+
+    /**
+     * Reads the counter of a row about to be deleted, locking it as the delete would.
+     */
+    void lockForDelete(SessionImplementor session, String table, String entityType, Long entityId) {
+        Record record = new Record(table, entityType, entityId);
+        if (deletedVersions.containsKey(record)) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT history_version FROM " + table + " WHERE id = ? FOR UPDATE")) {
+                statement.setLong(1, entityId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        deletedVersions.put(record, rs.getInt(1));
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+        Map<Record, Integer> counts = new LinkedHashMap<>();
+        entries.forEach(entry -> counts.merge(entry.record(), 1, Integer::sum));
+        session.doWork(connection -> {
+            Map<Record, Integer> versions = reserveVersions(connection, counts);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (Entry entry : entries) {
+                    int version = versions.merge(entry.record(), 1, Integer::sum);
+                    statement.setString(1, entry.tenantId());
+                    statement.setString(2, entry.record().entityType());
+                    statement.setLong(3, entry.record().entityId());
+                    statement.setInt(4, version);
+                    statement.setString(5, entry.operation().name());
+                    statement.setTimestamp(6, changedAt);
+                    statement.setString(7, entry.changedBy());
+                    statement.setBytes(8, entry.payload());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        entries.clear();
+        deletedVersions.clear();
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) throws HibernateException {
+        registry.remove(this.session);
+    }
+
+    /**
+     * Advances each live record's counter by its number of entries and returns the version before them.
+     */
+    private Map<Record, Integer> reserveVersions(Connection connection, Map<Record, Integer> counts) throws SQLException {
+        Map<Record, Integer> versions = new HashMap<>(deletedVersions);
+        Map<String, List<Record>> byTable = new LinkedHashMap<>();
+        counts.keySet().stream()
+                .filter(record -> !deletedVersions.containsKey(record))
+                .forEach(record -> byTable.computeIfAbsent(record.table(), t -> new ArrayList<>()).add(record));
+
+        for (Map.Entry<String, List<Record>> table : byTable.entrySet()) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE " + table.getKey() + " SET history_version = history_version + ? WHERE id = ?")) {
+                for (Record record : table.getValue()) {
+                    statement.setInt(1, counts.get(record));
+                    statement.setLong(2, record.entityId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            for (int from = 0; from < table.getValue().size(); from += IN_LIST_SIZE) {
+                List<Record> chunk = table.getValue().subList(from, Math.min(from + IN_LIST_SIZE, table.getValue().size()));
+                Map<Long, Record> byId = new HashMap<>();
+                chunk.forEach(record -> byId.put(record.entityId(), record));
+                String sql = "SELECT id, history_version FROM " + table.getKey() + " WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setLong(i + 1, chunk.get(i).entityId());
+                    }
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            Record record = byId.get(rs.getLong(1));
+                            versions.put(record, rs.getInt(2) - counts.get(record));
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Record record : counts.keySet()) {
+            if (!versions.containsKey(record)) {
+                versions.put(record, latestVersion(connection, record));
+            }
+        }
+        return versions;
+    }
+
+    private static int latestVersion(Connection connection, Record record) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(LATEST_VERSION_SQL)) {
+            statement.setString(1, record.entityType());
+            statement.setLong(2, record.entityId());
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private record Record(String table, String entityType, Long entityId) {
+    }
+
+    private record Entry(String tenantId, Record record, ChangeOperation operation, String changedBy, byte[] payload) {
+    }
+}
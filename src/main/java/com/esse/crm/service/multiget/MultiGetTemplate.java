@@ -0,0 +1,53 @@
+package com.esse.crm.service.multiget;
+
+import com.esse.crm.dto.MultiGetResultDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Answers a list of ids with one lookup for all of them, returning an entry per requested id in request order and
+ * marking the ones that do not exist. Callers run it inside their read transaction.
+ */
+@Component
+public class MultiGetTemplate {
+
+    private final int maxIds;
+
+    public MultiGetTemplate(@Value("${application.multi-get.max-ids:500}") int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * @param loader loads the records for a set of distinct ids, keyed by id; ids it has no record for are missing
+     */
+    public <T> MultiGetResultDTO<T> fetch(List<Long> ids, Function<Collection<Long>, Map<Long, T>> loader) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids are required");
+        }
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids can be fetched at once");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+        Map<Long, T> found = loader.apply(new LinkedHashSet<>(ids));
+        List<MultiGetResultDTO.Item<T>> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T record = found.get(id);
+            items.add(MultiGetResultDTO.Item.<T>builder()
+                    .id(id)
+                    .found(record != null)
+                    .data(record)
+                    .build());
+        }
+        return MultiGetResultDTO.<T>builder().items(items).build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.esse.crm.service.stagefeed;
+
+import com.esse.crm.dto.opportunity.StageChangeEventDTO;
+
+/**
+ * Published inside the transaction that moved an opportunity; the live feed only picks it up after commit.
+ */
+public record OpportunityStageChangedEvent(StageChangeEventDTO change) {
+}
@@ -0,0 +1,280 @@
+package com.esse.crm.service.stagefeed;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.dto.opportunity.StageChangeEventDTO;
+import com.esse.crm.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live feed of opportunity stage changes over Server-Sent Events.
+ * <p>
+ * Committed changes are handed to a single writer thread through a bounded inbox, so request threads never wait
+ * on subscribers. The writer appends to a {@link StageEventRingBuffer} and wakes a small dispatcher pool, which
+ * walks each subscriber's cursor forward and hands the matching events to a sender pool that writes them to the
+ * connection, so dispatchers never block on a client. A subscriber that falls a whole ring behind, or whose write
+ * has not finished within the send timeout, gets a {@code resync} event and is disconnected; it reconnects and
+ * reloads through the REST API. A stalled write keeps its sender thread until the connector's write timeout, but
+ * the subscriber is given no further work. Memory is bounded by the ring size plus one small cursor object per
+ * connection.
+ */
+@Component
+@Slf4j
+public class OpportunityStageFeed {
+
+    private final StageEventRingBuffer ring;
+    private final BlockingQueue<StageChangeEventDTO> inbox;
+    private final Set<StageFeedSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final TaskExecutor dispatcher;
+    private final TaskExecutor sender;
+    private final int maxSubscribers;
+    private final Duration emitterTimeout;
+    private final long sendTimeoutNanos;
+    private final Counter droppedPublishes;
+    private final Counter resyncs;
+    private final Counter slowSubscribers;
+    private volatile Thread writer;
+
+    public OpportunityStageFeed(@Qualifier("stageFeedExecutor") TaskExecutor dispatcher,
+                                @Qualifier("stageFeedSenderExecutor") TaskExecutor sender,
+                                MeterRegistry meterRegistry,
+                                @Value("${application.opportunities.stage-feed.ring-size:4096}") int ringSize,
+                                @Value("${application.opportunities.stage-feed.max-subscribers:10000}") int maxSubscribers,
+                                @Value("${application.opportunities.stage-feed.emitter-timeout:30m}") Duration emitterTimeout,
+                                @Value("${application.opportunities.stage-feed.send-timeout:10s}") Duration sendTimeout) {
+        this.ring = new StageEventRingBuffer(ringSize);
+        this.inbox = new ArrayBlockingQueue<>(ringSize);
+        this.dispatcher = dispatcher;
+        this.sender = sender;
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeout = emitterTimeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        Gauge.builder("crm.stage-feed.subscribers", subscribers, Set::size).register(meterRegistry);
+        this.droppedPublishes = Counter.builder("crm.stage-feed.dropped").register(meterRegistry);
+        this.resyncs = Counter.builder("crm.stage-feed.resyncs").register(meterRegistry);
+        this.slowSubscribers = Counter.builder("crm.stage-feed.slow-subscribers").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::writeLoop, "stage-feed-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.interrupt();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    @TransactionalEventListener
+    public void onStageChanged(OpportunityStageChangedEvent event) {
+        if (!inbox.offer(event.change())) {
+            droppedPublishes.increment();
+        }
+    }
+
+    /**
+     * @param lastEventId sequence of the last event the client received before reconnecting; events after it are
+     *                    replayed while they are still in the ring, otherwise the client is told to resync
+     */
+    public SseEmitter subscribe(Long accountId, String owner, Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Stage feed subscriber limit reached, retry later");
+        }
+        SseEmitter emitter = createEmitter(emitterTimeout.toMillis());
+        long cursor = ring.head();
+        boolean replayLost = false;
+        if (lastEventId != null) {
+            if (ring.isAvailable(lastEventId + 1)) {
+                cursor = lastEventId + 1;
+            } else {
+                replayLost = true;
+            }
+        }
+        StageFeedSubscriber subscriber = new StageFeedSubscriber(emitter, cursor, TenantContext.currentOrDefault(), accountId, owner);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        if (replayLost) {
+            resync(subscriber);
+            return emitter;
+        }
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Keeps idle connections from being cut by proxies and surfaces clients that went away without closing.
+     */
+    @Scheduled(fixedDelayString = "${application.opportunities.stage-feed.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (StageFeedSubscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void writeLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ring.append(inbox.take());
+                StageChangeEventDTO next;
+                while ((next = inbox.poll(0, TimeUnit.MILLISECONDS)) != null) {
+                    ring.append(next);
+                }
+                subscribers.forEach(this::schedule);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void schedule(StageFeedSubscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (TaskRejectedException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(StageFeedSubscriber subscriber) {
+        try {
+            if (subscriber.closed) {
+                return;
+            }
+            if (subscriber.sending) {
+                long startedAt = subscriber.sendStartedAt;
+                if (startedAt != 0 && System.nanoTime() - startedAt > sendTimeoutNanos) {
+                    slowSubscribers.increment();
+                    resync(subscriber);
+                }
+                // The running send schedules the next drain when it finishes
+                return;
+            }
+            List<StageChangeEventDTO> batch = new ArrayList<>();
+            StageChangeEventDTO event;
+            while ((event = ring.read(subscriber.cursor)) != null) {
+                subscriber.cursor++;
+                if (subscriber.matches(event)) {
+                    batch.add(event);
+                }
+            }
+            boolean heartbeat = subscriber.heartbeatDue;
+            subscriber.heartbeatDue = false;
+            if (!batch.isEmpty() || heartbeat) {
+                subscriber.sending = true;
+                sender.execute(() -> send(subscriber, batch, heartbeat));
+            }
+        } catch (StageEventRingBuffer.OverrunException e) {
+            resync(subscriber);
+        } catch (TaskRejectedException e) {
+            subscriber.sending = false;
+            resync(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // Events appended while this drain was finishing would otherwise wait for the next wake-up
+        if (!subscriber.closed && !subscriber.sending && ring.head() > subscriber.cursor) {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(StageFeedSubscriber subscriber, List<StageChangeEventDTO> batch, boolean heartbeat) {
+        subscriber.sendStartedAt = System.nanoTime();
+        try {
+            for (StageChangeEventDTO event : batch) {
+                if (subscriber.closed) {
+                    break;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.getSequence()))
+                        .name(event.getType().name().toLowerCase())
+                        .data(event));
+            }
+            if (heartbeat && !subscriber.closed) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(subscriber);
+        } finally {
+            subscriber.sendStartedAt = 0;
+            subscriber.sending = false;
+        }
+        if (subscriber.resyncDue) {
+            sendResync(subscriber);
+        } else if (!subscriber.closed) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Disconnects the subscriber at once. The resync event itself is written by a sender: the one still writing to
+     * this connection once it returns, so no second sender thread queues up behind a stalled write.
+     */
+    private void resync(StageFeedSubscriber subscriber) {
+        resyncs.increment();
+        close(subscriber);
+        subscriber.resyncDue = true;
+        if (subscriber.sending) {
+            return;
+        }
+        try {
+            sender.execute(() -> sendResync(subscriber));
+        } catch (TaskRejectedException e) {
+            log.debug("Stage feed sender busy, dropping subscriber without resync");
+        }
+    }
+
+    private void sendResync(StageFeedSubscriber subscriber) {
+        if (!subscriber.resyncSent.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            subscriber.emitter.send(SseEmitter.event().name("resync").data("Missed events, reload opportunities and reconnect"));
+            subscriber.emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Stage feed subscriber gone before resync: {}", e.getMessage());
+        }
+    }
+
+    private void close(StageFeedSubscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+}
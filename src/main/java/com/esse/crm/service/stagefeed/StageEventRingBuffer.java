@@ -0,0 +1,69 @@
+package com.esse.crm.service.stagefeed;
+
+import com.esse.crm.dto.opportunity.StageChangeEventDTO;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent stage events. Exactly one thread appends; any number of readers follow with
+ * their own cursor and never block the writer. A reader that falls a full lap behind is told it was overrun
+ * instead of silently receiving newer events in place of the ones it missed.
+ */
+class StageEventRingBuffer {
+
+    private final AtomicReferenceArray<StageChangeEventDTO> slots;
+    private final int mask;
+    private volatile long head;
+
+    StageEventRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Stamps the event with the next sequence and stores it. Must only be called from the writer thread.
+     */
+    StageChangeEventDTO append(StageChangeEventDTO event) {
+        long sequence = head;
+        StageChangeEventDTO stamped = event.toBuilder().sequence(sequence).build();
+        slots.set((int) (sequence & mask), stamped);
+        head = sequence + 1;
+        return stamped;
+    }
+
+    /**
+     * Sequence the next appended event will get; a reader at this cursor is up to date.
+     */
+    long head() {
+        return head;
+    }
+
+    /**
+     * @return the event at {@code sequence}, or {@code null} when it has not been written yet
+     * @throws OverrunException when the slot has already been reused for a newer event
+     */
+    StageChangeEventDTO read(long sequence) {
+        if (sequence >= head) {
+            return null;
+        }
+        StageChangeEventDTO event = slots.get((int) (sequence & mask));
+        if (event == null || event.getSequence() != sequence) {
+            throw new OverrunException();
+        }
+        return event;
+    }
+
+    boolean isAvailable(long sequence) {
+        long current = head;
+        return sequence <= current && current - sequence <= slots.length();
+    }
+
+    static class OverrunException extends RuntimeException {
+        OverrunException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.esse.crm.service.stagefeed;
+
+import com.esse.crm.dto.opportunity.StageChangeEventDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open SSE connection: its filter and how far into the ring buffer it has been sent. The cursor is only touched
+ * by the single dispatch task that the {@code scheduled} flag allows per subscriber; at most one batch per
+ * subscriber is handed to a sender at a time, tracked by {@code sending}.
+ */
+class StageFeedSubscriber {
+
+    final SseEmitter emitter;
+    final AtomicBoolean scheduled = new AtomicBoolean();
+    volatile boolean heartbeatDue;
+    volatile boolean closed;
+    volatile boolean sending;
+    /**
+     * {@link System#nanoTime()} at which a sender started writing the current batch, 0 while it is still queued.
+     */
+    volatile long sendStartedAt;
+    volatile boolean resyncDue;
+    final AtomicBoolean resyncSent = new AtomicBoolean();
+    long cursor;
+
+    private final String tenantId;
+    private final Long accountId;
+    private final String owner;
+
+    StageFeedSubscriber(SseEmitter emitter, long cursor, String tenantId, Long accountId, String owner) {
+        this.emitter = emitter;
+        this.cursor = cursor;
+        this.tenantId = tenantId;
+        this.accountId = accountId;
+        this.owner = owner;
+    }
+
+    boolean matches(StageChangeEventDTO event) {
+        return tenantId.equals(event.getTenantId())
+                && (accountId == null || accountId.equals(event.getAccountId()))
+                && (owner == null || owner.equalsIgnoreCase(event.getOwner()));
+    }
+}
@@ -0,0 +1,236 @@
+package com.esse.crm.service.sync;
+
+import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.ContactDTO;
+import com.esse.crm.dto.activity.ActivityDTO;
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import com.esse.crm.dto.lead.LeadDTO;
+import com.esse.crm.dto.opportunity.OpportunityDTO;
+import com.esse.crm.dto.sync.SyncChangeDTO;
+import com.esse.crm.dto.sync.SyncOperation;
+import com.esse.crm.dto.sync.SyncResponseDTO;
+import com.esse.crm.entity.*;
+import com.esse.crm.exception.SyncTokenExpiredException;
+import com.esse.crm.repository.*;
+import com.esse.crm.security.authz.PermissionIndex;
+import com.esse.crm.service.changefeed.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves incremental sync from the change feed. A page of events is collapsed to the last change per record, and
+ * the surviving records are loaded in one query per entity type, so the cost of a sync follows the number of
+ * changes since the client's token rather than the size of the tables.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Map<String, String> READ_AUTHORITIES = Map.of(
+            "Account", "ACCOUNT_READ",
+            "Contact", "CONTACT_READ",
+            "Lead", "LEAD_READ",
+            "Opportunity", "DEAL_READ",
+            "Activity", "ACTIVITY_READ");
+
+    private final ChangeFeedService changeFeedService;
+    private final AccountRepository accountRepository;
+    private final ContactRepository contactRepository;
+    private final LeadRepository leadRepository;
+    private final OpportunityRepository opportunityRepository;
+    private final ActivityRepository activityRepository;
+    private final PermissionIndex permissionIndex;
+
+    /**
+     * Token for a client about to do its initial full download; syncing from it afterwards picks up anything
+     * changed while the download ran.
+     */
+    @Transactional(readOnly = true)
+    public SyncResponseDTO currentToken() {
+        return SyncResponseDTO.builder()
+                .changes(List.of())
+                .nextToken(SyncToken.encode(changeFeedService.headSequence()))
+                .hasMore(false)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponseDTO sync(String since, Set<String> types, int limit) {
+        long after = since != null ? SyncToken.decode(since) : 0L;
+        if (after < changeFeedService.purgedThrough()) {
+            throw new SyncTokenExpiredException("Sync token is older than the change retention period, a full resync is required");
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ChangeEventDTO> events = changeFeedService.nextBatch(after, pageSize);
+        Set<String> allowedTypes = allowedTypes(types);
+
+        // Later events for the same record supersede earlier ones within the page
+        Map<String, ChangeEventDTO> latest = new LinkedHashMap<>();
+        for (ChangeEventDTO event : events) {
+            if (allowedTypes.contains(event.getEntityType())) {
+                String key = event.getEntityType() + ":" + event.getEntityId();
+                latest.remove(key);
+                latest.put(key, event);
+            }
+        }
+
+        Map<String, Map<Long, Object>> records = loadRecords(latest.values());
+        List<SyncChangeDTO> changes = new ArrayList<>(latest.size());
+        for (ChangeEventDTO event : latest.values()) {
+            if (event.getOperation() == ChangeOperation.DELETE) {
+                changes.add(change(event, SyncOperation.DELETE, null));
+                continue;
+            }
+            Object record = records.getOrDefault(event.getEntityType(), Map.of()).get(event.getEntityId());
+            // A record missing here was deleted by a later event, which a following page delivers as a tombstone
+            if (record != null) {
+                changes.add(change(event, SyncOperation.UPSERT, record));
+            }
+        }
+
+        long nextAfter = events.isEmpty() ? after : events.get(events.size() - 1).getSequence();
+        return SyncResponseDTO.builder()
+                .changes(changes)
+                .nextToken(SyncToken.encode(nextAfter))
+                .hasMore(events.size() == pageSize)
+                .build();
+    }
+
+    private Set<String> allowedTypes(Set<String> requested) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return READ_AUTHORITIES.entrySet().stream()
+                .filter(entry -> requested == null || requested.isEmpty() || requested.contains(entry.getKey()))
+                .filter(entry -> permissionIndex.isGranted(authentication, entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    private Map<String, Map<Long, Object>> loadRecords(Collection<ChangeEventDTO> events) {
+        Map<String, Set<Long>> idsByType = new HashMap<>();
+        for (ChangeEventDTO event : events) {
+            if (event.getOperation() != ChangeOperation.DELETE) {
+                idsByType.computeIfAbsent(event.getEntityType(), type -> new HashSet<>()).add(event.getEntityId());
+            }
+        }
+
+        Map<String, Map<Long, Object>> records = new HashMap<>();
+        idsByType.forEach((type, ids) -> records.put(type, switch (type) {
+            case "Account" -> index(accountRepository.findAllById(ids), Account::getId, this::convertAccount);
+            case "Contact" -> index(contactRepository.findWithAccountsByIdIn(ids), Contact::getId, this::convertContact);
+            case "Lead" -> index(leadRepository.findAllById(ids), Lead::getId, this::convertLead);
+            case "Opportunity" -> index(opportunityRepository.findAllById(ids), Opportunity::getId, this::convertOpportunity);
+            case "Activity" -> index(activityRepository.findAllById(ids), Activity::getId, this::convertActivity);
+            default -> Map.of();
+        }));
+        return records;
+    }
+
+    private static <E> Map<Long, Object> index(List<E> entities, Function<E, Long> id, Function<E, Object> converter) {
+        Map<Long, Object> indexed = new HashMap<>();
+        entities.forEach(entity -> indexed.put(id.apply(entity), converter.apply(entity)));
+        return indexed;
+    }
+
+    private static SyncChangeDTO change(ChangeEventDTO event, SyncOperation operation, Object record) {
+        return SyncChangeDTO.builder()
+                .sequence(event.getSequence())
+                .entityType(event.getEntityType())
+                .entityId(event.getEntityId())
+                .operation(operation)
+                .record(record)
+                .build();
+    }
+
+    // Sync records are flat: children arrive as records of their own, so nested collections are left out
+
+    private AccountDTO convertAccount(Account account) {
+        return AccountDTO.builder()
+                .id(account.getId())
+                .accountName(account.getAccountName())
+                .industry(account.getIndustry())
+                .website(account.getWebsite())
+                .phone(account.getPhone())
+                .billingAddress(account.getBillingAddress())
+                .shippingAddress(account.getShippingAddress())
+                .status(account.getStatus())
+                .createdAt(account.getCreatedAt())
+                .updatedAt(account.getUpdatedAt())
+                .createdBy(account.getCreatedBy())
+                .updatedBy(account.getUpdatedBy())
+                .build();
+    }
+
+    private ContactDTO convertContact(Contact contact) {
+        return ContactDTO.builder()
+                .id(contact.getId())
+                .firstName(contact.getFirstName())
+                .lastName(contact.getLastName())
+                .email(contact.getEmail())
+                .phone(contact.getPhone())
+                .jobTitle(contact.getJobTitle())
+                .isPrimaryContact(contact.isPrimaryContact())
+                .accountIds(contact.getAccounts().stream().map(Account::getId).toList())
+                .createdAt(contact.getCreatedAt())
+                .updatedAt(contact.getUpdatedAt())
+                .build();
+    }
+
+    private LeadDTO convertLead(Lead lead) {
+        return LeadDTO.builder()
+                .id(lead.getId())
+                .source(lead.getSource())
+                .company(lead.getCompany())
+                .contactName(lead.getContactName())
+                .email(lead.getEmail())
+                .phone(lead.getPhone())
+                .status(lead.getStatus())
+                .ownerUser(lead.getOwnerUser())
+                .createdAt(lead.getCreatedAt())
+                .updatedAt(lead.getUpdatedAt())
+                .build();
+    }
+
+    private OpportunityDTO convertOpportunity(Opportunity opportunity) {
+        return OpportunityDTO.builder()
+                .id(opportunity.getId())
+                .name(opportunity.getName())
+                .stage(opportunity.getStage())
+                .amount(opportunity.getAmount())
+                .closeDate(opportunity.getCloseDate())
+                .probability(opportunity.getProbability())
+                .accountId(opportunity.getAccount().getId())
+                .primaryLeadId(opportunity.getPrimaryLead() != null ? opportunity.getPrimaryLead().getId() : null)
+                .createdAt(opportunity.getCreatedAt())
+                .updatedAt(opportunity.getUpdatedAt())
+                .build();
+    }
+
+    private ActivityDTO convertActivity(Activity activity) {
+        return ActivityDTO.builder()
+                .id(activity.getId())
+                .type(activity.getType())
+                .subject(activity.getSubject())
+                .description(activity.getDescription())
+                .dueAt(activity.getDueAt())
+                .completed(activity.isCompleted())
+                .outcome(activity.getOutcome())
+                .leadId(activity.getLeadId())
+                .opportunityId(activity.getOpportunityId())
+                .accountId(activity.getAccountId())
+                .contactId(activity.getContactId())
+                .createdAt(activity.getCreatedAt())
+                .updatedAt(activity.getUpdatedAt())
+                .build();
+    }
+}
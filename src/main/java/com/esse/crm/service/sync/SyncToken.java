@@ -0,0 +1,37 @@
+package com.esse.crm.service.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor handed to sync clients. It wraps a change-feed sequence so the encoding can change without
+ * breaking clients that only echo it back.
+ */
+final class SyncToken {
+
+    private static final String PREFIX = "v1:";
+
+    private SyncToken() {
+    }
+
+    static String encode(long sequence) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + sequence).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Malformed sync token");
+            }
+            long sequence = Long.parseLong(decoded.substring(PREFIX.length()));
+            if (sequence < 0) {
+                throw new IllegalArgumentException("Malformed sync token");
+            }
+            return sequence;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed sync token", e);
+        }
+    }
+}
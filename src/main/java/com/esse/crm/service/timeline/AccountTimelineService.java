@@ -0,0 +1,167 @@
+package com.esse.crm.service.timeline;
+
+import com.esse.crm.dto.activity.ActivityDTO;
+import com.esse.crm.dto.activity.TimelinePageDTO;
+import com.esse.crm.entity.Activity;
+import com.esse.crm.entity.ArchivedActivity;
+import com.esse.crm.exception.ResourceNotFoundException;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.repository.ActivityRepository;
+import com.esse.crm.repository.ArchivedActivityRepository;
+import com.esse.crm.repository.ContactRepository;
+import com.esse.crm.repository.OpportunityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Serves an account's timeline: the activities on the account, on its contacts and on its opportunities, live and
+ * archived, newest first. Each parent set is read through its own ordered keyset query and the streams are merged
+ * lazily on a heap, so a page costs a few short batches per set however long the account's history is.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountTimelineService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Parent ids per query; an account with more contacts or opportunities gets one stream per chunk.
+     */
+    static final int PARENT_CHUNK = 100;
+
+    /**
+     * Rows a stream reads on its first query. Most parent sets contribute only a few rows to a page.
+     */
+    static final int FIRST_BATCH = 8;
+
+    static final Comparator<ActivityDTO> NEWEST_FIRST = Comparator.comparing(ActivityDTO::getCreatedAt)
+            .thenComparing(ActivityDTO::getId)
+            .reversed();
+
+    private final AccountRepository accountRepository;
+    private final ContactRepository contactRepository;
+    private final OpportunityRepository opportunityRepository;
+    private final ActivityRepository activityRepository;
+    private final ArchivedActivityRepository archivedActivityRepository;
+
+    @Transactional(readOnly = true)
+    public TimelinePageDTO getTimeline(Long accountId, String before, int size) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResourceNotFoundException("Account not found with id: " + accountId);
+        }
+        TimelineCursor start = before != null ? TimelineCursor.decode(before) : null;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<ActivityStream> streams = new ArrayList<>();
+        List<Long> accountIds = List.of(accountId);
+        addStreams(streams, "accountId", accountIds, start, pageSize);
+        addStreams(streams, "contactId", contactRepository.findIdsByAccountId(accountId), start, pageSize);
+        addStreams(streams, "opportunityId", opportunityRepository.findIdsByAccountId(accountId), start, pageSize);
+        return merge(streams, pageSize);
+    }
+
+    /**
+     * Takes the newest head among the streams until the page is full. An activity linked to more than one of the
+     * account's parents comes out of several streams next to itself and is returned once.
+     */
+    static TimelinePageDTO merge(Collection<ActivityStream> streams, int pageSize) {
+        PriorityQueue<ActivityStream> heap = new PriorityQueue<>(Math.max(1, streams.size()),
+                Comparator.comparing(ActivityStream::peek, NEWEST_FIRST));
+        for (ActivityStream stream : streams) {
+            if (stream.peek() != null) {
+                heap.add(stream);
+            }
+        }
+        List<ActivityDTO> page = new ArrayList<>(pageSize);
+        boolean hasMore = false;
+        while (!heap.isEmpty()) {
+            ActivityStream stream = heap.poll();
+            ActivityDTO activity = stream.next();
+            if (stream.peek() != null) {
+                heap.add(stream);
+            }
+            if (!page.isEmpty() && page.get(page.size() - 1).getId().equals(activity.getId())) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                hasMore = true;
+                break;
+            }
+            page.add(activity);
+        }
+        return TimelinePageDTO.builder()
+                .items(page)
+                .nextCursor(hasMore ? TimelineCursor.of(page.get(page.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private void addStreams(List<ActivityStream> streams, String parent, List<Long> parentIds, TimelineCursor start,
+                            int pageSize) {
+        TimelineQuery<Activity> live = activityRepository::findTimeline;
+        TimelineQuery<ArchivedActivity> archived = archivedActivityRepository::findTimeline;
+        for (int from = 0; from < parentIds.size(); from += PARENT_CHUNK) {
+            List<Long> chunk = parentIds.subList(from, Math.min(from + PARENT_CHUNK, parentIds.size()));
+            streams.add(new ActivityStream((before, limit) -> live.find(parent, chunk, before, limit).stream()
+                    .map(this::convertToDTO).toList(), start, FIRST_BATCH, pageSize + 1));
+            streams.add(new ActivityStream((before, limit) -> archived.find(parent, chunk, before, limit).stream()
+                    .map(this::convertToDTO).toList(), start, FIRST_BATCH, pageSize + 1));
+        }
+    }
+
+    @FunctionalInterface
+    private interface TimelineQuery<E> {
+        List<E> find(String parent, Collection<Long> parentIds, LocalDateTime beforeAt, Long beforeId, int limit);
+
+        default List<E> find(String parent, Collection<Long> parentIds, TimelineCursor before, int limit) {
+            return before != null
+                    ? find(parent, parentIds, before.createdAt(), before.id(), limit)
+                    : find(parent, parentIds, null, null, limit);
+        }
+    }
+
+    private ActivityDTO convertToDTO(Activity entity) {
+        return ActivityDTO.builder()
+                .id(entity.getId())
+                .type(entity.getType())
+                .subject(entity.getSubject())
+                .description(entity.getDescription())
+                .dueAt(entity.getDueAt())
+                .completed(entity.isCompleted())
+                .outcome(entity.getOutcome())
+                .leadId(entity.getLeadId())
+                .opportunityId(entity.getOpportunityId())
+                .accountId(entity.getAccountId())
+                .contactId(entity.getContactId())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+
+    private ActivityDTO convertToDTO(ArchivedActivity entity) {
+        return ActivityDTO.builder()
+                .id(entity.getId())
+                .type(entity.getType())
+                .subject(entity.getSubject())
+                .description(entity.getDescription())
+                .dueAt(entity.getDueAt())
+                .completed(entity.isCompleted())
+                .outcome(entity.getOutcome())
+                .leadId(entity.getLeadId())
+                .opportunityId(entity.getOpportunityId())
+                .accountId(entity.getAccountId())
+                .contactId(entity.getContactId())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .archived(true)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.esse.crm.service.timeline;
+
+import com.esse.crm.dto.activity.ActivityDTO;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * The activities of one parent set, newest first, read a batch at a time as the merge consumes them. Batches
+ * start small and double up to a page, so a set that contributes little to a page costs one short query.
+ */
+final class ActivityStream {
+
+    /**
+     * Loads up to {@code limit} activities older than {@code before} (from the newest when null), newest first.
+     */
+    @FunctionalInterface
+    interface BatchLoader {
+        List<ActivityDTO> load(TimelineCursor before, int limit);
+    }
+
+    private final BatchLoader loader;
+    private final int maxBatch;
+    private final ArrayDeque<ActivityDTO> buffered = new ArrayDeque<>();
+    private TimelineCursor position;
+    private int batch;
+    private boolean exhausted;
+
+    ActivityStream(BatchLoader loader, TimelineCursor start, int firstBatch, int maxBatch) {
+        this.loader = loader;
+        this.position = start;
+        this.batch = Math.min(firstBatch, maxBatch);
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * The next activity without consuming it, or null once the stream is drained.
+     */
+    ActivityDTO peek() {
+        if (buffered.isEmpty() && !exhausted) {
+            List<ActivityDTO> rows = loader.load(position, batch);
+            buffered.addAll(rows);
+            exhausted = rows.size() < batch;
+            if (!rows.isEmpty()) {
+                position = TimelineCursor.of(rows.get(rows.size() - 1));
+            }
+            batch = Math.min(batch * 2, maxBatch);
+        }
+        return buffered.peekFirst();
+    }
+
+    ActivityDTO next() {
+        ActivityDTO head = peek();
+        buffered.pollFirst();
+        return head;
+    }
+}
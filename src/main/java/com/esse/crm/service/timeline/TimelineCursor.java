@@ -0,0 +1,40 @@
+package com.esse.crm.service.timeline;
+
+import com.esse.crm.dto.activity.ActivityDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in an account timeline: the creation time and id of the last activity returned. Handed to clients as an
+ * opaque token so the encoding can change without breaking clients that only echo it back.
+ */
+record TimelineCursor(LocalDateTime createdAt, long id) {
+
+    private static final String PREFIX = "v1:";
+
+    static TimelineCursor of(ActivityDTO activity) {
+        return new TimelineCursor(activity.getCreatedAt(), activity.getId());
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + createdAt + "/" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TimelineCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('/');
+            if (!decoded.startsWith(PREFIX) || separator < 0) {
+                throw new IllegalArgumentException("Malformed timeline cursor");
+            }
+            return new TimelineCursor(LocalDateTime.parse(decoded.substring(PREFIX.length(), separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed timeline cursor", e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.esse.crm.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the normalized keys used for duplicate detection and matching.
+ * All methods are null-safe and return {@code null} for blank input.
+ */
+public final class KeyNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> LEGAL_SUFFIXES = Set.of(
+            "inc", "incorporated", "corp", "corporation", "co", "company", "llc", "llp", "lp",
+            "ltd", "limited", "plc", "gmbh", "ag", "sa", "sarl", "sas", "srl", "spa", "bv", "nv",
+            "oy", "ab", "as", "pty", "pte", "kk");
+
+    private KeyNormalizer() {
+    }
+
+    public static String email(String email) {
+        if (isBlank(email)) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String company(String company) {
+        if (isBlank(company)) {
+            return null;
+        }
+        String key = String.join(" ", tokens(company));
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * Account matching key: the company key with trailing legal-form words removed, so "Acme Inc." and
+     * "ACME, Inc" both map to "acme". A name made only of suffix words keeps its full key.
+     */
+    public static String accountKey(String accountName) {
+        if (isBlank(accountName)) {
+            return null;
+        }
+        // Drop periods first so dotted abbreviations such as "S.A." collapse into a single suffix token
+        String[] tokens = tokens(accountName.replace(".", ""));
+        int end = tokens.length;
+        while (end > 1 && LEGAL_SUFFIXES.contains(tokens[end - 1])) {
+            end--;
+        }
+        String key = String.join(" ", Arrays.copyOf(tokens, end));
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * Person names are compared as a sorted token set so "Doe, John" and "john doe" share a key.
+     */
+    public static String personName(String name) {
+        if (isBlank(name)) {
+            return null;
+        }
+        String key = Arrays.stream(tokens(name)).sorted().collect(Collectors.joining(" "));
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * Coarse key that groups leads likely to describe the same person at the same company.
+     */
+    public static String blockingKey(String company, String contactName) {
+        String companyKey = company(company);
+        String nameKey = personName(contactName);
+        if (companyKey == null || nameKey == null) {
+            return null;
+        }
+        return companyKey + "|" + nameKey;
+    }
+
+    static String[] tokens(String value) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFKD)).replaceAll("");
+        String cleaned = NON_ALPHANUMERIC.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return cleaned.isEmpty() ? new String[0] : cleaned.split(" ");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,8 @@
+-- Highest change-feed sequence removed by retention; sync tokens below it are rejected
+CREATE TABLE change_feed_horizon (
+    id INT PRIMARY KEY,
+    purged_through BIGINT NOT NULL,
+    purged_at DATETIME(6)
+);
+
+INSERT INTO change_feed_horizon (id, purged_through) VALUES (1, 0);
@@ -0,0 +1,50 @@
+-- Tenant discriminator for the shared-schema mode. Existing data belongs to the default tenant.
+ALTER TABLE users ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+
+ALTER TABLE leads ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE accounts ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE contacts ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE opportunities ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE activities ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE outbox_events ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+
+-- New rows always get their tenant from the application
+ALTER TABLE leads ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE accounts ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE contacts ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE opportunities ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE activities ALTER COLUMN tenant_id DROP DEFAULT;
+ALTER TABLE outbox_events ALTER COLUMN tenant_id DROP DEFAULT;
+
+-- Every query now filters on tenant_id, so it leads the lookup indexes. Emails are unique per tenant only.
+-- Indexes backing foreign keys are left alone: MySQL needs the referencing column first in some index.
+DROP INDEX uk_leads_email_key ON leads;
+CREATE UNIQUE INDEX uk_leads_email_key ON leads(tenant_id, email_key);
+DROP INDEX idx_leads_email ON leads;
+CREATE INDEX idx_leads_email ON leads(tenant_id, email);
+DROP INDEX idx_leads_status ON leads;
+CREATE INDEX idx_leads_status ON leads(tenant_id, status);
+DROP INDEX idx_leads_owner_user ON leads;
+CREATE INDEX idx_leads_owner_user ON leads(tenant_id, owner_user);
+DROP INDEX idx_leads_blocking_key ON leads;
+CREATE INDEX idx_leads_blocking_key ON leads(tenant_id, blocking_key);
+
+DROP INDEX idx_accounts_account_key ON accounts;
+CREATE INDEX idx_accounts_account_key ON accounts(tenant_id, account_key);
+
+DROP INDEX idx_contacts_email ON contacts;
+CREATE INDEX idx_contacts_email ON contacts(tenant_id, email);
+
+DROP INDEX idx_opportunities_stage ON opportunities;
+CREATE INDEX idx_opportunities_stage ON opportunities(tenant_id, stage);
+DROP INDEX idx_opportunities_close_date ON opportunities;
+CREATE INDEX idx_opportunities_close_date ON opportunities(tenant_id, close_date);
+
+DROP INDEX idx_activities_completed ON activities;
+CREATE INDEX idx_activities_completed ON activities(tenant_id, completed);
+DROP INDEX idx_activities_type ON activities;
+CREATE INDEX idx_activities_type ON activities(tenant_id, type);
+DROP INDEX idx_activities_due_at ON activities;
+CREATE INDEX idx_activities_due_at ON activities(tenant_id, due_at);
+
+CREATE INDEX idx_outbox_events_tenant ON outbox_events(tenant_id, id);
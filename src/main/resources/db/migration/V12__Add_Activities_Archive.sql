@@ -0,0 +1,27 @@
+-- Completed activities older than application.activities.archive.age, moved out of the live table in chunks.
+-- No foreign keys: archived history outlives the parent records it points to.
+CREATE TABLE activities_archive (
+    id BIGINT PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    description TEXT,
+    due_at DATETIME,
+    completed BOOLEAN NOT NULL,
+    outcome VARCHAR(255),
+    lead_id BIGINT,
+    opportunity_id BIGINT,
+    account_id BIGINT,
+    contact_id BIGINT,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    created_by VARCHAR(200),
+    updated_by VARCHAR(200),
+    archived_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_activities_archive_due_at ON activities_archive(tenant_id, due_at);
+CREATE INDEX idx_activities_archive_lead_id ON activities_archive(tenant_id, lead_id);
+CREATE INDEX idx_activities_archive_opportunity_id ON activities_archive(tenant_id, opportunity_id);
+CREATE INDEX idx_activities_archive_account_id ON activities_archive(tenant_id, account_id);
+CREATE INDEX idx_activities_archive_contact_id ON activities_archive(tenant_id, contact_id);
@@ -0,0 +1,15 @@
+-- Append-only field-level history; payload holds the varint-encoded old and new values of the changed fields
+CREATE TABLE change_history (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    version INT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    changed_by VARCHAR(200),
+    payload BLOB NOT NULL,
+    CONSTRAINT uk_change_history_version UNIQUE (entity_type, entity_id, version)
+);
+
+CREATE INDEX idx_change_history_changed_at ON change_history(changed_at);
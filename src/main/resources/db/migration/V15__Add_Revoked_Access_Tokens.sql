@@ -0,0 +1,9 @@
+-- Access tokens revoked before expiry (by jti); nodes poll recent rows by revoked_at, rows go once expired
+CREATE TABLE revoked_access_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_revoked_access_tokens_revoked_at ON revoked_access_tokens(revoked_at);
+CREATE INDEX idx_revoked_access_tokens_expires_at ON revoked_access_tokens(expires_at);
@@ -0,0 +1,10 @@
+-- Access-token signing keys (ES256), rotated by kid; the newest signs, older ones verify until they are purged
+CREATE TABLE jwt_signing_keys (
+    kid VARCHAR(36) PRIMARY KEY,
+    algorithm VARCHAR(10) NOT NULL,
+    public_key VARCHAR(1024) NOT NULL,
+    private_key VARCHAR(1024) NOT NULL,
+    created_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_jwt_signing_keys_created_at ON jwt_signing_keys(created_at);
@@ -0,0 +1,13 @@
+-- Account timeline: every parent's activities as one index range in creation order, read newest first
+-- (InnoDB appends the primary key, which breaks ties). The single-column parent indexes on activities back
+-- the foreign keys and stay; the archive has none, so its parent indexes are replaced.
+CREATE INDEX idx_activities_account_timeline ON activities(tenant_id, account_id, created_at);
+CREATE INDEX idx_activities_contact_timeline ON activities(tenant_id, contact_id, created_at);
+CREATE INDEX idx_activities_opportunity_timeline ON activities(tenant_id, opportunity_id, created_at);
+
+DROP INDEX idx_activities_archive_account_id ON activities_archive;
+CREATE INDEX idx_activities_archive_account_id ON activities_archive(tenant_id, account_id, created_at);
+DROP INDEX idx_activities_archive_contact_id ON activities_archive;
+CREATE INDEX idx_activities_archive_contact_id ON activities_archive(tenant_id, contact_id, created_at);
+DROP INDEX idx_activities_archive_opportunity_id ON activities_archive;
+CREATE INDEX idx_activities_archive_opportunity_id ON activities_archive(tenant_id, opportunity_id, created_at);
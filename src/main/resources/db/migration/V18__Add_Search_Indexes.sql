@@ -0,0 +1,22 @@
+-- Searches send only the filters a request supplies. Each common filter gets an index that continues with the
+-- column searches sort by, so a filtered page is read in order and stops at the page size; sorting by id works
+-- on all of them because InnoDB appends the primary key.
+DROP INDEX idx_leads_status ON leads;
+CREATE INDEX idx_leads_status ON leads(tenant_id, status, created_at);
+DROP INDEX idx_leads_owner_user ON leads;
+CREATE INDEX idx_leads_owner_user ON leads(tenant_id, owner_user, created_at);
+CREATE INDEX idx_leads_source ON leads(tenant_id, source, created_at);
+CREATE INDEX idx_leads_created_at ON leads(tenant_id, created_at);
+
+DROP INDEX idx_opportunities_stage ON opportunities;
+CREATE INDEX idx_opportunities_stage ON opportunities(tenant_id, stage, close_date);
+CREATE INDEX idx_opportunities_account_close_date ON opportunities(tenant_id, account_id, close_date);
+
+DROP INDEX idx_activities_completed ON activities;
+CREATE INDEX idx_activities_completed ON activities(tenant_id, completed, due_at);
+DROP INDEX idx_activities_type ON activities;
+CREATE INDEX idx_activities_type ON activities(tenant_id, type, due_at);
+CREATE INDEX idx_activities_lead_due_at ON activities(tenant_id, lead_id, due_at);
+CREATE INDEX idx_activities_opportunity_due_at ON activities(tenant_id, opportunity_id, due_at);
+CREATE INDEX idx_activities_account_due_at ON activities(tenant_id, account_id, due_at);
+CREATE INDEX idx_activities_contact_due_at ON activities(tenant_id, contact_id, due_at);
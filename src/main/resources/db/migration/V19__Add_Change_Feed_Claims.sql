@@ -0,0 +1,4 @@
+-- The relay claims a sink's next batch in one short transaction, delivers it without holding a lock and advances
+-- the offset in a second one; the claim keeps other instances off the batch meanwhile.
+ALTER TABLE change_feed_offsets ADD COLUMN claimed_by VARCHAR(36) NULL;
+ALTER TABLE change_feed_offsets ADD COLUMN claimed_until DATETIME(6) NULL;
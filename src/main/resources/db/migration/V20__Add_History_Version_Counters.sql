@@ -0,0 +1,18 @@
+-- Each tracked record counts its own history entries; the writer already holds the record's row lock, so taking
+-- the next version from here needs no locking read on change_history.
+ALTER TABLE leads ADD COLUMN history_version INT NOT NULL DEFAULT 0;
+ALTER TABLE accounts ADD COLUMN history_version INT NOT NULL DEFAULT 0;
+ALTER TABLE contacts ADD COLUMN history_version INT NOT NULL DEFAULT 0;
+ALTER TABLE opportunities ADD COLUMN history_version INT NOT NULL DEFAULT 0;
+ALTER TABLE activities ADD COLUMN history_version INT NOT NULL DEFAULT 0;
+
+UPDATE leads t SET history_version = COALESCE((SELECT MAX(h.version) FROM change_history h
+    WHERE h.entity_type = 'Lead' AND h.entity_id = t.id), 0);
+UPDATE accounts t SET history_version = COALESCE((SELECT MAX(h.version) FROM change_history h
+    WHERE h.entity_type = 'Account' AND h.entity_id = t.id), 0);
+UPDATE contacts t SET history_version = COALESCE((SELECT MAX(h.version) FROM change_history h
+    WHERE h.entity_type = 'Contact' AND h.entity_id = t.id), 0);
+UPDATE opportunities t SET history_version = COALESCE((SELECT MAX(h.version) FROM change_history h
+    WHERE h.entity_type = 'Opportunity' AND h.entity_id = t.id), 0);
+UPDATE activities t SET history_version = COALESCE((SELECT MAX(h.version) FROM change_history h
+    WHERE h.entity_type = 'Activity' AND h.entity_id = t.id), 0);
@@ -0,0 +1,29 @@
+-- Normalized email key backing duplicate detection for leads
+ALTER TABLE leads ADD COLUMN email_key VARCHAR(255);
+ALTER TABLE leads ADD COLUMN blocking_key VARCHAR(512);
+
+UPDATE leads SET email_key = LOWER(TRIM(email));
+
+-- Existing duplicates keep their rows; all but the oldest get a suffixed key so the unique index can be built
+UPDATE leads l
+JOIN (SELECT email_key, MIN(id) AS keep_id FROM leads GROUP BY email_key HAVING COUNT(*) > 1) d
+    ON l.email_key = d.email_key AND l.id <> d.keep_id
+SET l.email_key = CONCAT(l.email_key, '#', l.id);
+
+ALTER TABLE leads MODIFY COLUMN email_key VARCHAR(255) NOT NULL;
+
+CREATE UNIQUE INDEX uk_leads_email_key ON leads(email_key);
+CREATE INDEX idx_leads_blocking_key ON leads(blocking_key);
+
+CREATE TABLE lead_duplicate_candidates (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    lead_id BIGINT NOT NULL,
+    duplicate_lead_id BIGINT NOT NULL,
+    blocking_key VARCHAR(512) NOT NULL,
+    detected_at DATETIME NOT NULL,
+    CONSTRAINT uk_lead_duplicate_pair UNIQUE (lead_id, duplicate_lead_id),
+    CONSTRAINT fk_lead_duplicates_lead FOREIGN KEY (lead_id) REFERENCES leads(id) ON DELETE CASCADE,
+    CONSTRAINT fk_lead_duplicates_duplicate FOREIGN KEY (duplicate_lead_id) REFERENCES leads(id) ON DELETE CASCADE
+);
+
+-- blocking_key needs Unicode folding, so existing rows are backfilled by the application on startup
@@ -0,0 +1,5 @@
+-- Normalized account name used for lead-to-account matching
+-- (lowercased, punctuation and trailing legal suffixes removed; existing rows are keyed by the application on startup)
+ALTER TABLE accounts ADD COLUMN account_key VARCHAR(255);
+
+CREATE INDEX idx_accounts_account_key ON accounts(account_key);
@@ -0,0 +1,7 @@
+-- Heartbeat row stamped on the primary and read back from replicas to measure replication lag
+CREATE TABLE replication_heartbeat (
+    id INT PRIMARY KEY,
+    beat_at TIMESTAMP(3) NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP(3));
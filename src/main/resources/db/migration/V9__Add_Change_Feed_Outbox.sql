@@ -0,0 +1,23 @@
+-- Transactional outbox: one row per committed change to a CRM entity, id doubles as the feed sequence
+CREATE TABLE outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    changed_fields VARCHAR(1000),
+    occurred_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_outbox_events_occurred_at ON outbox_events(occurred_at);
+
+-- Last event each relay sink or pulling integration has processed
+CREATE TABLE change_feed_offsets (
+    consumer VARCHAR(100) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
+
+INSERT INTO permissions (name) VALUES ('CHANGE_FEED_READ');
+
+INSERT INTO role_permissions (role_id, permission_id)
+SELECT r.id, p.id FROM roles r, permissions p WHERE r.name = 'ADMIN' AND p.name = 'CHANGE_FEED_READ';
@@ -0,0 +1,92 @@
+package com.esse.crm.config.admission;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdmissionControlFilterTest {
+
+    @Mock
+    private AdmissionController admissionController;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AdmissionControlFilter(admissionController, new AdmissionProperties(), objectMapper);
+    }
+
+    @Test
+    void doFilter_ShouldRejectWith503AndRetryAfter_WhenTheClassIsFull() throws ServletException, IOException {
+        when(admissionController.tryAcquire(EndpointClass.SEARCH)).thenReturn(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/leads");
+        request.setServletPath("/api/leads");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertEquals(503, body.get("status").asInt());
+        assertEquals("Too many concurrent search requests, retry shortly", body.get("message").asText());
+        assertEquals("/api/leads", body.get("path").asText());
+        verifyNoInteractions(filterChain);
+        verify(admissionController, never()).release(any(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void doFilter_ShouldReleaseAsSucceeded_WhenTheRequestCompletes() throws ServletException, IOException {
+        when(admissionController.tryAcquire(EndpointClass.CRUD)).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/leads/42"), response, filterChain);
+
+        verify(filterChain).doFilter(any(), eq(response));
+        verify(admissionController).release(eq(EndpointClass.CRUD), anyLong(), eq(false));
+        assertNull(EndpointContext.current());
+    }
+
+    @Test
+    void doFilter_ShouldReleaseAsFailed_WhenTheChainThrows() throws ServletException, IOException {
+        when(admissionController.tryAcquire(EndpointClass.CRUD)).thenReturn(true);
+        doThrow(new ServletException("boom")).when(filterChain).doFilter(any(), any());
+
+        assertThrows(ServletException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/leads/42"), new MockHttpServletResponse(), filterChain));
+
+        verify(admissionController).release(eq(EndpointClass.CRUD), anyLong(), eq(true));
+        assertNull(EndpointContext.current());
+    }
+
+    @Test
+    void doFilter_ShouldSkipRequestsOutsideTheApi() throws ServletException, IOException {
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        verifyNoInteractions(admissionController);
+    }
+}
@@ -0,0 +1,103 @@
+package com.esse.crm.config.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AimdLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void tryAcquire_ShouldRejectBeyondLimit() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, Duration.ofMillis(100), 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    private final AtomicLong now = new AtomicLong(Duration.ofHours(1).toNanos());
+
+    @Test
+    void release_ShouldShrinkLimit_WhenLatencyExceedsTarget() {
+        AimdLimiter limiter = new AimdLimiter(8, 2, 10, Duration.ofMillis(100), 0.5, now::get);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(4, limiter.getLimit());
+
+        now.addAndGet(SLOW);
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(2, limiter.getLimit());
+
+        now.addAndGet(SLOW);
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(2, limiter.getLimit(), "limit never drops below min");
+    }
+
+    @Test
+    void release_ShouldShrinkOnce_ForABurstOfSlowRequestsAdmittedTogether() {
+        AimdLimiter limiter = new AimdLimiter(8, 1, 10, Duration.ofMillis(100), 0.5, now::get);
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire();
+        }
+
+        now.addAndGet(SLOW);
+        for (int i = 0; i < 8; i++) {
+            limiter.release(SLOW, false);
+        }
+        assertEquals(4, limiter.getLimit());
+
+        // Admitted after the cut and still slow: the next step down
+        limiter.tryAcquire();
+        now.addAndGet(SLOW);
+        limiter.release(SLOW, false);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldShrinkAtMostOncePerTargetLatency_WhenRequestsFailFast() {
+        AimdLimiter limiter = new AimdLimiter(8, 1, 10, Duration.ofMillis(100), 0.5, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            now.addAndGet(FAST);
+            limiter.release(FAST, true);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldGrowLimit_WhenBusyAndFast() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 3, Duration.ofMillis(100), 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_ShouldNotGrowLimit_WhenIdle() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 20, Duration.ofMillis(100), 0.5);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+}
@@ -0,0 +1,31 @@
+package com.esse.crm.config.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EndpointClassifierTest {
+
+    @Test
+    void classify_ShouldBucketRequests() {
+        assertEquals(EndpointClass.AUTH, classify("POST", "/api/auth/login", null));
+        assertEquals(EndpointClass.SEARCH, classify("GET", "/api/leads", "20"));
+        assertEquals(EndpointClass.CRUD, classify("GET", "/api/leads/42", null));
+        assertEquals(EndpointClass.CRUD, classify("PUT", "/api/leads/42", null));
+        assertEquals(EndpointClass.CRUD, classify("POST", "/api/leads", null));
+        assertEquals(EndpointClass.EXPORT, classify("GET", "/api/leads", "1000"));
+        assertEquals(EndpointClass.EXPORT, classify("GET", "/api/leads/export", null));
+        assertEquals(EndpointClass.SEARCH, classify("GET", "/api/leads", "abc"));
+        assertEquals(EndpointClass.EXPORT, classify("PATCH", "/api/leads/bulk", null));
+        assertEquals(EndpointClass.SEARCH, classify("POST", "/api/leads/multi-get", null));
+    }
+
+    private EndpointClass classify(String method, String uri, String size) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (size != null) {
+            request.setParameter("size", size);
+        }
+        return EndpointClassifier.classify(request, 500);
+    }
+}
@@ -0,0 +1,103 @@
+package com.esse.crm.config.datasource;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.config.tenant.TenantProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InstrumentedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(target.getConnection()).thenReturn(connection);
+        lenient().when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @Test
+    void getConnection_ShouldTimeAcquireHoldAndQueries_TaggedWithTheTenant() throws SQLException {
+        InstrumentedDataSource dataSource = new InstrumentedDataSource(target, meterRegistry);
+
+        TenantContext.runAs("acme", () -> {
+            try (Connection acquired = dataSource.getConnection();
+                 PreparedStatement prepared = acquired.prepareStatement("select 1")) {
+                prepared.executeQuery();
+                prepared.executeQuery();
+                acquired.close();
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+
+        assertEquals(1, timer(InstrumentedDataSource.ACQUIRE_TIMER, "acme").count());
+        assertEquals(1, timer(InstrumentedDataSource.HOLD_TIMER, "acme").count(), "a second close is not a second hold");
+        assertEquals(2, timer(InstrumentedDataSource.QUERY_TIMER, "acme").count());
+        verify(statement, times(2)).executeQuery();
+    }
+
+    @Test
+    void unwrap_ShouldReturnTheProxy_SoCallersKeepTheTimedStatement() throws SQLException {
+        Connection acquired = new InstrumentedDataSource(target, meterRegistry).getConnection();
+        PreparedStatement prepared = acquired.prepareStatement("select 1");
+
+        assertSame(acquired, acquired.unwrap(Connection.class));
+        assertSame(prepared, prepared.unwrap(PreparedStatement.class));
+    }
+
+    @Test
+    void instrument_ShouldWrapBehindALazyProxy_SoAcquireTimesThePhysicalConnection() throws SQLException {
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(target);
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        DataSource instrumented = ConnectionMetricsConfig.instrument(lazy, meterRegistry, new TenantProperties(), null);
+
+        assertSame(lazy, instrumented);
+        assertInstanceOf(InstrumentedDataSource.class, lazy.getTargetDataSource());
+        try (Connection placeholder = instrumented.getConnection()) {
+            assertNull(meterRegistry.find(InstrumentedDataSource.ACQUIRE_TIMER).timer(), "no connection fetched yet");
+            placeholder.prepareStatement("select 1");
+        }
+        assertEquals(1, timer(InstrumentedDataSource.ACQUIRE_TIMER, TenantContext.DEFAULT_TENANT).count());
+        assertEquals(1, timer(InstrumentedDataSource.HOLD_TIMER, TenantContext.DEFAULT_TENANT).count());
+    }
+
+    @Test
+    void instrument_ShouldNotWrapTwice() {
+        DataSource instrumented = ConnectionMetricsConfig.instrument(target, meterRegistry, new TenantProperties(), null);
+
+        assertSame(instrumented, ConnectionMetricsConfig.instrument(instrumented, meterRegistry, new TenantProperties(), null));
+    }
+
+    private Timer timer(String name, String tenant) {
+        return meterRegistry.get(name)
+                .tag("endpoint.class", "none")
+                .tag("tenant", tenant)
+                .timer();
+    }
+}
@@ -0,0 +1,124 @@
+package com.esse.crm.config.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes between two local H2 databases that each report their own name, standing in for a primary and a replica.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate readWriteTx;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica", replica);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, new ReadYourWritesTracker(Duration.ofSeconds(30)));
+        lagMonitor = new ReplicaLagMonitor(routingDataSource, Duration.ofSeconds(2));
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        readWriteTx = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica_WhenInSync() {
+        replicateHeartbeat();
+        lagMonitor.check();
+
+        assertEquals("replica", readOnlyTx.execute(status -> whoAmI()));
+        assertEquals("primary", readWriteTx.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUsePrimary_BeforeFirstHealthCheck() {
+        assertEquals("primary", readOnlyTx.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldFallBackToPrimary_WhenReplicaLags() {
+        new JdbcTemplate(replica).update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1",
+                Timestamp.from(Instant.now().minusSeconds(60)));
+        lagMonitor.check();
+
+        assertEquals("primary", readOnlyTx.execute(status -> whoAmI()));
+        assertTrue(lagMonitor.getLagMillis().get("replica") >= 60_000);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldStayOnPrimary_AfterUsersOwnWrite() {
+        replicateHeartbeat();
+        lagMonitor.check();
+        authenticate("alice");
+
+        readWriteTx.executeWithoutResult(status -> whoAmI());
+
+        assertEquals("primary", readOnlyTx.execute(status -> whoAmI()));
+        authenticate("bob");
+        assertEquals("replica", readOnlyTx.execute(status -> whoAmI()));
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node_name", String.class);
+    }
+
+    private void replicateHeartbeat() {
+        Timestamp now = Timestamp.from(Instant.now());
+        new JdbcTemplate(replica).update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ACCOUNT_READ"))));
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node_name (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node_name (name) VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replication_heartbeat (id INT PRIMARY KEY, beat_at TIMESTAMP(3) NOT NULL)");
+        jdbc.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP(3))");
+        return dataSource;
+    }
+}
@@ -0,0 +1,118 @@
+package com.esse.crm.config.json;
+
+import com.esse.crm.dto.activity.ActivityDTO;
+import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.dto.opportunity.OpportunityDTO;
+import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JacksonConfigTest {
+
+    private final JacksonConfig config = new JacksonConfig();
+
+    private final ObjectMapper objectMapper = configured().build();
+
+    @Test
+    void page_ShouldSerializeAsCompactEnvelope() throws Exception {
+        Page<OpportunityDTO> page = new PageImpl<>(opportunities(2), PageRequest.of(1, 2, Sort.by("name")), 7);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(page));
+
+        List<String> fields = new ArrayList<>();
+        json.fieldNames().forEachRemaining(fields::add);
+        assertEquals(List.of("content", "number", "size", "totalElements", "totalPages"), fields);
+        assertEquals(1, json.get("number").asInt());
+        assertEquals(2, json.get("size").asInt());
+        assertEquals(7, json.get("totalElements").asLong());
+        assertEquals(4, json.get("totalPages").asInt());
+        assertEquals("Deal 1", json.get("content").get(1).get("name").asText());
+        assertEquals(3, json.get("content").get(0).get("activities").size());
+    }
+
+    @Test
+    void dto_ShouldRoundTrip_WithGeneratedAccessors() throws Exception {
+        OpportunityDTO opportunity = opportunities(1).get(0);
+
+        OpportunityDTO read = objectMapper.readValue(objectMapper.writeValueAsString(opportunity), OpportunityDTO.class);
+
+        assertEquals(opportunity, read);
+    }
+
+    @Test
+    void page_ShouldBeSmallerThanSpringsDefault() throws Exception {
+        Page<OpportunityDTO> page = new PageImpl<>(opportunities(100), PageRequest.of(0, 100, Sort.by("name")), 25_000);
+        ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        assertTrue(objectMapper.writeValueAsBytes(page).length < defaultMapper.writeValueAsBytes(page).length);
+    }
+
+    @Test
+    void smile_ShouldBeSmallerThanJson() throws Exception {
+        Page<OpportunityDTO> page = new PageImpl<>(opportunities(100), PageRequest.of(0, 100), 25_000);
+        ObjectMapper smile = configured().factory(new SmileFactory()).build();
+
+        byte[] encoded = smile.writeValueAsBytes(page);
+
+        assertTrue(encoded.length < objectMapper.writeValueAsBytes(page).length);
+        assertEquals("Deal 99", smile.readTree(encoded).get("content").get(99).get("name").asText());
+    }
+
+    private Jackson2ObjectMapperBuilder configured() {
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(config.blackbirdModule(), config.compactPageModule());
+    }
+
+    private static List<ActivityDTO> activities(int count, long opportunityId) {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 9, 30);
+        List<ActivityDTO> activities = new ArrayList<>();
+        for (long a = 0; a < count; a++) {
+            activities.add(ActivityDTO.builder()
+                    .id(opportunityId * 10 + a)
+                    .type(ActivityType.values()[(int) (a % ActivityType.values().length)])
+                    .subject("Follow-up " + a)
+                    .description("Discussed pricing and next steps with the buying committee")
+                    .dueAt(now.plusDays(a))
+                    .opportunityId(opportunityId)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return activities;
+    }
+
+    private static List<OpportunityDTO> opportunities(int count) {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 9, 30);
+        List<OpportunityDTO> opportunities = new ArrayList<>();
+        for (long id = 0; id < count; id++) {
+            List<ActivityDTO> activities = activities(3, id);
+            opportunities.add(OpportunityDTO.builder()
+                    .id(id)
+                    .name("Deal " + id)
+                    .stage(OpportunityStage.values()[(int) (id % OpportunityStage.values().length)])
+                    .amount(BigDecimal.valueOf(1000 + id, 2))
+                    .closeDate(LocalDate.of(2024, 6, 30))
+                    .probability(40)
+                    .accountId(id % 50)
+                    .activities(activities)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return opportunities;
+    }
+}
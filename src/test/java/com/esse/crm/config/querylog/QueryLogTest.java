@@ -0,0 +1,177 @@
+package com.esse.crm.config.querylog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryLogTest {
+
+    private final List<Runnable> explainTasks = new ArrayList<>();
+
+    private QueryLogProperties properties;
+    private QueryLog queryLog;
+
+    @BeforeEach
+    void setUp() {
+        properties = new QueryLogProperties();
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        properties.setMaxFingerprints(3);
+        queryLog = new QueryLog(properties, explainTasks::add);
+    }
+
+    @Test
+    void tag_ShouldPrefixTheFingerprint_AndStatsForShouldResolveIt() {
+        String tagged = queryLog.tag("select * from leads where id = ?");
+
+        assertTrue(tagged.startsWith(QueryLog.TAG_PREFIX), tagged);
+        assertTrue(tagged.endsWith(" */ select * from leads where id = ?"), tagged);
+        assertSame(tagged, queryLog.tag("select * from leads where id = ?"));
+        assertSame(queryLog.statsFor(tagged), queryLog.statsFor("SELECT * FROM leads WHERE id = 42"));
+    }
+
+    @Test
+    void statsFor_ShouldStopTrackingNewShapes_AtTheLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(queryLog.statsFor("select * from t" + (char) ('a' + i)));
+        }
+
+        assertNull(queryLog.statsFor("select * from td"));
+        assertNotNull(queryLog.statsFor("select * from ta"));
+        assertEquals("select * from td", queryLog.tag("select * from td"));
+    }
+
+    @Test
+    void top_ShouldOrderShapesByTheRequestedStatistic() {
+        QueryStats frequent = queryLog.statsFor("select * from leads");
+        QueryStats slow = queryLog.statsFor("select * from activities");
+        for (int i = 0; i < 10; i++) {
+            frequent.record(millis(2), 5, false);
+        }
+        slow.record(millis(150), 1, true);
+
+        List<QuerySummary> byTotal = queryLog.top(QueryLog.Order.TOTAL, 10);
+        assertEquals("select * from activities", byTotal.get(0).sql());
+        assertEquals(1, byTotal.get(0).slowCalls());
+
+        List<QuerySummary> byCalls = queryLog.top(QueryLog.Order.CALLS, 1);
+        assertEquals(1, byCalls.size());
+        assertEquals("select * from leads", byCalls.get(0).sql());
+        assertEquals(10, byCalls.get(0).calls());
+        assertEquals(50, byCalls.get(0).rows());
+        assertEquals(5.0, byCalls.get(0).meanRows());
+        assertEquals(2.0, byCalls.get(0).maxMs());
+    }
+
+    @Test
+    void summary_ShouldReportBucketedPercentiles() {
+        QueryStats stats = queryLog.statsFor("select * from leads");
+        for (int i = 0; i < 98; i++) {
+            stats.record(millis(1), 1, false);
+        }
+        stats.record(millis(40), 1, false);
+        stats.record(millis(900), 1, true);
+
+        QuerySummary summary = stats.summary();
+        assertEquals(1.0, summary.p50Ms());
+        assertEquals(64.0, summary.p99Ms());
+        assertEquals(900.0, summary.maxMs());
+        assertEquals(100, summary.calls());
+    }
+
+    @Test
+    void sampleCaller_ShouldTakeEverySlowExecution_AndSomeOthers() {
+        QueryStats stats = queryLog.statsFor("select * from leads");
+        int sampled = 0;
+        for (int i = 0; i < QueryStats.CALLER_SAMPLE_RATE * 2; i++) {
+            if (stats.sampleCaller(false)) {
+                sampled++;
+            }
+        }
+
+        assertEquals(2, sampled);
+        assertTrue(stats.sampleCaller(true));
+    }
+
+    @Test
+    void recordCaller_ShouldGroupCallersBeyondTheLimit() {
+        QueryStats stats = queryLog.statsFor("select * from leads");
+        for (int i = 0; i < QueryStats.MAX_CALLERS + 5; i++) {
+            stats.recordCaller("Service.method" + i);
+        }
+        stats.recordCaller("Service.method0");
+
+        List<QuerySummary.CallerSamples> callers = stats.summary().callers();
+        assertEquals(QueryStats.MAX_CALLERS + 1, callers.size());
+        assertEquals(new QuerySummary.CallerSamples(QueryStats.OTHER_CALLERS, 5), callers.get(0));
+        assertEquals(new QuerySummary.CallerSamples("Service.method0", 2), callers.get(1));
+    }
+
+    @Test
+    void explainIfDue_ShouldCaptureOncePerInterval() {
+        QueryStats stats = queryLog.statsFor("select * from leads where id = ?");
+        AtomicInteger explained = new AtomicInteger();
+
+        queryLog.explainIfDue(stats, () -> {
+            explained.incrementAndGet();
+            return QueryPlan.captured(150, List.of());
+        });
+        queryLog.explainIfDue(stats, () -> QueryPlan.failed(150, "not expected"));
+        explainTasks.forEach(Runnable::run);
+
+        assertEquals(1, explainTasks.size());
+        assertEquals(1, explained.get());
+        assertNull(stats.summary().plan().error());
+    }
+
+    @Test
+    void explainIfDue_ShouldSkipStatementsItCannotExplain() {
+        queryLog.explainIfDue(queryLog.statsFor("insert into leads (email) values (?)"), () -> QueryPlan.captured(1, List.of()));
+
+        assertTrue(explainTasks.isEmpty());
+    }
+
+    @Test
+    void explainIfDue_ShouldRetry_WhenTheExecutorIsFull() {
+        QueryLog busy = new QueryLog(properties, task -> {
+            throw new RejectedExecutionException();
+        });
+        QueryStats stats = busy.statsFor("select * from leads");
+
+        busy.explainIfDue(stats, () -> QueryPlan.captured(1, List.of()));
+
+        assertTrue(stats.claimExplain(properties.getExplainInterval().toMillis()));
+    }
+
+    @Test
+    void reset_ShouldForgetEverything() {
+        queryLog.statsFor("select * from leads").record(millis(1), 1, false);
+        queryLog.countUntracked();
+
+        queryLog.reset();
+
+        assertTrue(queryLog.top(QueryLog.Order.TOTAL, 10).isEmpty());
+        assertEquals(0, queryLog.untrackedCalls());
+    }
+
+    @Test
+    void callSite_ShouldNameTheServiceMethodBehindGeneratedProxies() {
+        assertEquals("LeadService.searchLeads",
+                CallSite.describe("com.esse.crm.service.LeadService$$SpringCGLIB$$0", "searchLeads"));
+        assertTrue(CallSite.isApplicationCode("com.esse.crm.service.LeadService"));
+        assertFalse(CallSite.isApplicationCode("com.esse.crm.repository.LeadRepository"));
+        assertFalse(CallSite.isApplicationCode("com.esse.crm.config.querylog.QueryLoggingDataSource"));
+        assertFalse(CallSite.isApplicationCode("org.hibernate.sql.exec.internal.JdbcSelectExecutorStandardImpl"));
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,127 @@
+package com.esse.crm.config.querylog;
+
+import com.esse.crm.config.tenant.TenantContext;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryLoggingDataSourceTest {
+
+    private JdbcDataSource h2;
+    private QueryLog queryLog;
+    private QueryLoggingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:query-logging;DB_CLOSE_DELAY=-1");
+        queryLog = new QueryLog(new QueryLogProperties(), Runnable::run);
+        dataSource = new QueryLoggingDataSource(h2, queryLog);
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists tags (id int primary key, name varchar(20))");
+            statement.execute("merge into tags values (1, 'a'), (2, 'b'), (3, 'c')");
+        }
+    }
+
+    @Test
+    void query_ShouldBeRecordedWithItsRows_WhenTheResultSetCloses() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select name from tags where id <= ?")) {
+            statement.setInt(1, 2);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertSame(resultSet, resultSet.unwrap(ResultSet.class));
+                while (resultSet.next()) {
+                    assertNotNull(resultSet.getString(1));
+                }
+            }
+        }
+
+        QuerySummary summary = queryLog.top(QueryLog.Order.CALLS, 10).get(0);
+        assertEquals("select name from tags where id <= ?", summary.sql());
+        assertEquals(1, summary.calls());
+        assertEquals(2, summary.rows());
+    }
+
+    @Test
+    void explain_ShouldRunAsTheTenantThatExecutedTheStatement() throws Exception {
+        List<String> explainedAs = new CopyOnWriteArrayList<>();
+        useSlowLog(explainedAs);
+
+        TenantContext.runAs("acme", () -> query("select name from tags where id = ?", statement -> statement.setInt(1, 1)));
+
+        assertEquals(List.of("acme"), explainedAs);
+        QueryPlan plan = queryLog.top(QueryLog.Order.CALLS, 10).get(0).plan();
+        assertNull(plan.error());
+        assertFalse(plan.rows().isEmpty());
+    }
+
+    @Test
+    void explain_ShouldBeSkipped_WhenAParameterWasBoundFromAReader() throws Exception {
+        List<String> explainedAs = new CopyOnWriteArrayList<>();
+        useSlowLog(explainedAs);
+
+        query("select id from tags where name = ?", statement -> statement.setCharacterStream(1, new StringReader("a")));
+
+        assertTrue(explainedAs.isEmpty());
+        assertNull(queryLog.top(QueryLog.Order.CALLS, 10).get(0).plan());
+    }
+
+    // Every execution is slow, and plans are captured on a thread of their own, which starts without a tenant
+    private void useSlowLog(List<String> explainedAs) {
+        QueryLogProperties properties = new QueryLogProperties();
+        properties.setSlowThreshold(Duration.ZERO);
+        Executor explainThread = task -> {
+            Thread thread = new Thread(task);
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread testThread = Thread.currentThread();
+        queryLog = new QueryLog(properties, explainThread);
+        dataSource = new QueryLoggingDataSource(new DelegatingDataSource(h2) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (Thread.currentThread() != testThread) {
+                    explainedAs.add(TenantContext.current());
+                }
+                return super.getConnection();
+            }
+        }, queryLog);
+    }
+
+    private void query(String sql, Binder binder) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertNotNull(resultSet.getObject(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
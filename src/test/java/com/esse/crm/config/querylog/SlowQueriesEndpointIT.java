@@ -0,0 +1,90 @@
+package com.esse.crm.config.querylog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every execution counts as slow here, so each statement shape records its caller and gets a plan captured.
+ */
+@SpringBootTest(properties = "application.query-log.slow-threshold=0ms")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = "LEAD_READ")
+public class SlowQueriesEndpointIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryLog queryLog;
+
+    @BeforeEach
+    void setUp() {
+        queryLog.reset();
+    }
+
+    @Test
+    void slowQueries_ShouldListTheSearchWithItsCallerAndPlan() throws Exception {
+        mockMvc.perform(get("/api/leads").param("status", "NEW").param("sort", "createdAt,desc"))
+                .andExpect(status().isOk());
+
+        JsonNode search = awaitPlan("from leads", "status");
+        assertTrue(search.get("calls").asLong() >= 1);
+        assertTrue(search.get("slowCalls").asLong() >= 1);
+        assertFalse(search.get("sql").asText().contains("fp:"), search.get("sql").asText());
+        assertEquals("LeadService.searchLeads", search.get("callers").get(0).get("method").asText());
+        assertNull(search.get("plan").get("error").textValue(), search.get("plan").toString());
+        assertTrue(search.get("plan").get("rows").size() > 0);
+    }
+
+    @Test
+    void slowQueries_ShouldRejectUnknownSortOrders() throws Exception {
+        mockMvc.perform(get("/actuator/slowqueries").param("sort", "name"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Plans are captured in the background; polls until the matching shape has one.
+     */
+    private JsonNode awaitPlan(String... fragments) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            JsonNode report = objectMapper.readTree(mockMvc.perform(get("/actuator/slowqueries").param("limit", "100"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            JsonNode query = StreamSupport.stream(report.get("queries").spliterator(), false)
+                    .filter(node -> {
+                        String sql = node.get("sql").asText();
+                        return sql.startsWith("select") && !sql.contains("count(")
+                                && Arrays.stream(fragments).allMatch(sql::contains);
+                    })
+                    .findFirst()
+                    .orElse(null);
+            if (query != null && !query.get("plan").isNull()) {
+                return query;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("No plan captured for a query containing " + String.join(", ", fragments) + ": " + report);
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.esse.crm.config.querylog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class SqlFingerprintTest {
+
+    @Test
+    void normalize_ShouldReplaceLiteralsAndCollapseWhitespace() {
+        assertEquals("select l1_0.id from leads l1_0 where l1_0.email=? and l1_0.score > ? limit ?",
+                SqlFingerprint.normalize("SELECT l1_0.id\n  FROM leads l1_0\n WHERE l1_0.email='it''s@example.com' AND l1_0.score > 4.5 LIMIT 20"));
+    }
+
+    @Test
+    void normalize_ShouldDropComments() {
+        assertEquals("select ? from dual",
+                SqlFingerprint.normalize("/* fp:0123456789abcdef */ select 1 -- trailing\nfrom dual"));
+    }
+
+    @Test
+    void normalize_ShouldFoldListsOfAnyLength() {
+        assertEquals("select * from accounts where id in (?+)",
+                SqlFingerprint.normalize("select * from accounts where id in (?,?,?)"));
+        assertEquals("select * from accounts where id in (?+)",
+                SqlFingerprint.normalize("select * from accounts where id IN (1, 2)"));
+        assertEquals("insert into tags (name,color) values (?,?), ...",
+                SqlFingerprint.normalize("insert into tags (name,color) values (?,?),(?,?),(?,?)"));
+    }
+
+    @Test
+    void normalize_ShouldKeepQuotedIdentifiersAndDigitsInNames() {
+        assertEquals("select `Order`, \"Total\" from t2 where c_3 = ?",
+                SqlFingerprint.normalize("select `Order`, \"Total\" from T2 where C_3 = 7"));
+    }
+
+    @Test
+    void of_ShouldGiveTheSameIdToTheSameShape() {
+        SqlFingerprint first = SqlFingerprint.of("select * from leads where status = 'NEW' and id in (1,2,3)");
+        SqlFingerprint second = SqlFingerprint.of("SELECT *  FROM leads WHERE status = 'LOST' AND id IN (4)");
+
+        assertEquals(first, second);
+        assertEquals(16, first.id().length());
+        assertNotEquals(first.id(), SqlFingerprint.of("select * from leads where status = 'NEW'").id());
+    }
+}
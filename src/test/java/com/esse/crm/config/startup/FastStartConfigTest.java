@@ -0,0 +1,26 @@
+package com.esse.crm.config.startup;
+
+import com.esse.crm.service.AccountService;
+import com.esse.crm.service.archive.ActivityArchiver;
+import com.esse.crm.service.changefeed.OutboxEventListener;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FastStartConfigTest {
+
+    @Test
+    void isStartupCritical_ShouldKeepBeansThatWorkAtStartupEager() {
+        assertTrue(FastStartConfig.isStartupCritical(EntityManagerFactory.class));
+        assertTrue(FastStartConfig.isStartupCritical(ActivityArchiver.class));
+        assertTrue(FastStartConfig.isStartupCritical(OutboxEventListener.class));
+    }
+
+    @Test
+    void isStartupCritical_ShouldLeaveOtherBeansLazy() {
+        assertFalse(FastStartConfig.isStartupCritical(AccountService.class));
+        assertFalse(FastStartConfig.isStartupCritical(null));
+    }
+}
@@ -0,0 +1,49 @@
+package com.esse.crm.config.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StartupTimingsReporterTest {
+
+    @Test
+    void summary_ShouldReportPhasesAndSlowestBeans() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep fast = startup.start("spring.beans.instantiate").tag("beanName", "fastBean");
+        fast.end();
+        StartupStep slow = startup.start("spring.beans.instantiate").tag("beanName", "slowBean");
+        sleep(20);
+        slow.end();
+        refresh.end();
+
+        String summary = StartupTimingsReporter.summary(startup.getBufferedTimeline(),
+                startup.getBufferedTimeline().getStartTime().minusMillis(300), Duration.ofMillis(1200));
+
+        assertTrue(summary.startsWith("Startup: ready in 1200 ms, 1500 ms after JVM start (jvm 300 ms)"), summary);
+        assertTrue(summary.contains("refresh="), summary);
+        assertTrue(summary.indexOf("slowBean=") < summary.indexOf("fastBean="), summary);
+    }
+
+    @Test
+    void summary_ShouldSkipJvmTime_WhenStartIsUnknown() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+
+        String summary = StartupTimingsReporter.summary(startup.getBufferedTimeline(), Instant.MAX, Duration.ofMillis(900));
+
+        assertTrue(summary.startsWith("Startup: ready in 900 ms; phases:"), summary);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.esse.crm.config.tenant;
+
+import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.dto.lead.LeadDTO;
+import com.esse.crm.dto.lead.LeadSource;
+import com.esse.crm.dto.lead.LeadStatus;
+import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.esse.crm.entity.Opportunity;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.repository.LeadRepository;
+import com.esse.crm.repository.OpportunityRepository;
+import com.esse.crm.repository.OutboxEventRepository;
+import com.esse.crm.security.entity.AppUser;
+import com.esse.crm.security.entity.Permission;
+import com.esse.crm.security.entity.Role;
+import com.esse.crm.security.repository.AppUserRepository;
+import com.esse.crm.security.repository.PermissionRepository;
+import com.esse.crm.security.repository.RoleRepository;
+import com.esse.crm.security.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectRetrievalFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TenantIsolationIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String acmeToken;
+    private String globexToken;
+
+    @BeforeEach
+    void setUp() {
+        Set<Permission> permissions = Stream.of("ACCOUNT_READ", "ACCOUNT_WRITE", "LEAD_READ", "LEAD_WRITE")
+                .map(name -> permissionRepository.findByName(name)
+                        .orElseGet(() -> permissionRepository.save(Permission.builder().name(name).build())))
+                .collect(Collectors.toSet());
+        Role role = roleRepository.findByName("TENANT_IT")
+                .orElseGet(() -> roleRepository.save(Role.builder().name("TENANT_IT").permissions(permissions).build()));
+        acmeToken = jwtService.generateToken(user("acme-user", "acme", role));
+        globexToken = jwtService.generateToken(user("globex-user", "globex", role));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.runAs(TenantContext.ROOT, () -> {
+            opportunityRepository.deleteAll(opportunityRepository.findAll().stream()
+                    .filter(opportunity -> !TenantContext.DEFAULT_TENANT.equals(opportunity.getTenantId())).toList());
+            leadRepository.deleteAll(leadRepository.findAll().stream()
+                    .filter(lead -> !TenantContext.DEFAULT_TENANT.equals(lead.getTenantId())).toList());
+            accountRepository.deleteAll(accountRepository.findAll().stream()
+                    .filter(account -> !TenantContext.DEFAULT_TENANT.equals(account.getTenantId())).toList());
+            outboxEventRepository.deleteAll(outboxEventRepository.findAll().stream()
+                    .filter(event -> !TenantContext.DEFAULT_TENANT.equals(event.getTenantId())).toList());
+        });
+    }
+
+    @Test
+    void shouldHideAccountsOfOtherTenants() throws Exception {
+        AccountDTO account = AccountDTO.builder()
+                .accountName("Acme Corp")
+                .status(AccountStatus.ACTIVE)
+                .build();
+        String response = mockMvc.perform(post("/api/accounts")
+                        .header("Authorization", "Bearer " + acmeToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(response, AccountDTO.class).getId();
+
+        mockMvc.perform(get("/api/accounts/" + id).header("Authorization", "Bearer " + acmeToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountName").value("Acme Corp"));
+        mockMvc.perform(get("/api/accounts/" + id).header("Authorization", "Bearer " + globexToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + globexToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void shouldRefuseReferencesAndAssociationsIntoOtherTenants() throws Exception {
+        Long acmeAccountId = createAccount(acmeToken, "Acme Corp");
+        Long globexAccountId = createAccount(globexToken, "Globex Corp");
+        Long opportunityId = TenantContext.callAs("globex", () -> transactionTemplate.execute(status ->
+                opportunityRepository.save(Opportunity.builder()
+                        .name("Globex renewal")
+                        .stage(OpportunityStage.PROSPECTING)
+                        .amount(BigDecimal.TEN)
+                        .account(accountRepository.getReferenceById(globexAccountId))
+                        .build()).getId()));
+        jdbcTemplate.update("UPDATE opportunities SET account_id = ? WHERE id = ?", acmeAccountId, opportunityId);
+
+        TenantContext.runAs("globex", () -> {
+            assertThrows(ObjectRetrievalFailureException.class, () -> accountRepository.getReferenceById(acmeAccountId));
+            RuntimeException e = assertThrows(RuntimeException.class, () -> transactionTemplate.execute(status ->
+                    opportunityRepository.findById(opportunityId).orElseThrow().getAccount().getAccountName()));
+            assertTrue(NestedExceptionUtils.getMostSpecificCause(e).getMessage().contains("another tenant"), e.toString());
+        });
+    }
+
+    @Test
+    void shouldKeepLeadEmailsUniquePerTenant() throws Exception {
+        LeadDTO lead = LeadDTO.builder()
+                .source(LeadSource.WEB)
+                .company("Shared Co")
+                .contactName("Pat Doe")
+                .email("pat@shared.example")
+                .status(LeadStatus.NEW)
+                .build();
+
+        mockMvc.perform(post("/api/leads").header("Authorization", "Bearer " + acmeToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lead)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/leads").header("Authorization", "Bearer " + globexToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lead)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/leads").header("Authorization", "Bearer " + acmeToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lead)))
+                .andExpect(status().isConflict());
+    }
+
+    private Long createAccount(String token, String name) throws Exception {
+        AccountDTO account = AccountDTO.builder()
+                .accountName(name)
+                .status(AccountStatus.ACTIVE)
+                .build();
+        String response = mockMvc.perform(post("/api/accounts")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, AccountDTO.class).getId();
+    }
+
+    private AppUser user(String username, String tenant, Role role) {
+        return userRepository.findByUsername(username)
+                .orElseGet(() -> userRepository.save(AppUser.builder()
+                        .username(username)
+                        .password("unused")
+                        .email(username + "@example.com")
+                        .tenantId(tenant)
+                        .roles(Set.of(role))
+                        .build()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.esse.crm.config.tenant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TenantLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private TenantLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new TenantLimitingDataSource(target, 2, Duration.ofMillis(10));
+        when(target.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void getConnection_ShouldFail_WhenTenantHoldsAllItsConnections() throws SQLException {
+        TenantContext.runAs("acme", () -> {
+            try {
+                dataSource.getConnection();
+                dataSource.getConnection();
+                assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+
+        TenantContext.runAs("globex", () -> assertDoesNotThrow(() -> dataSource.getConnection()));
+        assertEquals(0, dataSource.availablePermits("acme"));
+        assertEquals(1, dataSource.availablePermits("globex"));
+    }
+
+    @Test
+    void close_ShouldReturnPermitOnce() throws SQLException {
+        Connection acquired = TenantContext.callAs("acme", () -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        acquired.close();
+        acquired.close();
+
+        assertEquals(2, dataSource.availablePermits("acme"));
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_ShouldReleasePermit_WhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        TenantContext.runAs("acme", () -> assertThrows(SQLException.class, dataSource::getConnection));
+
+        assertEquals(2, dataSource.availablePermits("acme"));
+    }
+
+    @Test
+    void getConnection_ShouldNotLimitRootTenant() {
+        TenantContext.runAs(TenantContext.ROOT, () -> {
+            for (int i = 0; i < 5; i++) {
+                assertDoesNotThrow(() -> dataSource.getConnection());
+            }
+        });
+    }
+}
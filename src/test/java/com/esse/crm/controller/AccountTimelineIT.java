@@ -0,0 +1,149 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.esse.crm.entity.Account;
+import com.esse.crm.entity.Activity;
+import com.esse.crm.entity.Contact;
+import com.esse.crm.entity.Opportunity;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.repository.ActivityRepository;
+import com.esse.crm.repository.ArchivedActivityRepository;
+import com.esse.crm.repository.ContactRepository;
+import com.esse.crm.repository.OpportunityRepository;
+import com.esse.crm.service.archive.ActivityArchiver;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = "ACCOUNT_READ")
+public class AccountTimelineIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ArchivedActivityRepository archivedActivityRepository;
+
+    @Autowired
+    private ActivityArchiver activityArchiver;
+
+    private Account account;
+    private Contact contact;
+    private Opportunity opportunity;
+
+    @BeforeEach
+    void setUp() {
+        archivedActivityRepository.deleteAll();
+        activityRepository.deleteAll();
+        opportunityRepository.deleteAll();
+        accountRepository.deleteAll();
+        contactRepository.deleteAll();
+
+        contact = contactRepository.save(Contact.builder()
+                .firstName("Grace").lastName("Hopper").email("grace@timeline.example.com").build());
+        account = accountRepository.save(Account.builder()
+                .accountName("Timeline Corp").status(AccountStatus.ACTIVE).contacts(new ArrayList<>(List.of(contact))).build());
+        opportunity = opportunityRepository.save(Opportunity.builder()
+                .name("Timeline Deal").stage(OpportunityStage.PROSPECTING).amount(BigDecimal.TEN)
+                .closeDate(LocalDate.now().plusMonths(1)).account(account).build());
+    }
+
+    @Test
+    void getTimeline_ShouldMergeAccountContactAndOpportunityActivities_NewestFirst() throws Exception {
+        Account other = accountRepository.save(Account.builder().accountName("Other Corp").status(AccountStatus.ACTIVE).build());
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            expected.add(save(Activity.builder().accountId(account.getId())));
+            expected.add(save(Activity.builder().contactId(contact.getId())));
+            expected.add(save(Activity.builder().opportunityId(opportunity.getId())));
+            save(Activity.builder().accountId(other.getId()));
+        }
+        expected.sort((a, b) -> Long.compare(b, a));
+
+        List<Long> read = new ArrayList<>();
+        String before = null;
+        int pages = 0;
+        do {
+            var request = get("/api/accounts/" + account.getId() + "/timeline").param("size", "5");
+            if (before != null) {
+                request.param("before", before);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> read.add(item.get("id").asLong()));
+            before = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (before != null);
+
+        assertEquals(expected, read);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void getTimeline_ShouldIncludeArchivedActivities() throws Exception {
+        Long archived = save(Activity.builder().contactId(contact.getId())
+                .completed(true).dueAt(LocalDateTime.now().minusYears(2)));
+        Long live = save(Activity.builder().accountId(account.getId()));
+        activityArchiver.archive();
+
+        mockMvc.perform(get("/api/accounts/" + account.getId() + "/timeline"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(live))
+                .andExpect(jsonPath("$.items[1].id").value(archived))
+                .andExpect(jsonPath("$.items[1].archived").value(true))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getTimeline_ShouldRejectMalformedCursor_AndUnknownAccount() throws Exception {
+        mockMvc.perform(get("/api/accounts/" + account.getId() + "/timeline").param("before", "garbage"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/accounts/" + (account.getId() + 1000) + "/timeline"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long save(Activity.ActivityBuilder<?, ?> builder) {
+        return activityRepository.save(builder.type(ActivityType.NOTE).subject("Timeline activity").build()).getId();
+    }
+}
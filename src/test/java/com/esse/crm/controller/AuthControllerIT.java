@@ -14,10 +14,13 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import jakarta.servlet.http.Cookie;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -144,16 +147,23 @@ public class AuthControllerIT {
         Cookie refreshTokenCookie = mvcResult.getResponse().getCookie("refresh_token");
 
         // First refresh - OK
-        mockMvc.perform(post("/api/auth/refresh")
+        Cookie rotatedCookie = mockMvc.perform(post("/api/auth/refresh")
                 .with(org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf())
                 .cookie(refreshTokenCookie))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("refresh_token");
 
         // Second refresh with SAME token - Should fail (Reuse detection)
         mockMvc.perform(post("/api/auth/refresh")
                 .with(org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf())
                 .cookie(refreshTokenCookie))
                 .andExpect(status().isBadRequest());
+
+        // The whole family is revoked, including the token issued by the first refresh
+        mockMvc.perform(post("/api/auth/refresh")
+                .with(org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf())
+                .cookie(rotatedCookie))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -179,6 +189,87 @@ public class AuthControllerIT {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void shouldRateLimitLoginAttemptsPerUsername() throws Exception {
+        LoginRequest loginRequest = LoginRequest.builder()
+                .username("bruteforced")
+                .password("guess")
+                .build();
+        String body = objectMapper.writeValueAsString(loginRequest);
+
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                    .with(remoteAddr("10.0.0." + i))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/auth/login")
+                .with(remoteAddr("10.0.0.99"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void shouldRateLimitLoginAttemptsPerAddress() throws Exception {
+        int attempts = 0;
+        int status;
+        do {
+            status = mockMvc.perform(post("/api/auth/login")
+                    .with(remoteAddr("10.1.0.1"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new LoginRequest("sprayed" + attempts, "guess"))))
+                    .andReturn().getResponse().getStatus();
+            attempts++;
+        } while (status == 401 && attempts < 60);
+
+        // The bucket holds 30 attempts and refills one every two seconds while the loop runs
+        assertEquals(429, status);
+        assertTrue(attempts > 30);
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    @Test
+    void shouldRejectAccessTokenAfterLogout() throws Exception {
+        userRepository.save(AppUser.builder()
+                .username("logoutuser")
+                .password(passwordEncoder.encode("password123"))
+                .email("logout@example.com")
+                .roles(Set.of())
+                .build());
+        String response = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("logoutuser", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String accessToken = objectMapper.readTree(response).get("accessToken").asText();
+
+        // Authenticated, though without permissions
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldTreatInvalidTokenAsUnauthenticated() throws Exception {
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer not.a.token"))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void shouldReturnUnauthorizedWhenAccessingProtectedResourceWithoutToken() throws Exception {
         mockMvc.perform(get("/api/accounts"))
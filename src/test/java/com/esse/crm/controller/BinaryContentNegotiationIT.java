@@ -0,0 +1,118 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.repository.ActivityRepository;
+import com.esse.crm.repository.ContactRepository;
+import com.esse.crm.repository.LeadRepository;
+import com.esse.crm.repository.OpportunityRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = {"ACCOUNT_READ", "ACCOUNT_WRITE"})
+public class BinaryContentNegotiationIT {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @BeforeEach
+    void setUp() {
+        activityRepository.deleteAll();
+        opportunityRepository.deleteAll();
+        accountRepository.deleteAll();
+        contactRepository.deleteAll();
+        leadRepository.deleteAll();
+    }
+
+    @Test
+    void shouldAcceptAndReturnSmile() throws Exception {
+        AccountDTO account = AccountDTO.builder()
+                .accountName("Smile Corp")
+                .industry("Technology")
+                .status(AccountStatus.ACTIVE)
+                .build();
+
+        byte[] body = mockMvc.perform(post("/api/accounts")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(account)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals("Smile Corp", smileMapper.readTree(body).get("accountName").asText());
+    }
+
+    @Test
+    void shouldReturnPagesAsCbor() throws Exception {
+        createAccount("Cbor Corp");
+
+        byte[] body = mockMvc.perform(get("/api/accounts").accept(MediaType.valueOf("application/cbor")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = cborMapper.readTree(body);
+        assertEquals(1, page.get("totalElements").asLong());
+        assertEquals("Cbor Corp", page.get("content").get(0).get("accountName").asText());
+        assertNull(page.get("pageable"));
+    }
+
+    @Test
+    void shouldKeepJsonAsDefault() throws Exception {
+        createAccount("Json Corp");
+
+        mockMvc.perform(get("/api/accounts").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content[0].accountName").value("Json Corp"));
+    }
+
+    private void createAccount(String name) throws Exception {
+        mockMvc.perform(post("/api/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountName\":\"" + name + "\",\"status\":\"ACTIVE\"}"))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,186 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.dto.lead.LeadBulkUpdateDTO;
+import com.esse.crm.dto.lead.LeadSource;
+import com.esse.crm.dto.lead.LeadStatus;
+import com.esse.crm.dto.opportunity.OpportunityBulkUpdateDTO;
+import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.esse.crm.entity.Account;
+import com.esse.crm.entity.Lead;
+import com.esse.crm.entity.Opportunity;
+import com.esse.crm.entity.OutboxEvent;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.repository.ChangeHistoryRepository;
+import com.esse.crm.repository.LeadRepository;
+import com.esse.crm.repository.OpportunityRepository;
+import com.esse.crm.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "application.bulk.chunk-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = {"LEAD_WRITE", "DEAL_WRITE"})
+public class BulkUpdateIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ChangeHistoryRepository historyRepository;
+
+    private final List<Lead> leads = new ArrayList<>();
+    private final List<Opportunity> opportunities = new ArrayList<>();
+    private Account account;
+
+    @AfterEach
+    void tearDown() {
+        opportunityRepository.deleteAllById(opportunities.stream().map(Opportunity::getId).toList());
+        if (account != null) {
+            accountRepository.deleteById(account.getId());
+        }
+        leadRepository.deleteAllById(leads.stream().map(Lead::getId).toList());
+    }
+
+    @Test
+    void bulkUpdateLeads_ShouldReassignAllMatchingLeadsInChunks() throws Exception {
+        List<Lead> daves = List.of(lead("a", "dave", LeadStatus.NEW), lead("b", "dave", LeadStatus.NEW),
+                lead("c", "dave", LeadStatus.QUALIFIED), lead("d", "dave", LeadStatus.NEW));
+        Lead erins = lead("e", "erin", LeadStatus.NEW);
+        Long lastEventBefore = outboxEventRepository.findLastVisibleId(LocalDateTime.now().plusDays(1));
+
+        LeadBulkUpdateDTO request = LeadBulkUpdateDTO.builder()
+                .filter(LeadBulkUpdateDTO.Filter.builder().ownerUser("dave").build())
+                .ownerUser("carol")
+                .build();
+        mockMvc.perform(patch("/api/leads/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(4))
+                .andExpect(jsonPath("$.updated").value(4))
+                .andExpect(jsonPath("$.skipped").value(0));
+
+        for (Lead lead : daves) {
+            Lead updated = leadRepository.findById(lead.getId()).orElseThrow();
+            assertEquals("carol", updated.getOwnerUser());
+            assertEquals(lead.getStatus(), updated.getStatus());
+            assertEquals(1, historyRepository.findByEntityTypeAndEntityIdAndChangedAtBetweenOrderByVersionAsc(
+                    "Lead", lead.getId(), lead.getCreatedAt().minusMinutes(1), lead.getCreatedAt().plusHours(1)).stream()
+                    .filter(entry -> entry.getOperation().name().equals("UPDATE"))
+                    .count());
+        }
+        assertEquals("erin", leadRepository.findById(erins.getId()).orElseThrow().getOwnerUser());
+        List<OutboxEvent> events = outboxEventRepository.findByIdGreaterThanAndOccurredAtLessThanEqualOrderByIdAsc(
+                lastEventBefore != null ? lastEventBefore : 0L, LocalDateTime.now().plusDays(1), Pageable.unpaged());
+        assertEquals(4, events.stream().filter(event -> "ownerUser".equals(event.getChangedFields())).count());
+    }
+
+    @Test
+    void bulkUpdateOpportunities_ShouldKeepFinalStages() throws Exception {
+        account = accountRepository.save(Account.builder().accountName("Bulk Account").status(AccountStatus.ACTIVE).build());
+        Opportunity open = opportunity(account, OpportunityStage.PROPOSAL);
+        Opportunity won = opportunity(account, OpportunityStage.WON);
+
+        OpportunityBulkUpdateDTO request = OpportunityBulkUpdateDTO.builder()
+                .ids(List.of(open.getId(), won.getId(), -1L))
+                .stage(OpportunityStage.NEGOTIATION)
+                .probability(60)
+                .build();
+        mockMvc.perform(patch("/api/opportunities/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.skipped").value(1));
+
+        Opportunity updated = opportunityRepository.findById(open.getId()).orElseThrow();
+        assertEquals(OpportunityStage.NEGOTIATION, updated.getStage());
+        assertEquals(60, updated.getProbability());
+        assertEquals(OpportunityStage.WON, opportunityRepository.findById(won.getId()).orElseThrow().getStage());
+    }
+
+    @Test
+    void bulkUpdate_ShouldRejectRequestsWithoutTargetOrValues() throws Exception {
+        mockMvc.perform(patch("/api/leads/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ownerUser\":\"carol\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/opportunities/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "LEAD_READ")
+    void bulkUpdateLeads_ShouldRequireWritePermission() throws Exception {
+        mockMvc.perform(patch("/api/leads/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1],\"ownerUser\":\"carol\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    private Lead lead(String name, String owner, LeadStatus status) {
+        Lead lead = leadRepository.save(Lead.builder()
+                .source(LeadSource.WEB)
+                .company("Bulk Co " + name)
+                .contactName("Contact " + name)
+                .email(name + "@bulk.example.com")
+                .status(status)
+                .ownerUser(owner)
+                .build());
+        leads.add(lead);
+        return lead;
+    }
+
+    private Opportunity opportunity(Account account, OpportunityStage stage) {
+        Opportunity opportunity = opportunityRepository.save(Opportunity.builder()
+                .name("Bulk deal " + stage)
+                .stage(stage)
+                .amount(new BigDecimal("1000.00"))
+                .closeDate(LocalDate.now().plusMonths(1))
+                .probability(40)
+                .account(account)
+                .build());
+        opportunities.add(opportunity);
+        return opportunity;
+    }
+}
@@ -0,0 +1,99 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "application.change-feed.visibility-delay=0s")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = {"ACCOUNT_READ", "ACCOUNT_WRITE", "CHANGE_FEED_READ"})
+public class ChangeFeedControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldRecordAccountChangesInFeed() throws Exception {
+        long after = outboxEventRepository.findAll().stream().mapToLong(e -> e.getId()).max().orElse(0L);
+
+        AccountDTO account = AccountDTO.builder()
+                .accountName("Feed Corp")
+                .industry("Tech")
+                .status(AccountStatus.ACTIVE)
+                .build();
+        String response = mockMvc.perform(post("/api/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        AccountDTO created = objectMapper.readValue(response, AccountDTO.class);
+
+        created.setIndustry("Finance");
+        mockMvc.perform(put("/api/accounts/" + created.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(created)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/changes").param("after", String.valueOf(after)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(2)))
+                .andExpect(jsonPath("$.events[0].entityType").value("Account"))
+                .andExpect(jsonPath("$.events[0].entityId").value(created.getId().intValue()))
+                .andExpect(jsonPath("$.events[0].operation").value("CREATE"))
+                .andExpect(jsonPath("$.events[0].changedFields", hasItem("accountName")))
+                .andExpect(jsonPath("$.events[1].operation").value("UPDATE"))
+                .andExpect(jsonPath("$.events[1].changedFields", contains("industry")))
+                .andExpect(jsonPath("$.nextAfter", greaterThan((int) after)));
+    }
+
+    @Test
+    void shouldStoreConsumerOffsets() throws Exception {
+        mockMvc.perform(put("/api/changes/offsets/erp")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastEventId\": 42}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/changes/offsets/erp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consumer").value("erp"))
+                .andExpect(jsonPath("$.lastEventId").value(42));
+    }
+
+    @Test
+    void shouldRejectOffsetsOfRelaySinks() throws Exception {
+        for (String sink : new String[]{"log", "in-process", "http"}) {
+            mockMvc.perform(put("/api/changes/offsets/" + sink)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"lastEventId\": 0}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value(containsString("reserved")));
+        }
+    }
+
+    @Test
+    @WithMockUser(authorities = "ACCOUNT_READ")
+    void shouldRejectFeedWithoutPermission() throws Exception {
+        mockMvc.perform(get("/api/changes"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,131 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import com.esse.crm.entity.ChangeHistoryEntry;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.repository.ChangeHistoryRepository;
+import com.esse.crm.service.history.ChangeHistoryService;
+import com.esse.crm.service.history.HistoryCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = {"ACCOUNT_READ", "ACCOUNT_WRITE"})
+public class ChangeHistoryControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ChangeHistoryRepository historyRepository;
+
+    @Autowired
+    private ChangeHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        historyRepository.deleteAll();
+    }
+
+    @Test
+    void shouldRecordFieldChangesPerRecord() throws Exception {
+        AccountDTO account = AccountDTO.builder()
+                .accountName("Initech")
+                .industry("Software")
+                .status(AccountStatus.ACTIVE)
+                .build();
+        String created = mockMvc.perform(post("/api/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(created, AccountDTO.class).getId();
+
+        account.setIndustry("Consulting");
+        mockMvc.perform(put("/api/accounts/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/history/Account/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].version").value(1))
+                .andExpect(jsonPath("$[0].operation").value("CREATE"))
+                .andExpect(jsonPath("$[0].changes[*].field", hasItem("accountName")))
+                .andExpect(jsonPath("$[1].version").value(2))
+                .andExpect(jsonPath("$[1].operation").value("UPDATE"))
+                .andExpect(jsonPath("$[1].changedBy").exists())
+                .andExpect(jsonPath("$[1].changes.length()").value(1))
+                .andExpect(jsonPath("$[1].changes[0].field").value("industry"))
+                .andExpect(jsonPath("$[1].changes[0].oldValue").value("Software"))
+                .andExpect(jsonPath("$[1].changes[0].newValue").value("Consulting"));
+
+        accountRepository.deleteById(id);
+
+        mockMvc.perform(get("/api/history/Account/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[2].version").value(3))
+                .andExpect(jsonPath("$[2].operation").value("DELETE"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ACCOUNT_READ")
+    void shouldRejectHistoryOfUnreadableTypes() throws Exception {
+        mockMvc.perform(get("/api/history/Opportunity/1"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/history/Invoice/1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldPurgeEntriesPastRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ChangeHistoryEntry> saved = historyRepository.saveAll(List.of(
+                entry(1, now.minusYears(3)), entry(2, now.minusYears(3)), entry(3, now.minusDays(1))));
+
+        historyService.purge();
+
+        assertEquals(List.of(saved.get(2).getId()),
+                historyRepository.findAll().stream().map(ChangeHistoryEntry::getId).toList());
+    }
+
+    private static ChangeHistoryEntry entry(int version, LocalDateTime changedAt) {
+        return ChangeHistoryEntry.builder()
+                .entityType("Account")
+                .entityId(999L)
+                .version(version)
+                .operation(ChangeOperation.UPDATE)
+                .changedAt(changedAt)
+                .payload(HistoryCodec.encode(List.of()))
+                .build();
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -51,6 +52,9 @@ public class LeadControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     @Transactional
     void setUp() {
@@ -83,6 +87,30 @@ public class LeadControllerIT {
                 .andExpect(jsonPath("$.email", is("john@example.com")));
     }
 
+    @Test
+    @WithMockUser(authorities = "LEAD_WRITE")
+    void shouldRejectDuplicateEmailIgnoringCase() throws Exception {
+        LeadDTO leadDTO = LeadDTO.builder()
+                .source(LeadSource.WEB)
+                .company("Test Company")
+                .contactName("John Doe")
+                .email("john@example.com")
+                .status(LeadStatus.NEW)
+                .build();
+
+        mockMvc.perform(post("/api/leads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(leadDTO)))
+                .andExpect(status().isCreated());
+
+        leadDTO.setEmail("John@Example.COM");
+
+        mockMvc.perform(post("/api/leads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(leadDTO)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @WithMockUser(authorities = {"LEAD_READ", "LEAD_WRITE"})
     void shouldGetLead() throws Exception {
@@ -174,6 +202,64 @@ public class LeadControllerIT {
                 .andExpect(jsonPath("$.status", is("CONVERTED")));
     }
 
+    @Test
+    @WithMockUser(authorities = "LEAD_WRITE")
+    void shouldConvertLeadIntoAccountWithNormalizedName() throws Exception {
+        com.esse.crm.entity.Account existing = accountRepository.save(com.esse.crm.entity.Account.builder()
+                .accountName("Acme Inc.")
+                .status(com.esse.crm.dto.AccountStatus.ACTIVE)
+                .build());
+
+        LeadDTO leadDTO = LeadDTO.builder()
+                .source(LeadSource.WEB)
+                .company("ACME, Inc")
+                .contactName("Bob Jones")
+                .email("bob@acme.com")
+                .status(LeadStatus.QUALIFIED)
+                .build();
+
+        String response = mockMvc.perform(post("/api/leads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(leadDTO)))
+                .andReturn().getResponse().getContentAsString();
+
+        Long id = objectMapper.readTree(response).get("id").asLong();
+
+        mockMvc.perform(post("/api/leads/{id}/convert", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId", is(existing.getId().intValue())))
+                .andExpect(jsonPath("$.accountMatchStrategy", is("NORMALIZED_NAME")));
+    }
+
+    @Test
+    @WithMockUser(authorities = "LEAD_WRITE")
+    void shouldConvertLeadIntoAccountCreatedElsewhere() throws Exception {
+        // Written past JPA, as another instance would: this instance's key index has never seen it
+        jdbcTemplate.update("INSERT INTO accounts (tenant_id, account_name, account_key, status, created_at, updated_at) " +
+                "VALUES ('default', 'Globex Corporation', 'globex', 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        Long existingId = jdbcTemplate.queryForObject("SELECT id FROM accounts WHERE account_key = 'globex'", Long.class);
+
+        LeadDTO leadDTO = LeadDTO.builder()
+                .source(LeadSource.WEB)
+                .company("GLOBEX corp")
+                .contactName("Hank Scorpio")
+                .email("hank@globex.com")
+                .status(LeadStatus.QUALIFIED)
+                .build();
+
+        String response = mockMvc.perform(post("/api/leads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(leadDTO)))
+                .andReturn().getResponse().getContentAsString();
+
+        Long id = objectMapper.readTree(response).get("id").asLong();
+
+        mockMvc.perform(post("/api/leads/{id}/convert", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId", is(existingId.intValue())))
+                .andExpect(jsonPath("$.accountMatchStrategy", is("NORMALIZED_NAME")));
+    }
+
     @Test
     @WithMockUser(authorities = "LEAD_WRITE")
     void shouldFailConvertingIfNotQualified() throws Exception {
@@ -0,0 +1,174 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.dto.lead.LeadSource;
+import com.esse.crm.dto.lead.LeadStatus;
+import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.esse.crm.entity.Account;
+import com.esse.crm.entity.Contact;
+import com.esse.crm.entity.Lead;
+import com.esse.crm.entity.Opportunity;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.repository.ActivityRepository;
+import com.esse.crm.repository.ContactRepository;
+import com.esse.crm.repository.LeadRepository;
+import com.esse.crm.repository.OpportunityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "application.multi-get.max-ids=5")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = {"ACCOUNT_READ", "CONTACT_READ", "LEAD_READ", "DEAL_READ"})
+public class MultiGetIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @BeforeEach
+    void setUp() {
+        activityRepository.deleteAll();
+        opportunityRepository.deleteAll();
+        accountRepository.deleteAll();
+        contactRepository.deleteAll();
+        leadRepository.deleteAll();
+    }
+
+    @Test
+    void getAccountsByIds_ShouldAnswerInRequestOrder_WithNotFoundMarkers() throws Exception {
+        Contact contact = contactRepository.save(Contact.builder()
+                .firstName("Ada").lastName("Lovelace").email("ada@multi.example.com").build());
+        Account first = saveAccount("First Corp", contact);
+        Account second = saveAccount("Second Corp", contact);
+        long missing = second.getId() + 1000;
+
+        mockMvc.perform(get("/api/accounts")
+                        .param("ids", second.getId() + "," + missing + "," + first.getId() + "," + second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(4)))
+                .andExpect(jsonPath("$.items[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.items[0].found").value(true))
+                .andExpect(jsonPath("$.items[0].data.accountName").value("Second Corp"))
+                .andExpect(jsonPath("$.items[0].data.contacts[0].accountIds",
+                        containsInAnyOrder(first.getId().intValue(), second.getId().intValue())))
+                .andExpect(jsonPath("$.items[1].id").value(missing))
+                .andExpect(jsonPath("$.items[1].found").value(false))
+                .andExpect(jsonPath("$.items[1].data").doesNotExist())
+                .andExpect(jsonPath("$.items[2].data.accountName").value("First Corp"))
+                .andExpect(jsonPath("$.items[3].data.accountName").value("Second Corp"));
+    }
+
+    @Test
+    void getContactsByIds_ShouldAcceptRepeatedIdsParameter() throws Exception {
+        Contact contact = contactRepository.save(Contact.builder()
+                .firstName("Grace").lastName("Hopper").email("grace@multi.example.com").build());
+
+        mockMvc.perform(get("/api/contacts").param("ids", contact.getId().toString()).param("ids", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].data.email").value("grace@multi.example.com"))
+                .andExpect(jsonPath("$.items[1].found").value(false));
+    }
+
+    @Test
+    void multiGet_ShouldServeLongListsOverPost() throws Exception {
+        Lead lead = leadRepository.save(Lead.builder()
+                .source(LeadSource.WEB)
+                .company("Multi Co")
+                .contactName("Alan Turing")
+                .email("alan@multi.example.com")
+                .status(LeadStatus.NEW)
+                .build());
+
+        mockMvc.perform(post("/api/leads/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[0," + lead.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].found").value(false))
+                .andExpect(jsonPath("$.items[1].data.company").value("Multi Co"));
+    }
+
+    @Test
+    void getOpportunitiesByIds_ShouldReturnRequestedDeals() throws Exception {
+        Account account = saveAccount("Deal Corp");
+        Opportunity opportunity = opportunityRepository.save(Opportunity.builder()
+                .name("Big Deal")
+                .stage(OpportunityStage.PROSPECTING)
+                .amount(new BigDecimal("5000.00"))
+                .closeDate(LocalDate.now().plusMonths(1))
+                .account(account)
+                .build());
+
+        mockMvc.perform(get("/api/opportunities").param("ids", opportunity.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].data.name").value("Big Deal"))
+                .andExpect(jsonPath("$.items[0].data.accountId").value(account.getId()));
+    }
+
+    @Test
+    void multiGet_ShouldRejectBatchesOverTheLimit() throws Exception {
+        mockMvc.perform(get("/api/accounts").param("ids", "1,2,3,4,5,6"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/activities/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2,3,4,5,6]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void multiGet_ShouldRejectEmptyRequest() throws Exception {
+        mockMvc.perform(post("/api/contacts/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "LEAD_READ")
+    void multiGet_ShouldRequireReadPermission() throws Exception {
+        mockMvc.perform(get("/api/accounts").param("ids", "1"))
+                .andExpect(status().isForbidden());
+    }
+
+    private Account saveAccount(String name, Contact... contacts) {
+        return accountRepository.save(Account.builder()
+                .accountName(name)
+                .status(AccountStatus.ACTIVE)
+                .contacts(new ArrayList<>(List.of(contacts)))
+                .build());
+    }
+}
@@ -228,4 +228,13 @@ public class OpportunityControllerIT {
                 .andExpect(jsonPath("$.content", hasSize(1)))
                 .andExpect(jsonPath("$.content[0].name", is("Big Deal")));
     }
+
+    @Test
+    @WithMockUser(authorities = "DEAL_READ")
+    void shouldOpenStageEventStream() throws Exception {
+        mockMvc.perform(get("/api/opportunities/stage-events")
+                .param("accountId", String.valueOf(accountId))
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
 }
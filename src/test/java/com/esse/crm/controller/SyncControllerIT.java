@@ -0,0 +1,116 @@
+package com.esse.crm.controller;
+
+import com.esse.crm.dto.AccountDTO;
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.entity.ChangeFeedHorizon;
+import com.esse.crm.repository.ChangeFeedHorizonRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "application.change-feed.visibility-delay=0s")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = {"ROLE_ADMIN", "ACCOUNT_READ", "ACCOUNT_WRITE"})
+public class SyncControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ChangeFeedHorizonRepository horizonRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        horizonRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReturnCollapsedChangesAndTombstonesSinceToken() throws Exception {
+        String token = objectMapper.readTree(mockMvc.perform(get("/api/sync/token"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("nextToken").asText();
+
+        AccountDTO kept = createAccount("Sync Kept");
+        AccountDTO removed = createAccount("Sync Removed");
+        kept.setIndustry("Retail");
+        mockMvc.perform(put("/api/accounts/" + kept.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(kept)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/accounts/" + removed.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/sync").param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].entityId").value(kept.getId().intValue()))
+                .andExpect(jsonPath("$.changes[0].operation").value("UPSERT"))
+                .andExpect(jsonPath("$.changes[0].record.industry").value("Retail"))
+                .andExpect(jsonPath("$.changes[1].entityId").value(removed.getId().intValue()))
+                .andExpect(jsonPath("$.changes[1].operation").value("DELETE"))
+                .andExpect(jsonPath("$.changes[1].record").doesNotExist());
+    }
+
+    @Test
+    void shouldPageByCursor() throws Exception {
+        String token = objectMapper.readTree(mockMvc.perform(get("/api/sync/token"))
+                .andReturn().getResponse().getContentAsString()).get("nextToken").asText();
+        createAccount("Page One");
+        createAccount("Page Two");
+
+        JsonNode first = objectMapper.readTree(mockMvc.perform(get("/api/sync").param("since", token).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.changes[0].record.accountName").value("Page One"))
+                .andReturn().getResponse().getContentAsString());
+
+        mockMvc.perform(get("/api/sync").param("since", first.get("nextToken").asText()).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].record.accountName").value("Page Two"));
+    }
+
+    @Test
+    void shouldRejectExpiredAndMalformedTokens() throws Exception {
+        horizonRepository.save(ChangeFeedHorizon.builder().id(ChangeFeedHorizon.ID).purgedThrough(Long.MAX_VALUE - 1).build());
+
+        mockMvc.perform(get("/api/sync"))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/api/sync").param("since", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "CONTACT_READ")
+    void shouldSkipTypesCallerCannotRead() throws Exception {
+        mockMvc.perform(get("/api/sync").param("types", "Account"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", empty()));
+    }
+
+    private AccountDTO createAccount(String name) throws Exception {
+        AccountDTO account = AccountDTO.builder().accountName(name).status(AccountStatus.ACTIVE).build();
+        String response = mockMvc.perform(post("/api/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(account)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, AccountDTO.class);
+    }
+}
@@ -0,0 +1,205 @@
+package com.esse.crm.repository;
+
+import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.dto.lead.LeadSource;
+import com.esse.crm.dto.lead.LeadStatus;
+import com.esse.crm.dto.opportunity.OpportunityStage;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the common search filter combinations, captures the SQL Hibernate sends and checks with {@code EXPLAIN}
+ * which index the database reads it through. The tables are filled with a few thousand spread-out rows first, as
+ * plans for empty tables say little.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.esse.crm.repository.SearchIndexUsageIT$SqlRecorder")
+@ActiveProfiles("test")
+public class SearchIndexUsageIT {
+
+    private static final Pattern PLAN_INDEX = Pattern.compile("/\\* PUBLIC\\.(\\w+)");
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private static final int ROWS = 5000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Parents are left out; the plans only depend on how the ids are spread
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.update("INSERT INTO activities (tenant_id, type, subject, completed, due_at, " +
+                "account_id, contact_id, lead_id, opportunity_id, created_at, updated_at) " +
+                "SELECT 'default', CASE MOD(X, 3) WHEN 0 THEN 'CALL' WHEN 1 THEN 'EMAIL' ELSE 'MEETING' END, 'Seeded', " +
+                "MOD(X, 2) = 0, DATEADD('HOUR', X, TIMESTAMP '2023-01-01 00:00:00'), " +
+                "CASE WHEN MOD(X, 4) = 0 THEN MOD(X, 500) END, CASE WHEN MOD(X, 4) = 1 THEN MOD(X, 500) END, " +
+                "CASE WHEN MOD(X, 4) = 2 THEN MOD(X, 500) END, CASE WHEN MOD(X, 4) = 3 THEN MOD(X, 500) END, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.update("INSERT INTO opportunities (tenant_id, name, stage, amount, close_date, account_id, created_at, updated_at) " +
+                "SELECT 'default', 'Seeded', CASE MOD(X, 3) WHEN 0 THEN 'PROSPECTING' WHEN 1 THEN 'PROPOSAL' ELSE 'WON' END, X, " +
+                "DATEADD('DAY', MOD(X, 700), DATE '2023-01-01'), MOD(X, 500), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.update("INSERT INTO leads (tenant_id, source, company, contact_name, email, email_key, status, owner_user, " +
+                "created_at, updated_at) " +
+                "SELECT 'default', CASE MOD(X, 3) WHEN 0 THEN 'WEB' WHEN 1 THEN 'REFERRAL' ELSE 'PHONE' END, 'Seeded', 'Seeded', " +
+                "CONCAT('lead', X, '@seeded.example.com'), CONCAT('lead', X, '@seeded.example.com'), " +
+                "CASE MOD(X, 4) WHEN 0 THEN 'NEW' WHEN 1 THEN 'QUALIFIED' WHEN 2 THEN 'DISQUALIFIED' ELSE 'CONVERTED' END, " +
+                "CONCAT('owner', MOD(X, 50)), DATEADD('HOUR', X, TIMESTAMP '2023-01-01 00:00:00'), CURRENT_TIMESTAMP " +
+                "FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM activities WHERE subject = 'Seeded'");
+        jdbcTemplate.update("DELETE FROM opportunities WHERE name = 'Seeded'");
+        jdbcTemplate.update("DELETE FROM leads WHERE company = 'Seeded'");
+    }
+
+    @Test
+    void activitySearch_ShouldUseAnIndexPerFilterCombination() throws SQLException {
+        Pageable byDueAt = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("dueAt"), Sort.Order.desc("id")));
+
+        assertIndex("IDX_ACTIVITIES_ACCOUNT_DUE_AT", () -> activityRepository.search(null, null, null, null, null, null, 1L, null, byDueAt));
+        assertIndex("IDX_ACTIVITIES_CONTACT_DUE_AT", () -> activityRepository.search(null, null, NOW.minusMonths(1), null, null, null, null, 1L, byDueAt));
+        assertIndex("IDX_ACTIVITIES_LEAD_DUE_AT", () -> activityRepository.search(true, null, null, null, 1L, null, null, null, byDueAt));
+        assertIndex("IDX_ACTIVITIES_OPPORTUNITY_DUE_AT", () -> activityRepository.search(null, ActivityType.CALL, null, null, null, 1L, null, null, byDueAt));
+        assertIndex("IDX_ACTIVITIES_COMPLETED", () -> activityRepository.search(false, null, null, NOW, null, null, null, null, byDueAt));
+        assertIndex("IDX_ACTIVITIES_TYPE", () -> activityRepository.search(null, ActivityType.MEETING, NOW.minusDays(7), NOW, null, null, null, null, byDueAt));
+        assertIndex("IDX_ACTIVITIES_DUE_AT", () -> activityRepository.search(null, null, NOW.minusDays(7), NOW, null, null, null, null, byDueAt));
+    }
+
+    @Test
+    void opportunitySearch_ShouldUseAnIndexPerFilterCombination() throws SQLException {
+        Pageable byCloseDate = PageRequest.of(0, 20, Sort.by("closeDate"));
+        LocalDate today = NOW.toLocalDate();
+
+        assertIndex("IDX_OPPORTUNITIES_ACCOUNT_CLOSE_DATE", () -> opportunityRepository.search(null, 1L, null, null, null, null, byCloseDate));
+        assertIndex("IDX_OPPORTUNITIES_STAGE", () -> opportunityRepository.search(OpportunityStage.PROPOSAL, null, today, today.plusMonths(3), null, null, byCloseDate));
+        assertIndex("IDX_OPPORTUNITIES_CLOSE_DATE", () -> opportunityRepository.search(null, null, today, today.plusMonths(3), null, null, byCloseDate));
+    }
+
+    @Test
+    void leadSearch_ShouldUseAnIndexPerFilterCombination() throws SQLException {
+        Pageable newestFirst = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt")));
+
+        assertIndex("IDX_LEADS_STATUS", () -> leadRepository.search(LeadStatus.NEW, null, null, null, newestFirst));
+        assertIndex("IDX_LEADS_OWNER_USER", () -> leadRepository.search(null, "owner7", null, "acme", newestFirst));
+        assertIndex("IDX_LEADS_SOURCE", () -> leadRepository.search(null, null, LeadSource.WEB, null, newestFirst));
+        assertIndex("IDX_LEADS_CREATED_AT", () -> leadRepository.search(null, null, null, null, newestFirst));
+    }
+
+    @Test
+    void search_ShouldRejectSortKeysWithoutAnIndex() {
+        InvalidDataAccessApiUsageException e = assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> opportunityRepository.search(null, 1L, null, null, null, null, PageRequest.of(0, 20, Sort.by("amount"))));
+        assertTrue(e.getMessage().contains("'amount'"), e.getMessage());
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> leadRepository.search(null, null, null, null, PageRequest.of(0, 20, Sort.by("company"))));
+        assertThrows(InvalidDataAccessApiUsageException.class,
+                () -> activityRepository.search(null, null, null, null, null, null, 1L, null, PageRequest.of(0, 20, Sort.by("subject"))));
+    }
+
+    private void assertIndex(String expected, Runnable search) throws SQLException {
+        SqlRecorder.STATEMENTS.clear();
+        SqlRecorder.recording = Thread.currentThread();
+        try {
+            search.run();
+        } finally {
+            SqlRecorder.recording = null;
+        }
+        String sql = SqlRecorder.STATEMENTS.stream()
+                .filter(statement -> statement.startsWith("select") && !statement.contains("count("))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No search query recorded"));
+
+        assertFalse(sql.contains(" is null"), "Absent filters should not reach the query: " + sql);
+        assertEquals(expected, usedIndex(sql), sql);
+    }
+
+    /**
+     * Name of the index the plan reads the table through; H2 annotates the table with it in the plan text.
+     */
+    private String usedIndex(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = explain.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                switch (parameters.getParameterType(i)) {
+                    case Types.BOOLEAN -> explain.setBoolean(i, true);
+                    case Types.TIMESTAMP -> explain.setTimestamp(i, Timestamp.valueOf(NOW));
+                    case Types.DATE -> explain.setDate(i, Date.valueOf(NOW.toLocalDate()));
+                    case Types.BIGINT, Types.INTEGER, Types.DECIMAL -> explain.setLong(i, 1);
+                    // Strings must stay strings: comparing a VARCHAR column with a number cannot use its index
+                    default -> explain.setString(i, "1");
+                }
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                assertTrue(plan.next());
+                Matcher index = PLAN_INDEX.matcher(plan.getString(1));
+                return index.find() ? index.group(1) : plan.getString(1);
+            }
+        }
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        /**
+         * Only this thread's statements are kept; scheduled jobs query concurrently.
+         */
+        static volatile Thread recording;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == recording) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
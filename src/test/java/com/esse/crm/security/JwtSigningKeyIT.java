@@ -0,0 +1,118 @@
+package com.esse.crm.security;
+
+import com.esse.crm.security.dto.LoginRequest;
+import com.esse.crm.security.entity.AppUser;
+import com.esse.crm.security.repository.AppUserRepository;
+import com.esse.crm.security.repository.JwtSigningKeyRepository;
+import com.esse.crm.security.repository.RefreshTokenRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Signing with ES256: keys are published and stored encrypted, and HS256 tokens issued before the switch still work.
+ */
+@SpringBootTest(properties = {
+        "application.security.jwt.signing.algorithm=ES256",
+        "application.security.jwt.signing.key-encryption-key=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY="
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class JwtSigningKeyIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtSigningKeyRepository signingKeyRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${application.security.jwt.secret-key}")
+    private String secretKey;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(AppUser.builder()
+                .username("jwksuser")
+                .password(passwordEncoder.encode("password123"))
+                .email("jwks@example.com")
+                .roles(Set.of())
+                .build());
+    }
+
+    @Test
+    void shouldPublishSigningKeyOfIssuedTokens() throws Exception {
+        String response = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("jwksuser", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String accessToken = objectMapper.readTree(response).get("accessToken").asText();
+        JsonNode jwtHeader = objectMapper.readTree(Base64.getUrlDecoder().decode(accessToken.substring(0, accessToken.indexOf('.'))));
+        assertEquals("ES256", jwtHeader.get("alg").asText());
+
+        mockMvc.perform(get("/api/auth/jwks"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[?(@.kid == '" + jwtHeader.get("kid").asText() + "')].kty").value("EC"))
+                .andExpect(jsonPath("$.keys[?(@.kid == '" + jwtHeader.get("kid").asText() + "')].crv").value("P-256"));
+    }
+
+    @Test
+    void shouldStorePrivateKeysEncrypted() throws Exception {
+        mockMvc.perform(get("/api/auth/jwks")).andExpect(status().isOk());
+
+        assertFalse(signingKeyRepository.findAll().isEmpty());
+        signingKeyRepository.findAll().forEach(key -> assertEquals("v1:", key.getPrivateKey().substring(0, 3)));
+    }
+
+    @Test
+    void shouldAcceptHs256TokensIssuedBeforeTheSwitch() throws Exception {
+        String token = Jwts.builder()
+                .setSubject("jwksuser")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)), SignatureAlgorithm.HS256)
+                .compact();
+
+        // Authenticated, though without permissions
+        mockMvc.perform(get("/api/accounts").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,84 @@
+package com.esse.crm.security;
+
+import com.esse.crm.security.entity.AppUser;
+import com.esse.crm.security.entity.RefreshToken;
+import com.esse.crm.security.repository.AppUserRepository;
+import com.esse.crm.security.repository.RefreshTokenRepository;
+import com.esse.crm.security.service.RefreshTokenPurger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class RefreshTokenPurgerIT {
+
+    @Autowired
+    private RefreshTokenPurger purger;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        user = userRepository.save(AppUser.builder()
+                .username("purge_user")
+                .password("password")
+                .email("purge@example.com")
+                .roles(Set.of())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void purge_ShouldDeleteExpiredAndLongRevokedTokensOnly() {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken valid = token(now.plusDays(3), null);
+        RefreshToken recentlyRevoked = token(now.plusDays(3), now.minusHours(1));
+        token(now.minusMinutes(1), null);
+        token(now.plusDays(1), now.minusDays(8));
+
+        purger.purge();
+
+        assertThat(refreshTokenRepository.findAll())
+                .extracting(RefreshToken::getId)
+                .containsExactlyInAnyOrder(valid.getId(), recentlyRevoked.getId());
+        assertThat(meterRegistry.get("crm.auth.refresh-tokens").gauge().value()).isEqualTo(2.0);
+    }
+
+    private RefreshToken token(LocalDateTime expiresAt, LocalDateTime revokedAt) {
+        return refreshTokenRepository.save(RefreshToken.builder()
+                .tokenId(UUID.randomUUID().toString())
+                .user(user)
+                .tokenHash("hash")
+                .tokenFamily("family")
+                .expiresAt(expiresAt)
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .revokedAt(revokedAt)
+                .build());
+    }
+}
@@ -0,0 +1,134 @@
+package com.esse.crm.security.authz;
+
+import com.esse.crm.security.dto.UserPrincipal;
+import com.esse.crm.security.repository.PermissionRepository;
+import com.esse.crm.security.repository.RoleRepository;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class PermissionAuthorizationManagerTest {
+
+    private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList(
+            "ROLE_USER", "ACCOUNT_READ", "ACCOUNT_WRITE", "CONTACT_READ", "CONTACT_WRITE",
+            "LEAD_READ", "LEAD_WRITE", "DEAL_READ", "DEAL_WRITE");
+
+    private PermissionIndex index;
+    private PermissionAuthorizationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        index = new PermissionIndex(mock(PermissionRepository.class), mock(RoleRepository.class));
+        manager = new PermissionAuthorizationManager(() -> index);
+    }
+
+    @Test
+    void check_ShouldGrant_WhenPrincipalBitsContainPermission() throws Exception {
+        Authentication authentication = compiled(AUTHORITIES);
+
+        assertTrue(manager.check(() -> authentication, invocation("readDeals")).isGranted());
+    }
+
+    @Test
+    void check_ShouldDeny_WhenPrincipalBitsLackPermission() throws Exception {
+        Authentication authentication = compiled(AuthorityUtils.createAuthorityList("DEAL_READ"));
+
+        assertFalse(manager.check(() -> authentication, invocation("writeDeals")).isGranted());
+        assertFalse(manager.check(() -> authentication, invocation("admin")).isGranted());
+    }
+
+    @Test
+    void check_ShouldDeny_WhenPermissionIsIndexedAfterBitsWereCompiled() throws Exception {
+        Authentication authentication = compiled(AuthorityUtils.createAuthorityList("DEAL_READ"));
+        for (int i = 0; i < 100; i++) {
+            index.bitOf("LATER_" + i);
+        }
+
+        assertFalse(manager.check(() -> authentication, invocation("admin")).isGranted());
+    }
+
+    @Test
+    void check_ShouldFallBackToAuthorityNames_WhenPrincipalIsNotCompiled() throws Exception {
+        Authentication authentication = new TestingAuthenticationToken("user", null, "ROLE_ADMIN");
+
+        assertTrue(manager.check(() -> authentication, invocation("admin")).isGranted());
+        assertFalse(manager.check(() -> authentication, invocation("readDeals")).isGranted());
+    }
+
+    @Test
+    void check_ShouldUseTypeAnnotation_WhenMethodHasNone() throws Exception {
+        Authentication authentication = compiled(AUTHORITIES);
+        MethodInvocation invocation = new SimpleMethodInvocation(new TypeSecured(), TypeSecured.class.getMethod("list"));
+
+        assertTrue(manager.check(() -> authentication, invocation).isGranted());
+    }
+
+    @Test
+    void check_ShouldDeny_WhenUnauthenticated() throws Exception {
+        assertFalse(manager.check(() -> null, invocation("readDeals")).isGranted());
+    }
+
+    @Test
+    void compile_ShouldShareTheSet_ForTheSameAuthorities() {
+        long[] first = index.compile(AUTHORITIES);
+
+        assertSame(first, index.compile(AuthorityUtils.createAuthorityList(AUTHORITIES.stream()
+                .map(GrantedAuthority::getAuthority).sorted().toArray(String[]::new))));
+        assertNotSame(first, index.compile(AuthorityUtils.createAuthorityList("DEAL_READ")));
+    }
+
+    @Test
+    void isGranted_ShouldTestTheNamedPermission() {
+        Authentication authentication = compiled(AuthorityUtils.createAuthorityList("DEAL_READ"));
+
+        assertTrue(index.isGranted(authentication, "DEAL_READ"));
+        assertFalse(index.isGranted(authentication, "LEAD_READ"));
+        assertFalse(index.isGranted(null, "DEAL_READ"));
+    }
+
+    private Authentication compiled(List<GrantedAuthority> authorities) {
+        UserPrincipal principal = UserPrincipal.builder()
+                .username("user")
+                .authorities(authorities)
+                .permissionBits(index.compile(authorities))
+                .build();
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private static MethodInvocation invocation(String method) throws NoSuchMethodException {
+        return new SimpleMethodInvocation(new Secured(), Secured.class.getMethod(method));
+    }
+
+    static class Secured {
+
+        @RequiresPermission("DEAL_READ")
+        public void readDeals() {
+        }
+
+        @RequiresPermission("DEAL_WRITE")
+        public void writeDeals() {
+        }
+
+        @RequiresPermission("ROLE_ADMIN")
+        public void admin() {
+        }
+    }
+
+    @RequiresPermission("ACCOUNT_READ")
+    static class TypeSecured {
+
+        public void list() {
+        }
+    }
+}
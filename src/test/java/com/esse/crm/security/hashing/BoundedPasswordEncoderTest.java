@@ -0,0 +1,82 @@
+package com.esse.crm.security.hashing;
+
+import com.esse.crm.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void matches_ShouldDelegateOnExecutorAndRecordTimings() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), executor,
+                Duration.ofSeconds(1), meterRegistry);
+
+        assertTrue(encoder.matches("secret", "secret"));
+        assertFalse(encoder.matches("secret", "other"));
+        assertEquals(2, meterRegistry.get("crm.auth.hashing.compute").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void matches_ShouldShedWorkThatWaitedPastTheDeadline() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), executor,
+                Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("secret", "secret"));
+        Thread.sleep(200);
+        release.countDown();
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ServiceUnavailableException.class, thrown.getCause());
+        assertEquals(1, meterRegistry.get("crm.auth.hashing.shed").tag("reason", "deadline").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void encode_ShouldFailFastWhenQueueIsFull() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), executor,
+                Duration.ofSeconds(1), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> encoder.encode("secret"));
+            assertEquals(1, meterRegistry.get("crm.auth.hashing.shed").tag("reason", "queue-full").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+}
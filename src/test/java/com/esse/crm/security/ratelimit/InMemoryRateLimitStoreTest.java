@@ -0,0 +1,53 @@
+package com.esse.crm.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryRateLimitStoreTest {
+
+    private static final RateLimitProperties.Limit FIVE_PER_MINUTE = new RateLimitProperties.Limit(5, Duration.ofMinutes(1));
+
+    private long now = 1_000_000_000L;
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(() -> now);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstUpToCapacityThenReportWait() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, store.tryAcquire("ip:1.2.3.4", FIVE_PER_MINUTE));
+        }
+
+        long wait = store.tryAcquire("ip:1.2.3.4", FIVE_PER_MINUTE);
+
+        assertEquals(TimeUnit.SECONDS.toNanos(12), wait);
+        assertEquals(0, store.tryAcquire("ip:5.6.7.8", FIVE_PER_MINUTE));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOneTokenPerInterval() {
+        for (int i = 0; i < 5; i++) {
+            store.tryAcquire("user:alice", FIVE_PER_MINUTE);
+        }
+
+        now += TimeUnit.SECONDS.toNanos(12);
+
+        assertEquals(0, store.tryAcquire("user:alice", FIVE_PER_MINUTE));
+        assertTrue(store.tryAcquire("user:alice", FIVE_PER_MINUTE) > 0);
+    }
+
+    @Test
+    void evictIdle_ShouldDropOnlyRefilledBuckets() {
+        store.tryAcquire("user:alice", FIVE_PER_MINUTE);
+        now += TimeUnit.SECONDS.toNanos(6);
+        store.tryAcquire("user:bob", FIVE_PER_MINUTE);
+
+        now += TimeUnit.SECONDS.toNanos(7);
+        store.evictIdle();
+
+        assertEquals(1, store.size());
+    }
+}
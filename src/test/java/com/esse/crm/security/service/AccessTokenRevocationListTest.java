@@ -0,0 +1,74 @@
+package com.esse.crm.security.service;
+
+import com.esse.crm.security.entity.RevokedAccessToken;
+import com.esse.crm.security.repository.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AccessTokenRevocationListTest {
+
+    @Mock
+    private RevokedAccessTokenRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccessTokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new AccessTokenRevocationList(repository, transactionTemplate, meterRegistry,
+                Duration.ofSeconds(30), 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        revocationList.stop();
+    }
+
+    @Test
+    void sync_ShouldPickUpRevocationsFromOtherNodesAndDropExpiredOnes() {
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(token("expiring", LocalDateTime.now().plusNanos(1_000_000))));
+        revocationList.load();
+        when(repository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(token("remote", LocalDateTime.now().plusMinutes(10))));
+
+        revocationList.sync();
+
+        assertTrue(revocationList.isRevoked("remote"));
+        assertFalse(revocationList.isRevoked("expiring"));
+        assertFalse(revocationList.isRevoked("unknown"));
+        assertFalse(revocationList.isRevoked(null));
+    }
+
+    @Test
+    void syncAge_ShouldBeUnknownUntilLoaded() {
+        assertTrue(Double.isNaN(meterRegistry.get("crm.auth.revocation.sync-age").gauge().value()));
+
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        revocationList.load();
+
+        double age = meterRegistry.get("crm.auth.revocation.sync-age").gauge().value();
+        assertTrue(age >= 0 && age < 60, "sync age " + age);
+    }
+
+    private static RevokedAccessToken token(String jti, LocalDateTime expiresAt) {
+        return RevokedAccessToken.builder().jti(jti).expiresAt(expiresAt).revokedAt(LocalDateTime.now()).build();
+    }
+}
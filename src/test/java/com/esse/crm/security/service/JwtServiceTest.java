@@ -0,0 +1,293 @@
+package com.esse.crm.security.service;
+
+import com.esse.crm.security.entity.AppUser;
+import com.esse.crm.security.entity.JwtSigningKey;
+import com.esse.crm.security.entity.Permission;
+import com.esse.crm.security.entity.Role;
+import com.esse.crm.security.repository.JwtSigningKeyRepository;
+import com.esse.crm.security.repository.PermissionRepository;
+import com.esse.crm.security.repository.RoleRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtServiceTest {
+
+    private static final String KEY_ENCRYPTION_KEY = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final SigningKeyCipher CIPHER = SigningKeyCipher.of(KEY_ENCRYPTION_KEY);
+
+    @Mock
+    private PermissionRepository permissionRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private JwtSigningKeyRepository signingKeyRepository;
+
+    private JwtService jwtService;
+    private JwtSigningKey signingKey;
+    private List<Permission> permissions;
+    private Role admin;
+
+    @BeforeEach
+    void setUp() {
+        signingKey = JwtKeyRing.generate(LocalDateTime.now(), CIPHER);
+        lenient().when(signingKeyRepository.findAllByOrderByCreatedAtDesc()).thenReturn(List.of(signingKey));
+        jwtService = jwtService("ES256");
+
+        permissions = new ArrayList<>();
+        for (String name : List.of("ACCOUNT_READ", "ACCOUNT_WRITE", "CONTACT_READ", "CONTACT_WRITE", "DEAL_READ",
+                "DEAL_WRITE", "ACTIVITY_READ", "ACTIVITY_WRITE", "LEAD_READ", "LEAD_WRITE", "USER_MANAGE",
+                "CHANGE_FEED_READ")) {
+            permissions.add(Permission.builder().id((long) permissions.size() + 1).name(name).build());
+        }
+        admin = Role.builder().id(1L).name("ADMIN").permissions(new HashSet<>(permissions)).build();
+    }
+
+    @Test
+    void extractAuthorities_ShouldDecodeCompactClaim() {
+        when(permissionRepository.findAll()).thenReturn(permissions);
+        when(roleRepository.findAll()).thenReturn(List.of(admin));
+
+        String token = jwtService.generateToken(user(admin));
+
+        assertEquals(Set.copyOf(authorityNames()), Set.copyOf(jwtService.extractAuthorities(token)));
+        assertEquals("ROLE_ADMIN", jwtService.extractAuthorities(token).get(0));
+    }
+
+    @Test
+    void extractAuthorities_ShouldLoadDictionaryOnce_WhenIdsAreKnown() {
+        when(permissionRepository.findAll()).thenReturn(permissions);
+        when(roleRepository.findAll()).thenReturn(List.of(admin));
+        String token = jwtService.generateToken(user(admin));
+
+        jwtService.extractAuthorities(token);
+        jwtService.extractAuthorities(token);
+
+        verify(permissionRepository, times(1)).findAll();
+    }
+
+    @Test
+    void extractAuthorities_ShouldReloadDictionary_WhenTokenNamesUnknownId() {
+        Permission added = Permission.builder().id(13L).name("REPORT_READ").build();
+        Role analyst = Role.builder().id(4L).name("ANALYST").permissions(Set.of(added)).build();
+        when(permissionRepository.findAll()).thenReturn(permissions).thenReturn(List.of(added));
+        when(roleRepository.findAll()).thenReturn(List.of(admin)).thenReturn(List.of(analyst));
+        jwtService.extractAuthorities(jwtService.generateToken(user(admin)));
+
+        List<String> authorities = jwtService.extractAuthorities(jwtService.generateToken(user(analyst)));
+
+        assertEquals(List.of("ROLE_ANALYST", "REPORT_READ"), authorities);
+        verify(permissionRepository, times(2)).findAll();
+    }
+
+    @Test
+    void decode_ShouldDropDeletedIds_AndReloadAtMostOncePerInterval() {
+        AuthorityClaimCodec codec = new AuthorityClaimCodec(permissionRepository, roleRepository, Duration.ofHours(1));
+        Role deleted = Role.builder().id(9L).name("FORMER").permissions(Set.of()).build();
+        when(permissionRepository.findAll()).thenReturn(permissions);
+        when(roleRepository.findAll()).thenReturn(List.of(admin));
+        String claim = codec.encode(user(admin, deleted));
+
+        List<String> authorities = codec.decode(claim);
+        codec.decode(claim);
+
+        assertTrue(authorities.contains("ROLE_ADMIN"));
+        assertFalse(authorities.contains("ROLE_FORMER"));
+        verify(permissionRepository, times(1)).findAll();
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void extractAuthorities_ShouldReadLegacyList_WhenTokenHasNoCompactClaim() {
+        String token = jwtService.generateToken(User.withUsername("legacy").password("x")
+                .authorities("ROLE_SALES", "LEAD_READ").build());
+
+        assertEquals(Set.of("ROLE_SALES", "LEAD_READ"), Set.copyOf(jwtService.extractAuthorities(token)));
+        verifyNoInteractions(permissionRepository, roleRepository);
+    }
+
+    @Test
+    void generateToken_ShouldSignWithNewestKey_AndPublishItsPublicKey() {
+        JwtKeyRing keyRing = keyRing(signingKeyRepository);
+        JwtService service = jwtService("ES256", keyRing);
+
+        String token = service.generateToken(User.withUsername("user").password("x").authorities("LEAD_READ").build());
+
+        assertEquals("user", service.extractUsername(token));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) keyRing.jwks().get("keys")).get(0);
+        assertEquals(signingKey.getKid(), jwk.get("kid"));
+        assertEquals("ES256", jwk.get("alg"));
+        assertEquals(43, ((String) jwk.get("x")).length());
+        assertEquals(43, ((String) jwk.get("y")).length());
+    }
+
+    @Test
+    void extractUsername_ShouldReloadKeys_WhenTokenIsSignedByKeyFromAnotherNode() {
+        JwtSigningKey rotated = JwtKeyRing.generate(LocalDateTime.now().plusSeconds(1), CIPHER);
+        JwtService otherNode = jwtService("ES256", keyRing(rotated, signingKey));
+        when(signingKeyRepository.findAllByOrderByCreatedAtDesc())
+                .thenReturn(List.of(signingKey))
+                .thenReturn(List.of(rotated, signingKey));
+        jwtService.extractUsername(jwtService.generateToken(user(admin)));
+        String token = otherNode.generateToken(user(admin));
+
+        assertEquals("admin", jwtService.extractUsername(token));
+    }
+
+    @Test
+    void extractUsername_ShouldReject_WhenSigningKeyIsUnknown() {
+        JwtService foreignService = jwtService("ES256", keyRing(JwtKeyRing.generate(LocalDateTime.now(), CIPHER)));
+        String token = foreignService.generateToken(user(admin));
+
+        assertThrows(SignatureException.class, () -> jwtService.extractUsername(token));
+    }
+
+    @Test
+    void extractUsername_ShouldVerifyWithSecret_WhenConfiguredForHs256() {
+        JwtService hmac = jwtService("HS256");
+
+        String token = hmac.generateToken(user(admin));
+
+        assertEquals("admin", hmac.extractUsername(token));
+        assertEquals("admin", jwtService.extractUsername(token));
+        ReflectionTestUtils.setField(jwtService, "acceptedAlgorithms", Set.of());
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.extractUsername(token));
+    }
+
+    @Test
+    void extractUsername_ShouldAcceptEs256Tokens_AfterSwitchingToHs256() {
+        String token = jwtService.generateToken(user(admin));
+        JwtService hmac = jwtService("HS256", new JwtKeyRing(signingKeyRepository, mock(TransactionTemplate.class),
+                "HS256", "", Duration.ofDays(7), Duration.ofDays(1), Duration.ZERO));
+
+        assertEquals("admin", hmac.extractUsername(token));
+        String issued = hmac.generateToken(user(admin));
+        assertTrue(new String(Base64.getUrlDecoder().decode(issued.substring(0, issued.indexOf('.'))))
+                .contains("\"alg\":\"HS256\""));
+    }
+
+    @Test
+    void generate_ShouldEncryptThePrivateKey() throws Exception {
+        assertTrue(signingKey.getPrivateKey().startsWith(SigningKeyCipher.PREFIX), signingKey.getPrivateKey());
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+        SigningKeyCipher other = SigningKeyCipher.of(Base64.getEncoder().encodeToString(otherKey));
+        assertThrows(GeneralSecurityException.class, () -> other.decrypt(signingKey.getPrivateKey()));
+    }
+
+    @Test
+    void refresh_ShouldEncryptKeysStoredInPlainText() throws Exception {
+        byte[] privateKey = CIPHER.decrypt(signingKey.getPrivateKey());
+        JwtSigningKey plain = JwtSigningKey.builder()
+                .kid(signingKey.getKid())
+                .algorithm("ES256")
+                .publicKey(signingKey.getPublicKey())
+                .privateKey(Base64.getEncoder().encodeToString(privateKey))
+                .createdAt(signingKey.getCreatedAt())
+                .build();
+        when(signingKeyRepository.findAllByOrderByCreatedAtDesc()).thenReturn(List.of(plain)).thenReturn(List.of(signingKey));
+
+        keyRing(signingKeyRepository).refresh();
+
+        assertTrue(plain.getPrivateKey().startsWith(SigningKeyCipher.PREFIX));
+        assertArrayEquals(privateKey, CIPHER.decrypt(plain.getPrivateKey()));
+        verify(signingKeyRepository).saveAll(List.of(plain));
+    }
+
+    @Test
+    void keyRing_ShouldRequireAKeyEncryptionKey_ForEs256() {
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(signingKeyRepository,
+                mock(TransactionTemplate.class), "ES256", "", Duration.ofDays(7), Duration.ofDays(1), Duration.ZERO));
+    }
+
+    @Test
+    void generateToken_ShouldBeSelfContained_ForApplicationUsers() {
+        JwtService hmac = jwtService("HS256");
+        AppUser user = user(admin);
+        user.setTenantId("acme");
+
+        Claims claims = hmac.parse(hmac.generateToken(user));
+
+        assertTrue(hmac.isSelfContained(claims));
+        assertEquals(1L, hmac.extractUserId(claims));
+        assertEquals("acme", hmac.extractTenant(claims));
+        assertFalse(hmac.isSelfContained(hmac.parse(hmac.generateToken(
+                User.withUsername("legacy").password("x").authorities("LEAD_READ").build()))));
+    }
+
+    @Test
+    void generateToken_ShouldKeepTheCompactClaimShorterThanTheList() {
+        JwtService hmac = jwtService("HS256");
+        String compact = hmac.generateToken(user(admin));
+        String list = hmac.generateToken(User.withUsername("admin").password("x")
+                .authorities(authorityNames().toArray(String[]::new)).build());
+
+        assertTrue(compact.length() < list.length(), compact.length() + " >= " + list.length());
+    }
+
+    private JwtService jwtService(String algorithm) {
+        return jwtService(algorithm, keyRing(signingKeyRepository));
+    }
+
+    private JwtService jwtService(String algorithm, JwtKeyRing keyRing) {
+        JwtService service = new JwtService(new AuthorityClaimCodec(permissionRepository, roleRepository, Duration.ZERO), keyRing);
+        ReflectionTestUtils.setField(service, "secretKey",
+                "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(service, "jwtExpiration", 900000L);
+        ReflectionTestUtils.setField(service, "algorithm", algorithm);
+        ReflectionTestUtils.setField(service, "acceptedAlgorithms", Set.of("HS256", "ES256"));
+        return service;
+    }
+
+    private static JwtKeyRing keyRing(JwtSigningKey... keys) {
+        JwtSigningKeyRepository repository = mock(JwtSigningKeyRepository.class);
+        when(repository.findAllByOrderByCreatedAtDesc()).thenReturn(List.of(keys));
+        return keyRing(repository);
+    }
+
+    private static JwtKeyRing keyRing(JwtSigningKeyRepository repository) {
+        return new JwtKeyRing(repository, mock(TransactionTemplate.class), "ES256", KEY_ENCRYPTION_KEY,
+                Duration.ofDays(7), Duration.ofDays(1), Duration.ZERO);
+    }
+
+    private List<String> authorityNames() {
+        List<String> names = new ArrayList<>(List.of("ROLE_ADMIN"));
+        permissions.forEach(permission -> names.add(permission.getName()));
+        return names;
+    }
+
+    private static AppUser user(Role... roles) {
+        return AppUser.builder()
+                .id(1L)
+                .username("admin")
+                .password("x")
+                .email("admin@example.com")
+                .roles(Set.of(roles))
+                .build();
+    }
+}
@@ -1,17 +1,31 @@
 package com.esse.crm.service;
 
+import com.esse.crm.dto.MultiGetResultDTO;
 import com.esse.crm.dto.activity.ActivityDTO;
 import com.esse.crm.dto.activity.ActivityType;
 import com.esse.crm.entity.Activity;
+import com.esse.crm.entity.ArchivedActivity;
 import com.esse.crm.exception.ResourceNotFoundException;
 import com.esse.crm.repository.ActivityRepository;
+import com.esse.crm.repository.ArchivedActivityRepository;
+import com.esse.crm.service.archive.ActivityArchiver;
+import com.esse.crm.service.multiget.MultiGetTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +38,15 @@ public class ActivityServiceTest {
     @Mock
     private ActivityRepository activityRepository;
 
+    @Mock
+    private ArchivedActivityRepository archivedActivityRepository;
+
+    @Mock
+    private ActivityArchiver activityArchiver;
+
+    @Spy
+    private MultiGetTemplate multiGetTemplate = new MultiGetTemplate(500);
+
     @InjectMocks
     private ActivityService activityService;
 
@@ -87,4 +110,73 @@ public class ActivityServiceTest {
         when(activityRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> activityService.getActivity(1L));
     }
+
+    @Test
+    void searchActivities_ShouldSkipArchive_WhenRangeIsRecent() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(7);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(activityArchiver.reaches(null, startDate)).thenReturn(false);
+        when(activityRepository.search(null, null, startDate, null, null, null, 1L, null, pageable))
+                .thenReturn(new PageImpl<>(List.of(activity)));
+
+        Page<ActivityDTO> result = activityService.searchActivities(null, null, startDate, null, null, null, 1L, null, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        verifyNoInteractions(archivedActivityRepository);
+    }
+
+    @Test
+    void searchActivities_ShouldMergeArchive_ByDueDate() {
+        LocalDateTime now = LocalDateTime.now();
+        activity.setDueAt(now.minusDays(1));
+        Activity older = Activity.builder().id(2L).subject("Older").type(ActivityType.CALL).accountId(1L)
+                .dueAt(now.minusYears(3)).build();
+        ArchivedActivity archived = ArchivedActivity.builder().id(3L).subject("Archived").type(ActivityType.CALL)
+                .accountId(1L).completed(true).dueAt(now.minusYears(2)).build();
+        when(activityArchiver.reaches(null, null)).thenReturn(true);
+        when(activityRepository.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(activity, older), PageRequest.of(0, 2), 2));
+        when(archivedActivityRepository.search(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(archived), PageRequest.of(0, 2), 1));
+
+        Page<ActivityDTO> result = activityService.searchActivities(null, null, null, null, null, null, 1L, null, PageRequest.of(0, 2));
+
+        assertEquals(3, result.getTotalElements());
+        assertEquals(List.of(1L, 3L), result.getContent().stream().map(ActivityDTO::getId).toList());
+        assertTrue(result.getContent().get(1).isArchived());
+    }
+
+    @Test
+    void searchActivities_ShouldRejectDeepPages_WhenArchiveIncluded() {
+        when(activityArchiver.reaches(null, null)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> activityService.searchActivities(null, null, null, null,
+                null, null, 1L, null, PageRequest.of(ActivityService.MAX_MERGED_WINDOW / 20, 20)));
+    }
+
+    @Test
+    void searchActivities_ShouldRejectUnknownSortKeys_WhenArchiveIncluded() {
+        when(activityArchiver.reaches(null, null)).thenReturn(true);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> activityService.searchActivities(
+                null, null, null, null, null, null, 1L, null, PageRequest.of(0, 20, Sort.by("nope"))));
+        assertEquals("Cannot sort activities by 'nope'", e.getMessage());
+        verifyNoInteractions(activityRepository, archivedActivityRepository);
+    }
+
+    @Test
+    void getActivitiesByIds_ShouldLookUpArchive_OnlyForIdsMissingFromLiveTable() {
+        ArchivedActivity archived = ArchivedActivity.builder().id(3L).subject("Archived").type(ActivityType.CALL)
+                .accountId(1L).completed(true).build();
+        when(activityRepository.findAllById(Set.of(3L, 1L, 9L))).thenReturn(List.of(activity));
+        when(archivedActivityRepository.findAllById(List.of(3L, 9L))).thenReturn(List.of(archived));
+
+        MultiGetResultDTO<ActivityDTO> result = activityService.getActivitiesByIds(List.of(3L, 1L, 9L, 1L));
+
+        assertEquals(List.of(3L, 1L, 9L, 1L), result.getItems().stream().map(MultiGetResultDTO.Item::getId).toList());
+        assertTrue(result.getItems().get(0).getData().isArchived());
+        assertEquals("Test Subject", result.getItems().get(1).getData().getSubject());
+        assertFalse(result.getItems().get(2).isFound());
+        assertNull(result.getItems().get(2).getData());
+    }
 }
@@ -1,5 +1,6 @@
 package com.esse.crm.service;
 
+import com.esse.crm.dto.lead.AccountMatchStrategy;
 import com.esse.crm.dto.lead.LeadConversionResponseDTO;
 import com.esse.crm.dto.lead.LeadDTO;
 import com.esse.crm.dto.lead.LeadStatus;
@@ -11,7 +12,11 @@ import com.esse.crm.exception.ConflictException;
 import com.esse.crm.exception.ResourceNotFoundException;
 import com.esse.crm.repository.AccountRepository;
 import com.esse.crm.repository.ContactRepository;
+import com.esse.crm.repository.LeadDuplicateCandidateRepository;
 import com.esse.crm.repository.LeadRepository;
+import com.esse.crm.service.dedup.AccountMatcher;
+import com.esse.crm.service.dedup.LeadDuplicateDetector;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,7 +24,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,9 +51,21 @@ public class LeadServiceTest {
     @Mock
     private OpportunityService opportunityService;
 
+    @Mock
+    private LeadDuplicateDetector duplicateDetector;
+
+    @Mock
+    private LeadDuplicateCandidateRepository duplicateCandidateRepository;
+
+    @Mock
+    private AccountMatcher accountMatcher;
+
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private LeadService leadService;
 
@@ -68,29 +90,53 @@ public class LeadServiceTest {
 
     @Test
     void createLead_ShouldReturnDTO_WhenEmailUnique() {
-        when(leadRepository.findByEmail(any())).thenReturn(Optional.empty());
+        when(duplicateDetector.emailExists(any())).thenReturn(false);
         when(modelMapper.map(any(LeadDTO.class), eq(Lead.class))).thenReturn(lead);
-        when(leadRepository.save(any(Lead.class))).thenReturn(lead);
+        when(leadRepository.saveAndFlush(any(Lead.class))).thenReturn(lead);
         when(modelMapper.map(any(Lead.class), eq(LeadDTO.class))).thenReturn(leadDTO);
 
         LeadDTO result = leadService.createLead(leadDTO);
 
         assertNotNull(result);
-        verify(leadRepository).save(any(Lead.class));
+        verify(leadRepository).saveAndFlush(any(Lead.class));
+        verify(duplicateDetector).onLeadSaved(lead, null);
     }
 
     @Test
     void createLead_ShouldThrowConflict_WhenEmailExists() {
-        when(leadRepository.findByEmail(any())).thenReturn(Optional.of(lead));
+        when(duplicateDetector.emailExists(any())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> leadService.createLead(leadDTO));
+        verify(leadRepository, never()).saveAndFlush(any(Lead.class));
+    }
+
+    @Test
+    void createLead_ShouldThrowConflict_WhenUniqueKeyViolated() {
+        when(duplicateDetector.emailExists(any())).thenReturn(false);
+        when(modelMapper.map(any(LeadDTO.class), eq(Lead.class))).thenReturn(lead);
+        when(leadRepository.saveAndFlush(any(Lead.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", new SQLException("Duplicate entry"), "leads.uk_leads_email_key")));
 
         assertThrows(ConflictException.class, () -> leadService.createLead(leadDTO));
+        verify(duplicateDetector, never()).onLeadSaved(any(), any());
+    }
+
+    @Test
+    void createLead_ShouldRethrow_WhenAnotherConstraintIsViolated() {
+        when(duplicateDetector.emailExists(any())).thenReturn(false);
+        when(modelMapper.map(any(LeadDTO.class), eq(Lead.class))).thenReturn(lead);
+        when(leadRepository.saveAndFlush(any(Lead.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Column 'company' cannot be null")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> leadService.createLead(leadDTO));
     }
 
     @Test
     void convertLead_ShouldReturnConversionResponse() {
+        runTransactionsInline();
         lead.setStatus(LeadStatus.QUALIFIED);
         when(leadRepository.findById(1L)).thenReturn(Optional.of(lead));
-        when(accountRepository.findByAccountName(any())).thenReturn(Optional.empty());
+        when(accountMatcher.match(any())).thenReturn(Optional.empty());
         when(accountRepository.save(any(Account.class))).thenReturn(Account.builder().id(10L).build());
         when(contactRepository.findByEmail(any())).thenReturn(Optional.empty());
         when(contactRepository.save(any(Contact.class))).thenReturn(Contact.builder().id(20L).build());
@@ -100,13 +146,60 @@ public class LeadServiceTest {
 
         assertNotNull(result);
         assertEquals(10L, result.getAccountId());
+        assertEquals(AccountMatchStrategy.CREATED, result.getAccountMatchStrategy());
         assertEquals(20L, result.getContactId());
         assertEquals(30L, result.getOpportunityId());
         assertEquals(LeadStatus.CONVERTED, lead.getStatus());
     }
 
+    @Test
+    void convertLead_ShouldReuseAccountMatchedByNormalizedName() {
+        runTransactionsInline();
+        lead.setStatus(LeadStatus.QUALIFIED);
+        Account existing = Account.builder().id(11L).accountName("Test Co.").build();
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(lead));
+        when(accountMatcher.match("Test Co")).thenReturn(Optional.of(AccountMatcher.MatchResult.builder()
+                .account(existing)
+                .strategy(AccountMatchStrategy.NORMALIZED_NAME)
+                .build()));
+        when(contactRepository.findByEmail(any())).thenReturn(Optional.empty());
+        when(contactRepository.save(any(Contact.class))).thenReturn(Contact.builder().id(20L).build());
+        when(opportunityService.createOpportunity(any(OpportunityDTO.class))).thenReturn(OpportunityDTO.builder().id(30L).build());
+
+        LeadConversionResponseDTO result = leadService.convertLead(1L);
+
+        assertEquals(11L, result.getAccountId());
+        assertEquals(AccountMatchStrategy.NORMALIZED_NAME, result.getAccountMatchStrategy());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void convertLead_ShouldRetry_WhenAccountCreationDeadlocks() {
+        runTransactionsInline();
+        lead.setStatus(LeadStatus.QUALIFIED);
+        Account created = Account.builder().id(12L).accountName("Test Co").build();
+        when(leadRepository.findById(1L)).thenReturn(Optional.of(lead));
+        when(accountMatcher.match("Test Co"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(AccountMatcher.MatchResult.builder()
+                        .account(created)
+                        .strategy(AccountMatchStrategy.EXACT_NAME)
+                        .build()));
+        when(accountRepository.save(any(Account.class))).thenThrow(new CannotAcquireLockException("Deadlock found"));
+        when(contactRepository.findByEmail(any())).thenReturn(Optional.empty());
+        when(contactRepository.save(any(Contact.class))).thenReturn(Contact.builder().id(20L).build());
+        when(opportunityService.createOpportunity(any(OpportunityDTO.class))).thenReturn(OpportunityDTO.builder().id(30L).build());
+
+        LeadConversionResponseDTO result = leadService.convertLead(1L);
+
+        assertEquals(12L, result.getAccountId());
+        assertEquals(AccountMatchStrategy.EXACT_NAME, result.getAccountMatchStrategy());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
     @Test
     void convertLead_ShouldThrowException_WhenNotQualified() {
+        runTransactionsInline();
         lead.setStatus(LeadStatus.NEW);
         when(leadRepository.findById(1L)).thenReturn(Optional.of(lead));
 
@@ -119,4 +212,8 @@ public class LeadServiceTest {
 
         assertThrows(ResourceNotFoundException.class, () -> leadService.getLead(1L));
     }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
 }
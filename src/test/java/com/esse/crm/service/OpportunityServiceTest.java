@@ -2,18 +2,21 @@ package com.esse.crm.service;
 
 import com.esse.crm.dto.opportunity.OpportunityDTO;
 import com.esse.crm.dto.opportunity.OpportunityStage;
+import com.esse.crm.dto.opportunity.StageChangeType;
 import com.esse.crm.entity.Account;
 import com.esse.crm.entity.Opportunity;
 import com.esse.crm.exception.ResourceNotFoundException;
 import com.esse.crm.repository.AccountRepository;
 import com.esse.crm.repository.LeadRepository;
 import com.esse.crm.repository.OpportunityRepository;
+import com.esse.crm.service.stagefeed.OpportunityStageChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -25,6 +28,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +43,9 @@ public class OpportunityServiceTest {
     @Mock
     private LeadRepository leadRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private OpportunityService opportunityService;
 
@@ -91,6 +98,22 @@ public class OpportunityServiceTest {
 
         assertNotNull(result);
         assertEquals(OpportunityStage.QUALIFICATION, opportunity.getStage());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof OpportunityStageChangedEvent changed
+                && changed.change().getType() == StageChangeType.STAGE_CHANGED
+                && changed.change().getFromStage() == OpportunityStage.PROSPECTING
+                && changed.change().getToStage() == OpportunityStage.QUALIFICATION));
+    }
+
+    @Test
+    void advanceStage_ShouldPublishWon_WhenClosedWon() {
+        when(opportunityRepository.findById(1L)).thenReturn(Optional.of(opportunity));
+        when(opportunityRepository.save(any(Opportunity.class))).thenReturn(opportunity);
+
+        opportunityService.advanceStage(1L, OpportunityStage.WON);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof OpportunityStageChangedEvent changed
+                && changed.change().getType() == StageChangeType.WON
+                && changed.change().getAccountId().equals(1L)));
     }
 
     @Test
@@ -0,0 +1,150 @@
+package com.esse.crm.service.archive;
+
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.dto.AccountStatus;
+import com.esse.crm.dto.activity.ActivityType;
+import com.esse.crm.entity.Account;
+import com.esse.crm.entity.Activity;
+import com.esse.crm.repository.AccountRepository;
+import com.esse.crm.repository.ActivityRepository;
+import com.esse.crm.repository.ArchivedActivityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = {"ACTIVITY_READ", "ACCOUNT_READ"})
+public class ActivityArchiverIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ActivityArchiver activityArchiver;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ArchivedActivityRepository archivedActivityRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TenantDirectory tenantDirectory;
+
+    private Account account;
+    private Activity recent;
+    private Activity old;
+    private Activity openOld;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        account = accountRepository.save(Account.builder().accountName("Archive Account").status(AccountStatus.ACTIVE).build());
+        recent = activityRepository.save(activity("Recent call", now.minusDays(3), true));
+        old = activityRepository.save(activity("Old call", now.minusYears(2), true));
+        openOld = activityRepository.save(activity("Forgotten task", now.minusYears(2).minusDays(1), false));
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedActivityRepository.deleteAll();
+        activityRepository.deleteAll();
+        accountRepository.delete(account);
+        activityArchiver.refreshHorizon();
+    }
+
+    @Test
+    void reaches_ShouldBeFalse_WhileTheArchiveIsEmpty() {
+        activityArchiver.refreshHorizon();
+        assertFalse(activityArchiver.reaches(null, null));
+
+        activityArchiver.archive();
+
+        assertTrue(activityArchiver.reaches(null, null));
+        assertTrue(activityArchiver.reaches(null, LocalDateTime.now().minusYears(3)));
+        assertFalse(activityArchiver.reaches(null, LocalDateTime.now().minusMonths(1)));
+        assertFalse(activityArchiver.reaches(false, null));
+    }
+
+    @Test
+    void archive_ShouldMoveOnlyCompletedAgedActivities() {
+        activityArchiver.archive();
+
+        assertFalse(activityRepository.existsById(old.getId()));
+        assertTrue(archivedActivityRepository.existsById(old.getId()));
+        assertTrue(activityRepository.existsById(recent.getId()));
+        assertTrue(activityRepository.existsById(openOld.getId()));
+    }
+
+    @Test
+    void archive_ShouldLeaveBacklogToNextRun_WhenTimeBudgetIsSpent() {
+        ActivityArchiver exhausted = new ActivityArchiver(dataSource, transactionTemplate, archivedActivityRepository,
+                tenantDirectory, true, Duration.ofDays(365), 1000, Duration.ZERO);
+
+        exhausted.archive();
+
+        assertTrue(activityRepository.existsById(old.getId()));
+        assertFalse(archivedActivityRepository.existsById(old.getId()));
+    }
+
+    @Test
+    void search_ShouldIncludeArchive_OnlyWhenRangeReachesIt() throws Exception {
+        activityArchiver.archive();
+
+        mockMvc.perform(get("/api/accounts/" + account.getId() + "/activities")
+                        .param("startDate", LocalDateTime.now().minusYears(3).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[0].subject").value("Recent call"))
+                .andExpect(jsonPath("$.content[1].archived").value(true));
+
+        mockMvc.perform(get("/api/accounts/" + account.getId() + "/activities")
+                        .param("startDate", LocalDateTime.now().minusMonths(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        mockMvc.perform(get("/api/activities/" + old.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subject").value("Old call"))
+                .andExpect(jsonPath("$.archived").value(true));
+    }
+
+    private Activity activity(String subject, LocalDateTime dueAt, boolean completed) {
+        return Activity.builder()
+                .type(ActivityType.CALL)
+                .subject(subject)
+                .dueAt(dueAt)
+                .completed(completed)
+                .accountId(account.getId())
+                .build();
+    }
+}
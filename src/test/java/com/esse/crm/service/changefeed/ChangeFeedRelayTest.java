@@ -0,0 +1,174 @@
+package com.esse.crm.service.changefeed;
+
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.config.tenant.TenantProperties;
+import com.esse.crm.dto.changefeed.ChangeEventDTO;
+import com.esse.crm.dto.changefeed.ChangeOperation;
+import com.esse.crm.entity.ChangeFeedHorizon;
+import com.esse.crm.entity.ChangeFeedOffset;
+import com.esse.crm.repository.ChangeFeedHorizonRepository;
+import com.esse.crm.repository.ChangeFeedOffsetRepository;
+import com.esse.crm.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeFeedRelayTest {
+
+    @Mock
+    private ChangeEventSink sink;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private ChangeFeedOffsetRepository offsetRepository;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ChangeFeedHorizonRepository horizonRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ChangeFeedRelay relay;
+    private ChangeFeedOffset offset;
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        relay = new ChangeFeedRelay(List.of(sink), changeFeedService, offsetRepository, outboxEventRepository,
+                horizonRepository, transactionTemplate, new TenantDirectory(new TenantProperties()), 2, 2, Duration.ofDays(7), Duration.ofMinutes(5));
+        offset = ChangeFeedOffset.builder().consumer("test").lastEventId(10L).updatedAt(LocalDateTime.now()).build();
+        lenient().when(sink.name()).thenReturn("test");
+        lenient().when(offsetRepository.findForUpdate("test")).thenReturn(Optional.of(offset));
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            inTransaction.set(true);
+            try {
+                return inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+    }
+
+    @Test
+    void relay_ShouldAdvanceOffset_AfterSuccessfulDelivery() throws Exception {
+        when(changeFeedService.nextBatch(10L, 2)).thenReturn(List.of(event(11L), event(12L)));
+        when(changeFeedService.nextBatch(12L, 2)).thenReturn(List.of(event(13L)));
+
+        relay.relay();
+
+        verify(sink, times(2)).deliver(any());
+        assertEquals(13L, offset.getLastEventId());
+    }
+
+    @Test
+    void relay_ShouldDeliverOutsideTheTransaction_AndReleaseTheClaim() throws Exception {
+        when(changeFeedService.nextBatch(10L, 2)).thenReturn(List.of(event(11L)));
+        doAnswer(inv -> {
+            assertFalse(inTransaction.get(), "no lock is held while the sink delivers");
+            assertNotNull(offset.getClaimedBy());
+            return null;
+        }).when(sink).deliver(any());
+
+        relay.relay();
+
+        assertEquals(11L, offset.getLastEventId());
+        assertNull(offset.getClaimedBy());
+        assertNull(offset.getClaimedUntil());
+    }
+
+    @Test
+    void relay_ShouldKeepOffset_WhenSinkFails() throws Exception {
+        when(changeFeedService.nextBatch(10L, 2)).thenReturn(List.of(event(11L)));
+        doThrow(new RuntimeException("down")).when(sink).deliver(any());
+
+        relay.relay();
+
+        assertEquals(10L, offset.getLastEventId());
+        assertNull(offset.getClaimedBy(), "a failed batch can be retried right away");
+    }
+
+    @Test
+    void relay_ShouldSkipSink_WhileAnotherInstanceHoldsTheClaim() throws Exception {
+        offset.setClaimedBy("other");
+        offset.setClaimedUntil(LocalDateTime.now().plusMinutes(1));
+
+        relay.relay();
+
+        verify(changeFeedService, never()).nextBatch(anyLong(), anyInt());
+        verify(sink, never()).deliver(any());
+    }
+
+    @Test
+    void relay_ShouldTakeOverALapsedClaim_AndLeaveTheOffset_WhenItsOwnClaimLapses() throws Exception {
+        offset.setClaimedBy("crashed");
+        offset.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        when(changeFeedService.nextBatch(10L, 2)).thenReturn(List.of(event(11L), event(12L)));
+        doAnswer(inv -> {
+            offset.setClaimedBy("other");
+            return null;
+        }).when(sink).deliver(any());
+
+        relay.relay();
+
+        verify(sink).deliver(any());
+        assertEquals(10L, offset.getLastEventId());
+        assertEquals("other", offset.getClaimedBy());
+    }
+
+    @Test
+    void purge_ShouldMoveTheHorizon_ThenDeleteInChunks() {
+        when(outboxEventRepository.findLastIdBefore(any())).thenReturn(5L);
+        when(horizonRepository.findById(ChangeFeedHorizon.ID)).thenReturn(Optional.empty());
+        when(outboxEventRepository.findIdsThrough(eq(5L), any()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L, 4L))
+                .thenReturn(List.of(5L));
+
+        relay.purge();
+
+        ArgumentCaptor<ChangeFeedHorizon> horizon = ArgumentCaptor.forClass(ChangeFeedHorizon.class);
+        verify(horizonRepository).save(horizon.capture());
+        assertEquals(5L, horizon.getValue().getPurgedThrough());
+        InOrder inOrder = inOrder(horizonRepository, outboxEventRepository);
+        inOrder.verify(horizonRepository).save(any());
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L, 4L));
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(5L));
+        verify(transactionTemplate, times(4)).execute(any());
+    }
+
+    private ChangeEventDTO event(long sequence) {
+        return ChangeEventDTO.builder()
+                .sequence(sequence)
+                .entityType("Lead")
+                .entityId(1L)
+                .operation(ChangeOperation.UPDATE)
+                .changedFields(List.of("status"))
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.esse.crm.service.dedup;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.config.tenant.TenantDirectory;
+import com.esse.crm.config.tenant.TenantProperties;
+import com.esse.crm.dto.lead.AccountMatchStrategy;
+import com.esse.crm.entity.Account;
+import com.esse.crm.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountMatcherTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AccountMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        matcher = new AccountMatcher(accountRepository, transactionTemplate, new TenantDirectory(new TenantProperties()));
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(accountRepository.findAccountKeys(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(
+                keyView(7L, TenantContext.DEFAULT_TENANT, "acme"),
+                keyView(8L, "other", "globex"))));
+    }
+
+    @Test
+    void match_ShouldResolveWarmedKeyWithoutLockingRead() {
+        Account acme = Account.builder().id(7L).accountName("Acme").accountKey("acme").build();
+        when(accountRepository.findById(7L)).thenReturn(Optional.of(acme));
+
+        matcher.warmUp();
+        Optional<AccountMatcher.MatchResult> result = matcher.match("ACME Inc.");
+
+        assertTrue(result.isPresent());
+        assertSame(acme, result.get().getAccount());
+        assertEquals(AccountMatchStrategy.NORMALIZED_NAME, result.get().getStrategy());
+        verify(accountRepository, never()).lockByAccountKey(any(), any());
+    }
+
+    @Test
+    void match_ShouldNotResolveKeyWarmedForAnotherTenant() {
+        when(accountRepository.lockByAccountKey(eq("globex"), any())).thenReturn(List.of());
+
+        matcher.warmUp();
+
+        assertTrue(matcher.match("Globex").isEmpty());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    private static AccountRepository.AccountKeyView keyView(Long id, String tenantId, String accountKey) {
+        return new AccountRepository.AccountKeyView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTenantId() {
+                return tenantId;
+            }
+
+            @Override
+            public String getAccountKey() {
+                return accountKey;
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.esse.crm.service.history;
+
+import com.esse.crm.dto.opportunity.OpportunityStage;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryCodecTest {
+
+    @Test
+    void decode_ShouldReturnEncodedValues() {
+        LocalDateTime dueAt = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_000_000);
+        List<FieldChange> changes = List.of(
+                new FieldChange("amount", new BigDecimal("1500.00"), new BigDecimal("-20.5")),
+                new FieldChange("stage", OpportunityStage.PROSPECTING, OpportunityStage.WON),
+                new FieldChange("account", 7L, 123_456_789_012L),
+                new FieldChange("completed", false, true),
+                new FieldChange("dueAt", null, dueAt),
+                new FieldChange("closeDate", LocalDate.of(1969, 12, 31), null),
+                new FieldChange("subject", "Call", "Café ☕"),
+                new FieldChange("probability", 0.25, Integer.MIN_VALUE));
+
+        List<FieldChange> decoded = HistoryCodec.decode(HistoryCodec.encode(changes));
+
+        assertEquals(List.of(
+                new FieldChange("amount", new BigDecimal("1500.00"), new BigDecimal("-20.5")),
+                new FieldChange("stage", "PROSPECTING", "WON"),
+                new FieldChange("account", 7L, 123_456_789_012L),
+                new FieldChange("completed", false, true),
+                new FieldChange("dueAt", null, dueAt),
+                new FieldChange("closeDate", LocalDate.of(1969, 12, 31), null),
+                new FieldChange("subject", "Call", "Café ☕"),
+                new FieldChange("probability", 0.25, (long) Integer.MIN_VALUE)), decoded);
+    }
+
+    @Test
+    void encode_ShouldKeepSmallUpdatesCompact() {
+        byte[] payload = HistoryCodec.encode(List.of(new FieldChange("amount", new BigDecimal("1000"), new BigDecimal("1250"))));
+
+        assertTrue(payload.length <= 20, "payload was " + payload.length + " bytes");
+    }
+}
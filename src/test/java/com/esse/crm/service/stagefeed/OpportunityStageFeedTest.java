@@ -0,0 +1,137 @@
+package com.esse.crm.service.stagefeed;
+
+import com.esse.crm.config.tenant.TenantContext;
+import com.esse.crm.dto.opportunity.StageChangeEventDTO;
+import com.esse.crm.dto.opportunity.StageChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpportunityStageFeedTest {
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+    private final ExecutorService sender = Executors.newFixedThreadPool(2);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private OpportunityStageFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new OpportunityStageFeed(dispatcher::execute, sender::execute, new SimpleMeterRegistry(),
+                16, 10, Duration.ofMinutes(1), Duration.ofMillis(50)) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(emitters.isEmpty());
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        feed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        feed.stop();
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    @Test
+    void slowSubscriber_ShouldBeDroppedToResync_WithoutHoldingUpOthers() {
+        feed.subscribe(null, null, null);
+        feed.subscribe(null, null, null);
+        RecordingEmitter slow = emitters.get(0);
+        RecordingEmitter fast = emitters.get(1);
+
+        publish(1L);
+        await(() -> fast.received.contains("stage_changed"));
+        await(() -> slow.blocked.getCount() == 0);
+
+        sleep(100);
+        publish(2L);
+        await(() -> fast.received.size() == 2);
+        await(() -> feed.subscriberCount() == 1);
+        assertTrue(slow.received.isEmpty(), "the slow write is still stuck");
+
+        unblock.countDown();
+        await(() -> slow.received.contains("resync"));
+        assertEquals(List.of("stage_changed", "resync"), slow.received);
+    }
+
+    private void publish(long opportunityId) {
+        feed.onStageChanged(new OpportunityStageChangedEvent(StageChangeEventDTO.builder()
+                .type(StageChangeType.STAGE_CHANGED)
+                .tenantId(TenantContext.DEFAULT_TENANT)
+                .opportunityId(opportunityId)
+                .build()));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met in time");
+            }
+            sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records the event names written to it; a blocking one stalls its first write until the test releases it, as a
+     * client that stopped reading would. Writes are serialised like those of the real emitter.
+     */
+    private class RecordingEmitter extends SseEmitter {
+
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        private final boolean blocking;
+
+        RecordingEmitter(boolean blocking) {
+            this.blocking = blocking;
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            String event = builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining());
+            if (blocking && blocked.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (event.contains("event:")) {
+                received.add(event.substring(event.indexOf("event:") + 6, event.indexOf('\n', event.indexOf("event:"))));
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.esse.crm.service.stagefeed;
+
+import com.esse.crm.dto.opportunity.StageChangeEventDTO;
+import com.esse.crm.dto.opportunity.StageChangeType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StageEventRingBufferTest {
+
+    @Test
+    void read_ShouldReturnEventsInSequence() {
+        StageEventRingBuffer ring = new StageEventRingBuffer(4);
+        ring.append(event(1L));
+        ring.append(event(2L));
+
+        assertEquals(2, ring.head());
+        assertEquals(1L, ring.read(0).getOpportunityId());
+        assertEquals(2L, ring.read(1).getOpportunityId());
+        assertNull(ring.read(2));
+    }
+
+    @Test
+    void read_ShouldReportOverrun_WhenReaderFellALapBehind() {
+        StageEventRingBuffer ring = new StageEventRingBuffer(4);
+        for (long i = 0; i < 6; i++) {
+            ring.append(event(i));
+        }
+
+        assertThrows(StageEventRingBuffer.OverrunException.class, () -> ring.read(1));
+        assertEquals(2L, ring.read(2).getSequence());
+        assertFalse(ring.isAvailable(1));
+        assertTrue(ring.isAvailable(2));
+        assertTrue(ring.isAvailable(6));
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new StageEventRingBuffer(1000));
+    }
+
+    private StageChangeEventDTO event(long opportunityId) {
+        return StageChangeEventDTO.builder()
+                .type(StageChangeType.STAGE_CHANGED)
+                .opportunityId(opportunityId)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.esse.crm.service.timeline;
+
+import com.esse.crm.dto.activity.ActivityDTO;
+import com.esse.crm.dto.activity.TimelinePageDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountTimelineServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Test
+    void merge_ShouldInterleaveStreamsNewestFirst() {
+        List<ActivityStream> streams = List.of(
+                stream(activity(9, 9), activity(4, 4), activity(1, 1)),
+                stream(activity(8, 8), activity(7, 7), activity(2, 2)),
+                stream(activity(6, 6), activity(5, 5), activity(3, 3)));
+
+        TimelinePageDTO page = AccountTimelineService.merge(streams, 5);
+
+        assertEquals(List.of(9L, 8L, 7L, 6L, 5L), ids(page));
+        assertTrue(page.isHasMore());
+        assertEquals(new TimelineCursor(T0.plusMinutes(5), 5), TimelineCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void merge_ShouldBreakTiesOnId_AndReturnSharedActivitiesOnce() {
+        List<ActivityStream> streams = List.of(
+                stream(activity(3, 1), activity(2, 1)),
+                stream(activity(3, 1), activity(1, 1)));
+
+        TimelinePageDTO page = AccountTimelineService.merge(streams, 10);
+
+        assertEquals(List.of(3L, 2L, 1L), ids(page));
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void merge_ShouldContinueFromCursor() {
+        List<ActivityDTO> rows = List.of(activity(5, 5), activity(4, 4), activity(3, 3), activity(2, 2), activity(1, 1));
+
+        TimelinePageDTO first = AccountTimelineService.merge(List.of(stream(rows, null, new AtomicInteger())), 2);
+        TimelinePageDTO second = AccountTimelineService.merge(
+                List.of(stream(rows, TimelineCursor.decode(first.getNextCursor()), new AtomicInteger())), 2);
+
+        assertEquals(List.of(5L, 4L), ids(first));
+        assertEquals(List.of(3L, 2L), ids(second));
+        assertTrue(second.isHasMore());
+    }
+
+    @Test
+    void merge_ShouldOnlyReadWhatThePageNeeds() {
+        List<ActivityDTO> busy = new ArrayList<>();
+        for (int i = 1000; i > 0; i--) {
+            busy.add(activity(i + 1000, i + 1000));
+        }
+        AtomicInteger busyRows = new AtomicInteger();
+        List<ActivityStream> streams = new ArrayList<>();
+        streams.add(stream(busy, null, busyRows));
+        AtomicInteger quietRows = new AtomicInteger();
+        for (int i = 0; i < 300; i++) {
+            streams.add(stream(List.of(activity(i + 1, i + 1)), null, quietRows));
+        }
+
+        TimelinePageDTO page = AccountTimelineService.merge(streams, 50);
+
+        assertEquals(50, page.getItems().size());
+        assertEquals(2000L, page.getItems().get(0).getId());
+        assertTrue(busyRows.get() <= 2 * 51, "read " + busyRows.get() + " rows of the busy stream");
+        assertEquals(300, quietRows.get());
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> TimelineCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TimelineCursor.decode(
+                new TimelineCursor(T0, 1).encode().substring(2)));
+    }
+
+    private static ActivityStream stream(ActivityDTO... activities) {
+        return stream(List.of(activities), null, new AtomicInteger());
+    }
+
+    private static ActivityStream stream(List<ActivityDTO> activities, TimelineCursor start, AtomicInteger rowsRead) {
+        return new ActivityStream((before, limit) -> {
+            List<ActivityDTO> batch = activities.stream()
+                    .filter(activity -> before == null
+                            || AccountTimelineService.NEWEST_FIRST.compare(activity, dto(before)) > 0)
+                    .limit(limit)
+                    .toList();
+            rowsRead.addAndGet(batch.size());
+            return batch;
+        }, start, AccountTimelineService.FIRST_BATCH, 51);
+    }
+
+    private static ActivityDTO dto(TimelineCursor cursor) {
+        return ActivityDTO.builder().id(cursor.id()).createdAt(cursor.createdAt()).build();
+    }
+
+    private static ActivityDTO activity(long id, int minute) {
+        return ActivityDTO.builder().id(id).subject("Activity " + id).createdAt(T0.plusMinutes(minute)).build();
+    }
+
+    private static List<Long> ids(TimelinePageDTO page) {
+        return page.getItems().stream().map(ActivityDTO::getId).toList();
+    }
+}
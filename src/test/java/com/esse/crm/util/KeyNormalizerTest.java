@@ -0,0 +1,35 @@
+package com.esse.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyNormalizerTest {
+
+    @Test
+    void email_ShouldIgnoreCaseAndWhitespace() {
+        assertEquals("john@example.com", KeyNormalizer.email(" John@Example.COM "));
+        assertNull(KeyNormalizer.email("  "));
+    }
+
+    @Test
+    void blockingKey_ShouldIgnoreCaseTokenOrderAndPunctuation() {
+        assertEquals(KeyNormalizer.blockingKey("Acme, Inc.", "Doe, John"),
+                KeyNormalizer.blockingKey("ACME inc", "john doe"));
+        assertNull(KeyNormalizer.blockingKey("Acme", "  "));
+    }
+
+    @Test
+    void accountKey_ShouldStripLegalSuffixes() {
+        assertEquals("acme", KeyNormalizer.accountKey("Acme Inc."));
+        assertEquals("acme", KeyNormalizer.accountKey("ACME, Inc"));
+        assertEquals("acme widgets", KeyNormalizer.accountKey("Acme Widgets Co. Ltd"));
+        assertEquals("societe generale", KeyNormalizer.accountKey("Société Générale S.A."));
+    }
+
+    @Test
+    void accountKey_ShouldKeepNameMadeOnlyOfSuffixes() {
+        assertEquals("company", KeyNormalizer.accountKey("Company"));
+        assertNull(KeyNormalizer.accountKey("..."));
+    }
+}
@@ -0,0 +1,69 @@
+#!/bin/bash
+
+# Time-to-ready of the application, started repeatedly as the executable jar and as each step of the fast-start
+# build (profile, + Spring AOT, + class data sharing). Needs `mvn -Pfast-start package` and a migrated database
+# reachable through the usual MYSQL_* variables; every variant starts against the same database.
+
+usage() {
+    echo "Usage: $0 [runs]"
+    echo "Example: MYSQL_HOST=localhost $0 10"
+    echo "Each variant is started [runs] times (default 5) after one unmeasured start."
+    exit 1
+}
+
+[[ "$1" == "-h" || "$1" == "--help" ]] && usage
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+LOG=$(mktemp)
+
+# The class data sharing archive only maps when the jar is named the way the training start named it
+cd "$(dirname "$0")/target/fast-start" 2>/dev/null || { echo "Build first: mvn -Pfast-start package"; exit 1; }
+EXEC_JAR=$(ls ../crm-app-*-exec.jar 2>/dev/null | head -1)
+FAST_JAR=$(ls crm-app-*.jar 2>/dev/null | head -1)
+ARCHIVE=crm-app.jsa
+
+if [[ -z "$EXEC_JAR" || -z "$FAST_JAR" || ! -f "$ARCHIVE" ]]; then
+    echo "Build first: mvn -Pfast-start package"
+    exit 1
+fi
+
+# Starts the application, waits for the startup timings line and prints the wall-clock milliseconds to it
+start_once() {
+    local begin=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$LOG" 2>&1 &
+    local pid=$!
+    until grep -q "Startup: ready" "$LOG"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            cat "$LOG" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    local ready=$(( ($(date +%s%N) - begin) / 1000000 ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null
+    echo "$ready"
+}
+
+measure() {
+    local label=$1
+    shift
+    start_once "$@" > /dev/null || exit 1
+    local times=() time
+    for ((i = 0; i < RUNS; i++)); do
+        time=$(start_once "$@") || exit 1
+        times+=("$time")
+    done
+    local sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    printf '%-22s median %6d ms  min %6d ms  max %6d ms\n' \
+        "$label" "${sorted[$((RUNS / 2))]}" "${sorted[0]}" "${sorted[$((RUNS - 1))]}"
+}
+
+measure "executable jar" java -jar "$EXEC_JAR"
+measure "fast-start profile" java -jar "$FAST_JAR" --spring.profiles.active=fast-start
+measure "+ AOT" java -Dspring.aot.enabled=true -jar "$FAST_JAR" --spring.profiles.active=fast-start
+measure "+ AOT + CDS" java -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true \
+    -jar "$FAST_JAR" --spring.profiles.active=fast-start
+
+rm -f "$LOG"